@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.util.ArrayList;
+
+import entities.AlphaBetaAI;
+import entities.BoardObject;
+import entities.TigerTile;
+import entities.TranspositionTable;
+
+/*
+ * Measures how many positions per second AlphaBetaAI searches, on mid-game positions
+ * from a real tournament log. Every game in the log that got far enough gives a
+ * position after 20 and after 40 moves. Each position is searched twice: to a fixed
+ * depth of 2 with no deadline, and with iterative deepening in the 700 ms the client
+ * gives a move, to see how deep that gets. The timed searches share one transposition
+ * table, like the searchers of both games of a round would, and its statistics are
+ * printed at the end.
+ *
+ * > java -cp src benchmarks.AlphaBetaBenchmark [log] [budget in ms] [table in MB, 0 for none]
+ */
+public class AlphaBetaBenchmark {
+
+	static final int[] MOVES = {20, 40};
+	static final int FIXED_DEPTH = 2;
+
+	public static void main(String[] args) throws Exception {
+
+		String log = (args.length > 0) ? args[0] : "Log/12-2.txt";
+		int budget = (args.length > 1) ? Integer.parseInt(args[1]) : 700;
+		int megabytes = (args.length > 2) ? Integer.parseInt(args[2]) : 64;
+		TranspositionTable table = (megabytes > 0) ? new TranspositionTable(megabytes) : null;
+
+		ArrayList<ServerLog.LoggedGame> games = ServerLog.read(log);
+		long fixedNodes = 0, fixedTime = 0, timedNodes = 0, timedTime = 0;
+		int positions = 0, depths = 0;
+
+		//one untimed search first so the JIT has compiled it
+		warmUp(games);
+
+		for (ServerLog.LoggedGame game : games) {
+			for (int moves : MOVES) {
+				if (game.moves.size() <= moves) continue;
+
+				BoardObject board = game.replay(moves);
+				TigerTile tile = game.nextTile(board, moves);
+				AlphaBetaAI ai = new AlphaBetaAI(board, 60000);
+				ai.setDepthLimit(FIXED_DEPTH);
+				ai.chooseMove(tile);
+				fixedNodes += ai.getNodes();
+				fixedTime += ai.getSearchTime();
+
+				ai = new AlphaBetaAI(board, budget);
+				ai.setTable(table);
+				ai.chooseMove(tile);
+				timedNodes += ai.getNodes();
+				timedTime += ai.getSearchTime();
+				depths += ai.getDepthReached();
+				positions++;
+
+				System.out.printf("move %2d, %-6s: %8.0f nodes/s, reached depth %d%n",
+						moves, tile.getType(), ai.getNodesPerSecond(), ai.getDepthReached());
+			}
+		}
+
+		System.out.println(positions + " positions from " + log);
+		System.out.printf("depth %d:        %10d nodes %8.0f nodes per second%n", FIXED_DEPTH, fixedNodes, fixedNodes * 1e9 / fixedTime);
+		System.out.printf("%d ms deepening: %10d nodes %8.0f nodes per second, average depth %.2f%n",
+				budget, timedNodes, timedNodes * 1e9 / timedTime, (double) depths / positions);
+		if (table != null) {
+			System.out.printf("table: %d entries, %d probes, %.1f%% hits, %d stores, %d collisions, %d replaced%n",
+					table.getEntries(), table.getProbes(), table.getHitRate() * 100, table.getStores(),
+					table.getCollisions(), table.getReplaced());
+		}
+	}
+
+	static void warmUp(ArrayList<ServerLog.LoggedGame> games) {
+		for (ServerLog.LoggedGame game : games) {
+			if (game.moves.size() <= MOVES[0]) continue;
+			BoardObject board = game.replay(MOVES[0]);
+			AlphaBetaAI ai = new AlphaBetaAI(board, 60000);
+			ai.setDepthLimit(FIXED_DEPTH);
+			ai.chooseMove(game.nextTile(board, MOVES[0]));
+			return;
+		}
+	}
+}
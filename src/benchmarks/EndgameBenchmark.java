@@ -0,0 +1,69 @@
+package benchmarks;
+
+import java.util.ArrayList;
+
+import entities.AlphaBetaAI;
+import entities.BoardObject;
+import entities.TigerTile;
+import entities.TranspositionTable;
+
+/*
+ * Measures how long solving the end of a game takes (see SearchAI.solve()) against
+ * how many tiles are left, to pick SearchAI.ENDGAME_TILES. Every game of the log that
+ * was played to the end is set up with 1, 2, 3... tiles left, and the move is solved
+ * with the time limit as the budget (700 ms, like the client gives a move). For each
+ * count it prints how many of the solves finished in time, how long they took and how
+ * many positions they looked at. It stops at the first count none finish at.
+ *
+ * > java -cp src benchmarks.EndgameBenchmark [log] [max tiles] [limit in ms] [table in MB, 0 for none]
+ */
+public class EndgameBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		String log = (args.length > 0) ? args[0] : "Log/12-2.txt";
+		int maxTiles = (args.length > 1) ? Integer.parseInt(args[1]) : 16;
+		long limit = (args.length > 2) ? Long.parseLong(args[2]) : 700;
+		int megabytes = (args.length > 3) ? Integer.parseInt(args[3]) : 16;
+
+		ArrayList<ServerLog.LoggedGame> games = new ArrayList<ServerLog.LoggedGame>();
+		for (ServerLog.LoggedGame game : ServerLog.read(log)) {
+			if (game.moves.size() == game.tiles.size()) games.add(game);
+		}
+		System.out.println(games.size() + " finished games");
+
+		//one pass first so the JIT has compiled it
+		solve(games, 2, limit, megabytes);
+
+		System.out.println("tiles  solved   mean ms    max ms   mean nodes  (of the solved ones)");
+		for (int tiles = 1; tiles <= maxTiles; tiles++) {
+			double[] result = solve(games, tiles, limit, megabytes);
+			System.out.printf("%5d %4.0f/%-3d %8.1f %9.1f %12.0f%n", tiles, result[0], games.size(), result[1], result[2], result[3]);
+			if (result[0] == 0) break;
+		}
+	}
+
+	//solve the move with this many tiles left in every game, each with a table of its own:
+	//how many were solved, their mean and max time in ms and mean nodes
+	static double[] solve(ArrayList<ServerLog.LoggedGame> games, int tiles, long limit, int megabytes) {
+		int solved = 0;
+		double total = 0, max = 0, nodes = 0;
+		for (ServerLog.LoggedGame game : games) {
+			int moves = game.tiles.size() - tiles;
+			BoardObject board = game.replay(moves);
+			TigerTile tile = game.nextTile(board, moves);
+
+			AlphaBetaAI ai = new AlphaBetaAI(board, limit);
+			if (megabytes > 0) ai.setTable(new TranspositionTable(megabytes));
+			ai.chooseMove(tile);
+			if (!ai.wasSolved()) continue;
+
+			double millis = ai.getSearchTime() / 1e6;
+			solved++;
+			total += millis;
+			max = Math.max(max, millis);
+			nodes += ai.getNodes();
+		}
+		return (solved == 0) ? new double[4] : new double[] {solved, total / solved, max, nodes / solved};
+	}
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import entities.AI;
+import entities.BoardObject;
+import entities.MonteCarloAI;
+import entities.SearchAI;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TilePair;
+import game.Game;
+
+/*
+ * Measures how long the first moves of a game take in a fresh JVM, with and without
+ * the countdown before the match to plan in. A game is set up the way the client
+ * does (the tile list starts Game.plan()), then the countdown is waited out and our
+ * first 5 moves are timed against an opponent placing tiles at random.
+ *
+ * Run it once per countdown, each run needs a JVM of its own to start cold:
+ * > java -cp src benchmarks.FirstMoveLatency 10000
+ * > java -cp src benchmarks.FirstMoveLatency 0
+ */
+public class FirstMoveLatency {
+
+	static final int MOVES = 5;
+	static final long BUDGET = 700;
+
+	public static void main(String[] args) throws Exception {
+
+		long countdown = (args.length > 0) ? Long.parseLong(args[0]) : 10000;
+
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		deck.remove("TLTJ-");
+		Collections.shuffle(deck, new Random(2016));
+
+		Game game = new Game("A");
+		BoardObject board = game.getBoardObject();
+		game.setAI(new MonteCarloAI(board, BUDGET));
+		game.setPlayers("Red", "Blue");
+		game.setStartTile("TLTJ-", 0, 0, 0);
+		game.setTileStack(deck);
+		Thread.sleep(countdown);
+
+		//we move second, so our first move is made with the second tile (see Game.plan())
+		AI ai = game.getAI();
+		Random random = new Random(1);
+		System.out.println(countdown + " ms countdown");
+		for (int move = 0, index = 1; move < MOVES; move++, index += 2) {
+			TigerTile tile = board.getTile(index);
+			long start = System.nanoTime();
+			String result = ai.getMove(tile);
+			double millis = (System.nanoTime() - start) / 1e6;
+			System.out.printf("move %d: %6.1f ms%s  %s%n", move + 1, millis,
+					((SearchAI) ai).wasPlanned() ? " (planned)" : "", result);
+
+			//the opponent places the next tile anywhere it fits
+			TigerTile next = board.getTile(index + 1);
+			if (board.canPlace(next)) {
+				TilePair pair = board.getPossibleSpots().get(random.nextInt(board.getPossibleSpots().size()));
+				long key = pair.getKey();
+				next.setOrientation(pair.getOrientation() / 90);
+				board.place(next, key);
+			}
+			board.confirm();
+		}
+	}
+}
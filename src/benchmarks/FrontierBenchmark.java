@@ -0,0 +1,143 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import entities.Coordinate;
+import entities.CoordinateSet;
+import entities.Location;
+
+/*
+ * Measures the churn on the placement frontier (the available spots) over full 77 tile
+ * games. Every move does what BoardObject does to the frontier: check the spot is in it
+ * (valid), take it out and add its empty neighbors (place), then walk the whole frontier
+ * once (canPlace). The "before" numbers replay the old ArrayList<Location> code, the
+ * "after" numbers use the CoordinateSet.
+ *
+ * > java -cp src benchmarks.FrontierBenchmark [games]
+ */
+public class FrontierBenchmark {
+
+	private static final int TILES = 77;
+
+	public static void main(String[] args) {
+
+		int games = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+
+		//generate the games up front so both sides replay exactly the same moves
+		int[][][] scripts = new int[games][][];
+		Random random = new Random(2016);
+		for (int g = 0; g < games; g++) scripts[g] = script(random);
+
+		//warm up both paths so the JIT has compiled them before measuring
+		for (int i = 0; i < 3; i++) { legacy(scripts); frontier(scripts); }
+
+		long start = System.nanoTime();
+		long legacySum = legacy(scripts);
+		long before = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		long frontierSum = frontier(scripts);
+		long after = System.nanoTime() - start;
+
+		//the old remove loop skips the element after every removal, leaving duplicate spots behind
+		if (legacySum != frontierSum) System.out.println("note: the old frontier kept duplicate spots, so it walked more of them");
+
+		double beforeUs = before / 1e3 / games;
+		double afterUs = after / 1e3 / games;
+		System.out.println(games + " games of " + TILES + " tiles");
+		System.out.printf("before (ArrayList<Location>): %10.3f us per game%n", beforeUs);
+		System.out.printf("after  (CoordinateSet):       %10.3f us per game%n", afterUs);
+		System.out.printf("speedup: %.1fx%n", beforeUs / afterUs);
+	}
+
+	/*
+	 * A script is one row per move: the placed spot followed by its neighbors that were
+	 * still empty at the time, as {x, y, n, nx1, ny1, ...}.
+	 */
+	static int[][] script(Random random) {
+		int[][] moves = new int[TILES][];
+		HashSet<Long> filled = new HashSet<Long>();
+		CoordinateSet open = new CoordinateSet();
+		open.add(0, 0);
+
+		for (int m = 0; m < TILES; m++) {
+			long spot = open.get(random.nextInt(open.size()));
+			int x = Coordinate.getX(spot), y = Coordinate.getY(spot);
+			open.remove(spot);
+			filled.add(spot);
+
+			int[] move = new int[3 + 8];
+			move[0] = x;
+			move[1] = y;
+			int[][] offsets = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+			for (int[] offset : offsets) {
+				long neighbor = Coordinate.pack(x + offset[0], y + offset[1]);
+				if (filled.contains(neighbor)) continue;
+				open.add(neighbor);
+				move[3 + 2 * move[2]] = x + offset[0];
+				move[4 + 2 * move[2]] = y + offset[1];
+				move[2]++;
+			}
+			moves[m] = move;
+		}
+		return moves;
+	}
+
+	//the old BoardObject: linear scans with Location.equals and remove(i) in a forward loop
+	static long legacy(int[][][] scripts) {
+		long sum = 0;
+		for (int[][] moves : scripts) {
+			ArrayList<Location> availableSpots = new ArrayList<Location>();
+			availableSpots.add(new Location(0, 0));
+
+			for (int[] move : moves) {
+				Location coord = new Location(move[0], move[1]);
+
+				//valid()
+				int index = -1;
+				for (int i = 0; i < availableSpots.size(); i++) {
+					if (availableSpots.get(i).equals(coord)) { index = i; break; }
+				}
+				if (index != -1) availableSpots.remove(index);
+
+				//place()
+				Location addnorth = new Location(move[0], move[1] + 1);
+				Location addeast = new Location(move[0] + 1, move[1]);
+				Location addsouth = new Location(move[0], move[1] - 1);
+				Location addwest = new Location(move[0] - 1, move[1]);
+				for (int i = 0; i < availableSpots.size(); i++) {
+					if ((availableSpots.get(i).equals(addnorth)) || (availableSpots.get(i).equals(addwest)) || (availableSpots.get(i).equals(addeast)) || (availableSpots.get(i).equals(addsouth)) || availableSpots.get(i).equals(coord))
+						availableSpots.remove(i);
+				}
+				for (int n = 0; n < move[2]; n++) availableSpots.add(new Location(move[3 + 2 * n], move[4 + 2 * n]));
+
+				//canPlace()
+				for (Location spot : availableSpots) sum += spot.getX() + spot.getY();
+			}
+		}
+		return sum;
+	}
+
+	//the new BoardObject: O(1) set operations and iteration by index
+	static long frontier(int[][][] scripts) {
+		long sum = 0;
+		CoordinateSet availableSpots = new CoordinateSet();
+		for (int[][] moves : scripts) {
+			availableSpots.clear();
+			availableSpots.add(0, 0);
+
+			for (int[] move : moves) {
+
+				//valid() and place()
+				if (availableSpots.contains(move[0], move[1])) availableSpots.remove(move[0], move[1]);
+				for (int n = 0; n < move[2]; n++) availableSpots.add(move[3 + 2 * n], move[4 + 2 * n]);
+
+				//canPlace()
+				for (int i = 0; i < availableSpots.size(); i++) sum += availableSpots.getX(i) + availableSpots.getY(i);
+			}
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,137 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import entities.AI;
+import entities.BoardObject;
+import entities.Coordinate;
+import entities.MonteCarloAI;
+import entities.Player;
+import entities.TigerTile;
+import entities.TileCatalog;
+
+/*
+ * Plays MonteCarloAI against the current AI on one board and reports how often the
+ * search wins and how many playouts per second it runs. The two take turns going
+ * first. Every game uses a seeded deck, so a run can be repeated.
+ *
+ * The driver plays the part of the server: the search's move is placed with its
+ * tiger or crocodile before it's confirmed, and AI's animal is added after, the way
+ * Game.placeTile() does when the server echoes a move. A tile neither can place is
+ * passed.
+ *
+ * If the opponent is given time to think, AI waits that long before each of its moves
+ * and the search ponders meanwhile (see MonteCarloAI.ponder()), the report then says
+ * how many playouts each search got from pondering.
+ *
+ * > java -cp src benchmarks.MonteCarloSelfPlay [games] [budget in ms] [opponent's time in ms]
+ */
+public class MonteCarloSelfPlay {
+
+	public static void main(String[] args) {
+
+		int games = (args.length > 0) ? Integer.parseInt(args[0]) : 10;
+		int budget = (args.length > 1) ? Integer.parseInt(args[1]) : 100;
+		int opponentTime = (args.length > 2) ? Integer.parseInt(args[2]) : 0;
+
+		Random random = new Random(2016);
+		int wins = 0, ties = 0, margin = 0;
+		long playouts = 0, searchTime = 0, inherited = 0;
+		int searches = 0, matched = 0;
+
+		for (int g = 0; g < games; g++) {
+			ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+			deck.remove("TLTJ-");
+			Collections.shuffle(deck, random);
+
+			BoardObject board = new BoardObject();
+			Player[] players = {new Player("Red", true), new Player("Blue", false)};
+			board.setPlayers(players);
+			board.start(new TigerTile("TLTJ-", 0, board.getContext()), 0, 0);
+			ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+			for (String type : deck) tiles.add(new TigerTile(type, 0, board.getContext()));
+			board.setTileDeck(tiles);
+
+			//the search goes first in even games
+			int searcher = g % 2;
+			MonteCarloAI search = new MonteCarloAI(board, budget, g);
+			search.setPondering(opponentTime > 0);
+			AI current = new AI(board, g);
+
+			for (int t = 0; t < tiles.size(); t++) {
+				TigerTile tile = tiles.get(t);
+				int mover = (board.getActivePlayer() == players[0]) ? 0 : 1;
+
+				if (!board.canPlace(tile)) {
+					board.confirm();
+				}
+				else if (mover == searcher) {
+					long start = System.nanoTime();
+					play(board, tile, search.chooseMove(tile));
+					searchTime += System.nanoTime() - start;
+					playouts += search.getPlayouts();
+					inherited += search.getInherited();
+					if (search.getInherited() > 0) matched++;
+					searches++;
+					if (t + 1 < tiles.size()) search.ponder(tiles.get(t + 1));
+				}
+				else {
+					sleep(opponentTime);
+					String move = current.getMove(tile);
+					addAnimal(board, players[mover], players[1 - mover], move);
+				}
+			}
+
+			search.stopPondering();
+			board.endScores();
+			int difference = players[searcher].getScore() - players[1 - searcher].getScore();
+			if (difference > 0) wins++;
+			else if (difference == 0) ties++;
+			margin += difference;
+
+			System.out.println("game " + g + ": search " + players[searcher].getScore()
+					+ ", AI " + players[1 - searcher].getScore() + (searcher == 0 ? " (search first)" : " (AI first)"));
+		}
+
+		System.out.printf("search won %d of %d games (%d tied), win rate %.1f%%, average margin %.1f%n",
+				wins, games, ties, 100.0 * (wins + 0.5 * ties) / games, (double) margin / games);
+		System.out.printf("%d ms budget, %.0f playouts per second%n", budget, playouts * 1e9 / searchTime);
+		if (opponentTime > 0) {
+			System.out.printf("%d ms opponent, the reply was pondered for %d of %d searches, %.0f playouts each from pondering, %.0f of its own%n",
+					opponentTime, matched, searches, (double) inherited / Math.max(matched, 1), (double) playouts / searches);
+		}
+	}
+
+	//the opponent thinking
+	static void sleep(int millis) {
+		if (millis <= 0) return;
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	//place a move from the search, "PLACE <tile> AT <x> <y> <orientation> <animal> [zone]", and confirm it
+	static void play(BoardObject board, TigerTile tile, String move) {
+		String[] tokens = move.split(" ");
+		tile.setOrientation(Integer.parseInt(tokens[5]) / 90);
+		board.place(tile, Coordinate.fromServer(tokens[3], tokens[4]));
+		if (tokens[6].equals("TIGER")) board.placeTiger(Integer.parseInt(tokens[7]));
+		else if (tokens[6].equals("CROCODILE")) board.placeCrocodile();
+		board.confirm();
+	}
+
+	//AI has already placed and confirmed its tile, its animal goes on the way Game.placeTile() puts it
+	static void addAnimal(BoardObject board, Player mover, Player next, String move) {
+		String[] tokens = move.split(" ");
+		if (tokens.length < 7) return;
+
+		board.switchToActivePlayer(mover);
+		if (tokens[6].equals("TIGER")) board.placeTiger(Integer.parseInt(tokens[7]));
+		else if (tokens[6].equals("CROCODILE")) board.placeCrocodile();
+		board.switchToActivePlayer(next);
+	}
+}
@@ -0,0 +1,109 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import entities.BoardObject;
+import entities.Location;
+import entities.Player;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TilePair;
+
+/*
+ * Measures the memory allocated per move over full games played on a BoardObject.
+ * Every move does what the AI does: find the candidate placements (canPlace), look
+ * at each of them, then place the chosen one and confirm. The "before" numbers go
+ * through Locations the way the code used to (a Location per candidate and one for
+ * the placement), the "after" numbers use the packed coordinates.
+ *
+ * The tiles for a game are made before it's measured, so only the moves are counted.
+ *
+ * > java -cp src benchmarks.MoveAllocationBenchmark [games]
+ */
+public class MoveAllocationBenchmark {
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	static long sink; //keeps the JIT from dropping the loops over the candidates
+
+	public static void main(String[] args) {
+
+		int games = (args.length > 0) ? Integer.parseInt(args[0]) : 500;
+
+		//generate the games up front so both sides replay exactly the same moves
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		String[][] decks = new String[games][];
+		int[][] choices = new int[games][];
+		Random random = new Random(2016);
+		for (int g = 0; g < games; g++) {
+			Collections.shuffle(deck, random);
+			decks[g] = deck.toArray(new String[0]);
+			choices[g] = new int[deck.size()];
+			for (int m = 0; m < deck.size(); m++) choices[g][m] = random.nextInt(Integer.MAX_VALUE);
+		}
+
+		//warm up both paths so the JIT has compiled them before measuring
+		for (int i = 0; i < 3; i++) { play(decks, choices, false, new long[3]); play(decks, choices, true, new long[3]); }
+
+		long[] before = new long[3];
+		play(decks, choices, false, before);
+		long[] after = new long[3];
+		play(decks, choices, true, after);
+
+		if (before[2] != after[2]) System.out.println("Error: the two sides didn't play the same games");
+
+		System.out.println(games + " games, " + after[2] + " moves");
+		System.out.printf("before (Location):       %10.1f bytes per move %10.3f us per move%n", (double) before[0] / before[2], before[1] / 1e3 / before[2]);
+		System.out.printf("after  (packed longs):   %10.1f bytes per move %10.3f us per move%n", (double) after[0] / after[2], after[1] / 1e3 / after[2]);
+		System.out.printf("allocation cut by %.1f%%%n", 100.0 * (before[0] - after[0]) / before[0]);
+	}
+
+	/*
+	 * Plays every game and adds up {bytes allocated, nanoseconds, moves} into totals.
+	 */
+	static void play(String[][] decks, int[][] choices, boolean packed, long[] totals) {
+		long thread = Thread.currentThread().getId();
+
+		for (int g = 0; g < decks.length; g++) {
+			BoardObject board = new BoardObject();
+			Player[] players = {new Player("Red", true), new Player("Blue", false)};
+			board.setPlayers(players);
+			board.start(new TigerTile("TLTJ-", 0), 0, 0);
+
+			TigerTile[] tiles = new TigerTile[decks[g].length];
+			for (int m = 0; m < tiles.length; m++) tiles[m] = new TigerTile(decks[g][m], 0);
+
+			long bytes = THREADS.getThreadAllocatedBytes(thread);
+			long start = System.nanoTime();
+
+			for (int m = 0; m < tiles.length; m++) {
+				TigerTile tile = tiles[m];
+				if (!board.canPlace(tile)) continue;
+				ArrayList<TilePair> pairs = board.getPossibleSpots();
+
+				if (packed) {
+					for (int i = 0; i < pairs.size(); i++) sink += pairs.get(i).getKey();
+					TilePair pair = pairs.get(choices[g][m] % pairs.size());
+					tile.setOrientation(pair.getOrientation() / 90);
+					board.place(tile, pair.getKey());
+				}
+				else {
+					for (int i = 0; i < pairs.size(); i++) sink += pairs.get(i).getLocation().getX();
+					TilePair pair = pairs.get(choices[g][m] % pairs.size());
+					Location spot = pair.getLocation();
+					tile.setOrientation(pair.getOrientation() / 90);
+					board.place(tile, new Location(spot.getX(), spot.getY()));
+				}
+				board.confirm();
+				totals[2]++;
+			}
+
+			totals[1] += System.nanoTime() - start;
+			totals[0] += THREADS.getThreadAllocatedBytes(thread) - bytes;
+		}
+	}
+}
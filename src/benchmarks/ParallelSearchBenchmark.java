@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import entities.BoardObject;
+import entities.ParallelAlphaBetaAI;
+import entities.TigerTile;
+
+/*
+ * Measures how ParallelAlphaBetaAI speeds up with more threads. The positions are the
+ * ones AlphaBetaBenchmark uses (after 20 and 40 moves of every game in a tournament
+ * log). Each is searched to a fixed depth with 1 thread, then 2, 4 and so on up to
+ * the number of cores, and the total time is compared with the time for 1 thread.
+ *
+ * > java -cp src benchmarks.ParallelSearchBenchmark [log] [depth] [max threads]
+ */
+public class ParallelSearchBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		String log = (args.length > 0) ? args[0] : "Log/12-2.txt";
+		int depth = (args.length > 1) ? Integer.parseInt(args[1]) : 2;
+		int maxThreads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		ArrayList<ServerLog.LoggedGame> games = ServerLog.read(log);
+		System.out.println(Runtime.getRuntime().availableProcessors() + " cores, depth " + depth);
+
+		//one untimed pass first so the JIT has compiled it
+		run(games, depth, 1);
+
+		double single = 0;
+		for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+			long start = System.nanoTime();
+			long nodes = run(games, depth, threads);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			if (threads == 1) single = seconds;
+
+			System.out.printf("%2d threads: %6.2f s %10d nodes %9.0f nodes/s, speedup %.2f%n",
+					threads, seconds, nodes, nodes / seconds, single / seconds);
+			if (threads >= maxThreads) break;
+		}
+	}
+
+	//search every position with a pool of the given size, the total nodes searched
+	static long run(ArrayList<ServerLog.LoggedGame> games, int depth, int threads) {
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		long nodes = 0;
+		for (ServerLog.LoggedGame game : games) {
+			for (int moves : AlphaBetaBenchmark.MOVES) {
+				if (game.moves.size() <= moves) continue;
+
+				BoardObject board = game.replay(moves);
+				TigerTile tile = game.nextTile(board, moves);
+				ParallelAlphaBetaAI ai = new ParallelAlphaBetaAI(board, 600000, pool);
+				ai.setDepthLimit(depth);
+				ai.chooseMove(tile);
+				nodes += ai.getNodes();
+			}
+		}
+		pool.shutdown();
+		return nodes;
+	}
+}
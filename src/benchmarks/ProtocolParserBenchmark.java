@@ -0,0 +1,153 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+
+import network.MessageParser;
+
+/*
+ * Measures how fast the server's lines are decoded, on every line the server sent in
+ * a tournament log. "before" does what the client used to: make the line a String,
+ * split it on spaces and parseInt the fields it uses. "after" is MessageParser, on the
+ * line's bytes. Each side goes over all the lines a number of times; the time, lines
+ * per second and bytes allocated per line are printed for both.
+ *
+ * > java -cp src benchmarks.ProtocolParserBenchmark [log] [passes]
+ */
+public class ProtocolParserBenchmark {
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	static long sink; //keeps the JIT from dropping what's parsed
+
+	public static void main(String[] args) throws IOException {
+
+		String log = (args.length > 0) ? args[0] : "Log/12-2.txt";
+		int passes = (args.length > 1) ? Integer.parseInt(args[1]) : 50;
+
+		//the server's lines, as the bytes the client reads
+		ArrayList<byte[]> lines = new ArrayList<byte[]>();
+		long bytes = 0;
+		try (BufferedReader in = new BufferedReader(new FileReader(log))) {
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				if (!line.startsWith("Server: ")) continue;
+				lines.add(line.substring(8).getBytes(StandardCharsets.US_ASCII));
+				bytes += line.length() - 8;
+			}
+		}
+		byte[][] server = lines.toArray(new byte[0][]);
+		MessageParser parser = new MessageParser();
+
+		int errors = 0;
+		for (byte[] line : server) {
+			try {
+				parser.parse(line, line.length);
+			} catch (ParseException e) {
+				errors++;
+			}
+		}
+		System.out.println(server.length + " lines from the server, " + bytes / 1024 + " KB, " + errors + " the parser rejects");
+
+		//warm up both so the JIT has compiled them before measuring
+		for (int i = 0; i < 5; i++) {
+			split(server, new long[2]);
+			parse(server, parser, new long[2]);
+		}
+
+		long[] before = new long[2];
+		long[] after = new long[2];
+		for (int i = 0; i < passes; i++) {
+			split(server, before);
+			parse(server, parser, after);
+		}
+
+		long total = (long) server.length * passes;
+		print("before (String.split):", before, total, bytes * passes);
+		print("after  (MessageParser):", after, total, bytes * passes);
+	}
+
+	private static void print(String name, long[] totals, long lines, long bytes) {
+		System.out.printf("%-24s %8.1f ns/line %10.0f lines/s %8.1f MB/s %8.1f bytes allocated/line%n", name,
+				(double) totals[1] / lines, lines * 1e9 / totals[1], bytes * 1e3 / totals[1], (double) totals[0] / lines);
+	}
+
+	/*
+	 * Decodes every line the way the client used to, adding {bytes allocated, nanoseconds} into totals
+	 */
+	static void split(byte[][] server, long[] totals) {
+		long thread = Thread.currentThread().getId();
+		long allocated = THREADS.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+
+		for (byte[] bytes : server) {
+			String line = new String(bytes, StandardCharsets.US_ASCII);
+			String[] tokenizedMessage = line.split("\\s+");
+			switch (tokenizedMessage[0]) {
+			case "STARTING":
+				sink += Integer.parseInt(tokenizedMessage[5]) + Integer.parseInt(tokenizedMessage[6])
+						+ Integer.parseInt(tokenizedMessage[7]);
+				break;
+			case "THE":
+				sink += Integer.parseInt(tokenizedMessage[2]);
+				break;
+			case "MAKE":
+				sink += tokenizedMessage[5].length() + tokenizedMessage[12].length();
+				break;
+			case "GAME":
+				if (tokenizedMessage[2].equals("OVER") || tokenizedMessage[6].equals("FORFEITED:")) break;
+				if (tokenizedMessage[6].equals("PLACED")) {
+					sink += Integer.parseInt(tokenizedMessage[9]) + Integer.parseInt(tokenizedMessage[10])
+							+ Integer.parseInt(tokenizedMessage[11]);
+					if (tokenizedMessage[12].equals("TIGER")) sink += Integer.parseInt(tokenizedMessage[13]);
+				}
+				break;
+			default:
+				sink += tokenizedMessage.length;
+			}
+		}
+
+		totals[1] += System.nanoTime() - start;
+		totals[0] += THREADS.getThreadAllocatedBytes(thread) - allocated;
+	}
+
+	/*
+	 * Decodes every line with the parser, adding {bytes allocated, nanoseconds} into totals
+	 */
+	static void parse(byte[][] server, MessageParser parser, long[] totals) {
+		long thread = Thread.currentThread().getId();
+		long allocated = THREADS.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+
+		for (byte[] line : server) {
+			try {
+				switch (parser.parse(line, line.length)) {
+				case START:
+					sink += parser.startTile.x + parser.startTile.y + parser.startTile.orientation;
+					break;
+				case TILES:
+					sink += parser.tiles.count;
+					break;
+				case MAKE:
+					sink += parser.request.gameID.length() + parser.request.tile.length();
+					break;
+				case PLACED:
+					sink += parser.move.x + parser.move.y + parser.move.orientation + parser.move.zone;
+					break;
+				default:
+					sink++;
+				}
+			} catch (ParseException e) {
+				sink--;
+			}
+		}
+
+		totals[1] += System.nanoTime() - start;
+		totals[0] += THREADS.getThreadAllocatedBytes(thread) - allocated;
+	}
+}
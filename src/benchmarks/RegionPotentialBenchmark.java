@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import entities.Animal;
+import entities.GameContext;
+import entities.LakeRegion;
+import entities.LakeTerrain;
+import entities.Region;
+import entities.TrailRegion;
+import entities.TrailTerrain;
+
+/*
+ * Measures what asking a region for its potential costs (Region.getPotential(), what
+ * the AIs and the board score regions by) against how big the region is. A lake and a
+ * trail are grown one terrain at a time, every other one added to the region and the
+ * rest merged in as regions of their own, each with an animal on it. Each time they've
+ * doubled in size the potential is asked for over and over. The regions keep counts of
+ * their tiles and animals, so the time per call should stay flat however big they get.
+ *
+ * > java -cp src benchmarks.RegionPotentialBenchmark [max terrains] [calls per size]
+ */
+public class RegionPotentialBenchmark {
+
+	static final char[] ANIMALS = {'B', 'D', 'P', 'C'};
+
+	static int sink; //so the calls aren't optimized away
+	static volatile Region asked; //read on every call, so the call can't be taken out of the loop
+
+	public static void main(String[] args) {
+
+		int maxTerrains = (args.length > 0) ? Integer.parseInt(args[0]) : 4096;
+		int calls = (args.length > 1) ? Integer.parseInt(args[1]) : 1000000;
+
+		//one pass first so the JIT has compiled it
+		grow(maxTerrains, calls / 10, false);
+		grow(maxTerrains, calls, true);
+	}
+
+	//grow a lake and a trail to maxTerrains, timing the potential each time they've doubled
+	static void grow(int maxTerrains, int calls, boolean print) {
+		GameContext context = new GameContext();
+		Region lake = null, trail = null;
+		if (print) System.out.println("terrains   lake ns/call  trail ns/call   lake potential");
+
+		for (int i = 1; i <= maxTerrains; i++) {
+			Animal animal = new Animal(ANIMALS[i % ANIMALS.length]);
+			LakeTerrain lakeTerrain = new LakeTerrain(new ArrayList<Integer>(Arrays.asList(1, 3)), false, animal, context);
+			TrailTerrain trailTerrain = new TrailTerrain(new ArrayList<Integer>(Arrays.asList(1, 7)), false, animal, context);
+			lakeTerrain.setTileID(i);
+			trailTerrain.setTileID(i);
+
+			if (lake == null) {
+				lake = new LakeRegion(lakeTerrain);
+				trail = new TrailRegion(trailTerrain);
+			}
+			else if (i % 2 == 0) {
+				lake.addTerrain(lakeTerrain, lake.getRegionID());
+				trail.addTerrain(trailTerrain, trail.getRegionID());
+			}
+			else {
+				lake = Region.union(lake, new LakeRegion(lakeTerrain));
+				trail = Region.union(trail, new TrailRegion(trailTerrain));
+			}
+
+			if (Integer.bitCount(i) == 1) {
+				double lakeTime = time(lake, calls);
+				double trailTime = time(trail, calls);
+				if (print) System.out.printf("%8d %14.2f %14.2f %16d%n", i, lakeTime, trailTime, lake.getPotential());
+			}
+		}
+	}
+
+	//nanoseconds per getPotential() call
+	static double time(Region region, int calls) {
+		int total = 0;
+		asked = region;
+		long start = System.nanoTime();
+		for (int i = 0; i < calls; i++) total += asked.getPotential();
+		long elapsed = System.nanoTime() - start;
+		sink += total;
+		return (double) elapsed / calls;
+	}
+}
@@ -0,0 +1,146 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import entities.BoardObject;
+import entities.Coordinate;
+import entities.Player;
+import entities.TigerTile;
+
+/*
+ * ServerLog reads the games out of a client log like Log/12-2.txt, so real positions
+ * can be set up on a board. Each game keeps the starting tile, the tile order the
+ * server sent and every placement the server announced:
+ *
+ *		Server: GAME 2 MOVE 1 PLAYER TEAME PLACED TJJT- AT 0 1 180 NONE
+ *
+ * Games that were forfeited are kept, up to the last move that was placed.
+ */
+public class ServerLog {
+
+	/*
+	 * One game from the log
+	 */
+	public static class LoggedGame {
+		public int round; //counting every round of the log from 1
+		public String gameID;
+		public String startTile;
+		public int startX, startY, startOrientation;
+		public ArrayList<String> tiles = new ArrayList<String>();
+		public ArrayList<String[]> moves = new ArrayList<String[]>(); //tokens of each PLACED line, "Server:" dropped
+
+		/**
+		 * replay() sets up a board with the first few moves of the game played. The
+		 * player who made the next move in the log is the active player.
+		 * @param count how many moves to play
+		 * @return the board, with the game's tiles as its deck
+		 */
+		public BoardObject replay(int count) {
+			BoardObject board = new BoardObject();
+
+			//the players are named in the order they first moved
+			Map<String, Player> byName = new HashMap<String, Player>();
+			Player[] players = new Player[2];
+			for (String[] move : moves) {
+				if (!byName.containsKey(move[5]) && byName.size() < 2) {
+					players[byName.size()] = new Player(move[5], byName.isEmpty());
+					byName.put(move[5], players[byName.size()]);
+				}
+			}
+			if (players[1] == null) players[1] = new Player("?", false);
+			board.setPlayers(players);
+
+			board.start(new TigerTile(startTile, startOrientation / 90, board.getContext()), startX, startY);
+			ArrayList<TigerTile> deck = new ArrayList<TigerTile>();
+			for (String type : tiles) deck.add(new TigerTile(type, 0, board.getContext()));
+			board.setTileDeck(deck);
+
+			for (int i = 0; i < count && i < moves.size(); i++) {
+				String[] move = moves.get(i);
+				TigerTile tile = deck.get(Integer.parseInt(move[3]) - 1);
+
+				board.switchToActivePlayer(byName.get(move[5]));
+				tile.setOrientation(Integer.parseInt(move[11]) / 90);
+				board.place(tile, Coordinate.fromServer(move[9], move[10]));
+				if (move[12].equals("TIGER")) board.placeTiger(Integer.parseInt(move[13]));
+				else if (move[12].equals("CROCODILE")) board.placeCrocodile();
+				board.confirm();
+			}
+			if (count < moves.size()) board.switchToActivePlayer(byName.get(moves.get(count)[5]));
+			return board;
+		}
+
+		/**
+		 * nextTile() gets the tile of the move after the first few
+		 * @param board a board from replay()
+		 * @param count how many moves were played
+		 * @return the tile to be played next
+		 */
+		public TigerTile nextTile(BoardObject board, int count) {
+			return board.getTile(Integer.parseInt(moves.get(count)[3]) - 1);
+		}
+	}
+
+	/**
+	 * read() gets every game out of a log
+	 * @param file the log to read
+	 * @return the games in the order they started
+	 */
+	public static ArrayList<LoggedGame> read(String file) throws IOException {
+		ArrayList<LoggedGame> games = new ArrayList<LoggedGame>();
+		Map<String, LoggedGame> playing = new HashMap<String, LoggedGame>();
+		String startTile = null;
+		int startX = 0, startY = 0, startOrientation = 0;
+		int round = 0;
+		ArrayList<String> tiles = new ArrayList<String>();
+
+		try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (!line.startsWith("Server: ")) continue;
+				String[] tokens = line.substring(8).trim().split("\\s+");
+
+				if (line.startsWith("Server: BEGIN ROUND")) {
+					round++;
+				}
+				else if (line.startsWith("Server: STARTING TILE IS")) {
+					startTile = tokens[3];
+					startX = Integer.parseInt(tokens[5]);
+					startY = Integer.parseInt(tokens[6]);
+					startOrientation = Integer.parseInt(tokens[7]);
+				}
+				else if (line.startsWith("Server: THE REMAINING")) {
+					tiles = new ArrayList<String>();
+					for (int i = 5; i < tokens.length; i++) {
+						if (!tokens[i].equals("[") && !tokens[i].equals("]")) tiles.add(tokens[i]);
+					}
+				}
+				else if (line.startsWith("Server: MATCH BEGINS")) {
+					playing.clear();
+				}
+				else if (tokens[0].equals("GAME") && tokens.length > 12 && tokens[6].equals("PLACED")) {
+					LoggedGame game = playing.get(tokens[1]);
+					if (game == null) {
+						game = new LoggedGame();
+						game.round = round;
+						game.gameID = tokens[1];
+						game.startTile = startTile;
+						game.startX = startX;
+						game.startY = startY;
+						game.startOrientation = startOrientation;
+						game.tiles = tiles;
+						playing.put(tokens[1], game);
+						games.add(game);
+					}
+					game.moves.add(tokens);
+				}
+			}
+		}
+		return games;
+	}
+}
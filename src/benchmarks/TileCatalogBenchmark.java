@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import entities.TigerTile;
+import entities.TileCatalog;
+
+/*
+ * Measures the cost of building a full 77 tile deck. The "before" numbers replay what
+ * TigerTile(String, int) used to do for every tile (open tiles.xml, build a DOM, compile
+ * an XPath and build the tile from the found element). The "after" numbers stamp the
+ * same deck out of the TileCatalog.
+ *
+ * Run from the root folder (so resources/tiles.xml is found):
+ * > java -cp src benchmarks.TileCatalogBenchmark [iterations]
+ */
+public class TileCatalogBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 50;
+		List<String> deck = TileCatalog.getInstance().getDeck();
+
+		//warm up both paths so the JIT has compiled them before measuring
+		for (int i = 0; i < 5; i++) { legacyDeck(deck); catalogDeck(deck); }
+
+		long before = 0;
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			legacyDeck(deck);
+			before += System.nanoTime() - start;
+		}
+
+		long after = 0;
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			catalogDeck(deck);
+			after += System.nanoTime() - start;
+		}
+
+		double beforeMs = before / 1e6 / iterations;
+		double afterMs = after / 1e6 / iterations;
+		System.out.println("Deck of " + deck.size() + " tiles, " + iterations + " iterations");
+		System.out.printf("before (XML + XPath per tile): %10.3f ms per deck%n", beforeMs);
+		System.out.printf("after  (TileCatalog stamping): %10.3f ms per deck%n", afterMs);
+		System.out.printf("speedup: %.1fx%n", beforeMs / afterMs);
+	}
+
+	//the pre-catalog path: one parse and one XPath query for every tile
+	static ArrayList<TigerTile> legacyDeck(List<String> deck) throws Exception {
+		ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+		for (String type : deck) {
+			DocumentBuilder dBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+			Document doc = dBuilder.parse(new File(TileCatalog.TILE_FILE));
+			XPath xpath = XPathFactory.newInstance().newXPath();
+			XPathExpression expr = xpath.compile("//tile[@type=\"" + type + "\"]");
+			NodeList nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
+			tiles.add(new TigerTile((Element) nList.item(0)));
+		}
+		return tiles;
+	}
+
+	//the catalog path used by Game.setTileStack()
+	static ArrayList<TigerTile> catalogDeck(List<String> deck) {
+		ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+		for (String type : deck) tiles.add(new TigerTile(type, 0));
+		return tiles;
+	}
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+
+import network.LineReader;
+import network.LineWriter;
+import network.TigerZoneClient;
+import network.TigerZoneServer;
+
+/*
+ * Plays our client against itself on a local TigerZoneServer, as many clients at once
+ * as asked. They join in groups of the tournament's size, and every group plays its
+ * tournament while the others do. The clients' output is dropped; once every client
+ * is done the server's numbers are printed: matches and moves per second, the games
+ * forfeited and why, and how long the replies took. A search budget of 0 plays the
+ * quick AI, which is what loads the server most.
+ *
+ * > java -cp src benchmarks.TournamentLoadBenchmark [clients] [players per tournament] [rounds] [search budget ms] [seed]
+ */
+public class TournamentLoadBenchmark {
+
+	public static void main(String[] args) throws Exception {
+
+		int clients = (args.length > 0) ? Integer.parseInt(args[0]) : 20;
+		int players = (args.length > 1) ? Integer.parseInt(args[1]) : 2;
+		int rounds = (args.length > 2) ? Integer.parseInt(args[2]) : 50;
+		long budget = (args.length > 3) ? Long.parseLong(args[3]) : 0;
+		long seed = (args.length > 4) ? Long.parseLong(args[4]) : 1;
+
+		TigerZoneServer server = new TigerZoneServer("TIGERZONE", players, rounds, seed, 0);
+		int port = server.start(0);
+		System.out.println(clients + " clients, tournaments of " + players + ", " + rounds + " rounds, "
+				+ budget + " ms search");
+
+		//the clients print each game's timings, only the server's numbers are wanted
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+		ArrayList<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < clients; i++) {
+			final String name = "TEAM" + i;
+			Thread thread = new Thread(() -> play(port, name, budget), name);
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads) thread.join();
+
+		System.setOut(console);
+		server.stop();
+		System.out.println(server.getStats());
+	}
+
+	//one client's tournament, from connecting to the server's goodbye
+	private static void play(int port, String name, long budget) {
+		try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port))) {
+			TigerZoneClient client = new TigerZoneClient("TIGERZONE", name, name, new LineWriter(channel));
+			client.setSearchBudget(budget);
+			LineReader reader = new LineReader(channel, client::handle);
+			reader.start();
+			reader.join();
+			client.shutdown();
+		} catch (IOException | InterruptedException e) {
+			System.err.println("Error: " + name + ", " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,345 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import entities.AI;
+import entities.BoardObject;
+import entities.Coordinate;
+import entities.Player;
+import entities.TigerTile;
+import entities.TileGrid;
+import game.MoveLatency;
+import network.TigerZoneClient;
+
+/*
+ * TranscriptReplay plays a tournament log back through our client: every line the
+ * server sent goes to TigerZoneClient.handle(), and the client's replies are checked
+ * against the ones in the log. Our side of each game is played from the log too (see
+ * ScriptedAI), so what's checked is everything around the AI: decoding, which game and
+ * move a request is for, keeping the board in step, and the line that goes back.
+ *
+ *		moves	each reply against the client's line in the log, by round, game and move
+ *		boards	once it's over, each game's board against the one the server's PLACED
+ *				lines make (see ServerLog), tile by tile, with the tigers and crocodiles
+ *				each player has left
+ *
+ * The logs have no times in them, so there are two ways to go through one:
+ *
+ *		paced	the way the server does it, each request waits for its reply before the
+ *				next line is sent
+ *		fast	a round's lines are sent as fast as the client takes them, the replies
+ *				are waited for at the end of the round
+ *
+ * Lines and moves per second and the client's timings by phase (see MoveLatency) are
+ * printed for each pass, with the moves and boards that didn't come out as logged.
+ *
+ * > java -cp src benchmarks.TranscriptReplay [log] [paced|fast] [passes]
+ */
+public class TranscriptReplay {
+
+	private static final long REPLY_WAIT = 5000; //milliseconds before a reply counts as missing
+	private static final int SHOWN = 10; //differences printed of each kind
+
+	/*
+	 * What a log has for the replay: the server's lines, and our moves by round
+	 */
+	public static class Transcript {
+		String serverPass = "TIGERZONE", userName = "TEAME", userPass = "IAME";
+		ArrayList<String> lines = new ArrayList<String>(); //"Server: " dropped
+		//for every round from 1, our lines by move number, and the moves the server forfeited
+		ArrayList<Map<Integer, String>> moves = new ArrayList<Map<Integer, String>>();
+		ArrayList<Set<Integer>> rejected = new ArrayList<Set<Integer>>();
+		ArrayList<ServerLog.LoggedGame> games;
+	}
+
+	/*
+	 * ScriptedAI makes the moves our client made in the log. A tile it places goes on the
+	 * board the way AI.getMove() does it, unless the server forfeited the move.
+	 */
+	static class ScriptedAI extends AI {
+		private final BoardObject board;
+		private final Map<Integer, String> moves;
+		private final Set<Integer> rejected;
+		String gameID; //the server's, once a move's been made
+
+		ScriptedAI(BoardObject board, Map<Integer, String> moves, Set<Integer> rejected) {
+			super(board);
+			this.board = board;
+			this.moves = moves;
+			this.rejected = rejected;
+		}
+
+		@Override
+		public String getMove(TigerTile tile) {
+			//the move's number is where its tile is in the stack
+			ArrayList<TigerTile> deck = board.getTileDeck();
+			int number = 1;
+			while (number <= deck.size() && deck.get(number - 1) != tile) number++;
+
+			String line = moves.get(number);
+			if (line == null) return "TILE " + tile.getType() + " UNPLACEABLE PASS"; //the log has no move, it timed out
+			String[] tokens = line.split(" ");
+			gameID = tokens[1];
+			String move = line.substring(line.indexOf(' ', line.indexOf("MOVE ") + 5) + 1);
+
+			if (tokens[4].equals("PLACE") && !rejected.contains(number)) {
+				tile.setOrientation(Integer.parseInt(tokens[9]) / 90);
+				board.place(tile, Coordinate.fromServer(tokens[7], tokens[8]));
+				board.confirm();
+			}
+			return move;
+		}
+
+		BoardObject getBoard() {
+			return board;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		String log = (args.length > 0) ? args[0] : "Log/12-2.txt";
+		boolean paced = (args.length > 1) && args[1].equals("paced");
+		int passes = (args.length > 2) ? Integer.parseInt(args[2]) : 3;
+
+		Transcript transcript = read(log);
+		for (int pass = 1; pass <= passes; pass++) {
+			System.out.println("pass " + pass + ", " + log + ", " + (paced ? "paced" : "fast"));
+			System.out.println(replay(transcript, paced));
+		}
+	}
+
+	/**
+	 * read() gets what the replay needs out of a log
+	 * @param file the log
+	 * @return the transcript
+	 */
+	public static Transcript read(String file) throws IOException {
+		Transcript transcript = new Transcript();
+		transcript.moves.add(null); //rounds count from 1
+		transcript.rejected.add(null);
+
+		try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				String text = line.replace('\r', ' ').trim().replaceAll("\\s+", " ");
+				int round = transcript.moves.size() - 1;
+
+				if (text.startsWith("Client: ")) {
+					String[] tokens = text.substring(8).split(" ");
+					if (tokens[0].equals("JOIN") && tokens.length > 1) transcript.serverPass = tokens[1];
+					else if (tokens[0].equals("I") && tokens.length > 3) {
+						transcript.userName = tokens[2];
+						transcript.userPass = tokens[3];
+					}
+					else if (tokens[0].equals("GAME") && tokens.length > 4 && round > 0)
+						transcript.moves.get(round).put(Integer.parseInt(tokens[3]), text.substring(8));
+				}
+				else if (text.startsWith("Server: ")) {
+					String server = text.substring(8);
+					transcript.lines.add(server);
+					if (server.startsWith("BEGIN ROUND")) {
+						transcript.moves.add(new HashMap<Integer, String>());
+						transcript.rejected.add(new HashSet<Integer>());
+					}
+					else if (round > 0 && server.startsWith("GAME ") && server.contains(" PLAYER " + transcript.userName + " FORFEITED:")) {
+						transcript.rejected.get(round).add(Integer.parseInt(server.split(" ")[3]));
+					}
+				}
+			}
+		}
+		transcript.games = ServerLog.read(file);
+		return transcript;
+	}
+
+	/**
+	 * replay() sends a transcript's lines through a new client and checks what comes back
+	 * @param transcript the log
+	 * @param paced true to wait for each reply before the next line
+	 * @return what happened
+	 */
+	public static Report replay(final Transcript transcript, boolean paced) throws InterruptedException {
+		final LinkedBlockingQueue<String> replies = new LinkedBlockingQueue<String>();
+		TigerZoneClient client = new TigerZoneClient(transcript.serverPass, transcript.userName, transcript.userPass,
+				line -> {
+					if (line.startsWith("GAME ")) replies.add(line);
+				});
+
+		//every game's AI plays the round the replay is in
+		final int[] round = {0};
+		final ArrayList<ArrayList<ScriptedAI>> scripted = new ArrayList<ArrayList<ScriptedAI>>();
+		scripted.add(null);
+		client.setAIFactory(game -> {
+			synchronized (scripted) {
+				ScriptedAI ai = new ScriptedAI(game.getBoardObject(), transcript.moves.get(round[0]),
+						transcript.rejected.get(round[0]));
+				scripted.get(round[0]).add(ai);
+				return ai;
+			}
+		});
+
+		Report report = new Report();
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream())); //the client prints each game's timings
+		long start = System.nanoTime();
+		int pending = 0; //requests sent that haven't been replied to
+		try {
+			for (String line : transcript.lines) {
+				if (line.startsWith("BEGIN ROUND")) {
+					report.check(replies, pending, transcript.moves.get(round[0]), round[0]);
+					pending = 0;
+					synchronized (scripted) {
+						round[0]++;
+						scripted.add(new ArrayList<ScriptedAI>());
+					}
+				}
+				client.handle(line, System.nanoTime());
+				if (line.startsWith("MAKE ")) pending++;
+				if (paced && pending > 0) {
+					report.check(replies, pending, transcript.moves.get(round[0]), round[0]);
+					pending = 0;
+				}
+			}
+			report.check(replies, pending, transcript.moves.get(round[0]), round[0]);
+			report.seconds = (System.nanoTime() - start) / 1e9;
+			client.shutdown();
+		} finally {
+			System.setOut(console);
+		}
+
+		for (ServerLog.LoggedGame game : transcript.games) {
+			for (ScriptedAI ai : scripted.get(game.round)) {
+				if (game.gameID.equals(ai.gameID)) report.compare(game, ai.getBoard());
+			}
+		}
+		report.lines = transcript.lines.size();
+		report.latency = client.getLatency();
+		return report;
+	}
+
+	/*
+	 * Report adds up what a replay got right and keeps the first few things it didn't
+	 */
+	public static class Report {
+		int lines, moves, logged, unlogged, boards, same;
+		double seconds;
+		MoveLatency latency;
+		ArrayList<String> moveDiffs = new ArrayList<String>();
+		ArrayList<String> boardDiffs = new ArrayList<String>();
+
+		//ACCESSORS
+
+		public int getMoves() {
+			return moves;
+		}
+
+		/**
+		 * getDifferentMoves() counts the replies that weren't the client's line in the log
+		 * @return the number, replies the log has no line for included
+		 */
+		public int getDifferentMoves() {
+			return moves - logged;
+		}
+
+		public int getBoards() {
+			return boards;
+		}
+
+		public int getDifferentBoards() {
+			return boards - same;
+		}
+
+		//METHODS
+
+		//takes the replies to the requests sent, checks each against the log
+		void check(LinkedBlockingQueue<String> replies, int count, Map<Integer, String> logged, int round)
+				throws InterruptedException {
+			for (int i = 0; i < count; i++) {
+				String reply = replies.poll(REPLY_WAIT, TimeUnit.MILLISECONDS);
+				if (reply == null) {
+					if (moveDiffs.size() < SHOWN) moveDiffs.add("round " + round + ": " + (count - i) + " replies missing");
+					return;
+				}
+				moves++;
+				String expected = logged.get(Integer.parseInt(reply.split(" ")[3]));
+				if (reply.equals(expected)) this.logged++;
+				else {
+					if (expected == null) unlogged++;
+					if (moveDiffs.size() < SHOWN) moveDiffs.add("round " + round + ": sent \"" + reply + "\", "
+							+ ((expected == null) ? "not in the log" : "logged \"" + expected + "\""));
+				}
+			}
+		}
+
+		//checks a game's board against what the server placed
+		void compare(ServerLog.LoggedGame game, BoardObject board) {
+			boards++;
+			BoardObject expected = game.replay(game.moves.size());
+			String difference = difference(expected, board);
+			if (difference == null) same++;
+			else if (boardDiffs.size() < SHOWN)
+				boardDiffs.add("round " + game.round + " game " + game.gameID + ": " + difference);
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder(String.format("%d lines, %d moves in %.2f s: %.0f lines/s, %.0f moves/s%n",
+					lines, moves, seconds, lines / seconds, moves / seconds));
+			text.append(String.format("moves: %d as logged, %d not in the log, %d different%n", logged, unlogged,
+					moves - logged - unlogged));
+			for (String diff : moveDiffs) text.append("  ").append(diff).append(System.lineSeparator());
+			text.append(String.format("boards: %d as logged, %d different%n", same, boards - same));
+			for (String diff : boardDiffs) text.append("  ").append(diff).append(System.lineSeparator());
+			synchronized (latency) {
+				text.append(latency);
+			}
+			return text.toString();
+		}
+	}
+
+	/**
+	 * difference() finds where two boards aren't the same
+	 * @param expected the board from the log
+	 * @param board the client's
+	 * @return the first tile or player that's different, null if none is
+	 */
+	static String difference(BoardObject expected, BoardObject board) {
+		TileGrid want = expected.getBoard(), got = board.getBoard();
+		int minX = Math.min(want.getMinX(), got.getMinX()), maxX = Math.max(want.getMaxX(), got.getMaxX());
+		int minY = Math.min(want.getMinY(), got.getMinY()), maxY = Math.max(want.getMaxY(), got.getMaxY());
+		for (int x = minX; x <= maxX; x++) {
+			for (int y = minY; y <= maxY; y++) {
+				String logged = describe(want.get(x, y)), ours = describe(got.get(x, y));
+				if (!logged.equals(ours)) return "at " + x + " " + y + " the log has " + logged + ", the client " + ours;
+			}
+		}
+
+		//the players by name, the client's might be in the other order
+		Map<String, String> animals = new TreeMap<String, String>();
+		for (Player player : expected.getPlayers()) animals.put(player.getID(), describe(player));
+		for (Player player : board.getPlayers()) {
+			String logged = animals.get(player.getID());
+			if (logged != null && !logged.equals(describe(player)))
+				return player.getID() + " has " + describe(player) + " left, in the log " + logged;
+		}
+		return null;
+	}
+
+	private static String describe(TigerTile tile) {
+		return (tile == null) ? "nothing" : tile.getType() + " at " + tile.getOrientation() * 90;
+	}
+
+	private static String describe(Player player) {
+		return player.getNumOfTigers() + " tigers and " + player.getNumOfCrocs() + " crocodiles";
+	}
+}
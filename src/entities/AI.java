@@ -3,51 +3,51 @@ package entities;
 import java.util.*;
 
 public class AI {
-	private static int movenumber = 0;
+	private int movenumber = 0;
 	BoardObject currentBoard;
 	//int choiceX, choiceY, orientation;
 	//TileStack currentStack;
 	TigerTile currentTile;
-	private static String ourMove = null;
+	private String ourMove = null;
+	protected Random randomGenerator; //for the spots it picks at random
 	ArrayList<Region> descendingRegions = new ArrayList<Region>();
+	ArrayList<Region> ascendingRegions = new ArrayList<Region>();
 	protected int moveCount;
 
 	//AI takes in the current state of the board
 	//decides how to proceed with next move
 	public AI(BoardObject currentBoard) {
 		this.currentBoard = currentBoard;
+		randomGenerator = new Random();
+	}
+
+	//same as above, but the random choices are seeded so the same game plays out the same way
+	public AI(BoardObject currentBoard, long seed) {
+		this.currentBoard = currentBoard;
+		randomGenerator = new Random(seed);
 	}
 
 	//Creates list of available regions for tiger/crocodile placement
-	//Reorders list of regions in descending order of score potential
+	//in descending order of score potential, from the board's RegionQueue
 	//First entry in the list should have highest priority for tiger/crocodile placement
+	//The list is reused, it's only good until the next call
 	public ArrayList<Region> orderedListOfRegions() {
-		//currentBoard.allRegions;
-		ArrayList<Region> descendingRegions = new ArrayList<Region>();
-		//Traverses list of all incomplete regions
-		for(Map.Entry<Integer, Region> entry : currentBoard.incompleteRegions.entrySet()) {
-			Region tempRegion = entry.getValue();
-			//int pX = tempRegion.getPotential
-
-			//Transfers entries from Map to ArrayList
-			descendingRegions.add(tempRegion);
-		}
-		//Collections.sort(descendingRegions, Collections.reverseOrder());
-		int n = descendingRegions.size();
-		Region temp;
-
-		//Bubble sort to reorder list in descending order
-		for(int i=0; i < n; i++){
-			for(int j=1; j < (n-i); j++){
-				if(descendingRegions.get(j-1).getPotential() < descendingRegions.get(j).getPotential()){
-					//swap the elements!
-					temp = descendingRegions.get(j-1);
-					descendingRegions.add((j-1), descendingRegions.get(j));
-					descendingRegions.add(j,temp);
-				}
+		RegionQueue queue = currentBoard.getRegionQueue();
+		return queue.highest(queue.size(), descendingRegions);
+	}
+
+	//Finds the least valued incomplete region we have a tiger in, or null if there's none
+	//Looks at the lowest few regions first and twice as many each time it doesn't find one
+	public Region leastValuedRegionWithOurTiger() {
+		RegionQueue queue = currentBoard.getRegionQueue();
+		int seen = 0;
+		for (int k = 4; seen < queue.size(); k *= 2) {
+			queue.lowest(k, ascendingRegions);
+			for (; seen < ascendingRegions.size(); seen++) {
+				if (checkOurTigers(ascendingRegions.get(seen))[0] > 0) return ascendingRegions.get(seen);
 			}
 		}
-		return descendingRegions;
+		return null;
 	}
 
 	//Checks how many tigers are in a given region
@@ -98,26 +98,22 @@ public class AI {
 			//If the active player does not have any tigers find one to pick up
 			if(currentBoard.getActivePlayer().getNumOfTigers() == 0) {
 				// pop out tiger we own from least valued incomplete region.
-				ArrayList<Region> dlist = orderedListOfRegions();
-				for(int i = dlist.size() - 1; i >= 0; i--) {	// starting from least valued region
-					int tigers[] = checkOurTigers(dlist.get(i));
-					if(tigers[0] > 0) {		// if we have tigers in it.
-						//retrieve Tiger
-						for(int j = 0; j < dlist.get(i).getNumOfTigers(); j++) {
-							if(dlist.get(i).theTigers.get(j).getTigerOwner() == currentBoard.getPlayer(0)) {
-								Location removefrom = dlist.get(i).theTigers.get(j).getLocation();
-								ourMove += "UNPLACEABLE RETRIEVE TIGER AT " + removefrom.getX() + " " + removefrom.getY();
-								break;
-							}
+				Region least = leastValuedRegionWithOurTiger();
+				if(least != null) {
+					//retrieve Tiger
+					for(int j = 0; j < least.getNumOfTigers(); j++) {
+						if(least.theTigers.get(j).getTigerOwner() == currentBoard.getPlayer(0)) {
+							Location removefrom = least.theTigers.get(j).getLocation();
+							ourMove += "UNPLACEABLE RETRIEVE TIGER AT " + removefrom.getX() + " " + removefrom.getY();
+							break;
 						}
-						break;
 					}
 				}
 			}
 			//If active player has more than one tiger find a region to add another tiger
 			else if(currentBoard.getActivePlayer().getNumOfTigers() > 1) {
 
-				ArrayList<Region> desclist = orderedListOfRegions();
+				ArrayList<Region> desclist = currentBoard.getRegionQueue().highest(1, descendingRegions);	//only the first is looked at
 				for(int i = 0; i < desclist.size(); i++) {
 					int tigers[] = checkOurTigers(desclist.get(i));
 					if(tigers[1] - tigers[0] == 1) {
@@ -141,6 +137,8 @@ public class AI {
 			else {
 				ourMove += "UNPLACEABLE PASS";
 			}
+			//no tiger was found to retrieve or add to, so do nothing either
+			if (ourMove.endsWith(" ")) ourMove += "UNPLACEABLE PASS";
 		}
 		//If current tile to be played is placable
 		else {
@@ -154,32 +152,26 @@ public class AI {
 			// Step 0 - override random if tile is a den tile.
 			if(currentTile.getCenter()=='X')
 			{
-				HashMap<Location, Integer> uniqueLocation = new HashMap<Location, Integer>();
-				for(int i = 0; i < tempPS.size(); i++) {
-					if(!uniqueLocation.containsKey(tempPS.get(i))) {
-						uniqueLocation.put(tempPS.get(i).getLocation(), 0);
-					}
-					else
-					{
-						int curVal = uniqueLocation.get(tempPS.get(i).getLocation());
-						uniqueLocation.put(tempPS.get(i).getLocation(), curVal+1);
-					}
-				}
+				//walk the frontier directly and find the placeable spot with the most neighbors
+				CoordinateSet frontier = currentBoard.getFrontier();
 				int maxMoore = -1;
-				Location bestloc = null;;
-				for (HashMap.Entry<Location, Integer> entry : uniqueLocation.entrySet()) {
-					Location location = entry.getKey();
-					if(currentBoard.getMoore(location).size() > maxMoore)
+				long bestloc = 0;
+				for (int i = 0; i < frontier.size(); i++) {
+					long spot = frontier.get(i);
+					if (!currentBoard.isPlaceable(spot)) continue;
+					int moore = currentBoard.countNeighbors(spot);
+					if (moore > maxMoore)
 					{
-						maxMoore = currentBoard.getMoore(location).size();
-						bestloc = location;
+						maxMoore = moore;
+						bestloc = spot;
 					}
 				}
 				for (int i = 0; i < tempPS.size(); i++)
 				{
-					if(tempPS.get(i).getLocation()==bestloc)
+					if(tempPS.get(i).getKey() == bestloc)
 					{
 						index = i;
+						break;
 					}
 				}
 
@@ -187,23 +179,17 @@ public class AI {
 			// Step 1 - pick random spot out of eligible ones.
 			else
 			{
-				Random randomGenerator = new Random();
 				index = randomGenerator.nextInt(tempPS.size());
 			}
 			TilePair tempSpot = tempPS.get(index);
-			Location tileLoc = tempSpot.getLocation();
+			long tileKey = tempSpot.getKey();
 			int orientation = tempSpot.getOrientation();
 
-			int row = tileLoc.getY();
-			int col = tileLoc.getX();
-
-			int adjustedY = BoardObject.startY + (BoardObject.COLSIZE/2 - row);
-			int adjustedX = BoardObject.startX + (col - BoardObject.ROWSIZE/2);
-
-			ourMove += "AT " + adjustedX + " " + adjustedY + " " + orientation;
+			//coordinates are already the server's
+			ourMove += "AT " + Coordinate.toServer(tileKey) + " " + orientation;
 
 			currentTile.setOrientation(orientation / 90);
-			currentBoard.place(currentTile, new Location(adjustedX, adjustedY));
+			currentBoard.place(currentTile, tileKey);
 			currentBoard.confirm();
 			TigerTile temp = currentBoard.getRecentTile();
 			Terrain[] terrains = temp.getTerrains();
@@ -215,7 +201,7 @@ public class AI {
 
 			for (int i = 0; i < terrains.length; i++) {
 				int regionID = terrains[i].getRegionID();
-				Region region = allRegions.get(regionID);
+				Region region = currentBoard.getRegion(regionID);
 				prevstatus.add(region.isCompleted());
 				if (!region.hasTigers() && !region.hasCrocodiles()) {
 					potentials.add(region.getPotential());
@@ -350,4 +336,33 @@ public class AI {
 		return ourMove;
 	} // end of get move
 
+	/**
+	 * plan() lets the AI get ready before the match starts, it has to be done when
+	 * stopPlanning() is called. This AI doesn't plan.
+	 * @param firstTiles the tiles our first move might be made with
+	 * @param budgetMillis how long it may take
+	 */
+	public void plan(ArrayList<TigerTile> firstTiles, long budgetMillis) {
+	}
+
+	/**
+	 * stopPlanning() ends plan() early, see plan()
+	 */
+	public void stopPlanning() {
+	}
+
+	/**
+	 * ponder() lets the AI think on the opponent's time, after our move is on the board
+	 * and before the opponent's comes back. This AI doesn't.
+	 * @param opponentTile the tile the opponent plays next
+	 */
+	public void ponder(TigerTile opponentTile) {
+	}
+
+	/**
+	 * stopPondering() stops thinking on the opponent's time, see ponder()
+	 */
+	public void stopPondering() {
+	}
+
 } // end of class
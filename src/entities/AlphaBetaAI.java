@@ -0,0 +1,354 @@
+package entities;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/*
+ * AlphaBetaAI searches the game tree with alpha-beta (negamax). The tile order is
+ * known (see SearchAI), so there are no chance nodes: both players just take turns
+ * with the next tile of the deck. The search deepens one move at a time until the
+ * deadline, and the best move of the deepest finished search is played:
+ *
+ *		AI ai = new AlphaBetaAI(board, 700);
+ *		String move = ai.getMove(tile);
+ *
+ * A position the search stops at is scored from the region potentials: the points
+ * each player has, plus the potential of every incomplete region they own. At the end
+ * of the deck the position is scored exactly, like the game would be.
+ *
+ * Moves are tried in this order: at the root, best first from the last depth; below
+ * it, the best move the transposition table has for the position (see setTable()), the
+ * move that was best at the same depth in the last position searched, then the moves
+ * with a tiger or crocodile, then the rest. A position the table already has a deep
+ * enough score for isn't searched again.
+ */
+public class AlphaBetaAI extends SearchAI {
+
+	protected static final int INFINITY = 1000000;
+
+	protected int depthLimit; //if above 0, don't deepen past this many moves
+	protected long nodes; //positions the last search looked at
+	protected int depthReached; //the deepest search the last search finished
+
+	protected long deadline;
+	protected boolean timeUp; //the deadline hit, whatever is being searched is abandoned
+
+	//the current tile's moves and their scores at the last depth, see rootActions()
+	protected long[] rootMoves = new long[0];
+	protected int[] rootAnimals = new int[0];
+	protected int[] rootScores = new int[0];
+
+	//the moves at each depth of the search, filled by actions() and ordered
+	private long[][] plyMoves = new long[8][];
+	private int[][] plyAnimals = new int[8][];
+	private long[] killerMoves = new long[8];
+	private int[] killerAnimals = new int[8];
+
+	//constructors
+	public AlphaBetaAI(BoardObject currentBoard, long budgetMillis) {
+		super(currentBoard, budgetMillis);
+	}
+
+	//ACCESSORS
+
+	public int getDepthLimit() {
+		return depthLimit;
+	}
+
+	/**
+	 * getNodes() gets how many positions the last search looked at
+	 * @return the number of nodes
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * getNodesPerSecond() gets how fast the last search ran
+	 * @return nodes per second, 0 if nothing was searched
+	 */
+	public double getNodesPerSecond() {
+		return (searchTime > 0) ? nodes * 1e9 / searchTime : 0;
+	}
+
+	/**
+	 * getDepthReached() gets how many moves deep the last search finished
+	 * @return the depth, 0 if not even the first depth was finished
+	 */
+	public int getDepthReached() {
+		return depthReached;
+	}
+
+	//MUTATORS
+
+	/**
+	 * setDepthLimit() stops deepening at a fixed depth, the deadline still applies
+	 * @param depthLimit the number of moves to look ahead, 0 for no limit
+	 */
+	public void setDepthLimit(int depthLimit) {
+		this.depthLimit = depthLimit;
+	}
+
+	//METHODS
+
+	//deepens one move at a time until the deadline or the end of the deck
+	protected void search(TigerTile currentTile, long deadline) {
+		start(deadline);
+		int count = rootActions(currentTile);
+		if (count == 1) return;
+
+		int maxDepth = (depthLimit > 0) ? Math.min(depthLimit, deck.length) : deck.length;
+		for (int depth = 1; depth <= maxDepth; depth++) {
+			int alpha = -INFINITY;
+			int best = -1;
+
+			for (int i = 0; i < count; i++) {
+				int value = searchRoot(rootMoves[i], rootAnimals[i], depth, alpha);
+				if (timeUp) break;
+
+				rootScores[i] = value;
+				if (value > alpha) {
+					alpha = value;
+					best = i;
+				}
+			}
+
+			//the last best move is searched first, so anything that beat it in time is better
+			if (best != -1) {
+				bestMove = rootMoves[best];
+				bestAnimal = rootAnimals[best];
+			}
+			if (timeUp) break;
+			finishDepth(depth, count);
+		}
+	}
+
+	//the search already goes to the end of the game if there's time, it's its own solver
+	@Override
+	protected void solve(TigerTile currentTile, long deadline) {
+		search(currentTile, deadline);
+		solved = depthReached == deck.length;
+	}
+
+	/**
+	 * rootActions() lists the moves with the current tile in rootMoves and rootAnimals,
+	 * the transposition table's best move first, and makes that the best move so far
+	 * @param currentTile the tile to be played
+	 * @return the number of moves
+	 */
+	protected int rootActions(TigerTile currentTile) {
+		int count = actions(currentTile);
+		if (rootMoves.length < count) {
+			rootMoves = new long[count];
+			rootAnimals = new int[count];
+			rootScores = new int[count];
+		}
+		System.arraycopy(moveBuffer, 0, rootMoves, 0, count);
+		System.arraycopy(animalBuffer, 0, rootAnimals, 0, count);
+
+		//a move the table remembers for this position (maybe from the other game) goes first
+		long entry = (table != null) ? table.probe(hash(0)) : 0;
+		if (entry != 0) {
+			long move = TranspositionTable.getMove(entry);
+			int animal = TranspositionTable.getAnimal(entry);
+			for (int i = 1; i < count; i++) {
+				if (rootMoves[i] == move && rootAnimals[i] == animal) {
+					rootMoves[i] = rootMoves[0];
+					rootAnimals[i] = rootAnimals[0];
+					rootMoves[0] = move;
+					rootAnimals[0] = animal;
+					break;
+				}
+			}
+		}
+		bestMove = rootMoves[0];
+		bestAnimal = rootAnimals[0];
+		return count;
+	}
+
+	//a depth was searched to the end: remember it and put the moves best first for the next one
+	protected void finishDepth(int depth, int count) {
+		depthReached = depth;
+		if (table != null) {
+			int score = -INFINITY;
+			for (int i = 0; i < count; i++) score = Math.max(score, rootScores[i]);
+			table.store(hash(0), score, depth, TranspositionTable.EXACT, bestMove, bestAnimal);
+		}
+
+		//insertion sort keeps ties in order
+		for (int i = 1; i < count; i++) {
+			long move = rootMoves[i];
+			int animal = rootAnimals[i];
+			int score = rootScores[i];
+			int j = i - 1;
+			for (; j >= 0 && rootScores[j] < score; j--) {
+				rootMoves[j + 1] = rootMoves[j];
+				rootAnimals[j + 1] = rootAnimals[j];
+				rootScores[j + 1] = rootScores[j];
+			}
+			rootMoves[j + 1] = move;
+			rootAnimals[j + 1] = animal;
+			rootScores[j + 1] = score;
+		}
+	}
+
+	//a new search, until the deadline
+	protected void start(long deadline) {
+		this.deadline = deadline;
+		timeUp = false;
+		nodes = 0;
+		depthReached = 0;
+	}
+
+	/**
+	 * searchRoot() scores one move with the current tile (deck[0])
+	 * @param move the packed placement
+	 * @param animal the animal with it
+	 * @param depth how many moves to look at, counting this one
+	 * @param alpha the score another move already has, a move that can't beat it may get a lower score than it's worth
+	 * @return the score for the player making the move, meaningless if timeUp
+	 */
+	protected int searchRoot(long move, int animal, int depth, int alpha) {
+		currentBoard.checkpoint();
+		play(deck[0], move, animal);
+		int value = -negamax(1, depth - 1, -INFINITY, -alpha);
+		currentBoard.undo();
+		return value;
+	}
+
+	/**
+	 * negamax() scores the position for the player to move
+	 * @param ply how many moves deep the position is (the tile to play is deck[ply])
+	 * @param depth how many more moves to look at
+	 * @param alpha the score the player to move already has elsewhere
+	 * @param beta the score the other player already has elsewhere, negated
+	 * @return the score, meaningless if the deadline was hit (timeUp)
+	 */
+	protected int negamax(int ply, int depth, int alpha, int beta) {
+		nodes++;
+		if (stop || System.nanoTime() > deadline) {
+			timeUp = true;
+			return 0;
+		}
+
+		if (ply == deck.length) return finalScore();
+		if (depth == 0) return evaluate();
+
+		//the table may already know enough about the position to skip it
+		long hash = 0;
+		long tableMove = PASS;
+		int tableAnimal = -1;
+		if (table != null) {
+			hash = hash(ply);
+			long entry = table.probe(hash);
+			if (entry != 0) {
+				tableMove = TranspositionTable.getMove(entry);
+				tableAnimal = TranspositionTable.getAnimal(entry);
+				if (TranspositionTable.getDepth(entry) >= depth) {
+					int score = TranspositionTable.getScore(entry);
+					int bound = TranspositionTable.getBound(entry);
+					if (bound == TranspositionTable.EXACT) return score;
+					if (bound == TranspositionTable.LOWER && score >= beta) return score;
+					if (bound == TranspositionTable.UPPER && score <= alpha) return score;
+				}
+			}
+		}
+
+		int count = orderedActions(ply, tableMove, tableAnimal);
+		long[] moves = plyMoves[ply];
+		int[] animals = plyAnimals[ply];
+
+		int startAlpha = alpha;
+		int best = -INFINITY;
+		int bestIndex = 0;
+		for (int i = 0; i < count; i++) {
+			currentBoard.checkpoint();
+			play(deck[ply], moves[i], animals[i]);
+			int value = -negamax(ply + 1, depth - 1, -beta, -alpha);
+			currentBoard.undo();
+			if (timeUp) return 0;
+
+			if (value > best) {
+				best = value;
+				bestIndex = i;
+				if (value > alpha) {
+					alpha = value;
+					killerMoves[ply] = moves[i];
+					killerAnimals[ply] = animals[i];
+					if (alpha >= beta) break;
+				}
+			}
+		}
+
+		if (table != null) {
+			int bound = (best <= startAlpha) ? TranspositionTable.UPPER
+					: (best >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+			table.store(hash, best, depth, bound, moves[bestIndex], animals[bestIndex]);
+		}
+		return best;
+	}
+
+	//list the moves at a depth: the table's move first, then the killer, then the ones with an animal, then the rest
+	private int orderedActions(int ply, long tableMove, int tableAnimal) {
+		int count = actions(deck[ply]);
+		if (ply >= plyMoves.length) {
+			plyMoves = Arrays.copyOf(plyMoves, ply * 2);
+			plyAnimals = Arrays.copyOf(plyAnimals, ply * 2);
+			killerMoves = Arrays.copyOf(killerMoves, ply * 2);
+			killerAnimals = Arrays.copyOf(killerAnimals, ply * 2);
+		}
+		if (plyMoves[ply] == null || plyMoves[ply].length < count) {
+			plyMoves[ply] = new long[Math.max(count, 64)];
+			plyAnimals[ply] = new int[Math.max(count, 64)];
+		}
+		long[] moves = plyMoves[ply];
+		int[] animals = plyAnimals[ply];
+
+		int front = 0;
+		int first = -1, second = -1;
+		for (int i = 0; i < count; i++) {
+			if (moveBuffer[i] == tableMove && animalBuffer[i] == tableAnimal) first = i;
+			else if (moveBuffer[i] == killerMoves[ply] && animalBuffer[i] == killerAnimals[ply]) second = i;
+		}
+		if (first != -1) { moves[front] = moveBuffer[first]; animals[front++] = animalBuffer[first]; }
+		if (second != -1) { moves[front] = moveBuffer[second]; animals[front++] = animalBuffer[second]; }
+
+		for (int pass = 0; pass < 2; pass++) {
+			for (int i = 0; i < count; i++) {
+				if (i == first || i == second) continue;
+				if ((animalBuffer[i] != NONE) == (pass == 0)) {
+					moves[front] = moveBuffer[i];
+					animals[front++] = animalBuffer[i];
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * evaluate() scores a position from the region potentials: each player's points,
+	 * plus the potential of every incomplete region they own (both, if they share it)
+	 * @return the score for the player to move
+	 */
+	protected int evaluate() {
+		Player[] players = currentBoard.getPlayers();
+		int value = players[0].getScore() - players[1].getScore();
+
+		for (Map.Entry<Integer, Region> entry : currentBoard.getIncomplete().entrySet()) {
+			Region region = entry.getValue();
+			if (!region.hasTigers()) continue;
+
+			int owner = currentBoard.regionOwner(region);
+			if (owner == 0) value += region.getPotential();
+			else if (owner == 1) value -= region.getPotential();
+		}
+		return (currentBoard.getActivePlayer() == players[0]) ? value : -value;
+	}
+
+	//score the end of the game exactly, for the player to move (what endScores() would give, without playing it)
+	private int finalScore() {
+		Player[] players = currentBoard.getPlayers();
+		int value = players[0].getScore() - players[1].getScore() + currentBoard.endScoreDifference();
+		return (currentBoard.getActivePlayer() == players[0]) ? value : -value;
+	}
+}
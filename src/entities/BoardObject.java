@@ -1,47 +1,57 @@
 package entities;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.ListIterator;
 import java.util.Set;
 
 /*
  * This is the BoardObject that will be handling a majority of the game logic.
- * It is representative of the board game itself, and has a statically defined
- * size that is adjustable as needed.
+ * It is representative of the board game itself. The board has no fixed size,
+ * tiles are kept in a sparse TileGrid keyed by their (x,y) location so it grows in
+ * any direction and only takes up memory for the tiles that have been placed.
  */
 public class BoardObject {
 
 	//BOARD ATTRIBUTES
-	public static final int ROWSIZE = 11, COLSIZE = 11;
-	public static int startX = 0;
-	public static int startY = 0;
+	protected int startX = 0;
+	protected int startY = 0;
+	protected GameContext context; //hands out this game's tile and terrain IDs
 
-	protected TigerTile[][] board;
+	protected TileGrid board;
 	protected boolean state; //east now this serves as just a if we started or not
 	protected Player[] players;
 	protected Player activePlayer;
 
 	protected ArrayList<TigerTile> tiles; //a mapping of all available tiles
 	protected Map<Integer, Integer> minSpots; //a map to keep track of the least available spot
-	protected ArrayList<Location> availableSpots; //a list of empty spots that surround tiles
+	protected Frontier availableSpots; //every empty spot that touches a tile and what it requires
+	protected CoordinateSet placeableSpots; //frontier spots the last canPlace() tile fits in
 
 	protected Map<Integer, Region> incompleteRegions; //a mapping to keep track of all of the incomplete regions
 	protected Map<Integer, Region> allRegions;
 	protected Set<Region> completedRegions; //a set of all completed regions
 	protected ArrayList<DenRegion> denRegions;
+	protected Map<Long, DenRegion> denIndex; //each den by the packed coordinate of its tile, see updateDens()
+	protected ArrayList<Integer> recentlyCompleted; //IDs of the regions the last move completed, see moveCompleted()
 
 	protected String whyInvalid; //for error reporting
-	protected Location recentPlacement; //the most recently placed TigerTile
-	protected TigerTile recentTile;
+	protected TigerTile recentTile; //the most recently placed TigerTile
 	protected boolean tigerPlaced; //to indicate if a tiger has been placed or not
 	protected boolean crocodilePlaced;
 	protected boolean pending; //pending confirmation (probably unnecessary)
 	protected ArrayList<TilePair> possibleTileSpots;
+	protected ArrayList<TilePair> tilePairs; //reused by canPlace() for possibleTileSpots
 	protected int move;
+	protected UndoJournal journal; //records moves while a checkpoint is open, see checkpoint()
+	protected long hash; //Zobrist hash of the tiles and animals placed, see getHash()
+	protected ArrayList<Action> history; //the moves made outside a checkpoint, see replicate()
+	private Set<Region> countedLakes = new HashSet<Region>(); //reused by endScore()
+	protected RegionQueue regionQueue; //the incomplete regions by potential, see getRegionQueue()
+	protected boolean queueStale; //the queue has to be rebuilt before it's used
 
 	public ArrayList<TilePair> getPossibleSpots() {
 		return possibleTileSpots;
@@ -50,6 +60,23 @@ public class BoardObject {
 	public TigerTile getRecentTile() {
 		return recentTile;
 	}
+
+	/**
+	 *	getContext() gets what hands out this game's IDs, tiles made for the game
+	 *	should use it (see GameContext)
+	 *	@return the board's context
+	 */
+	public GameContext getContext() {
+		return context;
+	}
+
+	public ArrayList<Integer> getRecentlyCompleted() {
+		return recentlyCompleted;
+	}
+
+	public ArrayList<DenRegion> getDens() {
+		return denRegions;
+	}
 	//CONSTRUCTORS
 
 	/**
@@ -57,17 +84,25 @@ public class BoardObject {
 	 */
 	public BoardObject() {
 
-		availableSpots = new ArrayList<Location>();
+		availableSpots = new Frontier();
+		placeableSpots = new CoordinateSet();
 		incompleteRegions = new HashMap<Integer, Region>();
 		allRegions = new HashMap<Integer, Region>();
 		minSpots = new HashMap<Integer, Integer>();
 		completedRegions = new LinkedHashSet<Region>();
 		denRegions = new ArrayList<DenRegion>();
-		board = new TigerTile[ROWSIZE][COLSIZE];
+		denIndex = new HashMap<Long, DenRegion>();
+		recentlyCompleted = new ArrayList<Integer>();
+		board = new TileGrid();
 		pending = false;
 		whyInvalid = "";
 		possibleTileSpots = new ArrayList<TilePair>();
+		tilePairs = new ArrayList<TilePair>();
 		move = 0;
+		journal = new UndoJournal();
+		history = new ArrayList<Action>();
+		regionQueue = new RegionQueue();
+		context = new GameContext();
 	} //end constructor
 
 	/**
@@ -76,23 +111,35 @@ public class BoardObject {
 	public BoardObject(BoardObject clone) {
 
 		availableSpots = clone.availableSpots;
+		placeableSpots = clone.placeableSpots;
 		incompleteRegions = clone.incompleteRegions;
 		allRegions = clone.allRegions;
 		minSpots = clone.minSpots;
 		completedRegions = clone.completedRegions;
+		denRegions = clone.denRegions;
+		denIndex = clone.denIndex;
+		recentlyCompleted = clone.recentlyCompleted;
 		board = clone.board;
 		pending = clone.pending;
 		whyInvalid = clone.whyInvalid;
 		possibleTileSpots = clone.possibleTileSpots;
+		tilePairs = clone.tilePairs;
 		move = clone.move;
 		players = clone.players;
 		activePlayer = clone.activePlayer;
 		tiles = clone.tiles;
-		recentPlacement = clone.recentPlacement;
 		recentTile = clone.recentTile;
 		tigerPlaced = clone.tigerPlaced;
 		crocodilePlaced = clone.crocodilePlaced;
 		possibleTileSpots = clone.possibleTileSpots;
+		journal = clone.journal;
+		context = clone.context;
+		startX = clone.startX;
+		startY = clone.startY;
+		hash = clone.hash;
+		history = clone.history;
+		regionQueue = clone.regionQueue;
+		queueStale = clone.queueStale;
 
 	} //end constructor
 
@@ -112,18 +159,40 @@ public class BoardObject {
 		return players[index];
 	}
 
-	public TigerTile[][] getBoard() {
+	public TileGrid getBoard() {
 		return board;
 	}
 
 	/**
-	 *	getAS() returns the array list of available spots
+	 *	getAS() returns a copy of the available spots as Locations. Use
+	 *	getFrontier() to iterate them without allocating.
 	 *	@return the ArrayList of available spots
 	 */
 	public ArrayList<Location> getAS() {
+		ArrayList<Location> spots = new ArrayList<Location>(availableSpots.size());
+		for (int i = 0; i < availableSpots.size(); i++) {
+			spots.add(new Location(availableSpots.getX(i), availableSpots.getY(i)));
+		}
+		return spots;
+	}
+
+	/**
+	 *	getFrontier() returns the set of available spots (empty spots touching a tile)
+	 *	@return the frontier, packed coordinates
+	 */
+	public Frontier getFrontier() {
 		return availableSpots;
 	}
 
+	/**
+	 *	isPlaceable() checks if the tile given to the last canPlace() fits at a spot
+	 *	@param key the packed coordinate of the spot
+	 *	@return true if at least one orientation fits there
+	 */
+	public boolean isPlaceable(long key) {
+		return placeableSpots.contains(key);
+	}
+
 	public Map<Integer, Region> getAll() {
 		return allRegions;
 	}
@@ -132,6 +201,21 @@ public class BoardObject {
 		return incompleteRegions;
 	}
 
+	/**
+	 *	getRegionQueue() gets the incomplete regions ordered by potential. Moves made
+	 *	inside a checkpoint don't update it (they're usually undone), so asked for inside
+	 *	one, it's rebuilt for the position as it is, and again once the checkpoint is
+	 *	closed.
+	 *	@return the queue, only valid until the board changes
+	 */
+	public RegionQueue getRegionQueue() {
+		if (queueStale || journal.isRecording()) {
+			regionQueue.rebuild(incompleteRegions.values());
+			queueStale = journal.isRecording();
+		}
+		return regionQueue;
+	}
+
 	public Set<Region> getComplete() {
 		return completedRegions;
 	}
@@ -140,16 +224,47 @@ public class BoardObject {
 		return incompleteRegions.get(key);
 	}
 
+	/**
+	 *	getRegion() gets the region a terrain, tiger or region ID currently belongs to.
+	 *	Regions are merged with a union-find, so an ID may point at a region that has
+	 *	since been merged into another; this follows it up to the root.
+	 *	@param regionID the ID the terrain (or tiger) was given
+	 *	@return the root region, or null if there is no such region on the board
+	 */
+	public Region getRegion(int regionID) {
+		Region region = allRegions.get(regionID);
+		if (region == null) return null;
+
+		Region root = region.find();
+		if (!journal.isRecording()) region.compress(root);
+		return root;
+	}
+
+	/**
+	 *	getHash() gets the Zobrist hash of the position: the tiles and animals placed
+	 *	(kept up to date by place(), placeTiger() and placeCrocodile()), the player to
+	 *	move, and each player's points, tigers and crocodiles. Two move orders that end
+	 *	up with the same board get the same hash.
+	 *	@return the 64 bit hash
+	 */
+	public long getHash() {
+		long position = hash ^ Zobrist.resources(players);
+		return (activePlayer == players[1]) ? position ^ Zobrist.SIDE : position;
+	}
+
+	public UndoJournal getJournal() {
+		return journal;
+	}
+
 	//get the moore neighborhood around the specified location
 	public ArrayList<Location> getMoore(Location coord) {
 
-		//adjust ARRAY coordinates based on given starting position
-		int row = coord.getY();
-		int col = coord.getX();
+		int adjustedX = coord.getX();
+		int adjustedY = coord.getY();
 
 		ArrayList<Location> mooreHood = new ArrayList<Location>();
 
-		TigerTile center = board[row][col];
+		TigerTile center = board.get(adjustedX, adjustedY);
 		if (center == null) {
 			setReason("Can't get Moore neighborhood: given location is empty.");
 			return mooreHood;
@@ -157,21 +272,15 @@ public class BoardObject {
 		mooreHood.add(coord);
 
 		//obtain the neighboring tiles
-		TigerTile north = null, east = null, south = null, west = null;
-		if(row > 0) north = board[row - 1][col];
-		if(col < COLSIZE-1) east = board[row][col + 1];
-		if(row < ROWSIZE-1) south = board[row + 1][col];
-		if(col > 0) west = board[row][col - 1];
-
-		TigerTile nw = null, ne = null, se = null, sw = null;
-		if (row > 0 && col > 0) nw = board[row-1][col-1];
-		if (row > 0 && col < COLSIZE-1) ne = board[row-1][col+1];
-		if (row < ROWSIZE-1 && col < COLSIZE-1) se = board[row+1][col+1];
-		if (row < ROWSIZE-1 && col > 0) sw = board[row+1][col-1];
-
-		//adjust CARTERSIAN coordinates based on given starting position
-		int adjustedY = startY + (COLSIZE/2 - row);
-		int adjustedX = startX + (col - ROWSIZE/2);
+		TigerTile north = board.get(adjustedX, adjustedY + 1);
+		TigerTile east = board.get(adjustedX + 1, adjustedY);
+		TigerTile south = board.get(adjustedX, adjustedY - 1);
+		TigerTile west = board.get(adjustedX - 1, adjustedY);
+
+		TigerTile nw = board.get(adjustedX - 1, adjustedY + 1);
+		TigerTile ne = board.get(adjustedX + 1, adjustedY + 1);
+		TigerTile se = board.get(adjustedX + 1, adjustedY - 1);
+		TigerTile sw = board.get(adjustedX - 1, adjustedY - 1);
 
 		//if the neighboring board tiles weren't null, add their locations to Moore
 		if(north != null) mooreHood.add(new Location(adjustedX,adjustedY + 1));
@@ -210,7 +319,7 @@ public class BoardObject {
 	//	}
 
 	public TigerTile getTile(Location location) {
-		return board[location.getY()][location.getX()];
+		return board.get(location.getX(), location.getY());
 	}
 
 	public TigerTile getTile(int index) {
@@ -219,16 +328,20 @@ public class BoardObject {
 		return tile;
 	}
 
+	public ArrayList<TigerTile> getTileDeck() {
+		return tiles;
+	}
+
 	public void setTileDeck(ArrayList<TigerTile> tiles) {
 		this.tiles = tiles;
 	}
 
 	public int getStartX() {
-		return BoardObject.startX;
+		return startX;
 	}
 
 	public int getStartY() {
-		return BoardObject.startY;
+		return startY;
 	}
 
 	//MUTATORS
@@ -238,11 +351,23 @@ public class BoardObject {
 	}
 
 	/**
-	 *	setAS() sets the array list of available spots to new spots
+	 *	setAS() sets the available spots to new spots
 	 *	@param availableSpots an array list of new available spots to set
 	 */
 	public void setAS(ArrayList<Location> availableSpots) {
-		this.availableSpots = availableSpots;
+		this.availableSpots.clear();
+		for (Location spot : availableSpots) {
+			int x = spot.getX(), y = spot.getY();
+			this.availableSpots.add(x, y);
+
+			//rebuild what the spot requires from the tiles around it
+			TigerTile north = board.get(x, y + 1), east = board.get(x + 1, y);
+			TigerTile south = board.get(x, y - 1), west = board.get(x - 1, y);
+			if (north != null) this.availableSpots.require(x, y, TileEdges.NORTH, north.getEdgeType(TileEdges.SOUTH));
+			if (east != null) this.availableSpots.require(x, y, TileEdges.EAST, east.getEdgeType(TileEdges.WEST));
+			if (south != null) this.availableSpots.require(x, y, TileEdges.SOUTH, south.getEdgeType(TileEdges.NORTH));
+			if (west != null) this.availableSpots.require(x, y, TileEdges.WEST, west.getEdgeType(TileEdges.EAST));
+		}
 	}
 
 
@@ -256,9 +381,8 @@ public class BoardObject {
 
 	/**
 	 *  valid() serves as our placement validity checker. It currently
-	 *	checks to see if the location being placed is within bounds
-	 *	of the board and if the location is in the available list of
-	 *	spots.
+	 *	checks to see if the location being placed is empty and if the
+	 *	location is in the available list of spots.
 	 *
 	 * 	TO DO: check if the adjacent tiles at that location can accept the tile
 	 *  @param tile the tile to be potentially placed
@@ -276,85 +400,72 @@ public class BoardObject {
 		if (tile == null) return false;
 
 		//get queried placement
-		int row = coord.getY();
-		int col = coord.getX();
-
-		//if out of bounds of the board, or location filled return false automatically
-		if ((row<0 || row>ROWSIZE-1) || (col<0 || col>COLSIZE-1)) {
-			setReason("Out of board range. Resize the board?");
-			return false;
-		}
+		int x = coord.getX();
+		int y = coord.getY();
 
-		if(board[row][col] != null) {
+		//if location filled return false automatically (the board grows as needed)
+		if(board.get(x, y) != null) {
 			setReason("Spot is filled. Try another location.");
 			return false;
 		}
 
-		//find if the requested spot is in the list of accumulated available spots
-		boolean found = false;
-		int index = 0;
-		for (int i = 0; i < availableSpots.size(); i++) {
-			if (availableSpots.get(i).equals(coord)) {
-				index = i;
-				found = true;
-				break;
-			}
-		}
-
-		//if wasn't found in the list, return false
-		if (!found) {
+		//if the requested spot isn't in the set of accumulated available spots, return false
+		int index = availableSpots.indexOf(Coordinate.pack(x, y));
+		if (index == -1) {
 			setReason("Requested location isn't in the available spots list");
 			return false;
 		}
 
-		//get adjacent tiles
-		TigerTile north = null, east = null, south = null, west = null;
-		if(row > 0) north = board[row - 1][col];
-		if(col < COLSIZE-1) east = board[row][col + 1];
-		if(row < ROWSIZE-1) south = board[row + 1][col];
-		if(col > 0) west = board[row][col - 1];
-
-		//if tile edges dont match north with adjacent touching edges, return false
-		setReason("Can't place for given orientation.");
-		if(north != null && north.getEdgeType(TileEdges.SOUTH) != tile.getEdgeType(TileEdges.NORTH))  return false;
-		if(east != null && east.getEdgeType(TileEdges.WEST) != tile.getEdgeType(TileEdges.EAST)) return false;
-		if(south != null && south.getEdgeType(TileEdges.NORTH) != tile.getEdgeType(TileEdges.SOUTH)) return false;
-		if(west != null && west.getEdgeType(TileEdges.EAST) != tile.getEdgeType(TileEdges.WEST)) return false;
-		setReason("");
+		//if tile edges dont match the adjacent touching edges, return false
+		if (!availableSpots.fits(index, tile.getSignature(tile.getOrientation()))) {
+			setReason("Can't place for given orientation.");
+			return false;
+		}
 
-		//else remove location from available spots list, return true
-		availableSpots.remove(index);
+		//else remove location from available spots, return true
+		saveSpot(x, y);
+		availableSpots.remove(x, y);
 
 		return true;
 	}
 
 	//Places a tile on the board at a given location
 	public boolean place(TigerTile tile, Location coord) {
+		boolean placed = place(tile, coord.getKey());
 
-		int row = coord.getY();
-		int col = coord.getX();
-		int adjustedY = startY + (COLSIZE/2 - row);
-		int adjustedX = startX + (col - ROWSIZE/2);
-		String type = tile.getType();
-
-		TigerTile north = null, east = null, south = null, west = null;
-		if(row > 0) north = board[row - 1][col];
-		if(col < COLSIZE-1) east = board[row][col + 1];
-		if(row < ROWSIZE-1) south = board[row + 1][col];
-		if(col > 0) west = board[row][col - 1];
+		//keep the caller's Location on the tile rather than making another
+		tile.setCoord(coord);
+		return placed;
+	}
 
-		Location addnorth = null, addeast = null, addwest = null, addsouth = null;
+	/**
+	 *	place() physically places a tile on the board, without making any Locations.
+	 *	It joins the tile's regions to the tiles around it, updates the available
+	 *	spots and counts the tile towards the dens nearby.
+	 *	@param tile The tile to be placed
+	 *	@param key The packed coordinate to place it at (see Coordinate)
+	 *	@return true once placed
+	 */
+	public boolean place(TigerTile tile, long key) {
 
-		addnorth = new Location(adjustedX, adjustedY + 1);
-		addeast = new Location(adjustedX + 1, adjustedY);
-		addsouth = new Location(adjustedX, adjustedY - 1);
-		addwest = new Location(adjustedX - 1, adjustedY);
+		int adjustedX = Coordinate.getX(key);
+		int adjustedY = Coordinate.getY(key);
 
-		//remove potential dnorthlicate values (is there a better way to do this?)
-		for (int i = 0; i < availableSpots.size(); i++) {
-			if ((availableSpots.get(i).equals(addnorth)) || (availableSpots.get(i).equals(addwest)) || (availableSpots.get(i).equals(addeast)) || (availableSpots.get(i).equals(addsouth)) || availableSpots.get(i).equals(coord))
-				availableSpots.remove(i);
+		if (journal.isRecording()) {
+			journal.push(new TurnRecord());
+			journal.push(new TileRecord(tile, adjustedX, adjustedY));
 		}
+		else history.add(new Action(Action.PLACE, tile.getType(), key, tile.getOrientation()));
+		recentlyCompleted.clear();
+
+		TigerTile north = board.get(adjustedX, adjustedY + 1);
+		TigerTile east = board.get(adjustedX + 1, adjustedY);
+		TigerTile south = board.get(adjustedX, adjustedY - 1);
+		TigerTile west = board.get(adjustedX - 1, adjustedY);
+
+		//the spot is no longer available once it's filled
+		saveSpot(adjustedX, adjustedY);
+		availableSpots.remove(adjustedX, adjustedY);
 
 		boolean connectednorth = (north != null) ? true : false;
 		boolean connectedeast = (east != null) ? true : false;
@@ -367,22 +478,19 @@ public class BoardObject {
 				LakeRegion newRegion = new LakeRegion(terrain);
 				int regionID = terrain.getRegionID();
 
-				incompleteRegions.put(regionID,newRegion);
-				allRegions.put(regionID, newRegion);
+				addRegion(regionID, newRegion);
 			}
 			else if (terrain instanceof TrailTerrain) {
 				TrailRegion newRegion = new TrailRegion(terrain);
 				int regionID = terrain.getRegionID();
 
-				incompleteRegions.put(regionID,newRegion);
-				allRegions.put(regionID, newRegion);
+				addRegion(regionID, newRegion);
 			}
 			else if (terrain instanceof JungleTerrain) {
 				JungleRegion newRegion = new JungleRegion(terrain);
 				int regionID = terrain.getRegionID();
 
-				incompleteRegions.put(regionID,newRegion);
-				allRegions.put(regionID, newRegion);
+				addRegion(regionID, newRegion);
 			}
 		}
 
@@ -392,37 +500,52 @@ public class BoardObject {
 		if (connectedsouth) { mergeTileRegions(south,tile,TileEdges.SOUTH); }
 
 
-		//if adjacent tiles were empty, add them to available spots to plac
-		if (north == null && addnorth != null) availableSpots.add(addnorth);
-		if (east == null && addeast != null) availableSpots.add(addeast);
-		if (south == null && addsouth != null) availableSpots.add(addsouth);
-		if (west == null && addwest != null) availableSpots.add(addwest);
+		//if adjacent tiles were empty, add them to available spots (the set ignores duplicates)
+		//and have them require a matching edge from whatever is placed there next
+		if (north == null) {
+			saveSpot(adjustedX, adjustedY + 1);
+			availableSpots.add(adjustedX, adjustedY + 1);
+			availableSpots.require(adjustedX, adjustedY + 1, TileEdges.SOUTH, tile.getEdgeType(TileEdges.NORTH));
+		}
+		if (east == null) {
+			saveSpot(adjustedX + 1, adjustedY);
+			availableSpots.add(adjustedX + 1, adjustedY);
+			availableSpots.require(adjustedX + 1, adjustedY, TileEdges.WEST, tile.getEdgeType(TileEdges.EAST));
+		}
+		if (south == null) {
+			saveSpot(adjustedX, adjustedY - 1);
+			availableSpots.add(adjustedX, adjustedY - 1);
+			availableSpots.require(adjustedX, adjustedY - 1, TileEdges.NORTH, tile.getEdgeType(TileEdges.SOUTH));
+		}
+		if (west == null) {
+			saveSpot(adjustedX - 1, adjustedY);
+			availableSpots.add(adjustedX - 1, adjustedY);
+			availableSpots.require(adjustedX - 1, adjustedY, TileEdges.EAST, tile.getEdgeType(TileEdges.WEST));
+		}
+
+		//set the tile's coordinate to it's new spot
+		tile.setKey(key);
+		hash ^= Zobrist.tile(tile.getType(), key, tile.getCanonical(tile.getOrientation()));
 
 		if(tile.getCenter() == 'X') {
-			DenRegion newDen = new DenRegion(coord);
+			//the den's ID comes from the same place as the tile's terrain IDs so they can't clash
+			DenRegion newDen = new DenRegion(tile.getCoord(), tile.getContext());
 			int regionID = newDen.getRegionID();
-			incompleteRegions.put(regionID, newDen);
-			allRegions.put(regionID, newDen);
+			addRegion(regionID, newDen);
+			if (journal.isRecording()) {
+				journal.push(new UndoJournal.AddRecord(denRegions, newDen));
+				journal.push(new UndoJournal.MapRecord<Long, DenRegion>(denIndex, key));
+			}
 			denRegions.add(newDen);
+			denIndex.put(key, newDen);
 		}
 
-		//set the tile's coordinate to it's new spot, place it, remove from stack
-		tile.setCoord(coord);
-		board[row][col] = tile;
-		recentPlacement = coord;
+		//place it, remove from stack
+		board.put(adjustedX, adjustedY, tile);
 		recentTile = tile;
 
-		int index = 0;
-		boolean found = false;
-		for (int i = 0; i < availableSpots.size(); i++) {
-			if (availableSpots.get(i).equals(coord)) {
-				index = i;
-				found = true;
-				break;
-			}
-		}
-
-		if (found) availableSpots.remove(index);
+		//count the tile towards the dens around it
+		updateDens(tile, adjustedX, adjustedY);
 
 		return true;
 	}
@@ -460,8 +583,12 @@ public class BoardObject {
 
 	//Confirms the move that is to be played on the board
 	public void confirm() {
-		//update the dens and move any completed regions to the completed list
-		updateDens();
+		if (journal.isRecording()) {
+			journal.push(new TurnRecord());
+			for (Integer regionID : minSpots.keySet()) journal.push(new UndoJournal.MapRecord<Integer, Integer>(minSpots, regionID));
+		}
+
+		//move any completed regions to the completed list (the dens were updated by place())
 		moveCompleted();
 		//		switchPlayers(activePlayer);
 		possibleTileSpots.clear();
@@ -479,6 +606,10 @@ public class BoardObject {
 			activePlayer = players[0];
 		}
 
+		if (!journal.isRecording()) {
+			history.add(new Action(Action.CONFIRM, null, 0, 0));
+			queueRecent();
+		}
 	}
 
 	//	public void switchPlayers(Player player) {
@@ -495,89 +626,158 @@ public class BoardObject {
 	//updates active player
 	public void switchToActivePlayer(Player player) {
 		activePlayer = player;
+		if (!journal.isRecording()) history.add(new Action(Action.SWITCH, null, 0, activeIndex()));
+	}
+
+	/**
+	 *	countNeighbors() counts the placed tiles in the Moore neighborhood of a spot
+	 *	@param key the packed coordinate of the spot (it doesn't need a tile)
+	 *	@return 0 to 8 neighboring tiles
+	 */
+	public int countNeighbors(long key) {
+		int x = Coordinate.getX(key);
+		int y = Coordinate.getY(key);
+		int count = 0;
+
+		for (int dx = -1; dx <= 1; dx++) {
+			for (int dy = -1; dy <= 1; dy++) {
+				if ((dx != 0 || dy != 0) && board.get(x + dx, y + dy) != null) count++;
+			}
+		}
+		return count;
 	}
 
 	//Determines if a tile is surrounded on all 8 sides
 	public boolean isSurrounded(Location coord) {
 
-		int row = coord.getY();
-		int col = coord.getX();
+		int x = coord.getX();
+		int y = coord.getY();
 
-		TigerTile tile = board[row-startY][col-startX];
+		TigerTile tile = board.get(x, y);
 		if (tile == null) return false;
 
 		char special = tile.getSpecial();
 
-		TigerTile north = null, east = null, south = null, west = null;
-		TigerTile nw = null, ne = null, se = null, sw = null;
-
-		if(row > 0) north = board[row - 1][col];
-		if(col < COLSIZE-1) east = board[row][col + 1];
-		if(row < ROWSIZE-1) south = board[row + 1][col];
-		if(col > 0) west = board[row][col - 1];
+		TigerTile north = board.get(x, y + 1);
+		TigerTile east = board.get(x + 1, y);
+		TigerTile south = board.get(x, y - 1);
+		TigerTile west = board.get(x - 1, y);
 
 		if(north == null || east == null || south == null || west == null) return false;
 
 		if(special == 'X') {
-			if (row > 0 && col > 0) nw = board[row-1][col-1];
-			if (row > 0 && col < COLSIZE-1) ne = board[row-1][col+1];
-			if (row < ROWSIZE-1 && col < COLSIZE-1) se = board[row+1][col+1];
-			if (row < ROWSIZE-1 && col > 0) sw = board[row+1][col-1];
+			TigerTile nw = board.get(x - 1, y + 1);
+			TigerTile ne = board.get(x + 1, y + 1);
+			TigerTile se = board.get(x + 1, y - 1);
+			TigerTile sw = board.get(x - 1, y - 1);
 			if(nw == null || ne == null || se == null || sw == null) return false;
 		}
 		return true;
 	}
 
-	public void updateDens() {
-
-		//find each den in the map of incomplete regions
-		for (DenRegion denRegion : denRegions) { 
-
-			//get the potential den and ID
-			int denRegionID = denRegion.getRegionID();
+	//requeue the regions the last move could have changed the potential of: the ones on
+	//its tile (merged, grown, or given a crocodile) and the dens around it
+	private void queueRecent() {
+		if (recentTile == null) return;
+		for (Terrain terrain : recentTile.getTerrains()) {
+			Region region = getRegion(terrain.getRegionID());
+			if (region != null && incompleteRegions.get(region.getRegionID()) == region) regionQueue.update(region);
+		}
 
-			//if it was an actual Den Region
-			if(denRegion instanceof DenRegion) {
+		long key = recentTile.getKey();
+		int x = Coordinate.getX(key), y = Coordinate.getY(key);
+		for (int dx = -1; dx <= 1; dx++) {
+			for (int dy = -1; dy <= 1; dy++) {
+				DenRegion den = denIndex.get(Coordinate.pack(x + dx, y + dy));
+				if (den != null && incompleteRegions.get(den.getRegionID()) == den) regionQueue.update(den);
+			}
+		}
+	}
 
-				//obtain the Moore neighborhood and reset the Den Region's
-				ArrayList<Location> newMoore = getMoore(((DenRegion) denRegion).getLocation());
-				((DenRegion) denRegion).setMoore(newMoore);
+	/**
+	 *	updateDens() counts a newly placed tile towards the dens it is next to. Only a den
+	 *	on the tile itself or one of its 8 neighbors can see it, so those are looked up in
+	 *	denIndex instead of rebuilding the Moore neighborhood of every den on the board.
+	 *	@param tile the tile that was just placed
+	 *	@param x the tile's x coordinate
+	 *	@param y the tile's y coordinate
+	 */
+	public void updateDens(TigerTile tile, int x, int y) {
 
+		for (int dx = -1; dx <= 1; dx++) {
+			for (int dy = -1; dy <= 1; dy++) {
+				TigerTile denTile = board.get(x + dx, y + dy);
+				if (denTile == null || denTile.getCenter() != 'X') continue;
 
-				//now update every jungle that is inside of the den region's Moore neighborhood
-				for (Location coord : newMoore) {
+				DenRegion den = denIndex.get(Coordinate.pack(x + dx, y + dy));
+				if (den == null) continue;
 
-					//get the tile and its terrain (regions) based on the location given by the Moore neighborhood
-					TigerTile temp = getTile(coord);
-					Terrain[] tempTerrains = temp.getTerrains();
+				if (denTile != tile) {
+					addDenNeighbor(den, tile);
+					continue;
+				}
 
-					//for every Jungle terrain found, add the den to the set of dens associated with it
-					for (Terrain terrain : tempTerrains) {
-						if(terrain instanceof JungleTerrain) {
-							int jungleRegionID = terrain.getRegionID();
-							Region jungleRegion = incompleteRegions.get(jungleRegionID);
-							if (jungleRegion instanceof JungleRegion && jungleRegion != null) ((JungleRegion) jungleRegion).addDen(denRegionID);
-						}
+				//a new den starts out with its own tile and whatever was already placed around it
+				linkDen(den, tile);
+				for (int nx = -1; nx <= 1; nx++) {
+					for (int ny = -1; ny <= 1; ny++) {
+						TigerTile neighbor = board.get(x + nx, y + ny);
+						if (neighbor != null && neighbor != tile) addDenNeighbor(den, neighbor);
 					}
 				}
 			}
 		}
 	}
 
-	//function to move all of the completed regions and score in time accordingly
-	public void moveCompleted() {
+	//add a tile to a den's Moore neighborhood and link the den to the tile's jungles
+	private void addDenNeighbor(DenRegion den, TigerTile neighbor) {
+		if (journal.isRecording()) journal.push(den.save());
+		boolean wasCompleted = den.isCompleted();
+		den.addNeighbor(neighbor.getCoord());
+		if (!wasCompleted && den.isCompleted()) recentlyCompleted.add(den.getRegionID());
+
+		linkDen(den, neighbor);
+	}
+
+	//for every Jungle terrain on the tile, add the den to the set of dens associated with its region
+	private void linkDen(DenRegion den, TigerTile tile) {
+		int denRegionID = den.getRegionID();
 
+		for (Terrain terrain : tile.getTerrains()) {
+			if(terrain instanceof JungleTerrain) {
+				Region jungleRegion = getRegion(terrain.getRegionID());
+				if (jungleRegion instanceof JungleRegion) {
+					if (journal.isRecording() && !((JungleRegion) jungleRegion).getDens().contains(denRegionID)) journal.push(jungleRegion.save());
+					((JungleRegion) jungleRegion).addDen(denRegionID);
+				}
+			}
+		}
+	}
 
-		Iterator it = incompleteRegions.entrySet().iterator();
+	/**
+	 *	moveCompleted() moves the regions the last move completed to the completed list
+	 *	and scores them. Only the regions in recentlyCompleted can have been completed,
+	 *	so the rest of the incomplete regions aren't looked at.
+	 */
+	public void moveCompleted() {
 
-		while(it.hasNext()) { 
-			Map.Entry pair = (Map.Entry)it.next();
-			Region region = (Region) pair.getValue();
-			if(region.isCompleted() && !region.isScored()) {
+		for (int i = 0; i < recentlyCompleted.size(); i++) {
+			int regionID = recentlyCompleted.get(i);
+			Region region = incompleteRegions.get(regionID);
+			if(region != null && region.isCompleted() && !region.isScored()) {
 
 				int score = region.getPotential();
+				if (journal.isRecording()) {
+					//scoring hands tigers and crocodiles back to both players
+					journal.push(region.save());
+					journal.push(players[0].save());
+					journal.push(players[1].save());
+					journal.push(new UndoJournal.AddRecord(completedRegions, region));
+					journal.push(new UndoJournal.MapRecord<Integer, Region>(incompleteRegions, regionID));
+				}
+				else regionQueue.remove(region);
 				completedRegions.add(region);
-				it.remove();
+				incompleteRegions.remove(regionID);
 				region.setScored(true);
 
 				//distribute scores
@@ -636,87 +836,56 @@ public class BoardObject {
 		default: break;
 		}
 
-		Region aRegion = allRegions.get(aMid.getRegionID());
-		Region bRegion = allRegions.get(bMid.getRegionID());
-		ArrayList<Integer> tileConnections = bMid.getTileConnections();
-		ArrayList<TigerObject> tigers;
-		ArrayList<CrocodileObject> crocodiles = null;
-		Iterator<TigerObject> it = null;
-		Iterator<CrocodileObject> itCrocs = null;
-
-		int oldRegionID;
-
-		if(aRegion != null && bRegion != null && aRegion.getRegionID() != bRegion.getRegionID()) {
-			tigers = bRegion.getTigers();
-			crocodiles = bRegion.getCrocodiles();
-			it = tigers.iterator();
-			itCrocs = crocodiles.iterator();
-			oldRegionID = bRegion.getRegionID();
-
-			for (Integer entry : tileConnections) bEdges.setEdge(entry, aRegion.getRegionID());
-
-			aRegion.addTerrain(bRegion.getTerrains(),aRegion.getRegionID());
-
-			if (aRegion.hasTigers()) while(it.hasNext()) { aRegion.addTiger(bRegion.removeTiger()); }
-			if (aRegion.hasCrocodiles()) while(itCrocs.hasNext()) { aRegion.addCrocodile(bRegion.removeCrocodile()); }
+		//join the regions across the middle of the edge
+		Region midRegion = joinRegions(aMid, bMid);
 
-			updateMin(aRegion.getRegionID(),aRegion.getRecentMin());
-			incompleteRegions.remove(oldRegionID);
+		//a lake or trail running across the edge has one less open edge on each side
+		if (midRegion != null && (bMid.getType() == 'L' || bMid.getType() == 'T')) {
+			if (journal.isRecording()) journal.push(midRegion.save());
+			if (midRegion.closeEdge()) recentlyCompleted.add(midRegion.getRegionID());
 		}
 
 		//if we are connecting a trail, then we have to check the top and bottom to connect jungles as well
 		if (bMid.getType() == 'T') {
+			joinRegions(aTop, bTop);
+			joinRegions(aBot, bBot);
+		}
+	}
 
-			//top
-			aRegion = allRegions.get(aTop.getRegionID());
-			bRegion = allRegions.get(bTop.getRegionID());
-
-			if(aRegion != null && bRegion != null && aRegion.getRegionID() != bRegion.getRegionID()) {
-				tigers = bRegion.getTigers();
-				if(tigers != null) it = tigers.iterator();
-				if (crocodiles != null) itCrocs = crocodiles.iterator();
-
-				oldRegionID = bRegion.getRegionID();
-
-				tileConnections = bTop.getTileConnections();
-				for (Integer entry : tileConnections) bEdges.setEdge(entry, aRegion.getRegionID());
-
-				aRegion.addTerrain(bRegion.getTerrains(),aRegion.getRegionID());
-
-				if (aRegion.hasTigers()) while(it.hasNext()) { aRegion.addTiger(bRegion.removeTiger()); }
-				if (aRegion.hasCrocodiles()) while(itCrocs.hasNext()) { aRegion.addCrocodile(bRegion.removeCrocodile()); }
-
-				updateMin(aRegion.getRegionID(),aRegion.getRecentMin());
-				incompleteRegions.remove(oldRegionID);
-			}
-
-			//bottom
-			aRegion = allRegions.get(aBot.getRegionID());
-			bRegion = allRegions.get(bBot.getRegionID());
-
-			if(aRegion != null && bRegion != null && aRegion.getRegionID() != bRegion.getRegionID()) {
-				tigers = bRegion.getTigers();
-				if(tigers != null) it = tigers.iterator();
-				if (crocodiles != null) itCrocs = crocodiles.iterator();
-
-				oldRegionID = bRegion.getRegionID();
-
-				tileConnections = bBot.getTileConnections();
-				for (Integer entry : tileConnections) bEdges.setEdge(entry, aRegion.getRegionID());
-
-				aRegion.addTerrain(bRegion.getTerrains(),aRegion.getRegionID());
-
-				if (aRegion.hasTigers()) while(it.hasNext()) { aRegion.addTiger(bRegion.removeTiger()); }
-				if (aRegion.hasCrocodiles()) while(itCrocs.hasNext()) { aRegion.addCrocodile(bRegion.removeCrocodile()); }
-
-				updateMin(aRegion.getRegionID(),aRegion.getRecentMin());
-				incompleteRegions.remove(oldRegionID);
-			}
-		}		
+	/**
+	 *	joinRegions() merges the regions of two terrains that touch across an edge.
+	 *	The union-find only touches the two roots, so it doesn't matter how big the
+	 *	regions are.
+	 *	@param a the terrain on the tile already placed
+	 *	@param b the terrain on the tile being placed
+	 *	@return the root of the joined region, null if either terrain has no region
+	 */
+	private Region joinRegions(Terrain a, Terrain b) {
+		Region aRegion = getRegion(a.getRegionID());
+		Region bRegion = getRegion(b.getRegionID());
+
+		//only the middle of an edge has to match, the corners may be different terrains
+		if (aRegion == null || bRegion == null || aRegion.getType() != bRegion.getType()) return null;
+		if (aRegion == bRegion) return aRegion;
+
+		if (journal.isRecording()) saveMerge(aRegion, bRegion);
+
+		//the new tile's terrain is the most recently added
+		int recentMin = bRegion.getRecentMin();
+		Region root = Region.union(aRegion, bRegion);
+		Region child = (root == aRegion) ? bRegion : aRegion;
+		root.setMin(recentMin);
+
+		updateMin(root.getRegionID(), root.getRecentMin());
+		incompleteRegions.remove(child.getRegionID());
+		if (!journal.isRecording()) regionQueue.remove(child);
+		return root;
 	}
 
 	public void updateMin(int regionID, int value) {
 
+		if (journal.isRecording()) journal.push(new UndoJournal.MapRecord<Integer, Integer>(minSpots, regionID));
+
 		if (minSpots.containsKey(regionID)) {
 			if (value < minSpots.get(regionID)) {
 				minSpots.remove(regionID);
@@ -753,12 +922,13 @@ public class BoardObject {
 	}
 
 	public boolean removeTiger(Location location) {
+		if (!journal.isRecording()) history.add(new Action(Action.REMOVE_TIGER, null, Coordinate.pack(location.getX(), location.getY()), 0));
 
 		TigerTile tile = getTile(location);
 		TigerObject stray = tile.getTiger();
 		int regionID = stray.getRegionID();
 		Player owner = stray.getTigerOwner();
-		Region region = allRegions.get(regionID);
+		Region region = getRegion(regionID);
 
 		ArrayList<TigerObject> tigers = region.getTigers();
 
@@ -774,10 +944,16 @@ public class BoardObject {
 	}
 
 	public boolean placeTiger(Location location) {
+		if (!journal.isRecording()) history.add(new Action(Action.TIGER_AT, null, Coordinate.pack(location.getX(), location.getY()), 0));
 
 		TigerTile tile = getTile(location);
 		int regionID = tile.getTiger().getRegionID();
-		Region region = allRegions.get(regionID);
+		Region region = getRegion(regionID);
+		if (journal.isRecording()) {
+			journal.push(new TurnRecord());
+			saveTiger(region, tile);
+		}
+		hash ^= Zobrist.tiger(tile.getKey(), activeIndex(), 0);
 		TigerObject stray = activePlayer.removeTiger();
 		stray.setRegionID(regionID);
 		stray.setLocation(location);
@@ -789,9 +965,14 @@ public class BoardObject {
 
 	public boolean placeTiger(int index) {
 
+		if (journal.isRecording()) journal.push(new TurnRecord());
+		else history.add(new Action(Action.TIGER, null, 0, index));
+
 		for (Terrain terrain : recentTile.getTerrains()) { 
-			if (!minSpots.containsKey(terrain.getRegionID())) { 
-				minSpots.put(terrain.getRegionID(), terrain.getZoneMin());
+			int rootID = rootID(terrain.getRegionID());
+			if (!minSpots.containsKey(rootID)) { 
+				if (journal.isRecording()) journal.push(new UndoJournal.MapRecord<Integer, Integer>(minSpots, rootID));
+				minSpots.put(rootID, terrain.getZoneMin());
 			}
 		}
 
@@ -826,7 +1007,7 @@ public class BoardObject {
 
 		int terrainPoint = adjustIndex(index, true);
 		Terrain terrain = last.getEdge(terrainPoint);
-		int regionID = terrain.getRegionID();
+		int regionID = rootID(terrain.getRegionID());
 
 		Region region; 
 		if (index == 5 && !denRegions.isEmpty()) region = denRegions.get(denRegions.size()-1);
@@ -870,22 +1051,24 @@ public class BoardObject {
 			return false;
 		}
 
+		if (journal.isRecording()) saveTiger(region, recentTile);
 		TigerObject stray = activePlayer.removeTiger();
 		stray.setRegionID(regionID);
-		stray.setLocation(recentPlacement);
+		stray.setLocation(recentTile.getCoord());
 		region.addTiger(stray);
 		recentTile.addTiger(stray);
 		tigerPlaced = true;
+		hash ^= Zobrist.tiger(recentTile.getKey(), activeIndex(), index);
 
-		System.out.println(region);
+//		System.out.println(region);
 
 		return true;
 	}
 
 	public boolean placeCrocodile() {
+		if (!journal.isRecording()) history.add(new Action(Action.CROCODILE, null, 0, 0));
 
-		Location recent = recentPlacement;
-		TigerTile last = getTile(recent);
+		TigerTile last = recentTile;
 		if (last == null) {
 			setReason("Error: no placed tile?");
 			return false;
@@ -901,7 +1084,13 @@ public class BoardObject {
 			return false;
 		}
 
+		if (journal.isRecording()) {
+			journal.push(new TurnRecord());
+			journal.push(activePlayer.save());
+		}
+
 		Terrain[] terrains = last.getTerrains();
+		hash ^= Zobrist.crocodile(last.getKey(), activeIndex());
 		CrocodileObject hatchling = activePlayer.removeCroc();
 
 		for (Terrain terrain : terrains) {
@@ -909,12 +1098,13 @@ public class BoardObject {
 			if (terrain instanceof LakeTerrain || terrain instanceof TrailTerrain) {
 				regionID = terrain.getRegionID();
 
-				Region region = allRegions.get(regionID);
+				Region region = getRegion(regionID);
 
 				if(region == null) {
 					break;
 				}
 				if (!region.hasCrocodiles()) {
+					if (journal.isRecording()) journal.push(region.save());
 					region.addCrocodile(hatchling);
 				}
 			}
@@ -946,7 +1136,7 @@ public class BoardObject {
 	/**
 	 *	setBoard() is self explanatory. It sets the current board to a new board.
 	 */
-	public void setBoard(TigerTile[][] board) {
+	public void setBoard(TileGrid board) {
 		this.board = board;
 	}
 
@@ -957,8 +1147,9 @@ public class BoardObject {
 	 */
 	public void start(TigerTile startTile, int startX, int startY) {
 		setStart(startX, startY);
-		availableSpots.add(new Location(startX,startY));
-		place(startTile, new Location(startX,startY));
+		availableSpots.add(startX, startY);
+		place(startTile, Coordinate.pack(startX, startY));
+		if (!journal.isRecording()) queueRecent();
 		activePlayer = players[0];
 
 		pending = false;
@@ -966,63 +1157,95 @@ public class BoardObject {
 
 	public void end() {
 		//end game logic and scoring
+		endScores();
+		printScores();
+	}
+
+	/**
+	 *	endScores() gives out the points for every region that is still incomplete
+	 *	when the game ends. It's journaled like any other move, so a search can score
+	 *	the end of a playout and undo() it.
+	 */
+	public void endScores() {
+		if (!journal.isRecording()) history.add(new Action(Action.END, null, 0, 0));
 
 		for(Map.Entry<Integer, Region> entry : incompleteRegions.entrySet()) {
 			Region region = entry.getValue();
+			if (region instanceof DenRegion) continue;
 
-			if (region instanceof JungleRegion) {
-
-				//get the adjacent lakes and dens along the jungle region
-				Set<Integer> dens = ((JungleRegion) region).getDens();
-				Set<Integer> lakes = ((JungleRegion) region).getLakes();
-				int completeDens = 0;
-				int completeLakes = 0;
+			int owner = regionOwner(region);
+			if (owner != -1) adjustScore(owner, endScore(region));
+		}
 
-				//get the number of completed dens
-				for (Integer den : dens) {
-					Region denRegion = allRegions.get(den);
-					if (denRegion.isCompleted()) {
-						completeDens++;
-					}
-				}
+		for (DenRegion den : denRegions) { 
+			int score = den.getPotential();
+			int owner = regionOwner(den);
+			if (owner != -1) adjustScore(owner, score);			
+		}
+	}
 
-				//get the number of completed lakes
-				for (Integer lake : lakes) {
-					Region lakeRegion = allRegions.get(lake);
-					if (lakeRegion.isCompleted()) {
-						completeLakes++;
-					}
-				}
+	/**
+	 *	endScoreDifference() works out what endScores() would give out without changing
+	 *	anything, so the end of a search doesn't have to be played and undone
+	 *	@return player 0's end of game points less player 1's (a region both own adds nothing)
+	 */
+	public int endScoreDifference() {
+		int difference = 0;
+		for (Region region : incompleteRegions.values()) {
+			if (region instanceof DenRegion) continue;
+
+			int owner = regionOwner(region);
+			if (owner == 0) difference += endScore(region);
+			else if (owner == 1) difference -= endScore(region);
+		}
 
-				//distribute scores for jungles
-				int score = (3 * completeLakes) + (5 * completeDens);
-				int owner = regionOwner(region);
-				if (owner != -1) adjustScore(owner, score);
+		for (DenRegion den : denRegions) {
+			int owner = regionOwner(den);
+			if (owner == 0) difference += den.getPotential();
+			else if (owner == 1) difference -= den.getPotential();
+		}
+		return difference;
+	}
 
+	//what an incomplete jungle, trail or lake is worth when the game ends
+	private int endScore(Region region) {
+		if (region instanceof JungleRegion) {
+
+			//get the adjacent lakes and dens along the jungle region
+			Set<Integer> dens = ((JungleRegion) region).getDens();
+			Set<Integer> lakes = ((JungleRegion) region).getLakes();
+			int completeDens = 0;
+			int completeLakes = 0;
+
+			//get the number of completed dens
+			for (Integer den : dens) {
+				Region denRegion = allRegions.get(den);
+				if (denRegion.isCompleted()) {
+					completeDens++;
+				}
 			}
-			else if (region instanceof TrailRegion) {
-
-				//distribute scores for incomplete trails
-				int score = ((TrailRegion)region).getPotential();
-				int owner = regionOwner(region);
-				if (owner != -1) adjustScore(owner, score);
 
+			//get the number of completed lakes (several IDs can belong to the same merged lake)
+			countedLakes.clear();
+			for (Integer lake : lakes) {
+				Region lakeRegion = getRegion(lake);
+				if (lakeRegion != null && lakeRegion.isCompleted() && countedLakes.add(lakeRegion)) {
+					completeLakes++;
+				}
 			}
-			else if (region instanceof LakeRegion) {
 
-				//distribute scores for incomplete lakes
-				int score = ((LakeRegion)region).getPotential();
-				int owner = regionOwner(region);
-				if (owner != -1) adjustScore(owner, score);
-			}
+			//scores for jungles
+			return (3 * completeLakes) + (5 * completeDens);
 		}
-
-		for (DenRegion den : denRegions) { 
-			int score = den.getPotential();
-			int owner = regionOwner(den);
-			if (owner != -1) adjustScore(owner, score);			
+		else if (region instanceof TrailRegion) {
+			//scores for incomplete trails
+			return ((TrailRegion)region).getPotential();
 		}
-		printScores();
+		else if (region instanceof LakeRegion) {
+			//scores for incomplete lakes
+			return ((LakeRegion)region).getPotential();
+		}
+		return 0;
 	}
 
 	//Determines owner of particular region
@@ -1048,110 +1271,50 @@ public class BoardObject {
 
 	//Determines if the next tile to be played has the ability to placed
 	//Used by AI to make gameplay decisions
+	//The TilePairs in getPossibleSpots() are reused, they are only valid until the next call
 	public boolean canPlace(TigerTile tile) {
 
 		possibleTileSpots.clear();
-		ArrayList<Location> spots = availableSpots;
-		TileEdges edges = tile.getEdges();
-		Terrain[] terrains = edges.getTerrains();
+		placeableSpots.clear();
+		Frontier spots = availableSpots;
 
-		char[] edgeTypes0 = {terrains[0].getType(),terrains[1].getType(),terrains[2].getType(),terrains[3].getType(),terrains[4].getType(),terrains[5].getType(),terrains[6].getType(),terrains[7].getType(),};
-		char[] edgeTypes90 = {terrains[2].getType(),terrains[3].getType(),terrains[4].getType(),terrains[5].getType(),terrains[6].getType(),terrains[7].getType(),terrains[0].getType(),terrains[1].getType(),};
-		char[] edgeTypes180 = {terrains[4].getType(),terrains[5].getType(),terrains[6].getType(),terrains[7].getType(),terrains[0].getType(),terrains[1].getType(),terrains[2].getType(),terrains[3].getType(),};
-		char[] edgeTypes270 = {terrains[6].getType(),terrains[7].getType(),terrains[0].getType(),terrains[1].getType(),terrains[2].getType(),terrains[3].getType(),terrains[4].getType(),terrains[5].getType(),};
+		//the tile's edges in every orientation, packed as 4 bits per edge point
+		int signature0 = tile.getSignature(0);
+		int signature90 = tile.getSignature(1);
+		int signature180 = tile.getSignature(2);
+		int signature270 = tile.getSignature(3);
 
 		boolean canPlace = false;
 
-		for (Location spot : spots) {
-
-			TigerTile north = null, east = null, south = null, west = null;
-
-			int row = spot.getY();
-			int col = spot.getX();
-
-			if (row > 0) north = board[row - 1][col];
-			if (col < COLSIZE-1) east = board[row][col + 1];
-			if (row < ROWSIZE-1) south = board[row + 1][col];
-			if (col > 0) west = board[row][col - 1];
+		for (int i = 0; i < spots.size(); i++) {
 
-			boolean connectednorth = (north != null) ? true : false,
-					connectedeast = (east != null) ? true : false,
-							connectedsouth = (south != null) ? true : false,
-									connectedwest = (west != null) ? true : false;
+			//each spot already knows the edges its placed neighbors require
+			boolean canPlace0 = spots.fits(i, signature0);
+			boolean canPlace90 = spots.fits(i, signature90);
+			boolean canPlace180 = spots.fits(i, signature180);
+			boolean canPlace270 = spots.fits(i, signature270);
 
-			Set<Integer> compare = new LinkedHashSet<Integer>();
-
-			char[] edgeCompare = new char[8];
-			if (connectednorth) {
-				edgeCompare[1] = north.getEdgeType(5);
-				compare.add(1);
-			}
-			if (connectedeast) {
-				edgeCompare[3] = east.getEdgeType(7);
-				compare.add(3);
-			}
-			if (connectedsouth) {
-				edgeCompare[5] = south.getEdgeType(1);
-				compare.add(5);
-			}
-			if (connectedwest) {
-				edgeCompare[7] = west.getEdgeType(3);
-				compare.add(7);
-			}
-
-			boolean canPlace0 = true, canPlace90 = true, canPlace180 = true, canPlace270 = true;
-
-			//check 0
-			for (Integer integer : compare) {
-				if (edgeCompare[integer] != edgeTypes0[integer]) {
-					canPlace0 = false;
-					break;
-				}
-			}
-
-			//check 90
-			for (Integer integer : compare) {
-				if (edgeCompare[integer] != edgeTypes90[integer]) {
-					canPlace90 = false;
-					break;
-				}
-			}
-
-			//check 180
-			for (Integer integer : compare) {
-				if (edgeCompare[integer] != edgeTypes180[integer]) {
-					canPlace180 = false;
-					break;
-				}
-			}
-
-			//check 270
-			for (Integer integer : compare) {
-				if (edgeCompare[integer] != edgeTypes270[integer]) {
-					canPlace270 = false;
-					break;
-				}
-			}
+			if (!canPlace0 && !canPlace90 && !canPlace180 && !canPlace270) continue;
+			long spot = spots.get(i);
+			placeableSpots.add(spot);
 
 			if (canPlace0) {
-				possibleTileSpots.add(new TilePair(spot, 0));
+				possibleTileSpots.add(nextTilePair(spot, 0));
 			}
 
 			if (canPlace90) {
-				possibleTileSpots.add(new TilePair(spot, 90));
+				possibleTileSpots.add(nextTilePair(spot, 90));
 			}
 
 			if (canPlace180) {
-				possibleTileSpots.add(new TilePair(spot, 180));
+				possibleTileSpots.add(nextTilePair(spot, 180));
 			}
 
 			if (canPlace270) {
-				possibleTileSpots.add(new TilePair(spot, 270));
+				possibleTileSpots.add(nextTilePair(spot, 270));
 			}
 
-			if (canPlace0 || canPlace90 || canPlace180 || canPlace270) {
-				canPlace = true;
-			}
+			canPlace = true;
 
 		}
 
@@ -1159,8 +1322,26 @@ public class BoardObject {
 		return canPlace;
 	}
 
+	//hand out the next pooled TilePair so canPlace() doesn't allocate once warmed up
+	private TilePair nextTilePair(long spot, int orientation) {
+		int index = possibleTileSpots.size();
+		if (index == tilePairs.size()) tilePairs.add(new TilePair());
+
+		TilePair pair = tilePairs.get(index);
+		pair.set(spot, orientation);
+		return pair;
+	}
+
 
 	public void adjustScore(int index, int score) {
+		if (journal.isRecording()) {
+			if (index == 2) {
+				journal.push(players[0].save());
+				journal.push(players[1].save());
+			}
+			else journal.push(players[index].save());
+		}
+
 		if (index == 2) {
 			players[0].addScore(score);
 			players[1].addScore(score);
@@ -1170,6 +1351,204 @@ public class BoardObject {
 		}
 	}
 
+	//UNDO
+
+	/**
+	 *	checkpoint() starts recording moves so they can be taken back. Everything
+	 *	place(), placeTiger(), placeCrocodile() and confirm() change from here on is
+	 *	journaled, so a search can make a move, look at the board and undo() it
+	 *	without copying anything. Checkpoints nest.
+	 *	@return the depth of the new checkpoint
+	 */
+	public int checkpoint() {
+		return journal.checkpoint();
+	}
+
+	/**
+	 *	replicate() makes a board of its own with the same position, for a search
+	 *	running on another thread. Nothing is shared: the moves made so far are
+	 *	played again on a new board with new players and a new deck of the same
+	 *	tiles. The first tile placed is taken to be the start tile.
+	 *	@return the new board
+	 */
+	public BoardObject replicate() {
+		BoardObject replica = new BoardObject();
+		Player[] copies = new Player[players.length];
+		for (int i = 0; i < players.length; i++) copies[i] = new Player(players[i].getID(), players[i].isFirst());
+		replica.setPlayers(copies);
+		replica.catchUp(this);
+		return replica;
+	}
+
+	/**
+	 *	catchUp() plays the moves a board made since this replica of it was last
+	 *	caught up, see replicate(). The replica mustn't make moves of its own outside
+	 *	a checkpoint.
+	 *	@param source the board this was replicated from
+	 */
+	public void catchUp(BoardObject source) {
+		if (source.tiles != null && (tiles == null || tiles.size() != source.tiles.size())) {
+			tiles = new ArrayList<TigerTile>(source.tiles.size());
+			for (TigerTile tile : source.tiles) tiles.add(new TigerTile(tile.getType(), tile.getOrientation(), context));
+		}
+
+		for (int i = history.size(); i < source.history.size(); i++) {
+			Action action = source.history.get(i);
+			long key = action.key;
+			if (action.op == Action.PLACE) {
+				TigerTile tile = new TigerTile(action.type, action.value, context);
+				if (history.isEmpty()) start(tile, Coordinate.getX(key), Coordinate.getY(key));
+				else place(tile, key);
+			}
+			else if (action.op == Action.TIGER) placeTiger(action.value);
+			else if (action.op == Action.TIGER_AT) placeTiger(new Location(Coordinate.getX(key), Coordinate.getY(key)));
+			else if (action.op == Action.REMOVE_TIGER) removeTiger(new Location(Coordinate.getX(key), Coordinate.getY(key)));
+			else if (action.op == Action.CROCODILE) placeCrocodile();
+			else if (action.op == Action.CONFIRM) confirm();
+			else if (action.op == Action.SWITCH) switchToActivePlayer(players[action.value]);
+			else if (action.op == Action.END) endScores();
+		}
+	}
+
+	/**
+	 *	undo() takes back every move since the latest checkpoint. Regions, the
+	 *	frontier, scores and the players' tigers and crocodiles are restored exactly.
+	 *	canPlace() isn't a move, call it again for the restored board if needed.
+	 */
+	public void undo() {
+		journal.undo();
+	}
+
+	/**
+	 *	commit() keeps every move since the latest checkpoint
+	 */
+	public void commit() {
+		journal.commit();
+		//the moves are kept, but the region queue didn't follow them
+		if (!journal.isRecording()) queueStale = true;
+	}
+
+	//0 if the first player is to move, 1 for the second
+	private int activeIndex() {
+		return (players != null && activePlayer == players[1]) ? 1 : 0;
+	}
+
+	//a move made outside a checkpoint, kept so catchUp() can make it again on a replica
+	protected static class Action {
+		static final int PLACE = 0, TIGER = 1, TIGER_AT = 2, REMOVE_TIGER = 3, CROCODILE = 4, CONFIRM = 5, SWITCH = 6, END = 7;
+
+		final int op;
+		final String type; //the tile placed
+		final long key; //where, as a packed coordinate
+		final int value; //the orientation placed, the tiger zone or the player switched to
+
+		Action(int op, String type, long key, int value) {
+			this.op = op;
+			this.type = type;
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	//record a frontier spot before it's added, required or removed
+	private void saveSpot(int x, int y) {
+		if (journal.isRecording()) journal.push(availableSpots.save(Coordinate.pack(x, y)));
+	}
+
+	//add a new region to the incomplete and all region maps
+	private void addRegion(int regionID, Region region) {
+		if (journal.isRecording()) {
+			journal.push(new UndoJournal.MapRecord<Integer, Region>(incompleteRegions, regionID));
+			journal.push(new UndoJournal.MapRecord<Integer, Region>(allRegions, regionID));
+		}
+		else regionQueue.update(region);
+		incompleteRegions.put(regionID, region);
+		allRegions.put(regionID, region);
+	}
+
+	//record both roots of a merge and their entries in the incomplete regions (one of them is removed)
+	private void saveMerge(Region aRegion, Region bRegion) {
+		journal.push(aRegion.save());
+		journal.push(bRegion.save());
+		journal.push(new UndoJournal.MapRecord<Integer, Region>(incompleteRegions, aRegion.getRegionID()));
+		journal.push(new UndoJournal.MapRecord<Integer, Region>(incompleteRegions, bRegion.getRegionID()));
+	}
+
+	//the ID of the root region an ID belongs to (the ID itself if it isn't a region)
+	private int rootID(int regionID) {
+		Region region = getRegion(regionID);
+		return (region != null) ? region.getRegionID() : regionID;
+	}
+
+	//record everything placing the active player's tiger on a tile changes
+	private void saveTiger(Region region, TigerTile tile) {
+		journal.push(activePlayer.save());
+		journal.push(region.save());
+		if (activePlayer.hasTigers()) {
+			TigerObject stray = activePlayer.getTigers().get(0);
+			journal.push(stray.save());
+			journal.push(new UndoJournal.AddRecord(tile.getTigers(), stray));
+		}
+	}
+
+	//the turn flags, the regions the move completed and the candidate placements, which confirm() clears
+	private class TurnRecord implements UndoJournal.Record {
+		private final Player player;
+		private final TigerTile tile;
+		private final boolean wasPending, hadTiger, hadCrocodile;
+		private final Integer[] completed;
+		private final long[] moves; //packed placements (see TilePair.encode())
+		private final long oldHash;
+
+		private TurnRecord() {
+			oldHash = hash;
+			player = activePlayer;
+			tile = recentTile;
+			wasPending = pending;
+			hadTiger = tigerPlaced;
+			hadCrocodile = crocodilePlaced;
+			completed = recentlyCompleted.toArray(new Integer[0]);
+			moves = new long[possibleTileSpots.size()];
+			for (int i = 0; i < moves.length; i++) moves[i] = possibleTileSpots.get(i).getMove();
+		}
+
+		public void undo() {
+			hash = oldHash;
+			activePlayer = player;
+			recentTile = tile;
+			pending = wasPending;
+			tigerPlaced = hadTiger;
+			crocodilePlaced = hadCrocodile;
+			UndoJournal.refill(recentlyCompleted, completed);
+
+			//rewrite the pooled pairs, a deeper canPlace() may have reused them
+			possibleTileSpots.clear();
+			for (long move : moves) possibleTileSpots.add(nextTilePair(TilePair.getKey(move), TilePair.getOrientation(move)));
+		}
+	}
+
+	//a tile going onto the board
+	private class TileRecord implements UndoJournal.Record {
+		private final TigerTile tile;
+		private final Location coord; //may be null, it's only made when asked for
+		private final long key;
+		private final int x, y;
+
+		private TileRecord(TigerTile tile, int x, int y) {
+			this.tile = tile;
+			this.coord = tile.coord;
+			this.key = tile.key;
+			this.x = x;
+			this.y = y;
+		}
+
+		public void undo() {
+			board.remove(x, y);
+			tile.coord = coord;
+			tile.key = key;
+		}
+	}
+
 	public void printScores() {
 		System.out.println(players[0]);
 		System.out.println(players[1]);
@@ -1177,13 +1556,16 @@ public class BoardObject {
 
 	/**
 	 *	Print out the game board in a naive format. Shows locations as their
-	 *	coordinates or as the tile that is currently placed.
+	 *	coordinates or as the tile that is currently placed. Only the bounding
+	 *	box of the placed tiles (plus a border of one) is printed.
 	 */
 	public void print() {
-		for (int row = 0; row < ROWSIZE; row++) {
-			for (int col = 0; col < COLSIZE; col++) {
-				if(board[row][col] == null) System.out.print("(" + ((col - COLSIZE/2) + startY) + "," + ((ROWSIZE/2 - row) + startX) + ")\t");
-				else System.out.print(board[row][col].getType() + "\t");
+		if (board.isEmpty()) return;
+		for (int y = board.getMaxY() + 1; y >= board.getMinY() - 1; y--) {
+			for (int x = board.getMinX() - 1; x <= board.getMaxX() + 1; x++) {
+				TigerTile tile = board.get(x, y);
+				if(tile == null) System.out.print("(" + x + "," + y + ")\t");
+				else System.out.print(tile.getType() + "\t");
 			}
 			System.out.println("\n");
 		}
@@ -1198,7 +1580,7 @@ public class BoardObject {
 		if (availableSpots.isEmpty()) System.out.println("None");
 		else
 			for (int i = 0; i < availableSpots.size(); i++) {
-				System.out.print(availableSpots.get(i).toString() + " ");
+				System.out.print("(" + availableSpots.getX(i) + "," + availableSpots.getY(i) + ") ");
 			}//end for
 	}//end printSpots
 }
@@ -0,0 +1,108 @@
+package entities;
+
+/*
+ * Coordinate packs a board position into a single long so it can be used as a
+ * primitive key (no Location objects needed). The x coordinate is kept in the
+ * upper 32 bits and the y coordinate in the lower 32 bits.
+ *
+ * Coordinates are the same cartesian (x,y) pairs the server uses, with the
+ * starting tile wherever the server says it is.
+ */
+public final class Coordinate {
+
+	//the step to the tile beside each TileEdges point, NORTHWEST (0) clockwise to WEST (7)
+	private static final int[] STEP_X = {-1, 0, 1, 1, 1, 0, -1, -1};
+	private static final int[] STEP_Y = {1, 1, 1, 0, -1, -1, -1, 0};
+
+	private Coordinate() {
+		//only static helpers
+	}
+
+	/**
+	 * pack() combines an x and y coordinate into a single key
+	 * @param x the x (column) coordinate
+	 * @param y the y (row) coordinate
+	 * @return the packed key
+	 */
+	public static long pack(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * getX() unpacks the x coordinate of a key
+	 * @param key a packed coordinate
+	 * @return the x coordinate
+	 */
+	public static int getX(long key) {
+		return (int) (key >> 32);
+	}
+
+	/**
+	 * getY() unpacks the y coordinate of a key
+	 * @param key a packed coordinate
+	 * @return the y coordinate
+	 */
+	public static int getY(long key) {
+		return (int) key;
+	}
+
+	/**
+	 * offset() moves a coordinate by a number of columns and rows
+	 * @param key a packed coordinate
+	 * @param dx columns to move (east is positive)
+	 * @param dy rows to move (north is positive)
+	 * @return the packed coordinate that far away
+	 */
+	public static long offset(long key, int dx, int dy) {
+		return pack(getX(key) + dx, getY(key) + dy);
+	}
+
+	/**
+	 * neighbor() gets the spot next to a coordinate on the side of one of the tile's
+	 * edge points, so the sides give the 4 adjacent spots and the corners the diagonals
+	 * @param key a packed coordinate
+	 * @param point a TileEdges point (e.g. TileEdges.NORTH or TileEdges.SOUTHWEST)
+	 * @return the packed coordinate of the neighbor
+	 */
+	public static long neighbor(long key, int point) {
+		return offset(key, STEP_X[point], STEP_Y[point]);
+	}
+
+	/**
+	 * fromServer() reads a coordinate the way the server sends it, as two numbers
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @return the packed key
+	 */
+	public static long fromServer(String x, String y) {
+		return pack(Integer.parseInt(x), Integer.parseInt(y));
+	}
+
+	/**
+	 * toServer() writes a coordinate the way the server expects it ("x y")
+	 * @param key a packed coordinate
+	 * @return the coordinate as it goes in a move
+	 */
+	public static String toServer(long key) {
+		return getX(key) + " " + getY(key);
+	}
+
+	/**
+	 * toLocation() makes a Location for code that still needs one
+	 * @param key a packed coordinate
+	 * @return a new Location
+	 */
+	public static Location toLocation(long key) {
+		return new Location(getX(key), getY(key));
+	}
+
+	/**
+	 * hash() spreads a key over the bits used by the open addressing tables
+	 * @param key a packed coordinate
+	 * @return a well mixed hash
+	 */
+	static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,231 @@
+package entities;
+
+import java.util.Arrays;
+
+/*
+ * CoordinateSet is a set of packed (x,y) Coordinates with O(1) add, contains and
+ * remove. The members are kept densely packed in an array so they can be iterated
+ * by index without allocating an iterator:
+ *
+ *		for (int i = 0; i < set.size(); i++) { int x = set.getX(i), y = set.getY(i); ... }
+ *
+ * An open addressing table maps each key to its position in the dense array. Removing
+ * a member moves the last member into its place, so removals change the iteration order
+ * (and must not be done while iterating forwards over the set).
+ */
+public class CoordinateSet {
+
+	private static final int MIN_CAPACITY = 16;
+
+	protected long[] members; //dense, in no particular order
+	protected int size;
+
+	protected int[] table; //position in members + 1, 0 marks an empty slot
+	protected int mask;
+
+	//constructors
+	public CoordinateSet() {
+		members = new long[MIN_CAPACITY / 2];
+		table = new int[MIN_CAPACITY];
+		mask = MIN_CAPACITY - 1;
+		size = 0;
+	}
+
+	//ACCESSORS
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * get() gets the packed coordinate at a position of the dense array
+	 * @param index 0 to size()-1
+	 * @return the packed coordinate
+	 */
+	public long get(int index) {
+		return members[index];
+	}
+
+	public int getX(int index) {
+		return Coordinate.getX(members[index]);
+	}
+
+	public int getY(int index) {
+		return Coordinate.getY(members[index]);
+	}
+
+	public boolean contains(int x, int y) {
+		return indexOf(Coordinate.pack(x, y)) != -1;
+	}
+
+	public boolean contains(long key) {
+		return indexOf(key) != -1;
+	}
+
+	/**
+	 * indexOf() finds where a coordinate is stored in the dense array
+	 * @param key the packed coordinate
+	 * @return the position, or -1 if it isn't in the set
+	 */
+	public int indexOf(long key) {
+		int slot = Coordinate.hash(key) & mask;
+		while (table[slot] != 0) {
+			int position = table[slot] - 1;
+			if (members[position] == key) return position;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	//MUTATORS
+
+	public boolean add(int x, int y) {
+		return add(Coordinate.pack(x, y));
+	}
+
+	/**
+	 * add() adds a coordinate to the set
+	 * @param key the packed coordinate
+	 * @return true if it was added, false if it was already a member
+	 */
+	public boolean add(long key) {
+		//keep the table at most half full
+		if ((size + 1) * 2 > table.length) resize(table.length * 2);
+
+		int slot = Coordinate.hash(key) & mask;
+		while (table[slot] != 0) {
+			if (members[table[slot] - 1] == key) return false;
+			slot = (slot + 1) & mask;
+		}
+
+		if (size == members.length) members = Arrays.copyOf(members, size * 2);
+		members[size] = key;
+		table[slot] = ++size;
+		added(size - 1);
+		return true;
+	}
+
+	public boolean remove(int x, int y) {
+		return remove(Coordinate.pack(x, y));
+	}
+
+	/**
+	 * remove() takes a coordinate out of the set
+	 * @param key the packed coordinate
+	 * @return true if it was removed, false if it wasn't a member
+	 */
+	public boolean remove(long key) {
+		int slot = Coordinate.hash(key) & mask;
+		while (table[slot] != 0) {
+			int position = table[slot] - 1;
+			if (members[position] == key) {
+				shiftBack(slot);
+
+				//fill the hole in the dense array with the last member
+				int last = size - 1;
+				if (position != last) {
+					long moved = members[last];
+					members[position] = moved;
+					table[slotOf(moved)] = position + 1;
+					moved(last, position);
+				}
+				size--;
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * insert() adds a coordinate at a given position of the dense array, moving the
+	 * member that was there to the end. It's the reverse of remove(), so a removal can
+	 * be taken back without changing the iteration order.
+	 * @param key the packed coordinate
+	 * @param position where it should be stored (0 to size())
+	 * @return the position it is stored at, or -1 if it was already a member
+	 */
+	public int insert(long key, int position) {
+		if (!add(key)) return -1;
+
+		int last = size - 1;
+		if (position >= last) return last;
+
+		//swap the new member with the one at the position it belongs in
+		long other = members[position];
+		int otherSlot = slotOf(other);
+		int keySlot = slotOf(key);
+		moved(position, last);
+		members[last] = other;
+		members[position] = key;
+		table[otherSlot] = last + 1;
+		table[keySlot] = position + 1;
+		added(position);
+		return position;
+	}
+
+	/**
+	 * clear() empties the set but keeps its capacity
+	 */
+	public void clear() {
+		if (size == 0) return;
+		Arrays.fill(table, 0);
+		size = 0;
+	}
+
+	//METHODS
+
+	/**
+	 * added() is called after a new member is stored, so subclasses can keep data
+	 * alongside each position of the dense array
+	 * @param position the new member's position
+	 */
+	protected void added(int position) {
+	}
+
+	/**
+	 * moved() is called when a removal moves the last member into the hole it left
+	 * @param from the member's old position
+	 * @param to the member's new position
+	 */
+	protected void moved(int from, int to) {
+	}
+
+	//find the table slot that points at a member
+	private int slotOf(long key) {
+		int slot = Coordinate.hash(key) & mask;
+		while (members[table[slot] - 1] != key) slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	//close the gap left by a removal so linear probing still finds every key
+	private void shiftBack(int gap) {
+		int slot = (gap + 1) & mask;
+		while (table[slot] != 0) {
+			int home = Coordinate.hash(members[table[slot] - 1]) & mask;
+
+			//move the entry into the gap if its home isn't between the gap and its slot
+			if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+				table[gap] = table[slot];
+				gap = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		table[gap] = 0;
+	}
+
+	private void resize(int capacity) {
+		table = new int[capacity];
+		mask = capacity - 1;
+
+		for (int i = 0; i < size; i++) {
+			int slot = Coordinate.hash(members[i]) & mask;
+			while (table[slot] != 0) slot = (slot + 1) & mask;
+			table[slot] = i + 1;
+		}
+	}
+}
@@ -69,7 +69,43 @@ public class DenRegion extends Region {
 		if (mooreHood.size() == 9) theCompleted = true;
 	}
 
+	/**
+	 * Adds a newly placed tile to the Moore neighborhood of the calling region
+	 * @param neighbor - the location of the tile
+	 */
+	public void addNeighbor(Location neighbor) {
+		mooreHood.add(neighbor);
+		if (mooreHood.size() == 9) theCompleted = true;
+	}
+
 	//METHODS
+
+	@Override
+	public UndoJournal.Record save() {
+		return new DenState(this);
+	}
+
+	//setMoore() replaces the neighborhood list and addNeighbor() adds to it, so keep the list and its size
+	protected static class DenState extends RegionState {
+		protected final ArrayList<Location> mooreHood;
+		protected final int numNeighbors;
+		protected final boolean theCompleted;
+
+		protected DenState(DenRegion region) {
+			super(region);
+			mooreHood = region.mooreHood;
+			numNeighbors = region.mooreHood.size();
+			theCompleted = region.theCompleted;
+		}
+
+		@Override
+		public void undo() {
+			super.undo();
+			((DenRegion) region).mooreHood = mooreHood;
+			UndoJournal.truncate(mooreHood, numNeighbors);
+			((DenRegion) region).theCompleted = theCompleted;
+		}
+	}
 	
 	/**
 	 * toString() method to return the attributes associated with a Den Region
@@ -106,7 +142,7 @@ public class DenRegion extends Region {
 
 
 	public DenRegion(ArrayList<Location> mooreHood) {
-		theRegionID         = Terrain.terrainNum++;
+		theRegionID         = GameContext.getDefault().nextTerrainID();
 		theTerrains         = new ArrayList<Terrain>();
 		theTigers           = new ArrayList<TigerObject>();
 		theCrocodiles		= new ArrayList<CrocodileObject>();
@@ -116,7 +152,17 @@ public class DenRegion extends Region {
 	}
 
 	public DenRegion(Location location) {
-		theRegionID         = Terrain.terrainNum++;
+		this(location, GameContext.getDefault());
+	}
+
+	/**
+	 * DenRegion is the den in the middle of a placed tile.
+	 * @param location where the den's tile is
+	 * @param context the game the den gets its region ID from
+	 * @return DenRegion
+	 */
+	public DenRegion(Location location, GameContext context) {
+		theRegionID         = context.nextTerrainID();
 		theTerrains         = new ArrayList<Terrain>();
 		theTigers           = new ArrayList<TigerObject>();
 		theCrocodiles		= new ArrayList<CrocodileObject>();
@@ -15,7 +15,7 @@ public class DenTerrain extends Terrain {
 	 * @return a DenTerrain
 	 */
 	public DenTerrain(ArrayList<Integer> aTileConnections) {
-		theTerrainID       = terrainNum++;
+		theTerrainID       = GameContext.getDefault().nextTerrainID();
 		theRegionID 	   = theTerrainID;
 		theTileConnections = aTileConnections;
 		theType            = 'D';
@@ -29,7 +29,7 @@ public class DenTerrain extends Terrain {
 	 * @return a DenTerrain
 	 */
 	public DenTerrain() {
-		theTerrainID	   = terrainNum++;
+		theTerrainID	   = GameContext.getDefault().nextTerrainID();
 		theRegionID		   = 0;
 		theTileConnections = null;
 		theType			   = 'D';
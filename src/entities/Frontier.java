@@ -0,0 +1,118 @@
+package entities;
+
+import java.util.Arrays;
+
+/*
+ * The Frontier is the set of available spots (empty spots that touch a placed tile).
+ * Along with each spot it keeps what a tile must look like to be placed there, as a
+ * "required mask + required value" over a tile's edge signature (see TileEdges):
+ *
+ *		a tile fits at spot i in orientation o if (tile.getSignature(o) & mask) == value
+ *
+ * The requirements are added one edge at a time as the spot's neighbors are placed,
+ * so checking a spot never has to look at the board.
+ */
+public class Frontier extends CoordinateSet {
+
+	protected int[] masks;
+	protected int[] values;
+
+	//constructors
+	public Frontier() {
+		super();
+		masks = new int[members.length];
+		values = new int[members.length];
+	}
+
+	//ACCESSORS
+
+	public int getMask(int index) {
+		return masks[index];
+	}
+
+	public int getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * fits() checks a tile's signature against the requirements of a spot
+	 * @param index the spot's position in the frontier
+	 * @param signature a tile's signature in one orientation
+	 * @return true if every placed neighbor's edge matches
+	 */
+	public boolean fits(int index, int signature) {
+		return (signature & masks[index]) == values[index];
+	}
+
+	//MUTATORS
+
+	/**
+	 * require() records that a spot's edge point has to be of a terrain type
+	 * @param x the x coordinate of the spot
+	 * @param y the y coordinate of the spot
+	 * @param point the spot's edge point (0 to 7)
+	 * @param type the terrain type the point has to be
+	 */
+	public void require(int x, int y, int point, char type) {
+		int index = indexOf(Coordinate.pack(x, y));
+		if (index == -1) return;
+
+		int pointMask = TileEdges.pointMask(point);
+		masks[index] |= pointMask;
+		values[index] = (values[index] & ~pointMask) | (TileEdges.code(type) << (4 * point));
+	}
+
+	/**
+	 * setRequirement() replaces everything a spot requires
+	 * @param index the spot's position in the frontier
+	 * @param mask the edge points that are required
+	 * @param value the codes the required points have to be
+	 */
+	public void setRequirement(int index, int mask, int value) {
+		masks[index] = mask;
+		values[index] = value;
+	}
+
+	//METHODS
+
+	/**
+	 * save() records a spot before it is added, required or removed
+	 * @param key the packed coordinate of the spot
+	 * @return a record that puts the spot (and where it is iterated) back the way it is now
+	 */
+	public UndoJournal.Record save(final long key) {
+		final int position = indexOf(key);
+		final int mask = (position != -1) ? masks[position] : 0;
+		final int value = (position != -1) ? values[position] : 0;
+
+		return new UndoJournal.Record() {
+			public void undo() {
+				int index = indexOf(key);
+				if (position == -1) {
+					if (index != -1) remove(key);
+					return;
+				}
+				if (index == -1) index = insert(key, position);
+				setRequirement(index, mask, value);
+			}
+		};
+	}
+
+	@Override
+	protected void added(int position) {
+		if (position >= masks.length) {
+			masks = Arrays.copyOf(masks, members.length);
+			values = Arrays.copyOf(values, members.length);
+		}
+
+		//a new spot doesn't require anything until its neighbors say so
+		masks[position] = 0;
+		values[position] = 0;
+	}
+
+	@Override
+	protected void moved(int from, int to) {
+		masks[to] = masks[from];
+		values[to] = values[from];
+	}
+}
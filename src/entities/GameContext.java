@@ -0,0 +1,73 @@
+package entities;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * GameContext hands out the tile and terrain IDs for one game. IDs only have to be
+ * unique within a game (a board looks its regions up by terrain ID), so every
+ * BoardObject has its own context and games running on other threads never share
+ * a counter:
+ *
+ *		TigerTile tile = new TigerTile("TLTJ-", 0, board.getContext());
+ *
+ * Tiles and terrains made outside of a game (tests, the XML TileStack) take their
+ * IDs from the default context, which is safe to share between threads.
+ */
+public class GameContext {
+
+	private static final GameContext DEFAULT = new GameContext();
+
+	protected final AtomicInteger tileNum = new AtomicInteger();
+	protected final AtomicInteger terrainNum = new AtomicInteger();
+
+	//ACCESSORS
+
+	/**
+	 * getDefault() gets the context used by anything made outside of a game
+	 * @return the shared default context
+	 */
+	public static GameContext getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * getTileNum() gets how many tile IDs have been handed out
+	 * @return the number of tiles created in this context
+	 */
+	public int getTileNum() {
+		return tileNum.get();
+	}
+
+	/**
+	 * getTerrainNum() gets how many terrain (and den region) IDs have been handed out
+	 * @return the number of terrains created in this context
+	 */
+	public int getTerrainNum() {
+		return terrainNum.get();
+	}
+
+	//MUTATORS
+
+	public void setTileNum(int tileNum) {
+		this.tileNum.set(tileNum);
+	}
+
+	//METHODS
+
+	/**
+	 * nextTileID() hands out a new tile ID
+	 * @return an ID no other tile of this context has
+	 */
+	public int nextTileID() {
+		return tileNum.getAndIncrement();
+	}
+
+	/**
+	 * nextTerrainID() hands out a new terrain ID. Den regions have no terrain, so they
+	 * take their IDs from here as well.
+	 * @return an ID no other terrain or den of this context has
+	 */
+	public int nextTerrainID() {
+		return terrainNum.getAndIncrement();
+	}
+}
@@ -113,7 +113,7 @@ public class JungleRegion extends Region {
 
 			// Add the animals to the prey family (if there are any!)
 			if (((JungleTerrain) aTerrain).hasAnimal() == true) {
-				theAnimals.add(((JungleTerrain) aTerrain).getAnimal());
+				addAnimal(((JungleTerrain) aTerrain).getAnimal());
 			}
 
 			// Add crocodiles to the croc family (if there are any!)
@@ -146,6 +146,38 @@ public class JungleRegion extends Region {
 		if (adjacentDens.contains(denRegionID)) { adjacentDens.remove(denRegionID); }
 	}
 
+	@Override
+	protected void absorb(Region child) {
+		super.absorb(child);
+		JungleRegion jungle = (JungleRegion) child;
+		if (jungle.adjacentLakes != null) adjacentLakes.addAll(jungle.adjacentLakes);
+		if (jungle.adjacentDens != null) adjacentDens.addAll(jungle.adjacentDens);
+	}
+
+	@Override
+	public UndoJournal.Record save() {
+		return new JungleState(this);
+	}
+
+	//adjacent lakes and dens are only ever added, so their old sizes are enough
+	protected static class JungleState extends RegionState {
+		protected final int numLakes, numDens;
+
+		protected JungleState(JungleRegion region) {
+			super(region);
+			numLakes = (region.adjacentLakes != null) ? region.adjacentLakes.size() : 0;
+			numDens = (region.adjacentDens != null) ? region.adjacentDens.size() : 0;
+		}
+
+		@Override
+		public void undo() {
+			super.undo();
+			JungleRegion jungle = (JungleRegion) region;
+			if (jungle.adjacentLakes != null) UndoJournal.truncate(jungle.adjacentLakes, numLakes);
+			if (jungle.adjacentDens != null) UndoJournal.truncate(jungle.adjacentDens, numDens);
+		}
+	}
+
 	// Deprecated
 
 	/**
@@ -20,7 +20,18 @@ public class JungleTerrain extends Terrain
 	 * @return JungleTerrain
 	 */
 	public JungleTerrain(ArrayList<Integer> aTileConnections) {
-		theTerrainID       = terrainNum++;
+		this(aTileConnections, GameContext.getDefault());
+	}
+
+	/**
+	 * A Jungle terrain of a tile made for a game
+	 * @param aTileConnections A set of connections the terrain makes with
+	 *                         the tile
+	 * @param context The game the terrain gets its ID from
+	 * @return JungleTerrain
+	 */
+	public JungleTerrain(ArrayList<Integer> aTileConnections, GameContext context) {
+		theTerrainID       = context.nextTerrainID();
 		theRegionID 	   = theTerrainID;
 		theTileConnections = aTileConnections;
 		theType            = 'J';
@@ -49,7 +60,7 @@ public class JungleTerrain extends Terrain
 	 * @return JungleTerrain
 	 */
 	public JungleTerrain() {
-		theTerrainID = terrainNum++;
+		theTerrainID = GameContext.getDefault().nextTerrainID();
 		theRegionID 	   = theTerrainID;
 	}
 
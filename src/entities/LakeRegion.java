@@ -11,7 +11,6 @@ public class LakeRegion extends Region
 
 	// Lake specific properties
 	protected boolean isLakeEnd;
-	protected int numEndsNeeded;
 	protected int endsNeeded;
 
 	// Constructor
@@ -35,9 +34,6 @@ public class LakeRegion extends Region
 
 		// Add and update meepels and shields
 		addTerrain(aTerrain, theRegionID);
-
-		int num = aTerrain.getTileConnections().size();
-		numEndsNeeded = adjust(num);
 	}
 
 	//ACCESSORSS 
@@ -69,66 +65,6 @@ public class LakeRegion extends Region
 
 	// MUTATORS
 
-	//this function will mark a lake region as complete if it finds it to be
-	public void markComplete() {
-
-		//if the lake region isn't an end piece, 
-		if(!isLakeEnd) { 
-
-			/*
-			 * The logic for this section is associated with having solely connecting pieces
-			 * create a complete trail (think rectangle). What this does is it goes through 
-			 * each terrain associated with a region. It'll add in the terrain's connecting
-			 * points and remove them if a "connection" is made by the other terrain's 
-			 * connecting points (e.g. 1 to 5 or 3 to 7). If by the end of iterations we have
-			 * any left over, we know there's a gap.
-			 * 
-			 * This is really only an issue for the lakes with 3 connecting points.
-			 */
-
-			//initialze with fist terrain
-			ArrayList<Integer> checker = new ArrayList<Integer>();
-			checker.addAll(theTerrains.get(0).getTileConnections());
-
-			//for all other terrains
-			for (int i = 1; i < theTerrains.size(); i++) { 
-
-				//get the connecting points and adjust for the orientation of the specific tile
-				ArrayList<Integer> terrainConnect = theTerrains.get(i).getTileConnections();
-				//				int adjustment = 2 * theTerrains.get(i).getOrientation();
-
-				//for each connection
-				for (Integer spot : terrainConnect) {
-
-					//if connection is there, remove it; else, add in the connecting point
-					if(checker.get(checker.size()-1) == (Integer)Math.floorMod(spot + 4,8)) {
-						checker.remove((Integer)Math.floorMod(spot + 4,8));
-					}
-					checker.add((Integer)Math.floorMod(spot, 8));
-				}
-			}
-			if(checker.isEmpty()) isCompleted = true;
-		} //else the lake is an end piece
-		else { 
-
-			/*
-			 * The logic for this is that the number of "end" lakes must exceed the number
-			 * of ends needed to complete. The number of ends needed to complete is based 
-			 * on the fact that a lake may need either 1, 2, 3, or 4 end pieces to complete.
-			 * The total number of ends needed is added for each individual number of ends needed
-			 * minus 2 for the connection made.
-			 */
-			int numEnds = 0;
-			for (int i = 0; i < theTerrains.size(); i++) { 
-				if(((LakeTerrain) theTerrains.get(i)).isEndOfLake()) { 
-					numEnds++;
-				}			
-			}
-			if (numEnds > numEndsNeeded) isCompleted = true;
-		}
-
-	}
-
 	/**
 	 * This version of addTerrain() will add all terrains provided through an ArrayList.
 	 * This makes use of the overloaded addTerrain() for single cases.
@@ -141,11 +77,6 @@ public class LakeRegion extends Region
 		for (int i = 0; i < neededSize; i++) {
 			Terrain terrain = aTerrains.get(i);
 			this.addTerrain(terrain, regionID);
-
-			//adjust number of ends needed
-			int num = terrain.getTileConnections().size();
-			if (terrain instanceof LakeTerrain && !((LakeTerrain) terrain).isEndOfLake()) numEndsNeeded += adjust(num) - 2;
-
 		}
 
 		//mark it complete if so and reset its potential accordingly
@@ -166,6 +97,7 @@ public class LakeRegion extends Region
 			theTerrains.add(aTerrain);
 			tileList.add(aTerrain.getTileID()); //for the number of tiles
 			if (!isLakeEnd) isLakeEnd = ((LakeTerrain) aTerrain).isEndOfLake(); //change to lake end if necessary
+			openEdges += countEdges(aTerrain);
 
 			// Add tigers, if any
 			if (aTerrain.hasTiger() == true) {
@@ -175,7 +107,7 @@ public class LakeRegion extends Region
 			// Add animals, if any 
 			if (((LakeTerrain) aTerrain).hasAnimal() == true) {
 				Animal theAnimal = ((LakeTerrain) aTerrain).getAnimal();			
-				theAnimals.add(theAnimal);
+				addAnimal(theAnimal);
 			}
 
 			//add crocodiles, if any
@@ -189,18 +121,30 @@ public class LakeRegion extends Region
 	}
 	//METHODS 
 
-	/*
-	 * This function will adjust the number of ends needed to complete a connecting
-	 * lake region. If the number of connecting points of a lake region is 1, it 
-	 * needs 1 end to finish. If 3, then 2. If 5, then 3. If 8, then 4. 
-	 */
-	public int adjust(int num) { 
-		switch(num) {
-		case 1: return 1;  
-		case 3: return 2; 
-		case 5: return 3; 
-		case 8: return 4; 
-		default: return num;
+	@Override
+	protected void absorb(Region child) {
+		super.absorb(child);
+		if (((LakeRegion) child).isLakeEnd) isLakeEnd = true;
+	}
+
+	@Override
+	public UndoJournal.Record save() {
+		return new LakeState(this);
+	}
+
+	//whether the lake has an end, on top of the common region state
+	protected static class LakeState extends RegionState {
+		protected final boolean isLakeEnd;
+
+		protected LakeState(LakeRegion region) {
+			super(region);
+			isLakeEnd = region.isLakeEnd;
+		}
+
+		@Override
+		public void undo() {
+			super.undo();
+			((LakeRegion) region).isLakeEnd = isLakeEnd;
 		}
 	}
 
@@ -212,7 +156,7 @@ public class LakeRegion extends Region
 		int numOfTigers = getNumOfTigers();
 		int numOfTerrains = getNumOfTerrains();
 		int numOfCrocs = getNumOfCrocs();
-		int numOfAnimals = Math.max(0,getNumOfAnimals()[0] - getNumOfAnimals()[1]);
+		int numOfAnimals = Math.max(0,getNumOfPrey() - getNumOfCrocAnimals());
 		int numOfUniqueAnimals = getUniqueAnimals();
 		String outTrailEnd = (isLakeEnd) ? "end" : "connecting";
 
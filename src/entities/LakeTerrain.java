@@ -23,7 +23,20 @@ public class LakeTerrain extends Terrain {
 	 * @return LakeTerrain
 	 */
 	public LakeTerrain(ArrayList<Integer> aTileConnections, boolean aEndOfLake, Animal anAnimal) {
-		theTerrainID       = terrainNum++;
+		this(aTileConnections, aEndOfLake, anAnimal, GameContext.getDefault());
+	}
+
+	/**
+	 * A Lake terrain of a tile made for a game
+	 * @param aTileConnections A set of connections the terrain makes with
+	 *                         the tile
+	 * @param aEndOfLake This Lake ends.
+	 * @param anAnimal Animal property for a Lake.
+	 * @param context The game the terrain gets its ID from
+	 * @return LakeTerrain
+	 */
+	public LakeTerrain(ArrayList<Integer> aTileConnections, boolean aEndOfLake, Animal anAnimal, GameContext context) {
+		theTerrainID       = context.nextTerrainID();
 		theRegionID 	   = theTerrainID;
 		theTileConnections = aTileConnections;
 		theType            = 'L';
@@ -46,7 +59,7 @@ public class LakeTerrain extends Terrain {
 	 * @return LakeTerrain
 	 */
 	public LakeTerrain() {
-		theTerrainID = terrainNum++;
+		theTerrainID = GameContext.getDefault().nextTerrainID();
 	}
 
 	/**
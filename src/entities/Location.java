@@ -1,45 +1,44 @@
 package entities;
 
 /*
- * This class represents a location on the coordinate system. It is based on the
- * ROWSIZE and COLSIZE specified in the BoardObject!
- * 
- * NOTE: Locations are relative to the starting location. The center of the board
- * is assumed to always be (0,0) and spread outwards in the cartersian coordinate
- * system. 
+ * This class represents a location on the coordinate system. The board has no
+ * fixed size, so a Location is simply the cartesian (x,y) pair used by the server.
  * 
  * Keep in mind that "up/down (y)" is essentially our row, while "left/right (x)"
- * is our column.
- * 
- * "(0,0)" is therefore just (COWSIZE/2, ROLSIZE/2)
+ * is our column. North is y + 1 and east is x + 1.
  */
 public class Location {
 
-	//location attributes - adjust ROWSIZE and COLSIZE as needed
+	//location attributes
 	protected int x, y;
-	
-	//locations are relative to starting location. assume center of board is (0,0),
-	//so halve the ROWSIZE/COLSIZE for relative locations
 
 	//constructors
 	public Location() {
-		this.x = BoardObject.COLSIZE/2;
-		this.y = BoardObject.ROWSIZE/2;
+		this.x = 0;
+		this.y = 0;
 	}
 
 	public Location(int x, int y) {
-		this.x = (BoardObject.COLSIZE/2 + x);
-		this.y = (BoardObject.ROWSIZE/2 - y);
+		this.x = x;
+		this.y = y;
 	}
 	
 	//ACCESSORSS
 
 	public int getY() {
-		return y + BoardObject.startY;
+		return y;
 	}
 
 	public int getX() {
-		return x - BoardObject.startX;
+		return x;
+	}
+
+	/**
+	 * getKey() packs the location into a single long (see Coordinate)
+	 * @return the packed coordinate
+	 */
+	public long getKey() {
+		return Coordinate.pack(x, y);
 	}
 	
 	//MUTATORS
@@ -60,8 +59,6 @@ public class Location {
 
 	@Override
 	public String toString() {
-		String one = "(" + ((this.x - BoardObject.COLSIZE/2)) + "," + ((BoardObject.ROWSIZE/2 - this.y)) + ")";
-		//String two = "(" + (this.x) + "," + (this.y) + ")";
-		return one;
+		return "(" + this.x + "," + this.y + ")";
 	}
 }
@@ -0,0 +1,321 @@
+package entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/*
+ * MonteCarloAI picks its moves with a Monte Carlo Tree Search. A playout walks down
+ * the tree picking moves by UCT, adds one new move to the tree, then finishes the game
+ * with random placements and scores it (see SearchAI for how the board is searched):
+ *
+ *		AI ai = new MonteCarloAI(board, 700); //search for 700 ms of the 1 second a move gets
+ *		String move = ai.getMove(tile);
+ *
+ * With setPondering(true), it also searches while the opponent thinks (see ponder()).
+ * The tile order is known, so the position after each opponent reply is too: a
+ * thread searches the opponent's move on a replica of the board, and when the real
+ * reply comes in, the tree under it becomes the root of our search and the playouts
+ * already in it count, the rest of the tree is dropped.
+ */
+public class MonteCarloAI extends SearchAI {
+
+	protected static final double EXPLORATION = 1.4; //UCT exploration constant
+	protected static final int TIGER_ODDS = 4; //a playout tries a tiger on 1 in TIGER_ODDS tiles
+	protected static final long PONDER_TIME = 5000; //the most to ponder for, in milliseconds
+
+	protected int playoutLimit; //if above 0, search this many playouts instead of watching the clock
+	protected int playouts; //how many the last search ran
+
+	protected boolean pondering; //search on the opponent's time, see ponder()
+	protected int inherited; //playouts the last search got from pondering
+	protected Node root; //the last search's tree
+
+	//searching the opponent's move on a replica of the board
+	private MonteCarloAI ponderer;
+	private Thread ponderThread;
+
+	//constructors
+	public MonteCarloAI(BoardObject currentBoard, long budgetMillis) {
+		super(currentBoard, budgetMillis);
+	}
+
+	//same as above, but the playouts are seeded
+	public MonteCarloAI(BoardObject currentBoard, long budgetMillis, long seed) {
+		super(currentBoard, budgetMillis, seed);
+	}
+
+	//ACCESSORS
+
+	public int getPlayoutLimit() {
+		return playoutLimit;
+	}
+
+	/**
+	 * getPlayouts() gets how many playouts the last search ran
+	 * @return the number of playouts
+	 */
+	public int getPlayouts() {
+		return playouts;
+	}
+
+	/**
+	 * getPlayoutsPerSecond() gets how fast the last search ran
+	 * @return playouts per second, 0 if nothing was searched
+	 */
+	public double getPlayoutsPerSecond() {
+		return (searchTime > 0) ? playouts * 1e9 / searchTime : 0;
+	}
+
+	/**
+	 * getInherited() gets how many playouts of the last search were run while pondering
+	 * @return the number of playouts, 0 if the opponent's reply wasn't in the pondered tree
+	 */
+	public int getInherited() {
+		return inherited;
+	}
+
+	public boolean isPondering() {
+		return pondering;
+	}
+
+	//MUTATORS
+
+	/**
+	 * setPondering() turns searching on the opponent's time on or off
+	 * @param pondering true to ponder
+	 */
+	public void setPondering(boolean pondering) {
+		this.pondering = pondering;
+		if (!pondering) stopPondering();
+	}
+
+	/**
+	 * setPlayoutLimit() makes each search run a fixed number of playouts, so a seeded
+	 * search always picks the same move no matter how fast the machine is
+	 * @param playoutLimit the number of playouts, 0 to go back to the time budget
+	 */
+	public void setPlayoutLimit(int playoutLimit) {
+		this.playoutLimit = playoutLimit;
+	}
+
+	//METHODS
+
+	/**
+	 * ponder() starts searching the opponent's move in the background. Call it once our
+	 * move (with its animal) is on the board, the next search picks up what it found.
+	 * @param opponentTile the tile the opponent plays next
+	 */
+	@Override
+	public void ponder(TigerTile opponentTile) {
+		stopPondering();
+		if (!pondering) return;
+
+		//a board of its own, the real one changes when the opponent's move comes in
+		if (ponderer == null) ponderer = new MonteCarloAI(currentBoard.replicate(), PONDER_TIME);
+		else ponderer.currentBoard.catchUp(currentBoard);
+		ponderer.setTable(table);
+		final TigerTile tile = replicaTile(ponderer.currentBoard, opponentTile);
+		if (!ponderer.currentBoard.canPlace(tile)) return;
+
+		ponderer.halt(false);
+		ponderThread = new Thread(new Runnable() {
+			public void run() {
+				ponderer.chooseMove(tile);
+			}
+		}, "ponder");
+		ponderThread.setDaemon(true);
+		ponderThread.start();
+	}
+
+	/**
+	 * stopPondering() stops the background search and waits for it, the tree it built is
+	 * kept for the next search
+	 */
+	@Override
+	public void stopPondering() {
+		if (ponderThread == null) return;
+		ponderer.halt(true);
+		try {
+			ponderThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		ponderThread = null;
+	}
+
+	//runs playouts until the deadline, then keeps the most visited move
+	protected void search(TigerTile currentTile, long deadline) {
+		playouts = 0;
+
+		Player[] players = currentBoard.getPlayers();
+		int me = (currentBoard.getActivePlayer() == players[0]) ? 0 : 1;
+		root = pondered();
+		inherited = (root != null) ? root.visits : 0;
+		if (root == null) root = new Node(null, PASS, NONE, 1 - me);
+
+		while (!stop && ((playoutLimit > 0) ? playouts < playoutLimit : System.nanoTime() < deadline)) {
+			currentBoard.checkpoint();
+
+			//selection and expansion: follow the tree until a move that hasn't been tried
+			Node node = root;
+			int depth = 0;
+			while (depth < deck.length) {
+				if (node.moves == null) expand(node, deck[depth]);
+				if (node.untried > 0) {
+					node = node.addChild(randomGenerator.nextInt(node.untried));
+					play(deck[depth++], node.move, node.animal);
+					if (depth == 1) node.hash = hash(1); //to find it again if this is pondering
+					break;
+				}
+				node = node.select();
+				play(deck[depth++], node.move, node.animal);
+			}
+
+			//simulation: finish the game at random and score it
+			double result = playout(depth, players);
+			currentBoard.undo();
+
+			//backpropagation: result is player 0's, each node counts it for whoever moved into it
+			for (; node != null; node = node.parent) {
+				node.visits++;
+				node.wins += (node.player == 0) ? result : 1 - result;
+			}
+			playouts++;
+		}
+
+		if (root.moves == null) expand(root, currentTile); //no time for a single playout
+		Node best = null;
+		for (Node child : root.children) {
+			if (best == null || child.visits > best.visits) best = child;
+		}
+		if (best == null) best = root.addChild(0);
+		bestMove = best.move;
+		bestAnimal = best.animal;
+	}
+
+	//the endgame is solved, what was pondered is no use; a fixed number of playouts has no deadline to solve by, so it's searched
+	@Override
+	protected void solve(TigerTile currentTile, long deadline) {
+		if (playoutLimit > 0) {
+			search(currentTile, deadline);
+			return;
+		}
+		stopPondering();
+		super.solve(currentTile, deadline);
+	}
+
+	//the pondered tree under the opponent's real move, null if it isn't there
+	private Node pondered() {
+		if (ponderer == null) return null;
+		stopPondering();
+		Node pondered = ponderer.root;
+		ponderer.root = null;
+		if (pondered == null || pondered.children == null) return null;
+
+		long hash = hash(0);
+		for (Node child : pondered.children) {
+			if (child.hash == hash && child.moves != null) {
+				child.parent = null;
+				return child;
+			}
+		}
+		return null;
+	}
+
+	//finish the game with random moves, then score it
+	//returns 1 if player 0 wins, 0.5 for a tie and 0 if player 1 wins
+	private double playout(int depth, Player[] players) {
+		for (int i = depth; i < deck.length; i++) {
+			TigerTile tile = deck[i];
+
+			if (!currentBoard.canPlace(tile)) {
+				currentBoard.confirm();
+				continue;
+			}
+
+			//read the pair before placing, the pooled pairs get reused
+			ArrayList<TilePair> spots = currentBoard.getPossibleSpots();
+			TilePair pair = spots.get(randomGenerator.nextInt(spots.size()));
+			long key = pair.getKey();
+			tile.setOrientation(pair.getOrientation() / 90);
+			currentBoard.place(tile, key);
+
+			//placeTiger() turns down the zones it can't take
+			if (currentBoard.getActivePlayer().hasTigers() && randomGenerator.nextInt(TIGER_ODDS) == 0) {
+				currentBoard.placeTiger(1 + randomGenerator.nextInt(9));
+			}
+			currentBoard.confirm();
+		}
+
+		currentBoard.endScores();
+		int difference = players[0].getScore() - players[1].getScore();
+		return (difference > 0) ? 1 : (difference < 0) ? 0 : 0.5;
+	}
+
+	//give a node every move the active player can make with the tile
+	private void expand(Node node, TigerTile tile) {
+		int count = actions(tile);
+		node.moves = Arrays.copyOf(moveBuffer, count);
+		node.animals = Arrays.copyOf(animalBuffer, count);
+		node.untried = count;
+		node.children = new ArrayList<Node>(count);
+	}
+
+	/*
+	 * A node of the search tree: the move that led to it, who made it, and how the
+	 * playouts through it went for that player.
+	 */
+	protected static class Node {
+		Node parent; //null once it's the root
+		final long move;
+		final int animal;
+		final int player; //0 or 1, whoever made the move
+		int visits;
+		double wins;
+		long hash; //the position after the move, only kept for the root's children (see pondered())
+
+		//the moves from here, filled in by expand() the first time a playout gets here
+		long[] moves;
+		int[] animals;
+		int untried; //moves[0..untried) don't have a child yet
+		ArrayList<Node> children;
+
+		Node(Node parent, long move, int animal, int player) {
+			this.parent = parent;
+			this.move = move;
+			this.animal = animal;
+			this.player = player;
+		}
+
+		//make a child for one of the untried moves
+		Node addChild(int index) {
+			Node child = new Node(this, moves[index], animals[index], 1 - player);
+
+			//move the last untried move into its place
+			untried--;
+			moves[index] = moves[untried];
+			animals[index] = animals[untried];
+			moves[untried] = child.move;
+			animals[untried] = child.animal;
+
+			children.add(child);
+			return child;
+		}
+
+		//the child with the best UCT value
+		Node select() {
+			double logVisits = Math.log(visits);
+			Node best = null;
+			double bestValue = -1;
+			for (int i = 0; i < children.size(); i++) {
+				Node child = children.get(i);
+				double value = child.wins / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+				if (value > bestValue) {
+					best = child;
+					bestValue = value;
+				}
+			}
+			return best;
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package entities;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * ParallelAlphaBetaAI is AlphaBetaAI with the moves of the current tile split across
+ * the threads of a ForkJoinPool. Each thread searches with an AlphaBetaAI of its own on
+ * a replica of the board (see BoardObject.replicate()), caught up with the real board
+ * before every search, so nothing but the root moves, the transposition table and
+ * the best score found so far is shared.
+ *
+ * Each depth of the iterative deepening is one fork: every worker takes the next root
+ * move not yet taken until there are none left, so a worker that got cheap moves just
+ * takes more of them. A move that can't beat the best score already found by any
+ * worker is cut off early. All workers have the same deadline, so they all stop when
+ * it hits. The move kept is the best exact score of the deepest depth. A depth the
+ * deadline cut short still counts if the last depth's best move, which goes first,
+ * got its score in time: any move that beat it is better.
+ *
+ *		AI ai = new ParallelAlphaBetaAI(board, 700, new ForkJoinPool(8));
+ *		String move = ai.getMove(tile);
+ *
+ * The pool can be shared by both games of a round.
+ */
+public class ParallelAlphaBetaAI extends AlphaBetaAI {
+
+	protected ForkJoinPool pool;
+	protected AlphaBetaAI[] workers = new AlphaBetaAI[0];
+
+	//what the workers found at the depth being searched
+	private boolean[] searched = new boolean[0]; //the move's score is exact
+	private final AtomicInteger next = new AtomicInteger();
+	private final AtomicInteger best = new AtomicInteger();
+
+	//constructors
+	public ParallelAlphaBetaAI(BoardObject currentBoard, long budgetMillis) {
+		this(currentBoard, budgetMillis, ForkJoinPool.commonPool());
+	}
+
+	public ParallelAlphaBetaAI(BoardObject currentBoard, long budgetMillis, ForkJoinPool pool) {
+		super(currentBoard, budgetMillis);
+		this.pool = pool;
+	}
+
+	//ACCESSORS
+
+	/**
+	 * getThreads() gets how many workers a search is split across
+	 * @return the pool's parallelism
+	 */
+	public int getThreads() {
+		return pool.getParallelism();
+	}
+
+	//METHODS
+
+	//deepens one move at a time like AlphaBetaAI, each depth split across the workers
+	@Override
+	protected void search(TigerTile currentTile, long deadline) {
+		start(deadline);
+		int count = rootActions(currentTile);
+		if (count == 1) return;
+
+		prepareWorkers(currentTile, deadline);
+		if (searched.length < count) searched = new boolean[count];
+
+		int maxDepth = (depthLimit > 0) ? Math.min(depthLimit, deck.length) : deck.length;
+		for (int depth = 1; depth <= maxDepth; depth++) {
+			next.set(0);
+			best.set(-INFINITY);
+			for (int i = 0; i < count; i++) searched[i] = false;
+			pool.invoke(new Split(-1, depth, count));
+
+			for (AlphaBetaAI worker : workers) timeUp |= worker.timeUp;
+
+			//the best exact score (the lowest move on a tie), only if the last best move got one in time
+			int pick = -1;
+			for (int i = 0; i < count; i++) {
+				if (searched[i] && (pick == -1 || rootScores[i] > rootScores[pick])) pick = i;
+			}
+			if (pick != -1 && (!timeUp || searched[0])) {
+				bestMove = rootMoves[pick];
+				bestAnimal = rootAnimals[pick];
+			}
+			if (timeUp) break;
+			finishDepth(depth, count);
+		}
+
+		nodes = 0;
+		for (AlphaBetaAI worker : workers) {
+			nodes += worker.nodes;
+			worker.restoreDeck();
+		}
+	}
+
+	//the workers stop with this search
+	@Override
+	protected void halt(boolean stop) {
+		super.halt(stop);
+		for (AlphaBetaAI worker : workers) worker.halt(stop);
+	}
+
+	//a worker and a replica for each thread, caught up with the real board
+	private void prepareWorkers(TigerTile currentTile, long deadline) {
+		if (workers.length != pool.getParallelism()) {
+			workers = new AlphaBetaAI[pool.getParallelism()];
+			for (int w = 0; w < workers.length; w++) workers[w] = new AlphaBetaAI(currentBoard.replicate(), budget / 1000000);
+		}
+
+		for (AlphaBetaAI worker : workers) {
+			BoardObject replica = worker.currentBoard;
+			replica.catchUp(currentBoard);
+			worker.setTable(table);
+
+			worker.loadDeck(replicaTile(replica, currentTile));
+			worker.start(deadline);
+		}
+	}
+
+	//search the root moves on one worker, or with index -1, fork one of these for every worker
+	private class Split extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int worker, depth, count;
+
+		private Split(int worker, int depth, int count) {
+			this.worker = worker;
+			this.depth = depth;
+			this.count = count;
+		}
+
+		protected void compute() {
+			if (worker == -1) {
+				Split[] splits = new Split[workers.length];
+				for (int w = 0; w < splits.length; w++) splits[w] = new Split(w, depth, count);
+				invokeAll(splits);
+				return;
+			}
+
+			AlphaBetaAI ai = workers[worker];
+			for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+				int alpha = best.get();
+				int value = ai.searchRoot(rootMoves[i], rootAnimals[i], depth, alpha);
+				if (ai.timeUp) return;
+
+				rootScores[i] = value;
+				if (value > alpha) {
+					searched[i] = true;
+					for (int old = best.get(); value > old && !best.compareAndSet(old, value); old = best.get());
+				}
+			}
+		}
+	}
+}
@@ -109,6 +109,25 @@ public class Player {
 
 
 	//METHODS
+
+	/**
+	 * save() records the player's score and the tigers and crocodiles they have left
+	 * @return a record that puts the player back the way they are now
+	 */
+	public UndoJournal.Record save() {
+		final int score = theScore;
+		final TigerObject[] tigers = theTigers.toArray(new TigerObject[0]);
+		final CrocodileObject[] crocodiles = theCrocodiles.toArray(new CrocodileObject[0]);
+
+		return new UndoJournal.Record() {
+			public void undo() {
+				theScore = score;
+				UndoJournal.refill(theTigers, tigers);
+				UndoJournal.refill(theCrocodiles, crocodiles);
+			}
+		};
+	}
+
 	public boolean equals(Player player) {
 		if (player.getID().equals(this.theID)) return true;
 		return false;
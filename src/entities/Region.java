@@ -24,6 +24,24 @@ public abstract class Region {
 	protected ArrayList<Animal> theAnimals;
 	protected Set<Integer> tileList; //list of tiles associated with a region
 
+	// union-find: regions joined on the board point up to the region that absorbed them.
+	// A root keeps the totals of every region merged into it, so a merge never walks
+	// the terrains. Only the root of a region should be asked about it (see find())
+	protected Region parent = this;
+	protected Region next; //the chain of regions merged into a root, in merge order
+	protected Region tail = this; //the last region of the chain (kept up to date on roots)
+	protected int mergedTerrains; //terrains of the regions merged in
+	protected int openEdges; //tile edges the region runs off of that nothing is placed against yet
+
+	// the animals of the region and every region merged in, counted as they're added
+	// (see addAnimal()) so the potential doesn't have to walk them
+	protected int numPrey, numCrocs; //prey, and crocodiles printed on the tiles
+	protected int preyTypes; //a bit for each type of prey
+
+	// where the region is in its board's RegionQueue, and the potential it's queued by
+	int queuedPotential;
+	int highIndex = -1, lowIndex = -1;
+
 	// Constructors
 
 	public Region() {
@@ -106,15 +124,23 @@ public abstract class Region {
 
 		//int[0] will store the TOTAL number of PREY
 		//int[1] will store the TOTAL number of CROCODILES
-		int numPrey = 0;
-		int numCrocs = 0;
+		return new int[]{numPrey,numCrocs};
+	}
 
-		for (int i = 0; i < theAnimals.size(); i++) { 
-			if (theAnimals.get(i).getType() != 'C') numPrey++;
-			else numCrocs++;
-		}
+	/**
+	 * Gets number of prey in region
+	 * @return int
+	 */
+	public int getNumOfPrey() {
+		return numPrey;
+	}
 
-		return new int[]{numPrey,numCrocs};
+	/**
+	 * Gets number of crocodiles printed on the region's tiles (not the ones placed, see getNumOfCrocs())
+	 * @return int
+	 */
+	public int getNumOfCrocAnimals() {
+		return numCrocs;
 	}
 
 	/**
@@ -122,14 +148,13 @@ public abstract class Region {
 	 * @return int
 	 */
 	public int getUniqueAnimals() {
-		// Add only one animal of each type to uniqueAnimals
-		ArrayList<Character> uniqueAnimals = new ArrayList<Character>();
-		char tempType;
-		for (int i = 0; i < theAnimals.size(); i++) {
-			tempType = theAnimals.get(i).getType();
-			if (tempType != 'C' && !uniqueAnimals.contains(tempType)) { uniqueAnimals.add(tempType); }
-		}
-		return uniqueAnimals.size();
+		// One bit for each type of prey
+		return Integer.bitCount(getPreyTypes());
+	}
+
+	//a bit for each type of prey in the region
+	protected int getPreyTypes() {
+		return preyTypes;
 	}
 
 	public int getNumOfCrocs() {
@@ -157,7 +182,12 @@ public abstract class Region {
 	 * @return ArrayList<Terrain>
 	 */
 	public ArrayList<Terrain> getTerrains() {
-		return theTerrains;
+		if (next == null) return theTerrains;
+
+		//gather the terrains of every region merged in
+		ArrayList<Terrain> terrains = new ArrayList<Terrain>(getNumOfTerrains());
+		for (Region member = this; member != null; member = member.next) terrains.addAll(member.theTerrains);
+		return terrains;
 	}
 
 	/**
@@ -181,7 +211,33 @@ public abstract class Region {
 	 * @return int
 	 */
 	public int getNumOfTerrains() {
-		return theTerrains.size();
+		return theTerrains.size() + mergedTerrains;
+	}
+
+	/**
+	 * Gets the number of the region's edges that are still open
+	 * @return int
+	 */
+	public int getOpenEdges() {
+		return openEdges;
+	}
+
+	/**
+	 * find() gets the region this one has been merged into, if any
+	 * @return the root of the region (itself if it hasn't been merged into another)
+	 */
+	public Region find() {
+		Region root = this;
+		while (root.parent != root) root = root.parent;
+		return root;
+	}
+
+	/**
+	 * isRoot() tells if the region hasn't been merged into another
+	 * @return boolean
+	 */
+	public boolean isRoot() {
+		return parent == this;
 	}
 
 	public boolean isCompleted() {
@@ -219,6 +275,89 @@ public abstract class Region {
 		this.recentMin = recentMin;
 	}
 
+	/**
+	 * union() joins two roots into one region. The one with more terrains stays the
+	 * root (union by size, so paths stay short without compressing them) and takes in
+	 * the other's totals, tigers, crocodiles, tiles and member chain. Of the two tile
+	 * sets the bigger one is kept and the smaller one copied in (see absorb()).
+	 * @param a the root of one region
+	 * @param b the root of the other region
+	 * @return the root of the joined region
+	 */
+	public static Region union(Region a, Region b) {
+		Region root = (b.getNumOfTerrains() > a.getNumOfTerrains()) ? b : a;
+		Region child = (root == a) ? b : a;
+
+		child.parent = root;
+		root.tail.next = child;
+		root.tail = child.tail;
+		root.absorb(child);
+		return root;
+	}
+
+	/**
+	 * absorb() adds the totals of a region being merged in. Subclasses add their own.
+	 * @param child the region being merged in
+	 */
+	protected void absorb(Region child) {
+		mergedTerrains += child.getNumOfTerrains();
+		numPrey += child.numPrey;
+		numCrocs += child.numCrocs;
+		preyTypes |= child.preyTypes;
+		openEdges += child.openEdges;
+
+		//keep the bigger tile set and copy the smaller one in, a tile is only copied into a
+		//set at least as big as the one it was in, so O(log n) times amortized
+		if (tileList != null && child.tileList != null) {
+			if (child.tileList.size() > tileList.size()) {
+				Set<Integer> larger = child.tileList;
+				child.tileList = tileList;
+				tileList = larger;
+			}
+			tileList.addAll(child.tileList);
+		}
+
+		//the tigers and crocodiles belong to the root from now on
+		if (child.theTigers != null) { theTigers.addAll(child.theTigers); child.theTigers.clear(); }
+		if (child.theCrocodiles != null) { theCrocodiles.addAll(child.theCrocodiles); child.theCrocodiles.clear(); }
+	}
+
+	/**
+	 * compress() points every region between this one and its root straight at the
+	 * root. It can't be undone, so the board only does it while nothing is recorded.
+	 * @param root the root of the region
+	 */
+	public void compress(Region root) {
+		Region region = this;
+		while (region != root) {
+			Region up = region.parent;
+			region.parent = root;
+			region = up;
+		}
+	}
+
+	/**
+	 * closeEdge() closes both halves of an edge pair that now match: the edge of the
+	 * tile placed and the one it's placed against each counted as open, so the root
+	 * has two fewer. A lake or trail is complete once none are left open.
+	 * @return true if this closed the region's last open edge
+	 */
+	public boolean closeEdge() {
+		openEdges -= 2;
+		if (isCompleted) return false;
+		markComplete();
+		return isCompleted;
+	}
+
+	/**
+	 * markComplete() marks the region complete if none of its edges are open.
+	 * The count is kept up to date as terrains are added and edges closed, so this
+	 * doesn't have to look at the terrains.
+	 */
+	public void markComplete() {
+		if (openEdges <= 0 && getNumOfTerrains() > 0) isCompleted = true;
+	}
+
 	public void addTiger(TigerObject stray) { 
 		theTigers.add(stray);
 	}
@@ -320,8 +459,31 @@ public abstract class Region {
 		}
 	}
 
+	/**
+	 * addAnimal() adds an animal of one of the region's terrains and counts it
+	 * @param anAnimal the animal
+	 */
+	protected void addAnimal(Animal anAnimal) {
+		theAnimals.add(anAnimal);
+		char type = anAnimal.getType();
+		if (type != 'C') {
+			numPrey++;
+			preyTypes |= 1 << (type & 31);
+		}
+		else numCrocs++;
+	}
+
 	// methods 
 
+	//the number of tile edges a terrain runs off of (its middle edge points)
+	protected static int countEdges(Terrain aTerrain) {
+		int edges = 0;
+		for (Integer point : aTerrain.getTileConnections()) {
+			if (point % 2 == 1) edges++;
+		}
+		return edges;
+	}
+
 	/**
 	 * Check if there are any Crocodiles in this region.
 	 * @return boolean
@@ -334,6 +496,77 @@ public abstract class Region {
 	}
 
 
+	/**
+	 * save() records everything about the region that a move can change
+	 * @return a record that puts the region back the way it is now
+	 */
+	public UndoJournal.Record save() {
+		return new RegionState(this);
+	}
+
+	/*
+	 * RegionState is the undo record of a region. Terrains, animals and tiles are only
+	 * ever added to a region, so their old sizes are enough (and the tile set itself, as
+	 * a merge can trade it for the other region's). Tigers and crocodiles come
+	 * and go, so they are copied (there are never more than a handful).
+	 */
+	protected static class RegionState implements UndoJournal.Record {
+		protected final Region region;
+		protected final int recentMin, potentialScore;
+		protected final boolean isCompleted, isScored;
+		protected final int numTerrains, numAnimals, numTiles;
+		protected final Region parent, tail;
+		protected final Set<Integer> tiles;
+		protected final int mergedTerrains, numPrey, numCrocs, preyTypes, openEdges;
+		protected final TigerObject[] tigers;
+		protected final CrocodileObject[] crocodiles;
+
+		protected RegionState(Region region) {
+			this.region = region;
+			recentMin = region.recentMin;
+			potentialScore = region.potentialScore;
+			isCompleted = region.isCompleted;
+			isScored = region.isScored;
+			numTerrains = (region.theTerrains != null) ? region.theTerrains.size() : 0;
+			numAnimals = (region.theAnimals != null) ? region.theAnimals.size() : 0;
+			numTiles = (region.tileList != null) ? region.tileList.size() : 0;
+			tiles = region.tileList;
+			parent = region.parent;
+			tail = region.tail;
+			mergedTerrains = region.mergedTerrains;
+			numPrey = region.numPrey;
+			numCrocs = region.numCrocs;
+			preyTypes = region.preyTypes;
+			openEdges = region.openEdges;
+			tigers = (region.theTigers != null) ? region.theTigers.toArray(new TigerObject[0]) : null;
+			crocodiles = (region.theCrocodiles != null) ? region.theCrocodiles.toArray(new CrocodileObject[0]) : null;
+		}
+
+		public void undo() {
+			region.recentMin = recentMin;
+			region.potentialScore = potentialScore;
+			region.isCompleted = isCompleted;
+			region.isScored = isScored;
+			if (region.theTerrains != null) UndoJournal.truncate(region.theTerrains, numTerrains);
+			if (region.theAnimals != null) UndoJournal.truncate(region.theAnimals, numAnimals);
+			region.tileList = tiles;
+			if (tiles != null) UndoJournal.truncate(tiles, numTiles);
+			region.parent = parent;
+			if (region.tail != tail) {
+				//cut off the regions merged in since
+				tail.next = null;
+				region.tail = tail;
+			}
+			region.mergedTerrains = mergedTerrains;
+			region.numPrey = numPrey;
+			region.numCrocs = numCrocs;
+			region.preyTypes = preyTypes;
+			region.openEdges = openEdges;
+			if (tigers != null) UndoJournal.refill(region.theTigers, tigers);
+			if (crocodiles != null) UndoJournal.refill(region.theCrocodiles, crocodiles);
+		}
+	}
+
 	/**
 	 * Prints out the region ID, type, number of Tigers, and number of terrains
 	 * @return String description
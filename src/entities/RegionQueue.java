@@ -0,0 +1,225 @@
+package entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/*
+ * RegionQueue keeps the incomplete regions of a board ordered by potential (see
+ * Region.getPotential()), so the AI can get the few most or least valuable ones
+ * without sorting them all. It's two binary heaps over the same regions, one with the
+ * highest potential on top and one with the lowest. Each region knows where it is in
+ * both, so it can be moved or taken out in O(log n) when it changes.
+ *
+ * The potential is cached when a region is added or updated, BoardObject updates the
+ * regions a move touched when the move is confirmed (see BoardObject.getRegionQueue()).
+ *
+ *		ArrayList<Region> best = new ArrayList<Region>();
+ *		board.getRegionQueue().highest(3, best);
+ */
+public class RegionQueue {
+
+	private Region[] high = new Region[64]; //max-heap
+	private Region[] low = new Region[64]; //min-heap
+	private int size;
+
+	//heap positions highest() and lowest() still have to look at, a heap of their own
+	private int[] candidates = new int[16];
+
+	//ACCESSORS
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * contains() tells if a region is queued
+	 * @param region the region
+	 * @return true if it's in the queue
+	 */
+	public boolean contains(Region region) {
+		return region.highIndex != -1;
+	}
+
+	/**
+	 * highest() lists the regions with the highest potential, in O(k log k)
+	 * @param k how many to list
+	 * @param out the list to fill, it's cleared first
+	 * @return out, highest potential first
+	 */
+	public ArrayList<Region> highest(int k, ArrayList<Region> out) {
+		return top(high, true, k, out);
+	}
+
+	/**
+	 * lowest() lists the regions with the lowest potential, in O(k log k)
+	 * @param k how many to list
+	 * @param out the list to fill, it's cleared first
+	 * @return out, lowest potential first
+	 */
+	public ArrayList<Region> lowest(int k, ArrayList<Region> out) {
+		return top(low, false, k, out);
+	}
+
+	//MUTATORS
+
+	/**
+	 * update() queues a region by its potential now, or moves it if it's already queued
+	 * @param region the region
+	 */
+	public void update(Region region) {
+		int potential = region.getPotential();
+		if (region.highIndex == -1) {
+			if (size == high.length) {
+				high = Arrays.copyOf(high, size * 2);
+				low = Arrays.copyOf(low, size * 2);
+			}
+			region.queuedPotential = potential;
+			high[size] = region;
+			low[size] = region;
+			region.highIndex = size;
+			region.lowIndex = size;
+			size++;
+			siftUp(high, true, region.highIndex);
+			siftUp(low, false, region.lowIndex);
+		}
+		else if (potential != region.queuedPotential) {
+			region.queuedPotential = potential;
+			siftUp(high, true, region.highIndex);
+			siftDown(high, true, region.highIndex);
+			siftUp(low, false, region.lowIndex);
+			siftDown(low, false, region.lowIndex);
+		}
+	}
+
+	/**
+	 * remove() takes a region out of the queue, if it's in it
+	 * @param region the region
+	 */
+	public void remove(Region region) {
+		if (region.highIndex == -1) return;
+		int highIndex = region.highIndex;
+		int lowIndex = region.lowIndex;
+		region.highIndex = -1;
+		region.lowIndex = -1;
+		size--;
+		if (highIndex < size) replace(high, true, highIndex);
+		if (lowIndex < size) replace(low, false, lowIndex);
+		high[size] = null;
+		low[size] = null;
+	}
+
+	/**
+	 * rebuild() queues exactly these regions, in O(n)
+	 * @param regions the regions
+	 */
+	public void rebuild(Collection<Region> regions) {
+		for (int i = 0; i < size; i++) {
+			high[i].highIndex = -1;
+			high[i].lowIndex = -1;
+			high[i] = null;
+			low[i] = null;
+		}
+		size = 0;
+		if (high.length < regions.size()) {
+			high = new Region[regions.size() * 2];
+			low = new Region[regions.size() * 2];
+		}
+
+		for (Region region : regions) {
+			region.queuedPotential = region.getPotential();
+			region.highIndex = size;
+			region.lowIndex = size;
+			high[size] = region;
+			low[size] = region;
+			size++;
+		}
+		for (int i = size / 2 - 1; i >= 0; i--) {
+			siftDown(high, true, i);
+			siftDown(low, false, i);
+		}
+	}
+
+	//METHODS
+
+	//the first k regions of a heap in order: the best position left is taken, then its children can be
+	private ArrayList<Region> top(Region[] heap, boolean max, int k, ArrayList<Region> out) {
+		out.clear();
+		if (size == 0 || k <= 0) return out;
+		if (candidates.length < 2 * k + 2) candidates = new int[2 * k + 2];
+
+		int count = 0;
+		candidates[count++] = 0;
+		while (count > 0 && out.size() < k) {
+			int position = candidates[0];
+			candidates[0] = candidates[--count];
+			for (int i = 0, child; (child = 2 * i + 1) < count; i = child) {
+				if (child + 1 < count && before(heap[candidates[child + 1]], heap[candidates[child]], max)) child++;
+				if (!before(heap[candidates[child]], heap[candidates[i]], max)) break;
+				swap(candidates, i, child);
+			}
+			out.add(heap[position]);
+
+			for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+				int i = count++;
+				candidates[i] = child;
+				for (int parent; i > 0 && before(heap[candidates[i]], heap[candidates[parent = (i - 1) / 2]], max); i = parent) {
+					swap(candidates, i, parent);
+				}
+			}
+		}
+		return out;
+	}
+
+	//the last region goes where one was taken out and moves to where it belongs
+	private void replace(Region[] heap, boolean max, int index) {
+		heap[index] = heap[size];
+		setIndex(heap[index], max, index);
+		siftUp(heap, max, index);
+		siftDown(heap, max, index);
+	}
+
+	private void siftUp(Region[] heap, boolean max, int index) {
+		Region region = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) / 2;
+			if (!before(region, heap[parent], max)) break;
+			heap[index] = heap[parent];
+			setIndex(heap[index], max, index);
+			index = parent;
+		}
+		heap[index] = region;
+		setIndex(region, max, index);
+	}
+
+	private void siftDown(Region[] heap, boolean max, int index) {
+		Region region = heap[index];
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size) break;
+			if (child + 1 < size && before(heap[child + 1], heap[child], max)) child++;
+			if (!before(heap[child], region, max)) break;
+			heap[index] = heap[child];
+			setIndex(heap[index], max, index);
+			index = child;
+		}
+		heap[index] = region;
+		setIndex(region, max, index);
+	}
+
+	//a goes above b in the heap
+	private static boolean before(Region a, Region b, boolean max) {
+		return max ? a.queuedPotential > b.queuedPotential : a.queuedPotential < b.queuedPotential;
+	}
+
+	private static void setIndex(Region region, boolean max, int index) {
+		if (max) region.highIndex = index;
+		else region.lowIndex = index;
+	}
+
+	private static void swap(int[] array, int i, int j) {
+		int temp = array[i];
+		array[i] = array[j];
+		array[j] = temp;
+	}
+}
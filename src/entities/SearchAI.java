@@ -0,0 +1,475 @@
+package entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+/*
+ * SearchAI is the common part of the AIs that look ahead instead of picking at
+ * random. The server sends the whole tile order up front (THE REMAINING n TILES), so
+ * the rest of the game is known exactly: the only choices are where each tile goes,
+ * its orientation, and whether a tiger or crocodile goes on it. A search plays those
+ * choices out on the real board between a checkpoint() and an undo(), so nothing is
+ * copied.
+ *
+ * A move is kept as two numbers, the packed placement (see TilePair.encode()) and
+ * the animal: NONE, a tiger zone from 1 to 9, or CROCODILE. Subclasses fill in
+ * search(), which leaves its pick in bestMove and bestAnimal.
+ *
+ * Like AI, getMove() places the tile and confirms it. The tiger or crocodile in the
+ * move is put on the board when the server echoes the move back (see Game.placeTile()).
+ *
+ * Before the match starts, plan() can search the first moves in the background and
+ * warm the JIT up with a few made up games, so the first moves don't wait on either.
+ *
+ * With ENDGAME_TILES or fewer tiles left, the move is solved instead (see solve()):
+ * every line is searched to the end of the game and scored exactly.
+ */
+public abstract class SearchAI extends AI {
+
+	//animals a move can put on its tile (1 to 9 are tiger zones)
+	public static final int NONE = 0;
+	public static final int CROCODILE = 10;
+
+	protected static final long PASS = Long.MIN_VALUE; //the move for a tile that can't be placed (-1 is a real placement)
+	protected static final int WARM_UP_GAMES = 20; //made up games plan() plays before searching
+	public static final int ENDGAME_TILES = 3; //tiles left, counting the current one, when moves start being solved (see EndgameBenchmark)
+
+	protected long budget; //how long a search may run, in nanoseconds
+	protected TranspositionTable table; //may be shared with other searches, null for none
+	protected int endgameTiles = ENDGAME_TILES;
+
+	//what the last search found
+	protected long bestMove;
+	protected int bestAnimal;
+	protected long searchTime; //nanoseconds
+	protected boolean planned; //the last move came from plan()
+	protected boolean solved; //the last move was solved to the end of the game
+	protected volatile boolean stop; //ends a search early, see halt()
+
+	//moves plan() found, by the hash of the position (see hash())
+	private HashMap<Long, long[]> plans = new HashMap<Long, long[]>();
+	private Thread planner;
+	private AlphaBetaAI solver; //for the endgame, see solve()
+
+	//the current tile and every tile after it, see loadDeck()
+	protected TigerTile[] deck = new TigerTile[0];
+	protected int deckStart; //the index of deck[0] in the board's deck
+	private int[] orientations = new int[0];
+
+	//filled in by actions()
+	protected long[] moveBuffer = new long[256];
+	protected int[] animalBuffer = new int[256];
+	private long[] placementBuffer = new long[64];
+
+	//constructors
+	public SearchAI(BoardObject currentBoard, long budgetMillis) {
+		super(currentBoard);
+		setBudget(budgetMillis);
+	}
+
+	//same as above, but the random choices are seeded
+	public SearchAI(BoardObject currentBoard, long budgetMillis, long seed) {
+		super(currentBoard, seed);
+		setBudget(budgetMillis);
+	}
+
+	//ACCESSORS
+
+	public long getBudget() {
+		return budget / 1000000;
+	}
+
+	public TranspositionTable getTable() {
+		return table;
+	}
+
+	public int getEndgameTiles() {
+		return endgameTiles;
+	}
+
+	/**
+	 * getSearchTime() gets how long the last search took
+	 * @return the time in nanoseconds
+	 */
+	public long getSearchTime() {
+		return searchTime;
+	}
+
+	/**
+	 * getBestMove() gets the placement the last search picked
+	 * @return the packed placement (see TilePair.encode())
+	 */
+	public long getBestMove() {
+		return bestMove;
+	}
+
+	/**
+	 * wasPlanned() tells if the last move was found by plan() instead of searched for
+	 * @return true if it came from the plan
+	 */
+	public boolean wasPlanned() {
+		return planned;
+	}
+
+	/**
+	 * wasSolved() tells if the last move is known to be the best there is, because every
+	 * line after it was searched to the end of the game
+	 * @return true if it was solved
+	 */
+	public boolean wasSolved() {
+		return solved;
+	}
+
+	//MUTATORS
+
+	/**
+	 * setBudget() sets how long each search may run
+	 * @param budgetMillis the wall clock budget in milliseconds
+	 */
+	public void setBudget(long budgetMillis) {
+		this.budget = budgetMillis * 1000000;
+	}
+
+	/**
+	 * setTable() gives the search a transposition table to remember positions in. The
+	 * table can be shared by the searches of both games of a round.
+	 * @param table the table, null for none
+	 */
+	public void setTable(TranspositionTable table) {
+		this.table = table;
+	}
+
+	/**
+	 * setEndgameTiles() sets how few tiles have to be left for moves to be solved
+	 * instead of searched
+	 * @param endgameTiles the number of tiles, counting the current one, 0 to never solve
+	 */
+	public void setEndgameTiles(int endgameTiles) {
+		this.endgameTiles = endgameTiles;
+	}
+
+	//METHODS
+
+	//Returns String to be given to TigerZoneClient
+	//If the tile can't be placed, AI decides what to do with the turn
+	@Override
+	public String getMove(TigerTile currentTile) {
+		if (!currentBoard.canPlace(currentTile)) return super.getMove(currentTile);
+
+		String move = chooseMove(currentTile);
+
+		//place it like AI does, the animal comes back with the server's echo
+		currentTile.setOrientation(TilePair.getOrientation(bestMove) / 90);
+		currentBoard.place(currentTile, TilePair.getKey(bestMove));
+		currentBoard.confirm();
+		return move;
+	}
+
+	/**
+	 * chooseMove() searches for the best move with the current tile without changing
+	 * the board
+	 * @param currentTile the tile to be played, it should be the next one in the board's deck
+	 * @return the move for the server, e.g. "PLACE TLTJ- AT 0 1 90 TIGER 8"
+	 */
+	public String chooseMove(TigerTile currentTile) {
+		return chooseMove(currentTile, Long.MAX_VALUE);
+	}
+
+	/**
+	 * chooseMove() searches like above, but stops early at a hard deadline if the budget
+	 * would run past it
+	 * @param currentTile the tile to be played
+	 * @param deadline the System.nanoTime() the search has to be done by
+	 * @return the move for the server
+	 */
+	public String chooseMove(TigerTile currentTile, long deadline) {
+		stopPlanning();
+		long start = System.nanoTime();
+		loadDeck(currentTile);
+
+		//the position may have been searched before the match
+		long[] plan = plans.remove(hash(0));
+		planned = plan != null;
+		solved = false;
+		if (planned) {
+			bestMove = plan[0];
+			bestAnimal = (int) plan[1];
+		}
+		else if (deck.length <= endgameTiles) solve(currentTile, Math.min(start + budget, deadline));
+		else search(currentTile, Math.min(start + budget, deadline));
+
+		restoreDeck();
+		searchTime = System.nanoTime() - start;
+		return format(currentTile);
+	}
+
+	//the best move for the server, e.g. "PLACE TLTJ- AT 0 1 90 TIGER 8"
+	protected String format(TigerTile currentTile) {
+		if (bestMove == PASS) return "TILE " + currentTile.getType() + " UNPLACEABLE PASS";
+
+		String move = "PLACE " + currentTile.getType() + " AT " + Coordinate.toServer(TilePair.getKey(bestMove))
+				+ " " + TilePair.getOrientation(bestMove);
+		if (bestAnimal == CROCODILE) move += " CROCODILE";
+		else if (bestAnimal != NONE) move += " TIGER " + bestAnimal;
+		else move += " NONE";
+		return move;
+	}
+
+	/**
+	 * plan() gets ready for the match in the background: it plays some made up games on
+	 * copies of the board to warm up the JIT, then searches the current position with
+	 * each of the tiles the first move might be made with. chooseMove() uses a planned
+	 * move if the position comes up. Nothing may change the board until stopPlanning()
+	 * is called, chooseMove() calls it.
+	 * @param firstTiles the tiles, from the board's deck
+	 * @param budgetMillis how long it may take in all
+	 */
+	@Override
+	public void plan(final ArrayList<TigerTile> firstTiles, final long budgetMillis) {
+		stopPlanning();
+		final long deadline = System.nanoTime() + budgetMillis * 1000000;
+		halt(false);
+
+		planner = new Thread(new Runnable() {
+			public void run() {
+				warmUp(deadline);
+
+				//split what's left between the tiles
+				for (int i = 0; i < firstTiles.size() && !stop; i++) {
+					TigerTile tile = firstTiles.get(i);
+					if (!currentBoard.canPlace(tile)) continue;
+					long now = System.nanoTime();
+					loadDeck(tile);
+					search(tile, now + (deadline - now) / (firstTiles.size() - i));
+					if (!stop) plans.put(hash(0), new long[] {bestMove, bestAnimal});
+					restoreDeck();
+					format(tile); //the first move's reply shouldn't be the first one put together either
+				}
+			}
+		}, "plan");
+		planner.setDaemon(true);
+		planner.start();
+	}
+
+	/**
+	 * stopPlanning() stops plan() and waits for it, the moves it found so far are kept
+	 */
+	@Override
+	public void stopPlanning() {
+		if (planner == null) return;
+		halt(true);
+		try {
+			planner.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		halt(false);
+		planner = null;
+	}
+
+	//random games on replicas of the board, through the same moves Game makes
+	protected void warmUp(long deadline) {
+		Random random = new Random(WARM_UP_GAMES);
+		for (int game = 0; game < WARM_UP_GAMES && !stop && System.nanoTime() < deadline; game++) {
+			BoardObject board = currentBoard.replicate();
+			ArrayList<TigerTile> tiles = board.getTileDeck();
+			if (tiles == null) return;
+
+			for (TigerTile tile : tiles) {
+				if (board.canPlace(tile)) {
+					TilePair pair = board.getPossibleSpots().get(random.nextInt(board.getPossibleSpots().size()));
+					long key = pair.getKey();
+					tile.setOrientation(pair.getOrientation() / 90);
+					board.place(tile, key);
+					if (random.nextInt(4) == 0) board.placeTiger(1 + random.nextInt(9));
+				}
+				board.confirm();
+			}
+			board.endScores();
+		}
+	}
+
+	/**
+	 * halt() makes a running search stop as soon as it can, or lets searches run again
+	 * @param stop true to stop
+	 */
+	protected void halt(boolean stop) {
+		this.stop = stop;
+		if (solver != null) solver.halt(stop);
+	}
+
+	/**
+	 * search() looks for the best move with the first tile of the deck and leaves it in
+	 * bestMove and bestAnimal. The board has to be the same afterwards.
+	 * @param currentTile the tile to be played (deck[0])
+	 * @param deadline the System.nanoTime() to be done by
+	 */
+	protected abstract void search(TigerTile currentTile, long deadline);
+
+	/**
+	 * solve() looks for the best move near the end of the game with alpha-beta (see
+	 * AlphaBetaAI), deepening until every line reaches the end. If it gets there before
+	 * the deadline the move is the best there is and solved is set, otherwise it's the
+	 * best move of the deepest search finished, which that close to the end is still
+	 * better than a guess.
+	 * @param currentTile the tile to be played (deck[0])
+	 * @param deadline the System.nanoTime() to be done by
+	 */
+	protected void solve(TigerTile currentTile, long deadline) {
+		if (solver == null) solver = new AlphaBetaAI(currentBoard, 0);
+		solver.halt(stop);
+		solver.setTable(table);
+		solver.loadDeck(currentTile);
+		solver.search(currentTile, deadline);
+		solver.restoreDeck();
+
+		bestMove = solver.bestMove;
+		bestAnimal = solver.bestAnimal;
+		solved = solver.depthReached == solver.deck.length;
+	}
+
+	//the current tile and every tile after it in the deck, in the order they'll be played
+	protected void loadDeck(TigerTile currentTile) {
+		ArrayList<TigerTile> tiles = currentBoard.getTileDeck();
+		int index = -1;
+		if (tiles != null) {
+			for (int i = 0; i < tiles.size(); i++) {
+				if (tiles.get(i) == currentTile) { index = i; break; }
+			}
+		}
+
+		//a tile that isn't in the deck is searched on its own
+		int size = (index == -1) ? 1 : tiles.size() - index;
+		deckStart = Math.max(index, 0);
+		if (deck.length != size) {
+			deck = new TigerTile[size];
+			orientations = new int[size];
+		}
+		for (int i = 0; i < size; i++) {
+			deck[i] = (index == -1) ? currentTile : tiles.get(index + i);
+			orientations[i] = deck[i].getOrientation();
+		}
+	}
+
+	/**
+	 * replicaTile() finds a tile's copy on a replica of the board (see
+	 * BoardObject.replicate())
+	 * @param replica the replica
+	 * @param tile a tile of this board's deck, or one that isn't in it
+	 * @return the tile at the same place in the replica's deck, or a new tile of the same type
+	 */
+	protected TigerTile replicaTile(BoardObject replica, TigerTile tile) {
+		ArrayList<TigerTile> tiles = currentBoard.getTileDeck();
+		if (tiles != null) {
+			int index = tiles.indexOf(tile);
+			if (index != -1) return replica.getTile(index);
+		}
+		return new TigerTile(tile.getType(), tile.getOrientation(), replica.getContext());
+	}
+
+	//the tiles the search turned go back to the way they were
+	protected void restoreDeck() {
+		for (int i = 0; i < deck.length; i++) deck[i].setOrientation(orientations[i]);
+	}
+
+	/**
+	 * hash() gets the hash of the board for a transposition table, with how far through
+	 * the deck it is folded in
+	 * @param ply how many moves past the current tile the board is
+	 * @return the hash
+	 */
+	protected long hash(int ply) {
+		return currentBoard.getHash() ^ Zobrist.ply(deckStart + ply);
+	}
+
+	//make one move on the board
+	protected void play(TigerTile tile, long move, int animal) {
+		if (move == PASS) {
+			currentBoard.confirm();
+			return;
+		}
+
+		tile.setOrientation(TilePair.getOrientation(move) / 90);
+		currentBoard.place(tile, TilePair.getKey(move));
+		if (animal == CROCODILE) currentBoard.placeCrocodile();
+		else if (animal != NONE) currentBoard.placeTiger(animal);
+		currentBoard.confirm();
+	}
+
+	/**
+	 * actions() lists every move the active player can make with a tile: each
+	 * placement with no animal, with a tiger in each zone placeTiger() accepts, and
+	 * with a crocodile if the tile has a lake or trail for it. A tile that can't be
+	 * placed has the single move PASS.
+	 * @param tile the tile to be played
+	 * @return the number of moves put in moveBuffer and animalBuffer
+	 */
+	protected int actions(TigerTile tile) {
+		if (!currentBoard.canPlace(tile)) {
+			moveBuffer[0] = PASS;
+			animalBuffer[0] = NONE;
+			return 1;
+		}
+
+		//keep the placements, placing the tile below reuses the pooled pairs
+		ArrayList<TilePair> spots = currentBoard.getPossibleSpots();
+		int placements = spots.size();
+		if (placementBuffer.length < placements) placementBuffer = new long[placements * 2];
+		for (int i = 0; i < placements; i++) placementBuffer[i] = spots.get(i).getMove();
+
+		Player active = currentBoard.getActivePlayer();
+		boolean crocodileSpot = false;
+		for (Terrain terrain : tile.getTerrains()) {
+			if (terrain instanceof LakeTerrain || terrain instanceof TrailTerrain) crocodileSpot = true;
+		}
+
+		int count = 0;
+		for (int i = 0; i < placements; i++) {
+			long move = placementBuffer[i];
+
+			//a turn the tile looks the same in gives the same position (see TileCatalog.TileTemplate.getCanonical())
+			int orientation = TilePair.getOrientation(move) / 90;
+			if (tile.getCanonical(orientation) != orientation) continue;
+			count = addAction(count, move, NONE);
+			if (!active.hasTigers() && !(active.hasCrocs() && crocodileSpot)) continue;
+
+			currentBoard.checkpoint();
+			tile.setOrientation(TilePair.getOrientation(move) / 90);
+			currentBoard.place(tile, TilePair.getKey(move));
+
+			if (active.hasTigers()) {
+				for (int zone = 1; zone <= 9; zone++) {
+					if (!tigerZone(tile, zone)) continue;
+					currentBoard.checkpoint();
+					if (currentBoard.placeTiger(zone)) count = addAction(count, move, zone);
+					currentBoard.undo();
+				}
+			}
+			if (active.hasCrocs() && crocodileSpot) count = addAction(count, move, CROCODILE);
+
+			currentBoard.undo();
+		}
+		return count;
+	}
+
+	//a quick look at whether placeTiger() might take a zone of the tile just placed: away
+	//from the den, only the lowest zone of a region without a tiger can be taken
+	private boolean tigerZone(TigerTile tile, int zone) {
+		if (zone == 5) return true;
+		Terrain terrain = tile.getEdge(currentBoard.adjustIndex(zone, true));
+		Region region = currentBoard.getRegion(terrain.getRegionID());
+		return region == null || (!region.hasTigers() && region.getRecentMin() == zone);
+	}
+
+	private int addAction(int count, long move, int animal) {
+		if (count == moveBuffer.length) {
+			moveBuffer = Arrays.copyOf(moveBuffer, count * 2);
+			animalBuffer = Arrays.copyOf(animalBuffer, count * 2);
+		}
+		moveBuffer[count] = move;
+		animalBuffer[count] = animal;
+		return count + 1;
+	}
+}
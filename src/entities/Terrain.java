@@ -17,8 +17,7 @@ public abstract class Terrain {
 	protected CrocodileObject theCrocodile;
 	protected char theType;
 	protected ArrayList<Integer> theTileConnections;
-	public static int terrainNum = 0;
-//	protected int orientation;
+	protected int orientation; //the orientation the connections are currently rotated to
 	protected int zoneMin; 
 
 	// Constructors
@@ -33,7 +32,7 @@ public abstract class Terrain {
 	 * @return Terrain
 	 */
 	public Terrain(ArrayList<Integer> aTileConnections) {
-		theTerrainID       = terrainNum++;
+		theTerrainID       = GameContext.getDefault().nextTerrainID();
 		theTileConnections = aTileConnections;
 		theRegionID		   = -1;
 	}
@@ -167,13 +166,16 @@ public abstract class Terrain {
 		return result;
 	}
 	
+	//rotate the connections to the given orientation. This is absolute (rotating by the
+	//difference from the current orientation), so it's safe to call more than once
 	public void setOrientation(int orientation) {
 
+		int turns = orientation - this.orientation;
 		for (int i = 0; i < theTileConnections.size(); i++) {
-			int newConnect = Math.floorMod((theTileConnections.get(i) - 2 * orientation),8);
+			int newConnect = Math.floorMod((theTileConnections.get(i) - 2 * turns),8);
 			theTileConnections.set(i, newConnect);
 		}
-//		this.orientation = orientation;
+		this.orientation = orientation;
 		int newMin = zoneListMin(theTileConnections);
 		zoneMin = newMin;
 	}
@@ -65,6 +65,22 @@ public class TigerObject
 	}
 	
 	//METHODS	
+
+	/**
+	 * save() records where the tiger currently is
+	 * @return a record that puts the tiger back
+	 */
+	public UndoJournal.Record save() {
+		final int oldRegionID = regionID;
+		final Location oldLocation = associatedLocation;
+
+		return new UndoJournal.Record() {
+			public void undo() {
+				regionID = oldRegionID;
+				associatedLocation = oldLocation;
+			}
+		};
+	}
 	public String toString() {
 		return "This crocodile belongs to " + owner + " in region " + regionID;
 	}
@@ -2,20 +2,9 @@ package entities;
 
 import java.awt.event.ActionEvent;
 import java.util.Arrays;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.w3c.dom.Element;
-import java.io.*;
 import java.util.StringTokenizer;
 import java.util.ArrayList;
 
@@ -36,6 +25,8 @@ public class TigerTile extends TileObject {
 	protected CrocodileObject croc;
 	protected char special;
 	protected Terrain[] terrains;
+	protected int[] signatures; //packed edge types for each orientation (see TileEdges)
+	protected int[] canonical; //see TileCatalog.TileTemplate.getCanonical(), null if not from the catalog
 
 	//constructors
 	public TigerTile() {
@@ -52,9 +43,8 @@ public class TigerTile extends TileObject {
 	public TigerTile(Element eElement) {
 
 		//initialize member variables
-		tileID = tileNum++; //ensures uniqueID to a tile
+		tileID = context.nextTileID(); //ensures uniqueID to a tile
 		orientation = 0;
-		coord = new Location();
 		type = eElement.getAttribute("type");
 		special = type.charAt(4);
 		center = eElement.getElementsByTagName("center").item(0).getTextContent().charAt(0);
@@ -112,6 +102,10 @@ public class TigerTile extends TileObject {
 
 		edges = new TileEdges(edgeTerrains,terrains,0);
 
+		char[] points = new char[8];
+		for (int j = 0; j < edgeTerrains.length; j++) points[j] = edgeTerrains[j].getType();
+		signatures = TileEdges.signatures(points);
+
 		//add all of the lake associations to any adjacent jungles
 		//this is done by checking to our left and right, and if we are
 		//adjacent to any lakes, then we add the lakes to the SET associated
@@ -147,133 +141,105 @@ public class TigerTile extends TileObject {
 
 	//individual tile construction (independent of TileStack factory)
 	public TigerTile(String type, int orientation) {
-		try { //attempt to parse XML file of tiles
-
-			//file to parse
-			File file = new File("resources/tiles.xml");
-			DocumentBuilder dBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-			Document doc = dBuilder.parse(file);
-
-			//if there was stuff inside of the XML file
-			if (doc.hasChildNodes()) {
-				//find tile type
-				XPathFactory xPathfactory = XPathFactory.newInstance();
-				XPath xpath = xPathfactory.newXPath();
-				XPathExpression expr = xpath.compile("//tile[@type=\"" + type +"\"]");
-				NodeList nList = (NodeList) expr.evaluate(doc, XPathConstants.NODESET);
-
-
-				//get first found element
-				Node nNode = nList.item(0);
-				Element eElement = (Element) nNode;
-
-				if (nNode.getNodeType() == Node.ELEMENT_NODE) {
-
-					//initialize variables
-					tileID = tileNum++; //ensures uniqueID to a tile
-					this.orientation = orientation;
-					coord = new Location();
-					this.type = type;
-					special = type.charAt(4);
-					center = eElement.getElementsByTagName("center").item(0).getTextContent().charAt(0);
-					tigers = new ArrayList<TigerObject>();
-
-					//obtain all of the regions associated with a tie and put into a list of terrains
-					NodeList regions = eElement.getElementsByTagName("region");
-					terrains = new Terrain[regions.getLength()];
-
-					//if there are prey animals, add them to the terrain
-					Animal prey = null;
-					if (special != '-' && center != 'X') { prey = new Animal(special); }
-
-					//i is a counter variable for the next terrain
-					int i = 0;
-
-					//for every region found for the specified tile, create them
-					for (int j = 0; j < regions.getLength(); j++) {
-
-						Element element = (Element)regions.item(j);
-						ArrayList<Integer> edgeConnections = new ArrayList<Integer>();
-
-						//the XML text associated with a given region gives the points of connection on a tile (anywhere from 0 to 7)
-						String regionType = element.getAttribute("rtype");
-						String edgeConnectionsText = element.getTextContent();
-						StringTokenizer tokens = new StringTokenizer(edgeConnectionsText);
-
-						//every terrain has a list of locations that it is connected at on a tile
-						while(tokens.hasMoreTokens()) {
-							int temp = Integer.parseInt(tokens.nextToken());
-							edgeConnections.add(Math.floorMod((temp - 2 * orientation),8));
-						}
-
-						if (regionType.equalsIgnoreCase("jungle")) { terrains[i] = new JungleTerrain(edgeConnections); }
-						else if (regionType.equalsIgnoreCase("trail")) {
-							char trailType = element.getAttribute("type").charAt(0);
-
-							//if the trail type is connecting, pass false (not an end); else, pass true
-							if (trailType == 'C') { terrains[i] = new TrailTerrain(edgeConnections, false, prey); }
-							else { terrains[i] = new TrailTerrain(edgeConnections, true, prey); }
-						}
-						else if (regionType.equalsIgnoreCase("lake")) {
-							char lakeType = element.getAttribute("type").charAt(0);
-
-							//if the lake type is connecting, pass false (not an end); else, pass true
-							if (lakeType == 'C') { terrains[i] = new LakeTerrain(edgeConnections, false, prey); }
-							else { terrains[i] = new LakeTerrain(edgeConnections, true, prey); }
-						}
-
-						//set the terrain's tile ID to current tile and increase counter to next spot
-						terrains[i++].setTileID(tileID);
-					}
-
-					//for every terrain, place into the edge terrain list at their connecting points (max of 8)
-					Terrain[] edgeTerrains = new Terrain[8];
-					for (Terrain terrain : terrains) {
-						ArrayList<Integer> tileConnections = terrain.getTileConnections();
-						for (int j = 0; j < tileConnections.size(); j++) { edgeTerrains[tileConnections.get(j)] = terrain; }
-					}
-
-					//associate the tile edges with the unique terrains and the terrain list
-					edges = new TileEdges(edgeTerrains, terrains, orientation);
-
-
-					//add all of the lake associations to any adjacent jungles
-					//this is done by checking to our left and right, and if we are
-					//adjacent to any lakes, then we add the lakes to the SET associated
-					//with the jungle. It is based on regionID
-
-					//for every jungle terrain
-					for (int j = 0; j < edgeTerrains.length; j++) {
-						if(edgeTerrains[j] instanceof JungleTerrain) {
-
-							//get the lakes
-							ArrayList<Integer> adjacents = ((JungleTerrain) edgeTerrains[j]).getLakes();
-
-							//look to our left
-							Terrain left = edgeTerrains[Math.floorMod((j-1),edgeTerrains.length)];
-							int leftRegionID = left.getRegionID();
-
-							//if a lake and isn't already in the list, add
-							if (left instanceof LakeTerrain && !adjacents.contains(leftRegionID)) {
-								((JungleTerrain) edgeTerrains[j]).addLake(leftRegionID);
-							}
-
-							//look to our right
-							Terrain right = edgeTerrains[Math.floorMod((j+1),edgeTerrains.length)];
-							int rightRegionID = right.getRegionID();
-
-							//if a lake and isn't already in the list, add
-							if (right instanceof LakeTerrain && !adjacents.contains(rightRegionID)) {
-								((JungleTerrain) edgeTerrains[j]).addLake(rightRegionID);
-							}
-						}
-					}
+		this(type, orientation, GameContext.getDefault());
+	}
+
+	/**
+	 * Creates a tile for a game, with IDs that are only unique within that game.
+	 * @param type the tile type
+	 * @param orientation the desired orientation (0=0, 1=90, 2=180, 3=270)
+	 * @param context the game the tile and its terrains get their IDs from
+	 */
+	public TigerTile(String type, int orientation, GameContext context) {
+		TileCatalog.TileTemplate template = TileCatalog.getInstance().getTemplate(type);
+		if (template == null) { //if the tile type isn't in the catalog
+			System.out.println("Error: TigerTile");
+			System.out.println("Unknown tile type " + type);
+			return;
+		}
+		stamp(template, orientation, context);
+	}
+
+	/**
+	 * Creates a tile from a parsed catalog template. No file or XML access is done.
+	 * @param template the immutable template of the tile type
+	 * @param orientation the desired orientation (0=0, 1=90, 2=180, 3=270)
+	 */
+	TigerTile(TileCatalog.TileTemplate template, int orientation, GameContext context) {
+		stamp(template, orientation, context);
+	}
+
+	//builds the tile's terrains and edges from a template
+	private void stamp(TileCatalog.TileTemplate template, int orientation, GameContext context) {
+
+		//initialize variables
+		this.context = context;
+		tileID = context.nextTileID(); //ensures uniqueID to a tile
+		this.type = template.getType();
+		special = template.getSpecial();
+		center = template.getCenter();
+		tigers = new ArrayList<TigerObject>();
+		terrains = new Terrain[template.getNumOfRegions()];
+		signatures = template.getSignatures();
+		canonical = template.getCanonicals();
+
+		//if there are prey animals, add them to the terrain
+		Animal prey = null;
+		if (special != '-' && center != 'X') { prey = new Animal(special); }
+
+		//for every region of the tile type, create its terrain at orientation 0
+		for (int i = 0; i < terrains.length; i++) {
+
+			//every terrain has a list of locations that it is connected at on a tile
+			ArrayList<Integer> edgeConnections = template.getConnections(i);
+			char regionType = template.getRegionType(i);
+
+			//trails and lakes are either connecting (not an end) or an end
+			if (regionType == 'J') { terrains[i] = new JungleTerrain(edgeConnections, context); }
+			else if (regionType == 'T') { terrains[i] = new TrailTerrain(edgeConnections, template.isRegionEnd(i), prey, context); }
+			else if (regionType == 'L') { terrains[i] = new LakeTerrain(edgeConnections, template.isRegionEnd(i), prey, context); }
+
+			//set the terrain's tile ID to current tile
+			terrains[i].setTileID(tileID);
+		}
+
+		//for every terrain, place into the edge terrain list at their connecting points (max of 8)
+		Terrain[] edgeTerrains = new Terrain[8];
+		for (Terrain terrain : terrains) {
+			ArrayList<Integer> tileConnections = terrain.getTileConnections();
+			for (int j = 0; j < tileConnections.size(); j++) { edgeTerrains[tileConnections.get(j)] = terrain; }
+		}
+
+		//associate the tile edges with the unique terrains and the terrain list
+		edges = new TileEdges(edgeTerrains, terrains, 0);
+
+		//add all of the lake associations to any adjacent jungles
+		//this is done by checking to our left and right, and if we are
+		//adjacent to any lakes, then we add the lakes to the SET associated
+		//with the jungle. It is based on regionID
+		for (int j = 0; j < edgeTerrains.length; j++) {
+			if(edgeTerrains[j] instanceof JungleTerrain) {
+
+				//get the lakes
+				ArrayList<Integer> adjacents = ((JungleTerrain) edgeTerrains[j]).getLakes();
+
+				//look to our left, if a lake and isn't already in the list, add
+				Terrain left = edgeTerrains[Math.floorMod((j-1),edgeTerrains.length)];
+				if (left instanceof LakeTerrain && !adjacents.contains(left.getRegionID())) {
+					((JungleTerrain) edgeTerrains[j]).addLake(left.getRegionID());
+				}
+
+				//look to our right, if a lake and isn't already in the list, add
+				Terrain right = edgeTerrains[Math.floorMod((j+1),edgeTerrains.length)];
+				if (right instanceof LakeTerrain && !adjacents.contains(right.getRegionID())) {
+					((JungleTerrain) edgeTerrains[j]).addLake(right.getRegionID());
 				}
 			}
-		} catch (Exception e) { //if there was an error with generating the independent tile
-			System.out.println("Error: TigerTile");
-			System.out.println(e);
 		}
+
+		//rotate from orientation 0 the same way a placed tile is rotated
+		this.orientation = 0;
+		if (orientation != 0) setOrientation(orientation);
 	}
 
 	// ACCESSORSS
@@ -285,6 +251,24 @@ public class TigerTile extends TileObject {
 		return edges.getTerrain(index).getType();
 	}
 
+	/**
+	 * getSignature() gets the packed edge types of the tile in an orientation
+	 * @param orientation the orientation (0=0, 1=90, 2=180, 3=270)
+	 * @return 4 bits per edge point, see TileEdges.signatures()
+	 */
+	public int getSignature(int orientation) {
+		return signatures[orientation & 3];
+	}
+
+	/**
+	 * getCanonical() gets the lowest orientation the tile looks the same in
+	 * @param orientation the orientation (0=0, 1=90, 2=180, 3=270)
+	 * @return 0 to 3
+	 */
+	public int getCanonical(int orientation) {
+		return (canonical != null) ? canonical[orientation & 3] : orientation & 3;
+	}
+
 	public char getSpecial() {
 		return special;
 	}
@@ -394,7 +378,7 @@ public class TigerTile extends TileObject {
 	@Override
 	public String toString() {
 		return "ID: " + this.tileID +
-				"\n(x,y) coordinate: " + this.coord.toString() +
+				"\n(x,y) coordinate: " + getCoord().toString() +
 				"\nOrientation: " + this.orientation +
 				"\nType: " + this.type +
 				"\nCenter: " + this.center +
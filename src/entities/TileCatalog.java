@@ -0,0 +1,277 @@
+package entities;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/*
+ * The TileCatalog holds every tile type described in resources/tiles.xml. The XML
+ * file is parsed a single time per JVM (the first time the catalog is used) into an
+ * immutable TileTemplate per type. Tiles are then stamped out of the templates in any
+ * of the 4 orientations without touching the file system or a DOM again.
+ */
+public final class TileCatalog {
+
+	public static final String TILE_FILE = "resources/tiles.xml";
+
+	//the templates in the order they appear in the XML file
+	private final Map<String, TileTemplate> templates;
+	private final List<String> deck;
+
+	//lazy holder, the JVM guarantees the file is only parsed once (and thread safely)
+	private static class Holder {
+		static final TileCatalog INSTANCE = new TileCatalog(TILE_FILE);
+	}
+
+	//constructors
+	private TileCatalog(String fileName) {
+
+		Map<String, TileTemplate> parsed = new LinkedHashMap<String, TileTemplate>();
+		List<String> types = new ArrayList<String>();
+
+		try { //attempt to parse XML file of tiles
+
+			File file = new File(fileName);
+			DocumentBuilder dBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+			Document doc = dBuilder.parse(file);
+
+			//find all tiles and turn each into a template
+			NodeList nList = doc.getElementsByTagName("tile");
+			for (int i = 0; i < nList.getLength(); i++) {
+				Node nNode = nList.item(i);
+				if (nNode.getNodeType() != Node.ELEMENT_NODE) continue;
+
+				TileTemplate template = new TileTemplate((Element) nNode);
+				parsed.put(template.type, template);
+
+				//the deck holds a type once for each multiplicity
+				for (int j = 0; j < template.count; j++) types.add(template.type);
+			}
+		} catch (Exception e) {
+			System.out.println("Error: TileCatalog");
+			System.out.println(e);
+		}
+
+		templates = Collections.unmodifiableMap(parsed);
+		deck = Collections.unmodifiableList(types);
+	}
+
+	//ACCESSORS
+
+	/**
+	 * getInstance() returns the catalog, parsing the tile file on first use
+	 * @return the JVM wide catalog
+	 */
+	public static TileCatalog getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * getTemplate() gets the immutable template of a tile type
+	 * @param type the tile type (e.g. TLTJ-)
+	 * @return the template, or null if the type doesn't exist
+	 */
+	public TileTemplate getTemplate(String type) {
+		return templates.get(type);
+	}
+
+	/**
+	 * getTypes() gets every tile type in the order found in the tile file
+	 * @return a list of the types
+	 */
+	public List<String> getTypes() {
+		return new ArrayList<String>(templates.keySet());
+	}
+
+	/**
+	 * getDeck() gets the full deck of tile types, each repeated by its multiplicity
+	 * @return read only list of all tiles (77 for the standard file)
+	 */
+	public List<String> getDeck() {
+		return deck;
+	}
+
+	//METHODS
+
+	/**
+	 * createTile() stamps a brand new tile from its template
+	 * @param type the tile type
+	 * @param orientation the desired orientation (0=0, 1=90, 2=180, 3=270)
+	 * @return the new tile, or null if the type doesn't exist
+	 */
+	public TigerTile createTile(String type, int orientation) {
+		return createTile(type, orientation, GameContext.getDefault());
+	}
+
+	/**
+	 * createTile() stamps a brand new tile for a game
+	 * @param type the tile type
+	 * @param orientation the desired orientation (0=0, 1=90, 2=180, 3=270)
+	 * @param context the game the tile gets its IDs from
+	 * @return the new tile, or null if the type doesn't exist
+	 */
+	public TigerTile createTile(String type, int orientation, GameContext context) {
+		TileTemplate template = templates.get(type);
+		if (template == null) return null;
+		return new TigerTile(template, orientation, context);
+	}
+
+	/*
+	 * An immutable description of one tile type as found in the XML file. The connection
+	 * lists are kept in orientation 0 and copied for every stamped tile.
+	 */
+	public static final class TileTemplate {
+
+		private final String type;
+		private final char center;
+		private final char special;
+		private final int count;
+
+		//one entry per region, in XML order
+		private final char[] regionTypes; //J, T or L
+		private final boolean[] regionEnds; //true if the trail/lake region is an end
+		private final int[][] regionConnections; //edge points 0 to 7 at orientation 0
+		private final int[] signatures; //packed edge types for each orientation (see TileEdges)
+		private final int[] canonical; //for each orientation, the lowest one that looks the same
+
+		private TileTemplate(Element eElement) {
+			type = eElement.getAttribute("type");
+			special = type.charAt(4);
+			center = eElement.getElementsByTagName("center").item(0).getTextContent().charAt(0);
+			count = Integer.parseInt(eElement.getAttribute("count"));
+
+			NodeList regions = eElement.getElementsByTagName("region");
+			regionTypes = new char[regions.getLength()];
+			regionEnds = new boolean[regions.getLength()];
+			regionConnections = new int[regions.getLength()][];
+
+			for (int j = 0; j < regions.getLength(); j++) {
+				Element element = (Element) regions.item(j);
+				String regionType = element.getAttribute("rtype");
+
+				if (regionType.equalsIgnoreCase("jungle")) regionTypes[j] = 'J';
+				else if (regionType.equalsIgnoreCase("trail")) regionTypes[j] = 'T';
+				else if (regionType.equalsIgnoreCase("lake")) regionTypes[j] = 'L';
+
+				//only trails and lakes have a type, C is connecting and anything else an end
+				if (regionTypes[j] != 'J') regionEnds[j] = element.getAttribute("type").charAt(0) != 'C';
+
+				StringTokenizer tokens = new StringTokenizer(element.getTextContent());
+				int[] connections = new int[tokens.countTokens()];
+				for (int k = 0; k < connections.length; k++) connections[k] = Integer.parseInt(tokens.nextToken());
+				regionConnections[j] = connections;
+			}
+
+			//encode the edge types of all 4 rotations once
+			char[] points = new char[8];
+			for (int j = 0; j < regionTypes.length; j++) {
+				for (int point : regionConnections[j]) points[point] = regionTypes[j];
+			}
+			signatures = TileEdges.signatures(points);
+
+			//a tile that looks the same turned (e.g. JJJJ- or TJTJ-) has fewer distinct placements
+			canonical = new int[4];
+			for (int orientation = 0; orientation < 4; orientation++) {
+				canonical[orientation] = orientation;
+				for (int lower = 0; lower < orientation; lower++) {
+					if (isSymmetric(orientation - lower)) {
+						canonical[orientation] = lower;
+						break;
+					}
+				}
+			}
+		}
+
+		//whether turning the tile by some quarter turns leaves every region the same
+		private boolean isSymmetric(int turns) {
+			for (int j = 0; j < regionTypes.length; j++) {
+				boolean found = false;
+				for (int k = 0; k < regionTypes.length && !found; k++) {
+					if (regionTypes[k] != regionTypes[j] || regionEnds[k] != regionEnds[j]) continue;
+					if (regionConnections[k].length != regionConnections[j].length) continue;
+					found = true;
+					for (int point : regionConnections[j]) {
+						boolean turned = false;
+						for (int other : regionConnections[k]) turned |= other == (point + 2 * turns) % 8;
+						found &= turned;
+					}
+				}
+				if (!found) return false;
+			}
+			return true;
+		}
+
+		//ACCESSORS
+		public String getType() {
+			return type;
+		}
+
+		public char getCenter() {
+			return center;
+		}
+
+		public char getSpecial() {
+			return special;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public int getNumOfRegions() {
+			return regionTypes.length;
+		}
+
+		public int getSignature(int orientation) {
+			return signatures[orientation];
+		}
+
+		/**
+		 * getCanonical() gets the lowest orientation that places the tile the same way as
+		 * an orientation, so a search can skip placements that only differ by a turn
+		 * @param orientation 0 to 3
+		 * @return 0 to 3, the orientation itself if no lower one looks the same
+		 */
+		public int getCanonical(int orientation) {
+			return canonical[orientation & 3];
+		}
+
+		//shared by every tile of the type, never modify
+		int[] getCanonicals() {
+			return canonical;
+		}
+
+		//shared by every tile of the type, never modify
+		int[] getSignatures() {
+			return signatures;
+		}
+
+		char getRegionType(int region) {
+			return regionTypes[region];
+		}
+
+		boolean isRegionEnd(int region) {
+			return regionEnds[region];
+		}
+
+		//a fresh copy of the region's connecting points, since terrains rotate them in place
+		ArrayList<Integer> getConnections(int region) {
+			int[] connections = regionConnections[region];
+			ArrayList<Integer> copy = new ArrayList<Integer>(connections.length);
+			for (int point : connections) copy.add(point);
+			return copy;
+		}
+	}
+}
@@ -1,20 +1,8 @@
 package entities;
 
-import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
 import java.util.Random;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
 
 /*
  * This class basically mimics the TileStack class, except now in the form of a randomly
@@ -37,43 +25,9 @@ public class TileDeck {
 		tileCount = 0;
 		randomDeck = new String[77];
 
-		try { //attempt to parse XML file of tiles
-
-			//file to parse
-			File file = new File("resources/tiles.xml");
-			DocumentBuilder dBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-
-			Document doc = dBuilder.parse(file);
-
-			//if there was stuff inside of the XML file
-			if (doc.hasChildNodes()) {
-				//find all tiles
-				NodeList nList = doc.getElementsByTagName("tile");
-
-				//for each found tile...
-				for (int i = 0; i < nList.getLength(); i++) {
-
-					//create an array list of all tiles that match the type (for multiplicity)
-					TigerTile newTile;
-
-					//take ith element and find multiplicity
-					Node nNode = nList.item(i);
-					Element eElement = (Element) nNode;
-					String type = eElement.getAttribute("type");
-					int multiplicity = Integer.parseInt(eElement.getAttribute("count"));
-
-					if (nNode.getNodeType() == Node.ELEMENT_NODE) {
-
-						//add a tile of said type for each multiplicity into array list
-						for (int j = 0; j < multiplicity; j++, tileCount++) {
-							tigerDeck.add(type);
-						}
-					}
-				}
-			}
-		} catch (Exception e) {
-			System.out.println("Error: TileDeck");
-		}
+		//the catalog only parses the tile file once per JVM, so copy its full deck
+		tigerDeck.addAll(TileCatalog.getInstance().getDeck());
+		tileCount = tigerDeck.size();
 		randomDeck = tigerDeck.toArray();
 	}//constructor
 
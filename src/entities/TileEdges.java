@@ -99,6 +99,44 @@ public class TileEdges {
 	}
 
 	//METHODS
+
+	/**
+	 * code() turns a terrain type into the 4 bit code used by edge signatures
+	 * @param type J, T or L
+	 * @return 1 for jungle, 2 for trail, 3 for lake (0 for anything else)
+	 */
+	public static int code(char type) {
+		if (type == 'J') return 1;
+		else if (type == 'T') return 2;
+		else if (type == 'L') return 3;
+		return 0;
+	}
+
+	/**
+	 * pointMask() gets the bits of an edge point inside of an edge signature
+	 * @param point the edge point (0 to 7)
+	 * @return the mask covering that point's 4 bits
+	 */
+	public static int pointMask(int point) {
+		return 0xF << (4 * point);
+	}
+
+	/**
+	 * signatures() packs the edge types of a tile, in all 4 orientations, into ints.
+	 * Edge point p of the rotated tile is kept in bits 4p to 4p+3, so whether a tile
+	 * fits next to its neighbors is a single (signature & mask) == value check.
+	 * @param points the terrain type at each edge point in orientation 0
+	 * @return the signatures for orientation 0, 1, 2 and 3
+	 */
+	public static int[] signatures(char[] points) {
+		int[] signatures = new int[4];
+		for (int orientation = 0; orientation < 4; orientation++) {
+			for (int point = 0; point < 8; point++) {
+				signatures[orientation] |= code(points[(point + 2 * orientation) & 7]) << (4 * point);
+			}
+		}
+		return signatures;
+	}
 	
 	//this method adjusts the mapping of the tiles based on a tile's orientation
 	public int linear(int num) { 
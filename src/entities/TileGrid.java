@@ -0,0 +1,167 @@
+package entities;
+
+/*
+ * TileGrid is the sparse storage for the tiles on the board. Tiles are kept in an
+ * open addressing hash table keyed by the packed (x,y) Coordinate of where they were
+ * placed, so the board has no fixed size and only uses memory for placed tiles.
+ * Looking up a tile (or any of its neighbors) is O(1) and allocates nothing.
+ */
+public class TileGrid {
+
+	private static final int MIN_CAPACITY = 16;
+
+	protected long[] keys;
+	protected TigerTile[] tiles; //null marks an empty slot
+	protected int size;
+	protected int mask;
+
+	//bounding box of every tile that has been placed (for printing)
+	protected int minX, maxX, minY, maxY;
+
+	//constructors
+	public TileGrid() {
+		keys = new long[MIN_CAPACITY];
+		tiles = new TigerTile[MIN_CAPACITY];
+		mask = MIN_CAPACITY - 1;
+		size = 0;
+	}
+
+	//ACCESSORS
+
+	public TigerTile get(int x, int y) {
+		return get(Coordinate.pack(x, y));
+	}
+
+	public TigerTile get(long key) {
+		int slot = Coordinate.hash(key) & mask;
+		while (tiles[slot] != null) {
+			if (keys[slot] == key) return tiles[slot];
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	public boolean contains(int x, int y) {
+		return get(Coordinate.pack(x, y)) != null;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int getMinX() {
+		return minX;
+	}
+
+	public int getMaxX() {
+		return maxX;
+	}
+
+	public int getMinY() {
+		return minY;
+	}
+
+	public int getMaxY() {
+		return maxY;
+	}
+
+	//MUTATORS
+
+	/**
+	 * put() places a tile at the given coordinate, replacing any tile already there
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param tile the tile to store
+	 */
+	public void put(int x, int y, TigerTile tile) {
+		if (tile == null) {
+			remove(x, y);
+			return;
+		}
+
+		//keep the table at most half full
+		if ((size + 1) * 2 > tiles.length) resize(tiles.length * 2);
+
+		long key = Coordinate.pack(x, y);
+		int slot = Coordinate.hash(key) & mask;
+		while (tiles[slot] != null) {
+			if (keys[slot] == key) {
+				tiles[slot] = tile;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = key;
+		tiles[slot] = tile;
+
+		//grow the bounding box
+		if (size == 0) { minX = maxX = x; minY = maxY = y; }
+		else {
+			minX = Math.min(minX, x); maxX = Math.max(maxX, x);
+			minY = Math.min(minY, y); maxY = Math.max(maxY, y);
+		}
+		size++;
+	}
+
+	/**
+	 * remove() takes the tile off of the given coordinate. The bounding box is left as is.
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @return the removed tile, or null if there was none
+	 */
+	public TigerTile remove(int x, int y) {
+		long key = Coordinate.pack(x, y);
+		int slot = Coordinate.hash(key) & mask;
+		while (tiles[slot] != null) {
+			if (keys[slot] == key) {
+				TigerTile removed = tiles[slot];
+				shiftBack(slot);
+				size--;
+				return removed;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	//METHODS
+
+	//close the gap left by a removal so linear probing still finds every key
+	private void shiftBack(int gap) {
+		int slot = (gap + 1) & mask;
+		while (tiles[slot] != null) {
+			int home = Coordinate.hash(keys[slot]) & mask;
+
+			//move the entry into the gap if its home isn't between the gap and its slot
+			if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+				keys[gap] = keys[slot];
+				tiles[gap] = tiles[slot];
+				gap = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		tiles[gap] = null;
+	}
+
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		TigerTile[] oldTiles = tiles;
+
+		keys = new long[capacity];
+		tiles = new TigerTile[capacity];
+		mask = capacity - 1;
+
+		for (int i = 0; i < oldTiles.length; i++) {
+			if (oldTiles[i] == null) continue;
+			int slot = Coordinate.hash(oldKeys[i]) & mask;
+			while (tiles[slot] != null) slot = (slot + 1) & mask;
+			keys[slot] = oldKeys[i];
+			tiles[slot] = oldTiles[i];
+		}
+	}
+}
@@ -7,10 +7,11 @@ package entities;
 public abstract class TileObject {
 
 	//attributes
-	protected static int tileNum; //global int to unique tileID
+	protected GameContext context = GameContext.getDefault(); //the game the tile's ID came from
 	protected int tileID;
 	protected int orientation; //orientation mappings: {i=0:0, 1:90, 2:180, 3:270}
-	protected Location coord;
+	protected Location coord; //made from the key the first time it's asked for
+	protected long key; //the packed coordinate of the tile (see Coordinate)
 	protected TileEdges edges;
 
 	//default constructor for inheritance
@@ -21,11 +22,11 @@ public abstract class TileObject {
 	
 	/**
 	 *	getTileNum() will get the total number of tiles that have
-	 *	been created using this class.
+	 *	been created in the tile's game.
 	 *	@return the total number of tiles created
 	 */
 	public int getTileNum() {
-		return tileNum;
+		return context.getTileNum();
 	}
 
 	/**
@@ -49,9 +50,26 @@ public abstract class TileObject {
 	 * @return the current tile's coordinate
 	 */
 	public Location getCoord() {
+		if (coord == null) coord = Coordinate.toLocation(key);
 		return coord;
 	}
 
+	/**
+	 * getKey() gets the current tile's coordinate without making a Location
+	 * @return the packed coordinate
+	 */
+	public long getKey() {
+		return key;
+	}
+
+	/**
+	 * getContext() gets the game the tile's IDs came from
+	 * @return the tile's context
+	 */
+	public GameContext getContext() {
+		return context;
+	}
+
 	/**
 	 * getEdges() gets the current tile's edges and maps them according
 	 * to the orientation set on the tile
@@ -68,7 +86,7 @@ public abstract class TileObject {
 	 *	@param tileNum the new tile amount
 	 */
 	public void setTileNum(int tileNum) {
-		TileObject.tileNum = tileNum;
+		context.setTileNum(tileNum);
 	}
 
 	/**
@@ -94,6 +112,16 @@ public abstract class TileObject {
 	 */
 	public void setCoord(Location coord) {
 		this.coord = coord;
+		this.key = coord.getKey();
+	}
+
+	/**
+	 * setKey() sets the current tile's coordinate from a packed coordinate
+	 * @param key the new packed coordinate
+	 */
+	public void setKey(long key) {
+		this.coord = null;
+		this.key = key;
 	}
 
 	/**
@@ -2,7 +2,8 @@ package entities;
 
 public class TilePair {
 
-	protected Location location;
+	protected Location location; //made from the key the first time it's asked for
+	protected long key; //the packed coordinate of the location
 	protected int orientation;
 	
 	
@@ -12,13 +13,27 @@ public class TilePair {
 	
 	TilePair(Location location, int orientation) { 
 		this.location = location;
+		this.key = location.getKey();
 		this.orientation = orientation;
 	}
 	
 	//ACCESSORS
 	public Location getLocation() { 
+		if (location == null) location = Coordinate.toLocation(key);
 		return location;
 	}
+
+	/**
+	 * getMove() packs the pair into a single long (see encode())
+	 * @return the packed placement
+	 */
+	public long getMove() {
+		return encode(key, orientation);
+	}
+
+	public long getKey() {
+		return key;
+	}
 	
 	public int getOrientation() { 
 		return orientation;
@@ -27,16 +42,70 @@ public class TilePair {
 	//MUTATORS
 	public void setLocation(Location location) { 
 		this.location = location;
+		this.key = location.getKey();
 	}
 	
 	public void setOrientation(int orientation) { 
 		this.orientation = orientation;
 	}
 
+	//reuse the pair for a new spot without allocating a Location
+	void set(long key, int orientation) {
+		this.location = null;
+		this.key = key;
+		this.orientation = orientation;
+	}
+
+	//METHODS
+
+	/*
+	 * A placement can also be kept as a single long with no TilePair at all: the packed
+	 * coordinate shifted up 2 bits, and the orientation in quarter turns (0 to 3) in the
+	 * low 2 bits. That leaves 30 bits each for x and y, far more than any board needs.
+	 */
+
+	/**
+	 * encode() packs a spot and an orientation into a single long
+	 * @param key the packed coordinate of the spot
+	 * @param orientation the orientation in degrees (0, 90, 180 or 270)
+	 * @return the packed placement
+	 */
+	public static long encode(long key, int orientation) {
+		return (key << 2) | ((orientation / 90) & 3);
+	}
+
+	/**
+	 * getKey() unpacks the coordinate of a packed placement
+	 * @param move a packed placement
+	 * @return the packed coordinate
+	 */
+	public static long getKey(long move) {
+		return move >> 2;
+	}
+
+	/**
+	 * getOrientation() unpacks the orientation of a packed placement
+	 * @param move a packed placement
+	 * @return the orientation in degrees
+	 */
+	public static int getOrientation(long move) {
+		return (int) (move & 3) * 90;
+	}
+
+	/**
+	 * rotate() turns a packed placement by some more degrees, on the same spot
+	 * @param move a packed placement
+	 * @param degrees a multiple of 90 (can be negative)
+	 * @return the packed placement with the new orientation
+	 */
+	public static long rotate(long move, int degrees) {
+		return (move & ~3L) | ((move + degrees / 90) & 3);
+	}
+
 	@Override
 	public String toString() {
 		
-		return location + ": " + orientation;
+		return getLocation() + ": " + orientation;
 		
 	}
 }
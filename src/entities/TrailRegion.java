@@ -16,8 +16,8 @@ public class TrailRegion extends Region {
 	public int getPotential() { 
 		int potential = 0;
 
-		int numAnimals = getNumOfAnimals()[0] ;
-		int numCrocs = getNumOfAnimals()[1];
+		int numAnimals = getNumOfPrey();
+		int numCrocs = getNumOfCrocAnimals();
 		int numTiles = getTileListSize();
 		int adjustedUnique = Math.max(0,numAnimals - numCrocs);
 
@@ -107,11 +107,12 @@ public class TrailRegion extends Region {
 			theTerrains.add(aTerrain);
 			if (!isTrailEnd) isTrailEnd = ((TrailTerrain) aTerrain).isEndOfTrail();
 			tileList.add(aTerrain.getTileID());
+			openEdges += countEdges(aTerrain);
 
 			// Add animals
 			if (((TrailTerrain) aTerrain).hasAnimal() == true) {
 				Animal theAnimal = ((TrailTerrain) aTerrain).getAnimal();			
-				theAnimals.add(theAnimal);
+				addAnimal(theAnimal);
 			}
 
 			// Add Tiger
@@ -127,38 +128,31 @@ public class TrailRegion extends Region {
 		}		
 	}
 
-	public void markComplete() {
+	@Override
+	protected void absorb(Region child) {
+		super.absorb(child);
+		if (((TrailRegion) child).isTrailEnd) isTrailEnd = true;
+	}
 
-		if(!isTrailEnd) { 
-			//connecting case
-			ArrayList<Integer> checker = new ArrayList<Integer>();
-			checker.addAll(theTerrains.get(0).getTileConnections());
+	@Override
+	public UndoJournal.Record save() {
+		return new TrailState(this);
+	}
 
-			for (int i = 1; i < theTerrains.size(); i++) { 
-				ArrayList<Integer> terrainConnect = theTerrains.get(i).getTileConnections();
-				//				int adjustment = 2 * theTerrains.get(i).getOrientation();
+	//whether the trail has an end, on top of the common region state
+	protected static class TrailState extends RegionState {
+		protected final boolean isTrailEnd;
 
-				for (Integer spot : terrainConnect) {
-					if(checker.get(checker.size()-1) == (Integer)Math.floorMod(spot + 4,8)) {
-						checker.remove((Integer)Math.floorMod(spot + 4,8));
-					}
-					checker.add((Integer)Math.floorMod(spot, 8));
-				}
-			}
-
-			if(checker.isEmpty()) isCompleted = true;
-		}
-		else { 
-			int numEnds = 0;
-			for (int i = 0; i < theTerrains.size(); i++) { 
-				if(((TrailTerrain) theTerrains.get(i)).isEndOfTrail()) { 
-					numEnds++;
-				}			
-			}
-			System.out.println(numEnds);
-			if (numEnds == 2) isCompleted = true;
+		protected TrailState(TrailRegion region) {
+			super(region);
+			isTrailEnd = region.isTrailEnd;
 		}
 
+		@Override
+		public void undo() {
+			super.undo();
+			((TrailRegion) region).isTrailEnd = isTrailEnd;
+		}
 	}
 
 	@Override
@@ -169,7 +163,7 @@ public class TrailRegion extends Region {
 		int numOfTigers = getNumOfTigers();
 		int numOfTerrains = getNumOfTerrains();
 		int numOfCrocs = getNumOfCrocs();
-		int numOfAnimals = Math.max(0,getNumOfAnimals()[0] - getNumOfAnimals()[1]);
+		int numOfAnimals = Math.max(0,getNumOfPrey() - getNumOfCrocAnimals());
 		int numOfUniqueAnimals = getUniqueAnimals();
 		String outTrailEnd = (isTrailEnd) ? "end" : "connecting";
 
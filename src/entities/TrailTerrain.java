@@ -25,7 +25,7 @@ public class TrailTerrain extends Terrain
 	 * @return  TrailTerrain
 	 */
 	public TrailTerrain(ArrayList<Integer> aTileConnections, boolean aEndOfTrail, CrocodileObject aCrocodile) {
-		theTerrainID       = terrainNum++;
+		theTerrainID       = GameContext.getDefault().nextTerrainID();
 		theRegionID 	   = theTerrainID;
 		theTileConnections = aTileConnections;
 		theType            = 'T';
@@ -45,8 +45,21 @@ public class TrailTerrain extends Terrain
 	 * @return  TrailTerrain
 	 */
 	public TrailTerrain(ArrayList<Integer> aTileConnections, boolean aEndOfTrail, Animal anAnimal) {
+		this(aTileConnections, aEndOfTrail, anAnimal, GameContext.getDefault());
+	}
+
+	/**
+	 * A Trail terrain of a tile made for a game
+	 * @param aTileConnections A set of connections the terrain makes with
+	 *                         the tile
+	 * @param aEndOfTrail This Trail ends.
+	 * @param anAnimal Animal that is placed on the terrain
+	 * @param context The game the terrain gets its ID from
+	 * @return  TrailTerrain
+	 */
+	public TrailTerrain(ArrayList<Integer> aTileConnections, boolean aEndOfTrail, Animal anAnimal, GameContext context) {
 
-		theTerrainID       = terrainNum++;
+		theTerrainID       = context.nextTerrainID();
 		theRegionID 	   = theTerrainID;
 		theTileConnections = aTileConnections;
 		theType            = 'T';
@@ -74,7 +87,7 @@ public class TrailTerrain extends Terrain
 	 * @return  TrailTerrain
 	 */
 	public TrailTerrain() {
-		theTerrainID = terrainNum++;
+		theTerrainID = GameContext.getDefault().nextTerrainID();
 		theRegionID 	   = theTerrainID;
 		theType            = 'T';
 	}
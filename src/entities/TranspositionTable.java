@@ -0,0 +1,210 @@
+package entities;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * TranspositionTable remembers what a search found out about a position, by the
+ * position's Zobrist hash (see BoardObject.getHash()), so a position reached again by
+ * another move order, another depth or the other game of the round isn't searched
+ * again.
+ *
+ * The table is a fixed long[] with two longs per entry, the data and the hash XOR the
+ * data. It takes no locks: two threads writing the same entry at once can leave it
+ * torn, but then the hash doesn't check out and probe() treats it as a miss. A hash
+ * goes to one of BUCKET entries next to each other (open addressing). Storing a new
+ * position there replaces the entry with the shallowest search, so deep results stay.
+ *
+ * The data packs everything into one long (see pack()): the score, the depth it was
+ * searched to, whether the score is exact or a bound, and the best move.
+ */
+public class TranspositionTable {
+
+	//what a stored score means
+	public static final int EXACT = 0;
+	public static final int LOWER = 1; //the score is at least this (the search cut off)
+	public static final int UPPER = 2; //the score is at most this (no move got above alpha)
+
+	protected static final int BUCKET = 4;
+
+	protected final long[] table;
+	protected final int mask; //entries - 1, the number of entries is a power of 2
+
+	//statistics, LongAdders so both games can count without fighting over them
+	protected final LongAdder probes = new LongAdder();
+	protected final LongAdder hits = new LongAdder();
+	protected final LongAdder stores = new LongAdder();
+	protected final LongAdder replaced = new LongAdder(); //a different position was thrown out
+	protected final LongAdder collisions = new LongAdder(); //the bucket was full of other positions
+
+	//constructors
+	public TranspositionTable(int megabytes) {
+		int entries = Integer.highestOneBit(Math.max(BUCKET, megabytes * (1 << 20) / 16));
+		table = new long[entries * 2];
+		mask = entries - 1;
+	}
+
+	//ACCESSORS
+
+	public int getEntries() {
+		return mask + 1;
+	}
+
+	public long getProbes() {
+		return probes.sum();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getStores() {
+		return stores.sum();
+	}
+
+	public long getReplaced() {
+		return replaced.sum();
+	}
+
+	public long getCollisions() {
+		return collisions.sum();
+	}
+
+	/**
+	 * getHitRate() gets the share of probes that found their position
+	 * @return 0 to 1
+	 */
+	public double getHitRate() {
+		long count = probes.sum();
+		return (count > 0) ? (double) hits.sum() / count : 0;
+	}
+
+	//METHODS
+
+	/**
+	 * probe() looks a position up
+	 * @param hash the position's hash
+	 * @return the packed data (see getScore(), getDepth(), getBound(), getMove(),
+	 * getAnimal()), 0 if the position isn't in the table
+	 */
+	public long probe(long hash) {
+		probes.increment();
+		int index = (int) hash & mask;
+		for (int i = 0; i < BUCKET; i++) {
+			int slot = ((index + i) & mask) * 2;
+			long data = table[slot + 1];
+			if (data != 0 && (table[slot] ^ data) == hash) {
+				hits.increment();
+				return data;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * store() remembers what a search found for a position. A position already in the
+	 * table is only overwritten by a search at least as deep.
+	 * @param hash the position's hash
+	 * @param score the score for the player to move
+	 * @param depth how many moves deep it was searched
+	 * @param bound EXACT, LOWER or UPPER
+	 * @param move the best move (see TilePair.encode()), SearchAI.PASS if none
+	 * @param animal the best move's animal
+	 */
+	public void store(long hash, int score, int depth, int bound, long move, int animal) {
+		long data = pack(score, depth, bound, move, animal);
+		int index = (int) hash & mask;
+		int shallowest = -1;
+		int shallowestDepth = Integer.MAX_VALUE;
+
+		for (int i = 0; i < BUCKET; i++) {
+			int slot = ((index + i) & mask) * 2;
+			long old = table[slot + 1];
+			if (old == 0) { //empty
+				write(slot, hash, data);
+				return;
+			}
+			if ((table[slot] ^ old) == hash) { //the same position
+				if (depth >= getDepth(old)) write(slot, hash, data);
+				return;
+			}
+			if (getDepth(old) < shallowestDepth) {
+				shallowest = slot;
+				shallowestDepth = getDepth(old);
+			}
+		}
+
+		collisions.increment();
+		if (depth >= shallowestDepth) {
+			replaced.increment();
+			write(shallowest, hash, data);
+		}
+	}
+
+	/**
+	 * clear() empties the table and its statistics
+	 */
+	public void clear() {
+		Arrays.fill(table, 0);
+		probes.reset();
+		hits.reset();
+		stores.reset();
+		replaced.reset();
+		collisions.reset();
+	}
+
+	private void write(int slot, long hash, long data) {
+		stores.increment();
+		table[slot] = hash ^ data;
+		table[slot + 1] = data;
+	}
+
+	/*
+	 * The data in a long, from the top: the placement (30 bits: x and y from -4096 to
+	 * 4095 and the orientation in quarter turns, plus 1 so 0 means a pass), the animal
+	 * (4 bits), the bound (2 bits), the depth (8 bits) and the score (20 bits, offset so
+	 * it's never negative). The depth is stored plus 1, so data is never 0.
+	 */
+	static long pack(int score, int depth, int bound, long move, int animal) {
+		score = Math.max(1 - (1 << 19), Math.min(score, (1 << 19) - 1));
+		long placement = 0;
+		if (move != SearchAI.PASS) {
+			long key = TilePair.getKey(move);
+			placement = ((long) (Coordinate.getX(key) + 4096) << 15) | ((Coordinate.getY(key) + 4096) << 2)
+					| (move & 3);
+			placement++; //0 is a pass
+		}
+		return (placement << 34) | ((long) (animal & 15) << 30) | ((long) (bound & 3) << 28)
+				| ((long) (Math.min(depth, 254) + 1) << 20) | ((score + (1 << 19)) & 0xFFFFF);
+	}
+
+	public static int getScore(long data) {
+		return (int) (data & 0xFFFFF) - (1 << 19);
+	}
+
+	public static int getDepth(long data) {
+		return (int) ((data >>> 20) & 0xFF) - 1;
+	}
+
+	public static int getBound(long data) {
+		return (int) ((data >>> 28) & 3);
+	}
+
+	public static int getAnimal(long data) {
+		return (int) ((data >>> 30) & 15);
+	}
+
+	/**
+	 * getMove() unpacks the best move of an entry
+	 * @param data an entry from probe()
+	 * @return the packed placement (see TilePair.encode()), SearchAI.PASS if there was none
+	 */
+	public static long getMove(long data) {
+		long placement = data >>> 34;
+		if (placement == 0) return SearchAI.PASS;
+		placement--;
+		int x = (int) (placement >>> 15) - 4096;
+		int y = (int) ((placement >>> 2) & 0x1FFF) - 4096;
+		return (Coordinate.pack(x, y) << 2) | (placement & 3);
+	}
+}
@@ -0,0 +1,157 @@
+package entities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * The UndoJournal lets the board make a move and take it back without copying
+ * anything. While a checkpoint is open, every change the board makes pushes a small
+ * Record that knows how to reverse it. undo() pops the records back to the latest
+ * checkpoint in reverse order, which puts the board exactly where it was.
+ *
+ *		board.checkpoint();
+ *		board.place(tile, spot); board.placeTiger(index); board.confirm();
+ *		... look at the board ...
+ *		board.undo();
+ *
+ * Checkpoints nest, so a search can go several moves deep. Nothing is recorded while
+ * no checkpoint is open, so a normal game pays (almost) nothing for the journal.
+ */
+public class UndoJournal {
+
+	//a single change that knows how to take itself back
+	public interface Record {
+		void undo();
+	}
+
+	protected ArrayList<Record> records;
+	protected int[] checkpoints; //journal sizes when each open checkpoint was made
+	protected int depth;
+
+	//constructors
+	public UndoJournal() {
+		records = new ArrayList<Record>();
+		checkpoints = new int[16];
+		depth = 0;
+	}
+
+	//ACCESSORS
+
+	/**
+	 * isRecording() tells if changes need to be recorded
+	 * @return true if a checkpoint is open
+	 */
+	public boolean isRecording() {
+		return depth > 0;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public int size() {
+		return records.size();
+	}
+
+	//MUTATORS
+
+	/**
+	 * push() records a change, if a checkpoint is open
+	 * @param record the record that reverses the change
+	 */
+	public void push(Record record) {
+		if (depth > 0) records.add(record);
+	}
+
+	/**
+	 * checkpoint() opens a new checkpoint to undo back to
+	 * @return the depth of the new checkpoint
+	 */
+	public int checkpoint() {
+		if (depth == checkpoints.length) checkpoints = Arrays.copyOf(checkpoints, depth * 2);
+		checkpoints[depth++] = records.size();
+		return depth;
+	}
+
+	/**
+	 * undo() reverses every change since the latest checkpoint and closes it
+	 */
+	public void undo() {
+		if (depth == 0) {
+			System.out.println("Error: UndoJournal");
+			System.out.println("Nothing to undo, no checkpoint is open");
+			return;
+		}
+
+		int mark = checkpoints[--depth];
+		for (int i = records.size() - 1; i >= mark; i--) records.remove(i).undo();
+	}
+
+	/**
+	 * commit() keeps every change since the latest checkpoint and closes it. The
+	 * records stay around so an outer checkpoint can still undo them.
+	 */
+	public void commit() {
+		if (depth == 0) return;
+		depth--;
+		if (depth == 0) records.clear();
+	}
+
+	//METHODS
+
+	//take a list back down to its old size (for lists that are only added to)
+	static void truncate(ArrayList<?> list, int size) {
+		for (int i = list.size() - 1; i >= size; i--) list.remove(i);
+	}
+
+	//take an insertion ordered set back down to its old size (for sets that are only added to)
+	static void truncate(Set<?> set, int size) {
+		if (set.size() <= size) return;
+		Iterator<?> it = set.iterator();
+		for (int i = 0; i < size; i++) it.next();
+		while (it.hasNext()) { it.next(); it.remove(); }
+	}
+
+	//put a list back to the elements it used to have, keeping the same list object
+	static <T> void refill(ArrayList<T> list, T[] items) {
+		list.clear();
+		for (T item : items) list.add(item);
+	}
+
+	//undo a put or remove on a map
+	static class MapRecord<K, V> implements Record {
+		private final Map<K, V> map;
+		private final K key;
+		private final V oldValue; //null if the key wasn't there
+
+		MapRecord(Map<K, V> map, K key) {
+			this.map = map;
+			this.key = key;
+			this.oldValue = map.get(key);
+		}
+
+		public void undo() {
+			if (oldValue == null) map.remove(key);
+			else map.put(key, oldValue);
+		}
+	}
+
+	//undo adding an element to a collection
+	static class AddRecord implements Record {
+		private final Collection<?> collection;
+		private final Object element;
+
+		AddRecord(Collection<?> collection, Object element) {
+			this.collection = collection;
+			this.element = element;
+		}
+
+		public void undo() {
+			collection.remove(element);
+		}
+	}
+}
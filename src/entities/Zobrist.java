@@ -0,0 +1,92 @@
+package entities;
+
+/*
+ * Zobrist gives the 64 bit keys the board hashes its positions with (see
+ * BoardObject.getHash()). A position's hash is the XOR of a key for every tile placed
+ * (its type, spot and orientation), every tiger and crocodile put down (its tile and
+ * owner), and the player to move, so it can be updated a move at a time and two move
+ * orders that reach the same board get the same hash.
+ *
+ * The keys aren't kept in a table, they're mixed from what they stand for (the
+ * SplitMix64 finalizer), so there's no limit on the size of the board. Tiles are keyed
+ * by type rather than ID, which makes the hashes of both games of a round comparable,
+ * and by the lowest orientation they look the same in, so turning a JJJJ- tile around
+ * doesn't make a new position.
+ */
+public final class Zobrist {
+
+	public static final long SIDE = mix(0x5eedL); //XORed in while the second player is to move
+
+	private static final long TILE = 0x9e3779b97f4a7c15L;
+	private static final long TIGER = 0xc2b2ae3d27d4eb4fL;
+	private static final long CROCODILE = 0x165667b19e3779f9L;
+	private static final long PLY = 0x27d4eb2f165667c5L;
+
+	private Zobrist() {
+	}
+
+	/**
+	 * tile() gets the key of a tile on the board
+	 * @param type the tile's type, e.g. "TLTJ-"
+	 * @param key the packed coordinate it's on
+	 * @param orientation its orientation (0 to 3)
+	 * @return the tile's key
+	 */
+	public static long tile(String type, long key, int orientation) {
+		return mix(TILE ^ mix(type.hashCode()) ^ mix(key * 31 + orientation));
+	}
+
+	/**
+	 * tiger() gets the key of a tiger on a tile
+	 * @param key the packed coordinate of the tile
+	 * @param owner 0 for the first player, 1 for the second
+	 * @param zone the zone it went on, 0 if it was added to a tile already placed
+	 * @return the tiger's key
+	 */
+	public static long tiger(long key, int owner, int zone) {
+		return mix(TIGER ^ mix(key) ^ (owner * 16 + zone));
+	}
+
+	/**
+	 * crocodile() gets the key of a crocodile on a tile
+	 * @param key the packed coordinate of the tile
+	 * @param owner 0 for the first player, 1 for the second
+	 * @return the crocodile's key
+	 */
+	public static long crocodile(long key, int owner) {
+		return mix(CROCODILE ^ mix(key) ^ owner);
+	}
+
+	/**
+	 * ply() gets the key for how far through the deck a position is, a searcher XORs it
+	 * in so a pass (which places nothing) doesn't look like the position before it
+	 * @param index the deck index of the tile to be played
+	 * @return the key
+	 */
+	public static long ply(int index) {
+		return mix(PLY + index);
+	}
+
+	/**
+	 * resources() gets the key for what the players have: their points and the tigers
+	 * and crocodiles in their hands
+	 * @param players both players
+	 * @return the key
+	 */
+	public static long resources(Player[] players) {
+		long value = 0;
+		for (int i = 0; i < players.length; i++) {
+			value = value * 0x100000001b3L + players[i].getScore();
+			value = value * 31 + players[i].getNumOfTigers();
+			value = value * 31 + players[i].getNumOfCrocs();
+		}
+		return mix(value);
+	}
+
+	//SplitMix64's finalizer, spreads every bit of the input over the output
+	static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
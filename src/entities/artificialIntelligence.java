@@ -3,41 +3,41 @@ package entities;
 import java.util.*;
 
 public class artificialIntelligence {
-	private static int movenumber = 0;
+	private int movenumber = 0;
 	BoardObject currentBoard;
 	//int choiceX, choiceY, orientation;
 	//TileStack currentStack;
 	TigerTile currentTile;
-	private static String ourMove = null;
+	private String ourMove = null;
 	ArrayList<Region> descendingRegions = new ArrayList<Region>();
+	ArrayList<Region> ascendingRegions = new ArrayList<Region>();
 	protected int moveCount; 
 
 	public artificialIntelligence(BoardObject currentBoard) {
 		this.currentBoard = currentBoard;
 	}
 
+	//Creates list of available regions for tiger/crocodile placement
+	//in descending order of score potential, from the board's RegionQueue
+	//First entry in the list should have highest priority for tiger/crocodile placement
+	//The list is reused, it's only good until the next call
 	public ArrayList<Region> orderedListOfRegions() {
-		//currentBoard.allRegions;
-		ArrayList<Region> descendingRegions = new ArrayList<Region>();
-		for(Map.Entry<Integer, Region> entry : currentBoard.incompleteRegions.entrySet()) {
-			Region tempRegion = entry.getValue();
-			//int pX = tempRegion.getPotential
-			descendingRegions.add(tempRegion);
+		RegionQueue queue = currentBoard.getRegionQueue();
+		return queue.highest(queue.size(), descendingRegions);
+	}
+
+	//Finds the least valued incomplete region we have a tiger in, or null if there's none
+	//Looks at the lowest few regions first and twice as many each time it doesn't find one
+	public Region leastValuedRegionWithOurTiger() {
+		RegionQueue queue = currentBoard.getRegionQueue();
+		int seen = 0;
+		for (int k = 4; seen < queue.size(); k *= 2) {
+			queue.lowest(k, ascendingRegions);
+			for (; seen < ascendingRegions.size(); seen++) {
+				if (checkOurTigers(ascendingRegions.get(seen))[0] > 0) return ascendingRegions.get(seen);
+			}
 		}
-		//Collections.sort(descendingRegions, Collections.reverseOrder());
-		int n = descendingRegions.size();
-       	Region temp;
-        for(int i=0; i < n; i++){
-            for(int j=1; j < (n-i); j++){          
-               	if(descendingRegions.get(j-1).getPotential() < descendingRegions.get(j).getPotential()){
-                    //swap the elements!
-                    temp = descendingRegions.get(j-1);
-                    descendingRegions.add((j-1), descendingRegions.get(j));
-                    descendingRegions.add(j,temp);
-                }               
-            }
-        }
-        return descendingRegions;
+		return null;
 	}
 
 	public int[] checkOurTigers(Region tempRegion) {
@@ -73,20 +73,16 @@ public class artificialIntelligence {
 			ourMove = "TILE " + currentTile.getType() + " ";
 			if(currentBoard.getPlayer(0).getNumOfTigers() == 0) { 
 			// pop out tiger we own from least valued incomplete region.
-				ArrayList<Region> dlist = orderedListOfRegions();
-				for(int i = dlist.size() - 1; i >= 0; i--) {	// starting from least valued region
-					int tigers[] = checkOurTigers(dlist.get(i));
-					if(tigers[0] > 0) {		// if we have tigers in it. 
-						//retrieve Tiger
-						for(int j = 0; j < dlist.get(i).getNumOfTigers(); j++) {
-							if(dlist.get(i).theTigers.get(j).getTigerOwner() == currentBoard.getPlayer(0)) {
-								Location removefrom = dlist.get(i).theTigers.get(j).getLocation();
-								ourMove += "UNPLACEABLE RETRIEVE TIGER AT " + removefrom.getX() + " " + removefrom.getY();
-								break;
-							}
+				Region least = leastValuedRegionWithOurTiger();
+				if(least != null) {
+					//retrieve Tiger
+					for(int j = 0; j < least.getNumOfTigers(); j++) {
+						if(least.theTigers.get(j).getTigerOwner() == currentBoard.getPlayer(0)) {
+							Location removefrom = least.theTigers.get(j).getLocation();
+							ourMove += "UNPLACEABLE RETRIEVE TIGER AT " + removefrom.getX() + " " + removefrom.getY();
+							break;
 						}
-					break;
-				   }
+					}
 				}
 			}
 			else if(currentBoard.getPlayer(0).getNumOfTigers() > 1) {
@@ -155,19 +151,14 @@ public class artificialIntelligence {
 			 	index = randomGenerator.nextInt(tempPS.size());
 			}
 			TilePair tempSpot = tempPS.get(index);
-			Location tileLoc = tempSpot.getLocation();
+			long tileKey = tempSpot.getKey();
 			int orientation = tempSpot.getOrientation();
 			
-			int row = tileLoc.getY();
-			int col = tileLoc.getX();
-			
-			int adjustedY = BoardObject.startY + (BoardObject.COLSIZE/2 - row);
-			int adjustedX = BoardObject.startX + (col - BoardObject.ROWSIZE/2);
-			
-			ourMove += "AT " + adjustedX + " " + adjustedY + " " + orientation; 
+			//coordinates are already the server's
+			ourMove += "AT " + Coordinate.toServer(tileKey) + " " + orientation; 
 			
 			currentTile.setOrientation(orientation / 90);
-			currentBoard.place(currentTile, new Location(adjustedX, adjustedY));
+			currentBoard.place(currentTile, tileKey);
 			TigerTile temp = currentBoard.getRecentTile();
 			Terrain[] terrains = temp.getTerrains();
 			Map<Integer, Region> allRegions = currentBoard.getAll();
@@ -178,7 +169,7 @@ public class artificialIntelligence {
 			
 			for (int i = 0; i < terrains.length; i++) { 
 				int regionID = terrains[i].getRegionID();
-				Region region = allRegions.get(regionID);
+				Region region = currentBoard.getRegion(regionID);
 				prevstatus.add(region.isCompleted());
 				if (!region.hasTigers() && !region.hasCrocodiles()) { 
 					potentials.add(region.getPotential());
@@ -214,11 +214,11 @@ public class boardObjectBackup {
 	}
 
 	public int getStartX() {
-		return BoardObject.startX;
+		return startX;
 	}
 
 	public int getStartY() {
-		return BoardObject.startY;
+		return startY;
 	}
 
 	//MUTATORS
@@ -0,0 +1,63 @@
+package game;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * ConsoleLog prints lines on a thread of its own, so the threads that read the server
+ * and play the games never wait on System.out, or on each other through its lock.
+ * println() only puts the line on a queue, which takes no lock; flush() waits until
+ * everything before it has been printed.
+ */
+public class ConsoleLog {
+
+	private static final ConcurrentLinkedQueue<String> lines = new ConcurrentLinkedQueue<String>();
+	private static final AtomicLong queued = new AtomicLong();
+	private static final AtomicLong printed = new AtomicLong();
+	private static final Thread printer = start();
+
+	private ConsoleLog() {
+	}
+
+	//METHODS
+
+	/**
+	 * println() has a line printed, without waiting for it
+	 * @param line the line
+	 */
+	public static void println(String line) {
+		lines.add(line);
+		queued.incrementAndGet();
+		LockSupport.unpark(printer);
+	}
+
+	/**
+	 * flush() waits for the lines so far to be printed
+	 * @param waitMillis how long to wait at most
+	 */
+	public static void flush(long waitMillis) {
+		long target = queued.get();
+		long deadline = System.nanoTime() + waitMillis * 1000000L;
+		while (printed.get() < target && System.nanoTime() < deadline) {
+			LockSupport.unpark(printer);
+			LockSupport.parkNanos(100000);
+		}
+	}
+
+	//the thread that prints, it sleeps while there's nothing to print
+	private static Thread start() {
+		Thread thread = new Thread(() -> {
+			while (true) {
+				for (String line = lines.poll(); line != null; line = lines.poll()) {
+					System.out.println(line);
+					printed.incrementAndGet();
+				}
+				LockSupport.park();
+			}
+		}, "console");
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+}
@@ -8,6 +8,9 @@ import entities.*;
 
 public class Game {
 
+	//how long the AI may plan before the match, the server counts down 10 seconds
+	public static final long PLAN_BUDGET = 6000;
+
 	// Properties
 
 	protected String gameID;
@@ -16,6 +19,8 @@ public class Game {
 	protected int move;
 	protected AI ai;
 	protected TileDeck randomDeck;
+	protected MoveWatchdog watchdog = new MoveWatchdog();
+	protected MoveLatency latency = new MoveLatency();
 
 	// Constructor
 
@@ -33,6 +38,17 @@ public class Game {
 		randomDeck = new TileDeck();
 	}
 
+	/**
+	 * Create a game whose AI makes the same choices every time it's played
+	 * @param  gameID
+	 * @param  seed for the AI's random choices
+	 * @return        Game
+	 */
+	public Game(String gameID, long seed) {
+		this(gameID);
+		ai = new AI(board, seed);
+	}
+
 	/**
 	 * For testing, to place a tile and meeple
 	 * @return String for sending to server
@@ -64,6 +80,30 @@ public class Game {
 		return board;
 	}
 
+	/**
+	 * Get the AI making our moves
+	 * @return AI
+	 */
+	public AI getAI() {
+		return ai;
+	}
+
+	/**
+	 * Get the watchdog timing our moves, with how they went
+	 * @return MoveWatchdog
+	 */
+	public MoveWatchdog getWatchdog() {
+		return watchdog;
+	}
+
+	/**
+	 * Get the timings of our moves, makeMove() stamps the steps it takes
+	 * @return MoveLatency
+	 */
+	public MoveLatency getLatency() {
+		return latency;
+	}
+
 	//MUTATORS
 
 	/**
@@ -74,6 +114,14 @@ public class Game {
 		this.gameID = gameID;
 	}
 
+	/**
+	 * Set the AI making our moves, it should play on this game's board
+	 * @param ai AI
+	 */
+	public void setAI(AI ai) {
+		this.ai = ai;
+	}
+
 	/*public void setPlayers(Player[] players) {
 		this.players = players;
 	}*/
@@ -92,6 +140,7 @@ public class Game {
 	 * @param  opponentName String
 	 */
 	public void setPlayers(String username, String opponentName) {
+		ai.stopPlanning();
 		players = new Player[2];
 		Player p1 = new Player(username, true);
 		Player p2 = new Player(opponentName, false);
@@ -108,7 +157,8 @@ public class Game {
 	 * @param startOrientation int
 	 */
 	public void setStartTile(String startType, int startX, int startY, int startOrientation) {
-		TigerTile startTile = new TigerTile(startType, startOrientation / 90);
+		ai.stopPlanning();
+		TigerTile startTile = new TigerTile(startType, startOrientation / 90, board.getContext());
 		board.start(startTile, startX, startY);
 	}
 
@@ -120,10 +170,21 @@ public class Game {
 		ArrayList<TigerTile> givenDeck = new ArrayList<TigerTile>();
 
 		for (String strings : tiles) {
-			TigerTile newTile = new TigerTile(strings, 0);
+			TigerTile newTile = new TigerTile(strings, 0, board.getContext());
 			givenDeck.add(newTile);
 		}
 		board.setTileDeck(givenDeck);
+		plan();
+	}
+
+	/**
+	 * Let the AI get ready while the match counts down, our first move is made with
+	 * one of the next two tiles (see makeMove())
+	 */
+	public void plan() {
+		ArrayList<TigerTile> firstTiles = new ArrayList<TigerTile>();
+		for (int i = move; i < move + 2 && i < board.getTileDeck().size(); i++) firstTiles.add(board.getTile(i));
+		ai.plan(firstTiles, PLAN_BUDGET);
 	}
 
 	/**
@@ -131,17 +192,44 @@ public class Game {
 	 * @return String
 	 */
 	public String makeMove() {
+		return makeMove(System.nanoTime());
+	}
+
+	/**
+	 * Makes move and place tile, in time for the server (see MoveWatchdog). The tile is
+	 * the next one no move was confirmed for, the server's confirmation moves past it.
+	 * @param received long System.nanoTime() when the server asked for the move
+	 * @return String
+	 */
+	public String makeMove(long received) {
 		//AI will let this method know if tile is unplaceable.
 		//If unplaceable, AI will decide what to do with current turn.
 		//If placeable, pass tile string to AI, get the move, and pass to client.
 
-		TigerTile tile = board.getTile(++move);
-		String value = ai.getMove(tile);
+		ai.stopPlanning();
+		watchdog.settle();
+		latency.synced = System.nanoTime();
+		TigerTile tile = board.getTile(move);
+		latency.tiles = board.getBoard().size();
+		latency.regions = board.getIncomplete().size();
+
+		//only a search can run long, the watchdog keeps it to the server's time
+		String value;
+		if (ai instanceof SearchAI && board.canPlace(tile)) {
+			latency.searchStart = System.nanoTime();
+			value = watchdog.move((SearchAI) ai, board, tile, received);
+		}
+		else {
+			latency.searchStart = System.nanoTime();
+			value = ai.getMove(tile);
+			watchdog.record(received);
+		}
+		latency.searchEnd = System.nanoTime();
 		return value;
 	}
 
 	/**
-	 * Incremnt move counter
+	 * Incremnt move counter, for a move that's on the board without being confirmed
 	 */
 	public void inc() {
 		move++;
@@ -155,8 +243,10 @@ public class Game {
 	 * @param  orientation int
 	 */
 	public void placeTile(String tileType, int tileX, int tileY, int orientation) {
-		TigerTile tile = new TigerTile(tileType, orientation);
-		board.place(tile, new Location(tileX, tileY));
+		ai.stopPlanning();
+		watchdog.settle();
+		TigerTile tile = new TigerTile(tileType, orientation, board.getContext());
+		board.place(tile, Coordinate.pack(tileX, tileY));
 	}
 
 	/**
@@ -170,29 +260,31 @@ public class Game {
 	 */
 	//If player1 == true, it is player 1's turn
 	public void placeTile(int tileX, int tileY, int orientation, String animal, boolean player1, int tigerZone) {
+		ai.stopPlanning();
+		watchdog.settle();
 
-		Location loc = new Location(tileX, tileY);
+		long key = Coordinate.pack(tileX, tileY);
 		TigerTile tile = board.getTile(move++);
 		tile.setOrientation(orientation / 90);
 		//		System.out.println(tile);
 
 		if (player1 == true){
 			board.switchToActivePlayer(players[0]);
-			//			board.place(tile, loc);
-			System.out.println("The tile is " + tile.getType() + "Location x: " + tileX + " y: " + tileY + ". Player is " + player1);
+			//			board.place(tile, key);
+			ConsoleLog.println("The tile is " + tile.getType() + "Location x: " + tileX + " y: " + tileY + ". Player is " + player1);
 		}
 		if (player1 == true){
 			board.switchToActivePlayer(players[0]);
-			//board.place(tile, loc);
+			//board.place(tile, key);
 
 		}
 		else if (player1 == false) {
 			board.switchToActivePlayer(players[1]);
-			board.place(tile, loc);
+			board.place(tile, key);
 		}
 
 		if (animal.equals("TIGER")){
-			System.out.println(board.placeTiger(tigerZone));
+			ConsoleLog.println(String.valueOf(board.placeTiger(tigerZone)));
 		}
 		else if (animal.equals("CROCODILE")){
 			board.placeCrocodile();
@@ -200,12 +292,17 @@ public class Game {
 
 		board.confirm();
 		// move++;
+
+		//our move is on the board, think about the next one while the opponent plays
+		if (player1) ponder();
 	}
 
 	/**
 	 * Pass on moving tile, so increment tile stack
 	 */
 	public void pass() {
+		ai.stopPlanning();
+		watchdog.settle();
 		board.getTile(move);
 		board.confirm();
 		move++;
@@ -220,6 +317,8 @@ public class Game {
 	 */
 	//if boolean addTiger = true, add a tiger to the zone
 	public void unplaceableTile(boolean player1, boolean addTiger, int tileX, int tileY) {
+		ai.stopPlanning();
+		watchdog.settle();
 		board.getTile(move);
 		if (addTiger == true){
 			if (player1 == true){
@@ -243,10 +342,21 @@ public class Game {
 		}
 		board.confirm();
 		move++;
+		if (player1) ponder();
+	}
+
+	/**
+	 * Let the AI think on the opponent's time, about the tile the opponent plays next
+	 */
+	public void ponder() {
+		if (board.getTileDeck() != null && move < board.getTileDeck().size()) ai.ponder(board.getTile(move));
 	}
 
 	// End the game and baord
 	public void endGame() {
+		ai.stopPlanning();
+		ai.stopPondering();
+		watchdog.shutdown();
 		board.end();
 	}
 
@@ -0,0 +1,112 @@
+package game;
+
+/*
+ * LatencyHistogram counts how long something took, in nanoseconds, the way an
+ * HdrHistogram does: values up to 63 each get a bucket of their own, and above that
+ * every power of two is split into 32 buckets. Any value is kept to within about 3%,
+ * from a nanosecond to the longest wait there can be, in a fixed array; recording is
+ * a few shifts and an increment, and never allocates.
+ *
+ * Percentiles are reported as the top of the bucket they fall in, so they're never
+ * under the real value. The max is kept exactly.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS; //32
+	private static final int LINEAR = 2 * SUB_BUCKETS; //values under 64 are counted exactly
+
+	//64 exact values, then 32 buckets for every power of two from 64 to 2^62
+	private final long[] counts = new long[LINEAR + (62 - SUB_BITS) * SUB_BUCKETS];
+	private long count;
+	private long max;
+	private long total;
+
+	//ACCESSORS
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * getMax() gets the longest value recorded
+	 * @return nanoseconds, 0 if none were
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * getMean() gets the average value recorded
+	 * @return nanoseconds, 0 if none were
+	 */
+	public double getMean() {
+		return (count > 0) ? (double) total / count : 0;
+	}
+
+	/**
+	 * getPercentile() gets the value that many of the values recorded are at or under
+	 * @param percentile from 0 to 100
+	 * @return nanoseconds, to within the bucket's width above, 0 if nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		if (count == 0) return 0;
+		long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100) / 100));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) return Math.min(highest(i), max);
+		}
+		return max;
+	}
+
+	//MUTATORS
+
+	/**
+	 * record() counts a value
+	 * @param nanos how long it took, a negative value counts as 0
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) nanos = 0;
+		counts[index(nanos)]++;
+		count++;
+		total += nanos;
+		if (nanos > max) max = nanos;
+	}
+
+	/**
+	 * add() counts every value of another histogram in this one too
+	 * @param other the histogram to add
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+		count += other.count;
+		total += other.total;
+		max = Math.max(max, other.max);
+	}
+
+	public void reset() {
+		java.util.Arrays.fill(counts, 0);
+		count = 0;
+		total = 0;
+		max = 0;
+	}
+
+	//METHODS
+
+	//which bucket a value goes in
+	static int index(long value) {
+		if (value < LINEAR) return (int) value;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS; //at least 1
+		int sub = (int) (value >>> shift); //32 to 63
+		return LINEAR + (shift - 1) * SUB_BUCKETS + (sub - SUB_BUCKETS);
+	}
+
+	//the biggest value that goes in a bucket
+	static long highest(int index) {
+		if (index < LINEAR) return index;
+		int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+		long sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((sub + 1) << shift) - 1;
+	}
+}
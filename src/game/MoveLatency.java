@@ -0,0 +1,147 @@
+package game;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Locale;
+
+/*
+ * MoveLatency times where the server's second goes for each of our moves. A move goes
+ * through these steps, each stamped with System.nanoTime() as it's done:
+ *
+ *		received	the request came off the socket (LineReader)
+ *		parsed		the request was decoded (TigerZoneClient.handle())
+ *		synced		the game's thread got to it, with every move before it on the board
+ *					and planning stopped (Game.makeMove())
+ *		searchStart	the AI started on the move
+ *		searchEnd	the AI's move was ready and on the board
+ *		formatted	the line for the server was made (GameWorker)
+ *		flushed		the line was written to the socket
+ *
+ * record() puts the time between each step and the next in a histogram of its own, with
+ * one for the whole, and keeps a row for the move to be written out with writeCsv(),
+ * along with how many tiles and incomplete regions were on the board.
+ *
+ * The steps are stamped on the game's thread (received and parsed are handed to it with
+ * the move), so a MoveLatency needs no locking of its own. add() collects the games'
+ * for the tournament, the caller locks that one.
+ */
+public class MoveLatency {
+
+	public static final String[] PHASES = {"parse", "sync", "prepare", "search", "format", "flush", "total"};
+
+	//the steps of the move being made
+	public long received, parsed, synced, searchStart, searchEnd, formatted, flushed;
+	//the board the move was made on
+	public int tiles, regions;
+
+	private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+	private final ArrayList<long[]> rows = new ArrayList<long[]>(); //move, tiles, regions, then each phase
+	private final boolean keepRows;
+
+	/**
+	 * MoveLatency times a game's moves, keeping each one for writeCsv()
+	 */
+	public MoveLatency() {
+		this(true);
+	}
+
+	/**
+	 * MoveLatency times moves
+	 * @param keepRows false to only keep the histograms, for a tournament's totals
+	 */
+	public MoveLatency(boolean keepRows) {
+		this.keepRows = keepRows;
+		for (int i = 0; i < histograms.length; i++) histograms[i] = new LatencyHistogram();
+	}
+
+	//ACCESSORS
+
+	/**
+	 * getHistogram() gets how long a phase took, over the moves recorded
+	 * @param phase one of PHASES
+	 * @return the histogram, in nanoseconds
+	 */
+	public LatencyHistogram getHistogram(String phase) {
+		for (int i = 0; i < PHASES.length; i++) {
+			if (PHASES[i].equals(phase)) return histograms[i];
+		}
+		throw new IllegalArgumentException("no phase " + phase);
+	}
+
+	public int getMoves() {
+		return (int) histograms[PHASES.length - 1].getCount();
+	}
+
+	//MUTATORS
+
+	/**
+	 * record() counts the move whose steps were just stamped, and clears the stamps for the next
+	 * @param moveNumber the server's number of the move
+	 */
+	public void record(int moveNumber) {
+		//a step that wasn't stamped (no search, say) takes no time
+		if (parsed == 0) parsed = received;
+		if (synced == 0) synced = parsed;
+		if (searchStart == 0) searchStart = synced;
+		if (searchEnd == 0) searchEnd = searchStart;
+		if (formatted == 0) formatted = searchEnd;
+		if (flushed == 0) flushed = formatted;
+		long[] steps = {received, parsed, synced, searchStart, searchEnd, formatted, flushed};
+
+		long[] row = keepRows ? new long[3 + PHASES.length] : null;
+		for (int i = 0; i < PHASES.length; i++) {
+			long time = (i < PHASES.length - 1) ? steps[i + 1] - steps[i] : flushed - received;
+			histograms[i].record(time);
+			if (row != null) row[3 + i] = time;
+		}
+		if (row != null) {
+			row[0] = moveNumber;
+			row[1] = tiles;
+			row[2] = regions;
+			rows.add(row);
+		}
+
+		received = parsed = synced = searchStart = searchEnd = formatted = flushed = 0;
+		tiles = regions = 0;
+	}
+
+	/**
+	 * add() counts another game's moves in this one's histograms
+	 * @param other the game's timings
+	 */
+	public void add(MoveLatency other) {
+		for (int i = 0; i < histograms.length; i++) histograms[i].add(other.histograms[i]);
+	}
+
+	//METHODS
+
+	/**
+	 * writeCsv() writes a row for every move recorded, times in microseconds
+	 * @param out where to write them
+	 */
+	public void writeCsv(Writer out) throws IOException {
+		out.write("move,tiles,regions");
+		for (String phase : PHASES) out.write("," + phase + "_us");
+		out.write("\n");
+		for (long[] row : rows) {
+			out.write(row[0] + "," + row[1] + "," + row[2]);
+			for (int i = 3; i < row.length; i++) out.write(String.format(Locale.ROOT, ",%.1f", row[i] / 1e3));
+			out.write("\n");
+		}
+	}
+
+	/**
+	 * p50, p99 and max of every phase in milliseconds, a line each
+	 */
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder(String.format("%-8s %8s %8s %8s  (%d moves, ms)", "phase", "p50", "p99", "max", getMoves()));
+		for (int i = 0; i < PHASES.length; i++) {
+			LatencyHistogram histogram = histograms[i];
+			text.append(String.format("%n%-8s %8.3f %8.3f %8.3f", PHASES[i], histogram.getPercentile(50) / 1e6,
+					histogram.getPercentile(99) / 1e6, histogram.getMax() / 1e6));
+		}
+		return text.toString();
+	}
+}
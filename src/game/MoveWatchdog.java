@@ -0,0 +1,240 @@
+package game;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import entities.BoardObject;
+import entities.Coordinate;
+import entities.SearchAI;
+import entities.TigerTile;
+import entities.TilePair;
+
+/*
+ * MoveWatchdog makes sure a move goes back to the server in time, whatever the search
+ * does. The server gives a second from when it asks; a move that takes longer loses
+ * the game. Before the search starts, a legal move is picked the cheap way (the first
+ * spot on the frontier the tile fits, in the first orientation it fits in). The search
+ * then runs on a thread of its own, told to be done a little before the watchdog's
+ * deadline, which is the server's second less SAFETY_MARGIN counted from when the
+ * request came off the socket. If the search isn't done by then, the fallback move is
+ * sent instead.
+ *
+ * A search that missed still has the board (it plays moves out on it), so the fallback
+ * only goes on the board once it's done, see settle(). Game calls that before anything
+ * else touches the board.
+ *
+ * Every move is counted: how much of the second was left when the reply was ready (the
+ * margin), how many replies were ready too late anyway (misses) and how many were the
+ * fallback.
+ */
+public class MoveWatchdog {
+
+	public static final long MOVE_TIME = 1000; //milliseconds the server gives for a move
+	public static final long SAFETY_MARGIN = 150; //the reply is ready at least this long before the server's limit
+	static final long FINISH_TIME = 30; //the search is told to be done this long before the watchdog gives up on it
+
+	private ExecutorService executor; //one thread, started with the first search
+	private long margin = SAFETY_MARGIN * 1000000;
+
+	//a search that missed its deadline, and the move sent in its place
+	private Future<String> stalled;
+	private TigerTile stalledTile;
+	private BoardObject stalledBoard;
+	private long stalledMove;
+
+	//metrics
+	private int moves;
+	private int misses; //replies ready after MOVE_TIME
+	private int fallbacks; //replies that weren't the search's
+	private long lastMargin; //nanoseconds
+	private long totalMargin;
+	private long minMargin = Long.MAX_VALUE;
+
+	//ACCESSORS
+
+	public long getMargin() {
+		return margin / 1000000;
+	}
+
+	public int getMoves() {
+		return moves;
+	}
+
+	public int getMisses() {
+		return misses;
+	}
+
+	public int getFallbacks() {
+		return fallbacks;
+	}
+
+	/**
+	 * getLastMargin() gets how much of the server's second was left when the last reply
+	 * was ready
+	 * @return the margin in milliseconds, negative if it was late
+	 */
+	public double getLastMargin() {
+		return lastMargin / 1e6;
+	}
+
+	/**
+	 * getMinMargin() gets the smallest margin of any move so far
+	 * @return the margin in milliseconds, 0 if no move was made
+	 */
+	public double getMinMargin() {
+		return (moves > 0) ? minMargin / 1e6 : 0;
+	}
+
+	/**
+	 * getMeanMargin() gets the average margin of the moves so far
+	 * @return the margin in milliseconds, 0 if no move was made
+	 */
+	public double getMeanMargin() {
+		return (moves > 0) ? totalMargin / 1e6 / moves : 0;
+	}
+
+	//MUTATORS
+
+	/**
+	 * setMargin() sets how long before the server's limit a reply has to be ready
+	 * @param marginMillis the margin in milliseconds
+	 */
+	public void setMargin(long marginMillis) {
+		this.margin = marginMillis * 1000000;
+	}
+
+	//METHODS
+
+	/**
+	 * move() searches for a move on the watchdog's thread, and places whichever move is
+	 * sent on the board like SearchAI.getMove() does
+	 * @param ai the AI to search with
+	 * @param board the AI's board
+	 * @param tile the tile to be played, it has to fit somewhere
+	 * @param received the System.nanoTime() the server's request came in at
+	 * @return the move for the server, e.g. "PLACE TLTJ- AT 0 1 90 NONE"
+	 */
+	public String move(final SearchAI ai, BoardObject board, final TigerTile tile, long received) {
+		settle();
+		long deadline = received + MOVE_TIME * 1000000 - margin;
+		final long searchDeadline = deadline - FINISH_TIME * 1000000;
+
+		//the spots are in frontier order, each with the orientations that fit it
+		board.canPlace(tile);
+		long fallback = board.getPossibleSpots().get(0).getMove();
+
+		Future<String> search = executor().submit(() -> ai.chooseMove(tile, searchDeadline));
+		String reply;
+		long chosen;
+		try {
+			reply = search.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+			chosen = ai.getBestMove();
+		} catch (TimeoutException e) {
+			return stall(search, board, tile, fallback, received);
+		} catch (InterruptedException e) {
+			//keep the interrupt for whoever asked for it, the server still gets a move
+			Thread.currentThread().interrupt();
+			return stall(search, board, tile, fallback, received);
+		} catch (ExecutionException e) {
+			ConsoleLog.println("Error: search failed, " + e.getCause());
+			fallbacks++;
+			reply = format(tile, fallback);
+			chosen = fallback;
+		}
+
+		place(board, tile, chosen);
+		record(received);
+		return reply;
+	}
+
+	/**
+	 * record() counts a move whose reply is ready now
+	 * @param received the System.nanoTime() the server's request came in at
+	 */
+	public void record(long received) {
+		long left = received + MOVE_TIME * 1000000 - System.nanoTime();
+		moves++;
+		if (left < 0) misses++;
+		lastMargin = left;
+		totalMargin += left;
+		minMargin = Math.min(minMargin, left);
+	}
+
+	/**
+	 * settle() waits for a search that missed its deadline, then puts the move sent in
+	 * its place on the board
+	 */
+	public void settle() {
+		if (stalled == null) return;
+		try {
+			stalled.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (ExecutionException e) {
+			ConsoleLog.println("Error: search failed, " + e.getCause());
+		}
+		place(stalledBoard, stalledTile, stalledMove);
+		stalled = null;
+		stalledTile = null;
+		stalledBoard = null;
+	}
+
+	/**
+	 * shutdown() lets the last search finish and stops the watchdog's thread
+	 */
+	public void shutdown() {
+		settle();
+		if (executor != null) executor.shutdown();
+		executor = null;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d moves, %d fallbacks, %d misses, margin %.1f ms mean, %.1f ms min",
+				moves, fallbacks, misses, getMeanMargin(), getMinMargin());
+	}
+
+	//the thread searches run on, a daemon so a stuck search doesn't keep the client up
+	private ExecutorService executor() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "search");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	//the search still has the board, the fallback goes on it once it lets go (see settle())
+	private String stall(Future<String> search, BoardObject board, TigerTile tile, long fallback, long received) {
+		stalled = search;
+		stalledTile = tile;
+		stalledBoard = board;
+		stalledMove = fallback;
+		fallbacks++;
+		record(received);
+		return format(tile, fallback);
+	}
+
+	//place the tile the way the move says and end the turn
+	private static void place(BoardObject board, TigerTile tile, long move) {
+		tile.setOrientation(TilePair.getOrientation(move) / 90);
+		board.place(tile, TilePair.getKey(move));
+		board.confirm();
+	}
+
+	//the move for the server, no animal
+	private static String format(TigerTile tile, long move) {
+		return "PLACE " + tile.getType() + " AT " + Coordinate.toServer(TilePair.getKey(move)) + " "
+				+ TilePair.getOrientation(move) + " NONE";
+	}
+}
@@ -0,0 +1,200 @@
+package game;
+
+import java.util.ArrayList;
+
+import entities.BoardObject;
+import entities.Coordinate;
+import entities.Location;
+import entities.Player;
+import entities.TigerObject;
+import entities.TigerTile;
+import entities.TilePair;
+
+/*
+ * Referee keeps a game's board for the server and checks every move against it before
+ * it's played, the way the tournament server does. A move that breaks the rules isn't
+ * played; the reason the player forfeits is returned instead, as the server words it:
+ *
+ *		ILLEGAL TILE PLACEMENT		not the tile of the move, or it doesn't fit there, or it
+ *									was called unplaceable when it fits somewhere
+ *		INVALID MEEPLE PLACEMENT	a tiger or crocodile the player can't put there
+ *
+ * Player 0 moves first. The moves alternate, one for every tile of the stack; the game
+ * is over once the last tile is played, and end() gives out the points for the regions
+ * left incomplete.
+ */
+public class Referee {
+
+	public static final String ILLEGAL_TILE = "ILLEGAL TILE PLACEMENT";
+	public static final String INVALID_MEEPLE = "INVALID MEEPLE PLACEMENT";
+
+	private final BoardObject board = new BoardObject();
+	private final Player[] players = new Player[2];
+	private final ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+	private int move;
+
+	/**
+	 * Referee sets up a game with the starting tile on the board
+	 * @param first the player who moves first
+	 * @param second the other player
+	 * @param startTile the starting tile's type, put at 0 0 unrotated
+	 * @param stack the tiles to be played, in order
+	 */
+	public Referee(String first, String second, String startTile, ArrayList<String> stack) {
+		players[0] = new Player(first, true);
+		players[1] = new Player(second, false);
+		board.setPlayers(players);
+		board.start(new TigerTile(startTile, 0, board.getContext()), 0, 0);
+		for (String type : stack) tiles.add(new TigerTile(type, 0, board.getContext()));
+	}
+
+	//ACCESSORS
+
+	/**
+	 * getMover() gets whose move it is
+	 * @return 0 or 1
+	 */
+	public int getMover() {
+		return move % 2;
+	}
+
+	/**
+	 * getTile() gets the tile of the move to be made
+	 * @return its type, or null once the game is over
+	 */
+	public String getTile() {
+		return isOver() ? null : tiles.get(move).getType();
+	}
+
+	public boolean isOver() {
+		return move == tiles.size();
+	}
+
+	public Player getPlayer(int index) {
+		return players[index];
+	}
+
+	public BoardObject getBoardObject() {
+		return board;
+	}
+
+	//MUTATORS
+
+	/**
+	 * place() plays a tile, and a tiger or crocodile on it
+	 * @param tile the tile's type
+	 * @param x where it goes
+	 * @param y where it goes
+	 * @param orientation 0, 90, 180 or 270
+	 * @param animal NONE, TIGER or CROCODILE
+	 * @param zone where on the tile the tiger goes, 1 to 9
+	 * @return null if the move was played, the reason the player forfeits if not
+	 */
+	public String place(String tile, int x, int y, int orientation, String animal, int zone) {
+		TigerTile next = check(tile);
+		if (next == null || orientation % 90 != 0 || orientation < 0 || orientation > 270) return ILLEGAL_TILE;
+
+		//the board knows every spot the tile fits in, in every orientation
+		long key = Coordinate.pack(x, y);
+		boolean fits = false;
+		if (board.canPlace(next)) {
+			for (TilePair pair : board.getPossibleSpots()) {
+				if (pair.getKey() == key && pair.getOrientation() == orientation) fits = true;
+			}
+		}
+		if (!fits) return ILLEGAL_TILE;
+
+		board.switchToActivePlayer(players[getMover()]);
+		next.setOrientation(orientation / 90);
+		board.place(next, key);
+		if (animal.equals("TIGER") && !board.placeTiger(zone)) return INVALID_MEEPLE;
+		if (animal.equals("CROCODILE") && !board.placeCrocodile()) return INVALID_MEEPLE;
+		board.confirm();
+		move++;
+		return null;
+	}
+
+	/**
+	 * pass() plays a tile that fits nowhere by not playing it
+	 * @param tile the tile's type
+	 * @return null if the move was played, the reason the player forfeits if not
+	 */
+	public String pass(String tile) {
+		String reason = unplaceable(tile);
+		if (reason != null) return reason;
+		board.confirm();
+		move++;
+		return null;
+	}
+
+	/**
+	 * retrieve() takes one of the player's tigers back instead of playing a tile that
+	 * fits nowhere
+	 * @param tile the tile's type
+	 * @param x where the tiger is
+	 * @param y where the tiger is
+	 * @return null if the move was played, the reason the player forfeits if not
+	 */
+	public String retrieve(String tile, int x, int y) {
+		String reason = unplaceable(tile);
+		if (reason != null) return reason;
+		if (tigerOwner(x, y) != players[getMover()]) return INVALID_MEEPLE;
+
+		board.switchToActivePlayer(players[getMover()]);
+		board.removeTiger(new Location(x, y));
+		board.confirm();
+		move++;
+		return null;
+	}
+
+	/**
+	 * add() puts another of the player's tigers in a region the player has one in,
+	 * instead of playing a tile that fits nowhere
+	 * @param tile the tile's type
+	 * @param x where the player's tiger is
+	 * @param y where the player's tiger is
+	 * @return null if the move was played, the reason the player forfeits if not
+	 */
+	public String add(String tile, int x, int y) {
+		String reason = unplaceable(tile);
+		if (reason != null) return reason;
+		Player mover = players[getMover()];
+		if (tigerOwner(x, y) != mover || !mover.hasTigers()) return INVALID_MEEPLE;
+
+		board.switchToActivePlayer(mover);
+		board.placeTiger(new Location(x, y));
+		board.confirm();
+		move++;
+		return null;
+	}
+
+	/**
+	 * end() gives out the points for the regions left incomplete, once the game is over
+	 */
+	public void end() {
+		board.endScores();
+	}
+
+	//METHODS
+
+	//the tile of the move, if it's the one named
+	private TigerTile check(String tile) {
+		if (isOver() || !tiles.get(move).getType().equals(tile)) return null;
+		return tiles.get(move);
+	}
+
+	//why the tile can't be called unplaceable, null if it can
+	private String unplaceable(String tile) {
+		TigerTile next = check(tile);
+		if (next == null || board.canPlace(next)) return ILLEGAL_TILE;
+		return null;
+	}
+
+	//the owner of the tiger on a tile, null if there's no tile or no tiger
+	private Player tigerOwner(int x, int y) {
+		TigerTile tile = board.getBoard().get(x, y);
+		if (tile == null || tile.getTigers() == null || tile.getTigers().isEmpty()) return null;
+		TigerObject tiger = tile.getTiger();
+		return tiger.getTigerOwner();
+	}
+}
@@ -0,0 +1,247 @@
+package network;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import game.ConsoleLog;
+import game.Game;
+import game.MoveLatency;
+
+/*
+ * GameWorker plays one of the two games of a match on a thread of its own. The reader
+ * hands each game its lines as they come in (see TigerZoneClient.handle()), and the
+ * worker acts on them one at a time in that order. While one game thinks about its
+ * move, the other keeps taking in the opponent's moves and makes its own.
+ *
+ * Every method only queues its work and returns; the game and its move count are only
+ * ever touched on the worker's thread.
+ *
+ * Each move is timed from the socket to the socket (see MoveLatency). When a game is
+ * over its timings are printed, added to the tournament's and, if there's a directory
+ * for them, written out as round<n>-game<gid>.csv.
+ *
+ * Nothing is printed on System.out from the worker, lines go to ConsoleLog so one game
+ * never waits on the other's printing.
+ */
+public class GameWorker {
+
+	private final String name;
+	private final TigerZoneClient.Sender out;
+	private final ExecutorService executor;
+	private final MoveLatency tournament; //every game's timings, locked to add to
+	private volatile File latencyDirectory;
+	private volatile long searchBudget = TigerZoneClient.SEARCH_BUDGET;
+	private volatile ForkJoinPool searchPool;
+	private volatile TigerZoneClient.AIFactory aiFactory;
+	private volatile boolean echo; //print each move we send
+
+	private Game game;
+	private int round; //how many rounds the worker's played
+	private String serverID; //the game's ID on the server, for its CSV
+
+	/**
+	 * GameWorker starts the thread one of the games is played on
+	 * @param name the game's name, "A" or "B"
+	 * @param out where its moves are sent
+	 * @param tournament where the game's timings are added once it's over
+	 */
+	public GameWorker(String name, TigerZoneClient.Sender out, MoveLatency tournament) {
+		this.name = name;
+		this.out = out;
+		this.tournament = tournament;
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "game " + GameWorker.this.name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	//MUTATORS
+
+	/**
+	 * setSearchBudget() sets how long the AI thinks about a move, from the next game on
+	 * @param millis the time in milliseconds, 0 to play without searching
+	 */
+	public void setSearchBudget(long millis) {
+		searchBudget = millis;
+	}
+
+	/**
+	 * setSearchPool() has the AI split its search across a pool's threads, from the next
+	 * game on
+	 * @param pool the pool, or null to search on one thread
+	 */
+	public void setSearchPool(ForkJoinPool pool) {
+		searchPool = pool;
+	}
+
+	/**
+	 * setEcho() has each move we send printed, through ConsoleLog
+	 * @param echo true to print them
+	 */
+	public void setEcho(boolean echo) {
+		this.echo = echo;
+	}
+
+	/**
+	 * setAIFactory() has the games play another AI, from the next game on
+	 * @param factory makes each game's AI, or null for the client's own
+	 */
+	public void setAIFactory(TigerZoneClient.AIFactory factory) {
+		aiFactory = factory;
+	}
+
+	/**
+	 * setLatencyDirectory() sets where each game's timings are written when it's over
+	 * @param directory the directory, or null to not write them
+	 */
+	public void setLatencyDirectory(File directory) {
+		latencyDirectory = directory;
+	}
+
+	/**
+	 * begin() starts a new game for the round
+	 */
+	public void begin() {
+		submit(() -> {
+			game = new Game(name);
+			//search for most of the second each move gets, and on the opponent's time
+			TigerZoneClient.AIFactory factory = aiFactory;
+			game.setAI((factory != null) ? factory.newAI(game) : TigerZoneClient.newAI(game, searchBudget, searchPool));
+			round++;
+		});
+	}
+
+	public void setPlayers(final String userName, final String opponentName) {
+		submit(() -> game.setPlayers(userName, opponentName));
+	}
+
+	public void setStartTile(final String tile, final int x, final int y, final int orientation) {
+		submit(() -> game.setStartTile(tile, x, y, orientation));
+	}
+
+	public void setTileStack(final ArrayList<String> tiles) {
+		submit(() -> game.setTileStack(tiles));
+	}
+
+	//METHODS
+
+	/**
+	 * move() makes our move and sends it
+	 * @param gameID the server's ID of the game
+	 * @param moveNumber the server's number of the move
+	 * @param received the System.nanoTime() the server asked for the move at
+	 * @param parsed the System.nanoTime() the request was decoded at
+	 */
+	public void move(final String gameID, final int moveNumber, final long received, final long parsed) {
+		submit(() -> {
+			MoveLatency latency = game.getLatency();
+			latency.received = received;
+			latency.parsed = parsed;
+			serverID = gameID;
+
+			String response = game.makeMove(received);
+			// Add the starting information to the move
+			response = "GAME " + gameID + " MOVE " + moveNumber + " " + response;
+			latency.formatted = System.nanoTime();
+
+			// Send our move
+			out.send(response);
+			latency.flushed = System.nanoTime();
+			latency.record(moveNumber);
+			if (echo) ConsoleLog.println("Client: " + response);
+		});
+	}
+
+	/**
+	 * placed() puts a move the server confirmed on the board
+	 * @param ours true if it was our move
+	 */
+	public void placed(final int x, final int y, final int orientation, final String animal, final boolean ours,
+			final int animalZone) {
+		submit(() -> {
+			game.placeTile(x, y, orientation, animal, ours, animalZone);
+		});
+	}
+
+	public void pass() {
+		submit(() -> {
+			game.pass();
+		});
+	}
+
+	/**
+	 * unplaceable() takes in a move whose tile didn't fit anywhere
+	 * @param ours true if it was our move
+	 * @param addTiger true if a tiger was added, false if one was retrieved
+	 */
+	public void unplaceable(final boolean ours, final boolean addTiger, final int x, final int y) {
+		submit(() -> {
+			game.unplaceableTile(ours, addTiger, x, y);
+		});
+	}
+
+	/**
+	 * over() ends the game
+	 */
+	public void over() {
+		submit(() -> {
+			if (game == null) return;
+			ConsoleLog.println("Moves: " + game.getWatchdog());
+			MoveLatency latency = game.getLatency();
+			if (latency.getMoves() > 0) {
+				ConsoleLog.println("Latency of game " + name + ":" + System.lineSeparator() + latency);
+				synchronized (tournament) {
+					tournament.add(latency);
+				}
+				if (latencyDirectory != null) writeCsv(latency);
+			}
+			game.endGame();
+			game = null;
+		});
+	}
+
+	/**
+	 * shutdown() lets the worker finish what it was given, then stops its thread
+	 * @param waitMillis how long to wait for it
+	 */
+	public void shutdown(long waitMillis) {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(waitMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	//the game's timings, a move a row
+	private void writeCsv(MoveLatency latency) {
+		File file = new File(latencyDirectory, "round" + round + "-game" + serverID + ".csv");
+		try (Writer writer = new FileWriter(file)) {
+			latency.writeCsv(writer);
+		} catch (IOException e) {
+			ConsoleLog.println("Error: couldn't write " + file + ", " + e.getMessage());
+		}
+	}
+
+	//one line's work, a line it can't make sense of doesn't stop the ones after it
+	private void submit(final Runnable task) {
+		executor.execute(() -> {
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				ConsoleLog.println("Error: game " + name + " couldn't take in a line, " + e);
+			}
+		});
+	}
+}
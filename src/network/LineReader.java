@@ -0,0 +1,109 @@
+package network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+/*
+ * LineReader reads the server's lines off a non-blocking socket on a thread of its
+ * own, and hands each one to a Listener along with the System.nanoTime() it came in
+ * at. Every line that comes in with one read gets the time of that read: the server's
+ * second for a move starts when its request arrives, not when we get around to it.
+ * The line is handed over as bytes, in a buffer that's reused for the next one (see
+ * MessageParser).
+ *
+ * The listener is called on the reader's thread, so it should only pass the line on
+ * (see TigerZoneClient.handle()); while it runs, nothing else is read.
+ *
+ *		LineReader reader = new LineReader(channel, client::handle);
+ *		reader.start();
+ */
+public class LineReader extends Thread {
+
+	/*
+	 * Listener gets the lines, without their "\r\n"
+	 */
+	public interface Listener {
+		/**
+		 * line() takes in a line from the server
+		 * @param line the line's bytes, only good until line() returns
+		 * @param length how many of the bytes are the line
+		 * @param received the System.nanoTime() it came in at
+		 * @return false to stop reading
+		 */
+		boolean line(byte[] line, int length, long received);
+	}
+
+	private final SocketChannel channel;
+	private final Listener listener;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+	private byte[] pending = new byte[256]; //the line read so far
+	private int length;
+	private volatile IOException failure;
+
+	/**
+	 * LineReader reads lines off a channel, which is made non-blocking
+	 * @param channel the connection to the server
+	 * @param listener what to hand the lines to
+	 */
+	public LineReader(SocketChannel channel, Listener listener) throws IOException {
+		super("reader");
+		this.channel = channel;
+		this.listener = listener;
+		channel.configureBlocking(false);
+		setDaemon(true);
+	}
+
+	//ACCESSORS
+
+	/**
+	 * getFailure() gets what stopped the reader, if it wasn't the server hanging up or
+	 * the listener
+	 * @return the exception, or null
+	 */
+	public IOException getFailure() {
+		return failure;
+	}
+
+	//METHODS
+
+	public void run() {
+		try (Selector selector = Selector.open()) {
+			channel.register(selector, SelectionKey.OP_READ);
+			while (true) {
+				selector.select();
+				selector.selectedKeys().clear();
+
+				int read = channel.read(buffer);
+				long received = System.nanoTime();
+				if (read < 0) break;
+
+				buffer.flip();
+				if (!split(received)) break;
+				buffer.clear();
+			}
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	//pass on every line the buffer finishes, keep the start of the next one
+	private boolean split(long received) {
+		while (buffer.hasRemaining()) {
+			byte b = buffer.get();
+			if (b == '\n') {
+				int line = length;
+				length = 0;
+				if (!listener.line(pending, line, received)) return false;
+			}
+			else if (b != '\r') {
+				if (length == pending.length) pending = Arrays.copyOf(pending, length * 2);
+				pending[length++] = b;
+			}
+		}
+		return true;
+	}
+}
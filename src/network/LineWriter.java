@@ -0,0 +1,63 @@
+package network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import game.ConsoleLog;
+
+/*
+ * LineWriter sends the client's lines to the server. Both games reply from their own
+ * threads, so one line is written at a time, whole, in the order they're sent. The
+ * write is made by the thread sending it, a reply doesn't wait on another thread to
+ * be picked up.
+ */
+public class LineWriter implements TigerZoneClient.Sender {
+
+	private final SocketChannel channel;
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+	private Selector selector; //to wait on a full socket, opened the first time it is
+
+	/**
+	 * LineWriter writes lines to a non-blocking channel
+	 * @param channel the connection to the server
+	 */
+	public LineWriter(SocketChannel channel) {
+		this.channel = channel;
+	}
+
+	//METHODS
+
+	/**
+	 * send() writes a line to the server, ended with "\r\n"
+	 * @param line the line
+	 */
+	public synchronized void send(String line) {
+		byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+		if (buffer.capacity() < bytes.length + 2) buffer = ByteBuffer.allocateDirect(bytes.length + 2);
+		buffer.clear();
+		buffer.put(bytes).put((byte) '\r').put((byte) '\n');
+		buffer.flip();
+
+		try {
+			while (buffer.hasRemaining()) {
+				if (channel.write(buffer) == 0) waitForRoom();
+			}
+		} catch (IOException e) {
+			ConsoleLog.println("Error: couldn't send " + line + ", " + e);
+		}
+	}
+
+	//the socket's buffer is full, wait until some of it has gone out
+	private void waitForRoom() throws IOException {
+		if (selector == null) {
+			selector = Selector.open();
+			channel.register(selector, SelectionKey.OP_WRITE);
+		}
+		selector.select();
+		selector.selectedKeys().clear();
+	}
+}
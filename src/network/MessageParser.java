@@ -0,0 +1,517 @@
+package network;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+/*
+ * MessageParser decodes the tournament server's lines straight from the bytes they
+ * came in as, word by word, into the message structs below. The structs are made once
+ * and filled again by every line. Numbers are read off the bytes. Tile types, game IDs
+ * and player names come from a table that only makes a String the first time it sees
+ * one (see Symbols), so a line the parser has seen the like of allocates nothing.
+ *
+ * A line that isn't what the protocol says throws a ParseException. It says what was
+ * expected and where; getErrorOffset() is the index of the word that was wrong.
+ *
+ * The client's lines are decoded too (JOIN to ADD below), for the server's side of the
+ * protocol (see TigerZoneServer).
+ *
+ *		switch (parser.parse(line, length)) {
+ *		case MAKE: games.get(parser.request.gameID).move(parser.request.tile); break;
+ *		case PLACED: ...
+ *		}
+ */
+public class MessageParser {
+
+	public enum Kind {
+		SPARTA,				//THIS IS SPARTA!
+		HELLO,				//HELLO!
+		WELCOME,			//WELCOME <pid> PLEASE WAIT FOR THE NEXT CHALLENGE (session)
+		CHALLENGE,			//NEW CHALLENGE <cid> YOU WILL PLAY <rounds> MATCHES (session)
+		ROUND,				//BEGIN ROUND <rid> OF <rounds> (session)
+		OPPONENT,			//YOUR OPPONENT IS PLAYER <pid> (session)
+		START,				//STARTING TILE IS <tile> AT <x> <y> <orientation> (startTile)
+		TILES,				//THE REMAINING <number> TILES ARE [ <tiles> ] (tiles)
+		MATCH,				//MATCH BEGINS IN <time> SECONDS (session)
+		MAKE,				//MAKE YOUR MOVE IN GAME <gid> WITHIN <time> SECOND: MOVE <#> PLACE <tile> (request)
+		PLACED,				//GAME <gid> MOVE <#> PLAYER <pid> PLACED <tile> AT <x> <y> <orientation> <animal> (move)
+		PASSED,				//GAME <gid> MOVE <#> PLAYER <pid> TILE <tile> UNPLACEABLE PASSED (move)
+		RETRIEVED,			//GAME <gid> MOVE <#> PLAYER <pid> TILE <tile> UNPLACEABLE RETRIEVED TIGER AT <x> <y> (move)
+		ADDED,				//GAME <gid> MOVE <#> PLAYER <pid> TILE <tile> UNPLACEABLE ADDED ANOTHER TIGER TO <x> <y> (move)
+		FORFEITED,			//GAME <gid> MOVE <#> PLAYER <pid> FORFEITED: <reason> (move)
+		OVER,				//GAME <gid> OVER PLAYER <pid> <result> PLAYER <pid> <result> (over)
+		END_OF_ROUND,		//END OF ROUND <rid> OF <rounds> (session)
+		END_OF_CHALLENGES,	//END OF CHALLENGES
+		WAIT,				//PLEASE WAIT FOR THE NEXT CHALLENGE TO BEGIN
+		GOODBYE,			//THANK YOU FOR PLAYING! GOODBYE
+
+		//the client's
+		JOIN,				//JOIN <password> (session)
+		IDENTIFY,			//I AM <username> <password> (session)
+		PLACE,				//GAME <gid> MOVE <#> PLACE <tile> AT <x> <y> <orientation> <animal> (move)
+		PASS,				//GAME <gid> MOVE <#> TILE <tile> UNPLACEABLE PASS (move)
+		RETRIEVE,			//GAME <gid> MOVE <#> TILE <tile> UNPLACEABLE RETRIEVE TIGER AT <x> <y> (move)
+		ADD					//GAME <gid> MOVE <#> TILE <tile> UNPLACEABLE ADD ANOTHER TIGER TO <x> <y> (move)
+	}
+
+	//the animals of a placed tile, what Game.placeTile() takes
+	public static final String NONE = "NONE";
+	public static final String TIGER = "TIGER";
+	public static final String CROCODILE = "CROCODILE";
+
+	/*
+	 * MoveRequest is the server asking for our move
+	 */
+	public static class MoveRequest {
+		public String gameID;
+		public int seconds;
+		public int moveNumber;
+		public String tile;
+	}
+
+	/*
+	 * Move is a move the server took in, from either player, or one a client sent (with
+	 * no player). Only the fields its kind has are set, the rest are 0 or null.
+	 */
+	public static class Move {
+		public String gameID;
+		public int moveNumber;
+		public String player;
+		public String tile;
+		public int x, y;
+		public int orientation;
+		public String animal; //NONE, TIGER or CROCODILE
+		public int zone = -1; //where the tiger went, -1 if none did
+		public String reason; //why the player forfeited
+	}
+
+	/*
+	 * GameOver is how a game ended, the result is the score, WIN or FORFEITED
+	 */
+	public static class GameOver {
+		public String gameID;
+		public final String[] players = new String[2];
+		public final String[] results = new String[2];
+	}
+
+	/*
+	 * TileList is the tiles to be played, in order
+	 */
+	public static class TileList {
+		public String[] tiles = new String[128];
+		public int count;
+	}
+
+	/*
+	 * StartTile is the tile already on the board
+	 */
+	public static class StartTile {
+		public String tile;
+		public int x, y;
+		public int orientation;
+	}
+
+	/*
+	 * Session is what the server says about the tournament, between games
+	 */
+	public static class Session {
+		public String player; //us when welcomed, the opponent for a round
+		public String password; //the server's or the player's, from a client
+		public int challenge;
+		public int round;
+		public int rounds;
+		public int seconds; //until the match begins
+	}
+
+	//the last message, by kind
+	public final MoveRequest request = new MoveRequest();
+	public final Move move = new Move();
+	public final GameOver over = new GameOver();
+	public final TileList tiles = new TileList();
+	public final StartTile startTile = new StartTile();
+	public final Session session = new Session();
+
+	private final Symbols symbols = new Symbols();
+
+	//the line being parsed and the word the parser is on
+	private byte[] line;
+	private int length;
+	private int position;
+	private int start, end;
+
+	//METHODS
+
+	/**
+	 * parse() decodes a line and fills in the struct of its kind
+	 * @param line the line's bytes, without its "\r\n"
+	 * @param length how many of the bytes are the line
+	 * @return the kind of message
+	 * @throws ParseException if the line isn't a message of the protocol
+	 */
+	public Kind parse(byte[] line, int length) throws ParseException {
+		this.line = line;
+		this.length = length;
+		position = 0;
+
+		if (!next()) throw error("a message");
+		switch (line[start]) {
+		case 'B':
+			if (!is(BEGIN)) break;
+			word(ROUND);
+			session.round = number();
+			word(OF);
+			session.rounds = number();
+			return end(Kind.ROUND);
+
+		case 'E':
+			if (!is(END)) break;
+			word(OF);
+			if (!next()) throw error("ROUND or CHALLENGES");
+			if (is(CHALLENGES)) return Kind.END_OF_CHALLENGES;
+			if (!is(ROUND)) throw error("ROUND or CHALLENGES");
+			session.round = number();
+			word(OF);
+			session.rounds = number();
+			return Kind.END_OF_ROUND; //PLEASE WAIT FOR THE NEXT MATCH, or not
+
+		case 'G':
+			if (!is(GAME)) break;
+			return game();
+
+		case 'H':
+			if (!is(HELLO)) break;
+			return end(Kind.HELLO);
+
+		case 'I':
+			if (!is(I)) break;
+			word(AM);
+			session.player = symbol();
+			session.password = symbol();
+			return end(Kind.IDENTIFY);
+
+		case 'J':
+			if (!is(JOIN)) break;
+			session.password = symbol();
+			return end(Kind.JOIN);
+
+		case 'M':
+			if (is(MAKE)) {
+				word(YOUR);
+				word(MOVE);
+				word(IN);
+				word(GAME);
+				request.gameID = symbol();
+				word(WITHIN);
+				request.seconds = number();
+				word(SECOND, SECONDS);
+				word(MOVE);
+				request.moveNumber = number();
+				word(PLACE);
+				request.tile = symbol();
+				return end(Kind.MAKE);
+			}
+			if (!is(MATCH)) break;
+			word(BEGINS);
+			word(IN);
+			session.seconds = number();
+			word(SECONDS_, SECOND_);
+			return end(Kind.MATCH);
+
+		case 'N':
+			if (!is(NEW)) break;
+			word(CHALLENGE);
+			session.challenge = number();
+			word(YOU);
+			word(WILL);
+			word(PLAY);
+			session.rounds = number();
+			word(MATCHES, MATCH);
+			return end(Kind.CHALLENGE);
+
+		case 'P':
+			if (!is(PLEASE)) break;
+			word(WAIT);
+			return Kind.WAIT;
+
+		case 'S':
+			if (!is(STARTING)) break;
+			word(TILE);
+			word(IS);
+			startTile.tile = symbol();
+			word(AT);
+			startTile.x = number();
+			startTile.y = number();
+			startTile.orientation = number();
+			return end(Kind.START);
+
+		case 'T':
+			if (is(THE)) {
+				word(REMAINING);
+				int count = number();
+				word(TILES);
+				word(ARE);
+				word(OPEN);
+				//a tile takes a space and a letter at least, more than that can't follow
+				if (count < 0 || count > (length - position) / 2) throw error("a number of tiles");
+				if (tiles.tiles.length < count) tiles.tiles = new String[count];
+				for (int i = 0; i < count; i++) {
+					tiles.tiles[i] = symbol();
+					if (is(CLOSE)) throw error(count + " tiles");
+				}
+				tiles.count = count;
+				word(CLOSE);
+				return end(Kind.TILES);
+			}
+			if (is(THIS)) {
+				word(IS);
+				word(SPARTA);
+				return end(Kind.SPARTA);
+			}
+			if (!is(THANK)) break;
+			word(YOU);
+			word(FOR);
+			word(PLAYING);
+			word(GOODBYE);
+			return end(Kind.GOODBYE);
+
+		case 'W':
+			if (!is(WELCOME)) break;
+			session.player = symbol();
+			return Kind.WELCOME;
+
+		case 'Y':
+			if (!is(YOUR)) break;
+			word(OPPONENT);
+			word(IS);
+			word(PLAYER);
+			session.player = symbol();
+			return end(Kind.OPPONENT);
+		}
+		throw error("a message");
+	}
+
+	//the rest of GAME <gid>
+	private Kind game() throws ParseException {
+		String gameID = symbol();
+		if (!next()) throw error("MOVE or OVER");
+
+		if (is(OVER)) {
+			over.gameID = gameID;
+			for (int i = 0; i < 2; i++) {
+				word(PLAYER);
+				over.players[i] = symbol();
+				over.results[i] = symbol();
+			}
+			return end(Kind.OVER);
+		}
+		if (!is(MOVE)) throw error("MOVE or OVER");
+
+		move.gameID = gameID;
+		move.moveNumber = number();
+		move.player = null;
+		move.tile = null;
+		move.x = move.y = move.orientation = 0;
+		move.animal = null;
+		move.zone = -1;
+		move.reason = null;
+
+		//a client's move
+		if (!next()) throw error("PLAYER, PLACE or TILE");
+		if (is(PLACE)) return placed(Kind.PLACE);
+		if (is(TILE)) {
+			move.tile = symbol();
+			word(UNPLACEABLE);
+			if (!next()) throw error("PASS, RETRIEVE or ADD");
+			if (is(PASS)) return end(Kind.PASS);
+			if (is(RETRIEVE)) return tiger(Kind.RETRIEVE);
+			if (is(ADD)) return tiger(Kind.ADD);
+			throw error("PASS, RETRIEVE or ADD");
+		}
+
+		//a move the server took in
+		if (!is(PLAYER)) throw error("PLAYER, PLACE or TILE");
+		move.player = symbol();
+
+		if (!next()) throw error("PLACED, TILE or FORFEITED:");
+		if (is(PLACED)) return placed(Kind.PLACED);
+
+		if (is(TILE)) {
+			move.tile = symbol();
+			word(UNPLACEABLE);
+			if (!next()) throw error("PASSED, RETRIEVED or ADDED");
+			if (is(PASSED) || is(PASS)) return end(Kind.PASSED);
+			if (is(RETRIEVED)) return tiger(Kind.RETRIEVED);
+			if (!is(ADDED)) throw error("PASSED, RETRIEVED or ADDED");
+			return tiger(Kind.ADDED);
+		}
+
+		if (!is(FORFEITED)) throw error("PLACED, TILE or FORFEITED:");
+		//the rest of the line is the reason
+		while (position < length && line[position] == ' ') position++;
+		move.reason = symbols.intern(line, position, length);
+		return Kind.FORFEITED;
+	}
+
+	//the rest of PLACE(D) <tile> AT <x> <y> <orientation> <animal>
+	private Kind placed(Kind kind) throws ParseException {
+		move.tile = symbol();
+		word(AT);
+		move.x = number();
+		move.y = number();
+		move.orientation = number();
+		if (!next()) throw error("NONE, TIGER or CROCODILE");
+		if (is(NONE_)) move.animal = NONE;
+		else if (is(CROCODILE_)) move.animal = CROCODILE;
+		else if (is(TIGER_)) {
+			move.animal = TIGER;
+			move.zone = number();
+		}
+		else throw error("NONE, TIGER or CROCODILE");
+		return end(kind);
+	}
+
+	//the rest of RETRIEVE(D) TIGER AT <x> <y>, or ADD(ED) ANOTHER TIGER TO <x> <y>
+	private Kind tiger(Kind kind) throws ParseException {
+		if (kind == Kind.RETRIEVE || kind == Kind.RETRIEVED) {
+			word(TIGER_);
+			word(AT);
+		}
+		else {
+			word(ANOTHER);
+			word(TIGER_);
+			word(TO);
+		}
+		move.x = number();
+		move.y = number();
+		return end(kind);
+	}
+
+	//TOKENIZER
+
+	//move on to the next word, false if the line is over
+	private boolean next() {
+		while (position < length && line[position] == ' ') position++;
+		start = position;
+		if (position == length) return false;
+		while (position < length && line[position] != ' ') position++;
+		end = position;
+		return true;
+	}
+
+	//the word is this one
+	private boolean is(byte[] keyword) {
+		if (end - start != keyword.length) return false;
+		for (int i = 0; i < keyword.length; i++) {
+			if (line[start + i] != keyword[i]) return false;
+		}
+		return true;
+	}
+
+	//the next word has to be this one
+	private void word(byte[] keyword) throws ParseException {
+		if (!next() || !is(keyword)) throw error(text(keyword));
+	}
+
+	//the next word has to be one of these
+	private void word(byte[] keyword, byte[] other) throws ParseException {
+		if (!next() || !(is(keyword) || is(other))) throw error(text(keyword));
+	}
+
+	//the next word is a number
+	private int number() throws ParseException {
+		if (!next()) throw error("a number");
+		int i = start;
+		boolean negative = line[i] == '-';
+		if (negative || line[i] == '+') i++;
+		if (i == end || end - i > 9) throw error("a number");
+
+		int value = 0;
+		for (; i < end; i++) {
+			int digit = line[i] - '0';
+			if (digit < 0 || digit > 9) throw error("a number");
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	//the next word, as the one String there is for it
+	private String symbol() throws ParseException {
+		if (!next()) throw error("a word");
+		return symbols.intern(line, start, end);
+	}
+
+	//the line has to be over
+	private Kind end(Kind kind) throws ParseException {
+		if (next()) throw error("the end of the line");
+		return kind;
+	}
+
+	private ParseException error(String expected) {
+		String text = new String(line, 0, length, StandardCharsets.US_ASCII);
+		String found = (start < length) ? "\"" + new String(line, start, end - start, StandardCharsets.US_ASCII) + "\"" : "the end of the line";
+		return new ParseException("expected " + expected + " but found " + found + " at column " + (start + 1) + " of \"" + text + "\"", start);
+	}
+
+	private static String text(byte[] keyword) {
+		return new String(keyword, StandardCharsets.US_ASCII);
+	}
+
+	/*
+	 * Symbols hands out the same String for the same bytes every time, an open
+	 * addressed hash table of what it's seen. Once it's half full new words aren't kept
+	 * (a server sending garbage doesn't grow it).
+	 */
+	static class Symbols {
+		private final String[] table = new String[1024];
+		private int size;
+
+		String intern(byte[] bytes, int start, int end) {
+			int hash = 0;
+			for (int i = start; i < end; i++) hash = 31 * hash + (bytes[i] & 0xff);
+
+			int mask = table.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			for (String symbol; (symbol = table[slot]) != null; slot = (slot + 1) & mask) {
+				if (matches(symbol, bytes, start, end)) return symbol;
+			}
+
+			String symbol = new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+			if (size < table.length / 2) {
+				table[slot] = symbol;
+				size++;
+			}
+			return symbol;
+		}
+
+		private static boolean matches(String symbol, byte[] bytes, int start, int end) {
+			if (symbol.length() != end - start) return false;
+			for (int i = start; i < end; i++) {
+				if (symbol.charAt(i - start) != (bytes[i] & 0xff)) return false;
+			}
+			return true;
+		}
+	}
+
+	//the protocol's words
+	private static final byte[] ADD = bytes("ADD"), ADDED = bytes("ADDED"), AM = bytes("AM"),
+			ANOTHER = bytes("ANOTHER"), ARE = bytes("ARE"), AT = bytes("AT"), BEGIN = bytes("BEGIN"),
+			BEGINS = bytes("BEGINS"), CHALLENGE = bytes("CHALLENGE"), CHALLENGES = bytes("CHALLENGES"),
+			CLOSE = bytes("]"), CROCODILE_ = bytes("CROCODILE"), END = bytes("END"), FOR = bytes("FOR"),
+			FORFEITED = bytes("FORFEITED:"), GAME = bytes("GAME"), GOODBYE = bytes("GOODBYE"), HELLO = bytes("HELLO!"),
+			I = bytes("I"), IN = bytes("IN"), IS = bytes("IS"), JOIN = bytes("JOIN"), MAKE = bytes("MAKE"),
+			MATCH = bytes("MATCH"), MATCHES = bytes("MATCHES"), MOVE = bytes("MOVE"), NEW = bytes("NEW"),
+			NONE_ = bytes("NONE"), OF = bytes("OF"), OPEN = bytes("["), OPPONENT = bytes("OPPONENT"),
+			OVER = bytes("OVER"), PASS = bytes("PASS"), PASSED = bytes("PASSED"), PLACE = bytes("PLACE"),
+			PLACED = bytes("PLACED"), PLAY = bytes("PLAY"), PLAYER = bytes("PLAYER"), PLAYING = bytes("PLAYING!"),
+			PLEASE = bytes("PLEASE"), REMAINING = bytes("REMAINING"), RETRIEVE = bytes("RETRIEVE"),
+			RETRIEVED = bytes("RETRIEVED"), ROUND = bytes("ROUND"), SECOND = bytes("SECOND:"),
+			SECOND_ = bytes("SECOND"), SECONDS = bytes("SECONDS:"), SECONDS_ = bytes("SECONDS"),
+			SPARTA = bytes("SPARTA!"), STARTING = bytes("STARTING"), THANK = bytes("THANK"), THE = bytes("THE"),
+			THIS = bytes("THIS"), TIGER_ = bytes("TIGER"), TILE = bytes("TILE"), TILES = bytes("TILES"),
+			TO = bytes("TO"), UNPLACEABLE = bytes("UNPLACEABLE"), WAIT = bytes("WAIT"), WELCOME = bytes("WELCOME"),
+			WILL = bytes("WILL"), WITHIN = bytes("WITHIN"), YOU = bytes("YOU"), YOUR = bytes("YOUR");
+
+	private static byte[] bytes(String word) {
+		return word.getBytes(StandardCharsets.US_ASCII);
+	}
+}
@@ -2,27 +2,158 @@ package network;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.StringTokenizer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
 
-import entities.TigerTile;
-import entities.TileDeck;
+import entities.AI;
+import entities.MonteCarloAI;
+import entities.ParallelAlphaBetaAI;
+import game.ConsoleLog;
 import game.Game;
+import game.MoveLatency;
+import game.MoveWatchdog;
 
 public class TigerZoneClient {
 
+	//how long the AI may think about a move, in milliseconds (the server gives a second)
+	static final long SEARCH_BUDGET = 700;
+
+	//the AI for one of the games of a round, a budget of 0 plays the quick AI without searching;
+	//with a pool the alpha-beta search is split across its threads, without one Monte Carlo searches
+	static AI newAI(Game game, long budget, ForkJoinPool pool) {
+		if (budget <= 0) return new AI(game.getBoardObject());
+		if (pool != null) return new ParallelAlphaBetaAI(game.getBoardObject(), budget, pool);
+		MonteCarloAI ai = new MonteCarloAI(game.getBoardObject(), budget);
+		ai.setPondering(true);
+		return ai;
+	}
+
+	/*
+	 * Sender takes the client's lines to the server, see LineWriter
+	 */
+	public interface Sender {
+		void send(String line);
+	}
+
+	/*
+	 * AIFactory makes the AI of each game of a round in place of newAI(), see setAIFactory()
+	 */
+	public interface AIFactory {
+		AI newAI(Game game);
+	}
+
+	//administrative information
+	private final String serverPass;
+	private final String userName;
+	private final String userPass;
+	private final Sender out;
+
+	//the two games of a round, each played on its own thread
+	private final GameWorker gameA;
+	private final GameWorker gameB;
+	private final MessageParser parser = new MessageParser();
+	private final MoveLatency latency = new MoveLatency(false); //every game's, printed at the end
+	private volatile boolean echo; //print every line, off so no line waits on the console
+	private ForkJoinPool searchPool; //shared by both games' searches, null to search on one thread
+
+	//the server's IDs of the two games, only used on the reader's thread
+	private String GameA = null, GameB = null;
+	// Flag for first game
+	private boolean firstGame = false;
+
+	/**
+	 * TigerZoneClient plays a tournament, the server's lines come in through handle()
+	 * @param serverPass the server's password
+	 * @param userName our username
+	 * @param userPass our password
+	 * @param out where the client's lines go
+	 */
+	public TigerZoneClient(String serverPass, String userName, String userPass, Sender out) {
+		this.serverPass = serverPass;
+		this.userName = userName;
+		this.userPass = userPass;
+		this.out = out;
+		gameA = new GameWorker("A", out, latency);
+		gameB = new GameWorker("B", out, latency);
+	}
+
+	//ACCESSORS
+
+	/**
+	 * getLatency() gets the timings of every game that's over
+	 * @return the timings, lock it to read them while games are played
+	 */
+	public MoveLatency getLatency() {
+		return latency;
+	}
+
+	//MUTATORS
+
+	/**
+	 * setSearchBudget() sets how long the AI thinks about a move, from the next round on
+	 * @param millis the time in milliseconds, 0 to play the quick AI without searching
+	 */
+	public void setSearchBudget(long millis) {
+		gameA.setSearchBudget(millis);
+		gameB.setSearchBudget(millis);
+	}
+
+	/**
+	 * setSearchThreads() has the AI split each search across threads, from the next round
+	 * on. Both games share them.
+	 * @param threads how many, 1 for the single-threaded Monte Carlo search
+	 */
+	public void setSearchThreads(int threads) {
+		if (searchPool != null) searchPool.shutdown();
+		searchPool = (threads > 1) ? new ForkJoinPool(threads) : null;
+		gameA.setSearchPool(searchPool);
+		gameB.setSearchPool(searchPool);
+	}
+
+	/**
+	 * setAIFactory() has the games play another AI, from the next round on
+	 * @param factory makes the AI for each game, or null for the client's own
+	 */
+	public void setAIFactory(AIFactory factory) {
+		gameA.setAIFactory(factory);
+		gameB.setAIFactory(factory);
+	}
+
+	/**
+	 * setEcho() has every line from and to the server printed, through ConsoleLog
+	 * @param echo true to print them
+	 */
+	public void setEcho(boolean echo) {
+		this.echo = echo;
+		gameA.setEcho(echo);
+		gameB.setEcho(echo);
+	}
+
+	/**
+	 * setLatencyDirectory() has each game's timings written there as a CSV when it's over
+	 * @param directory the directory, or null to not write them
+	 */
+	public void setLatencyDirectory(File directory) {
+		gameA.setLatencyDirectory(directory);
+		gameB.setLatencyDirectory(directory);
+	}
+
 	/**
 	 * Connect to the server and run games as instructed
-	 * @param args Host name, port number, server password, username, password
+	 * @param args Host name, port number, server password, username, password, and a
+	 * directory for each game's move timings if they're wanted. Every line is printed
+	 * with -Dtigerzone.echo=true, and -Dtigerzone.threads=<n> splits each search across n
+	 * threads (see ParallelAlphaBetaAI).
 	 */
 	public static void main(String[] args) throws Exception {
 
 		//if format not followed, specify
-		if (args.length != 5) {
+		if (args.length != 5 && args.length != 6) {
 			System.err.println(
-					"Usage: java TigerZoneClient <host name> <port number> <server password> <username> <password>");
+					"Usage: java TigerZoneClient <host name> <port number> <server password> <username> <password> [latency directory]");
 			System.exit(1);
 		}
 
@@ -33,301 +164,192 @@ public class TigerZoneClient {
 		String userName = args[3];
 		String userPass = args[4];
 
-		//attempt connection with server specified by product owner
-		try (
-				//attempt connection with the Tournament TCP server
-				Socket serverSocket = new Socket(hostName, portNumber);
-				PrintWriter out = new PrintWriter(serverSocket.getOutputStream(), true);
-				BufferedReader in = new BufferedReader(new InputStreamReader(serverSocket.getInputStream()));
-				) {
-
-			BufferedReader stdIn = new BufferedReader(new InputStreamReader(System.in));
-			String fromTourneyServer = "", fromHandler, fromAI;
-
-			//variable declarations - information from server
-			String gameID, GameA = null, GameB = null; // IDs for games
-			String currentPlayerID;
-			String opponentName;
-			int challengeID, numChallenges;
-			int roundID, numRounds;
-			int countDown;
-			ArrayList<String> tiles = new ArrayList<String>();
-			int numTiles;
-
-			//starting tile information
-			String startingTile;
-			int startingX, startingY, startingOrientation;
-
-			// Current move
-			int moveANum;
-			int moveBNum;
-
-			//tile recently placed by opponent
-			String tilePlaced;
-			int tilePlacedX;
-			int tilePlacedY;
-			int tileOrientation;
-			String animal;
-			int animalZone;
-
-			// Games themselves
-			Game gameA = null;
-			Game gameB = null;
-			// Game move count
-			moveANum = 1;
-			moveBNum = 1;
-			// Flag for first game
-			boolean firstGame = false;
-			boolean secondGame = false;
-
-			//tile AI wants to place
-			String tileToPlace;
-			String response;
-
-
-			//continuously wait for input from server
-			while ((fromTourneyServer = in.readLine()) != null) {
-
-				//display information from server
-				System.out.println("Server: " + fromTourneyServer);
-
-				if (fromTourneyServer.equals("THIS IS SPARTA!")) { //if first message, send join request
-					out.println("JOIN " + serverPass + "\r");
-					System.out.println("Client: " + "JOIN " + serverPass );
-				}
-				else if (fromTourneyServer.equals("HELLO!")) {  //if request accepted, send authentication
-					out.println("I AM " + userName + " " + userPass + "\r");
-					System.out.println("Client: " + "I AM " + userName + " " + userPass + "\r");
-				}
-				else if (fromTourneyServer.equals("THANK YOU FOR PLAYING! GOODBYE")) { //if end of tournament, exit from this
-					// Exit everything
-					break;
-					//return;
-				}
-				else { //otherwise, message must be parsed from server
-
-					//tokenize it
-					String[] tokenizedMessage = fromTourneyServer.split("\\s+");
-					String command = tokenizedMessage[0];
-
-					switch(command){
-
-					case "NEW": //if new tournament created (might not need)
-						challengeID = Integer.parseInt(tokenizedMessage[2]);
-						numRounds = Integer.parseInt(tokenizedMessage[6]);
-						break;
-
-					case "BEGIN": //if round begun (might not need)
-						roundID = Integer.parseInt(tokenizedMessage[2]);
-						numRounds = Integer.parseInt(tokenizedMessage[4]);
-						// Create games
-						gameA = new Game("A");
-						gameB = new Game("B");
-						moveANum = 1;
-						moveBNum = 1;
-						firstGame = false;
-						secondGame = false;
-						break;
-
-					case "YOUR": //take in opponent information
-						opponentName = tokenizedMessage[4];
-						gameA.setPlayers(userName, opponentName);
-						gameB.setPlayers(userName, opponentName);
-						break;
-
-					case "STARTING": //take in starting tile information (hope we dont need)
-						startingTile = tokenizedMessage[3];
-						startingX = Integer.parseInt(tokenizedMessage[5]);
-						startingY = Integer.parseInt(tokenizedMessage[6]);
-						startingOrientation = Integer.parseInt(tokenizedMessage[7]);
-						// Give games starting spots
-						gameA.setStartTile(startingTile, startingX, startingY, startingOrientation);
-						gameB.setStartTile(startingTile, startingX, startingY, startingOrientation);
-						break;
-
-					case "THE": //take in the randomized tile list
-						tiles = new ArrayList<String>();
-						numTiles = Integer.parseInt(tokenizedMessage[2]);
-
-						for (int i = 0; i < numTiles; i++)
-							tiles.add(tokenizedMessage[i+6]);
-
-						// Gove games remaining tiles
-						gameA.setTileStack(tiles);
-						gameB.setTileStack(tiles);
-						break;
-
-					case "MATCH": //begin match
-						countDown = Integer.parseInt(tokenizedMessage[3]);
-						//begin two simultaneous games using information given up to this point
-						break;
-
-					case "MAKE": //send off move based on current tile
-						gameID = tokenizedMessage[5];
-						String tempMove = tokenizedMessage[10];
-						// Set the right values for the first and second game
-						if (!firstGame)
-						{
-							GameA = gameID;
-							firstGame = true;
-							if (gameID == "1")
-								GameB = "2";
-							else
-								GameB = '1';
-						}
-						else if (!secondGame)
-						{
-							GameB = gameID;
-							secondGame = true;
-							moveBNum++;
-							gameB.inc();
-						}
-						/*if (GameA == null && (tempMove.equals("1") || tempMove.equals("2"))){
-							GameA = gameID;
-							if (tempMove.equals("2")){
-								moveANum++;
-								gameA.inc();
-							}
-						}
-						else if(GameB == null && ((tempMove.equals("1") || tempMove.equals("2")))){
-							GameB = gameID;
-							if (tempMove.equals("2")){
-								moveBNum++;
-								gameB.inc();
-							}
-						}*/
-
-						tileToPlace = tokenizedMessage[12];
-						response = "";
-						// Pass the move to the game
-						if (gameID.equals(GameA))
-						{
-							response = gameA.makeMove();
-							// Add the starting information to the move
-							response = "GAME " + GameA + " MOVE " + moveANum + " " + response;
-						}
-						else if (gameID.equals(GameB))
-						{
-							response = gameB.makeMove();
-							// Add the starting information to the move
-							response = "GAME " + GameB + " MOVE " + moveBNum + " " + response;
-						}
-
-						// Send our move
-						out.println(response + "\r");
-						System.out.println("Client: " + response );
-						break;
-
-					case "GAME": //game logic
-						gameID = tokenizedMessage[1];
-						currentPlayerID = tokenizedMessage[5];
-						if (tokenizedMessage[2].equals("OVER") || tokenizedMessage[6].equals("FORFEITED:")) {
-							//game over logic - i.e. tell AI to stop the two games
-							//or forfeited game logic - ie. tell AI to stop the two games due to forfeit
-							// Get the ended game
-							if (gameID.equals(GameA))
-							{
-								GameA = null;
-								if (gameA != null) gameA.endGame();
-								gameA = null;
-							}
-							else if (gameID.equals(GameB))
-							{
-								GameB = null;
-								if (gameB != null) gameB.endGame();
-								gameB = null;
-							}
-						}
-						else if (tokenizedMessage[6].equals("PLACED"))
-						{
-							//a move was made - place onto own board(s)
-							tilePlaced = tokenizedMessage[7];
-							tilePlacedX = Integer.parseInt(tokenizedMessage[9]);
-							tilePlacedY = Integer.parseInt(tokenizedMessage[10]);
-							tileOrientation = Integer.parseInt(tokenizedMessage[11]);
-							animal = tokenizedMessage[12];
-							animalZone = -1; // Default value
-
-							// Check if the tiger has a zone
-							if (animal.equals("TIGER"))
-							{
-								animalZone = Integer.parseInt(tokenizedMessage[13]);
-							}
-
-							// Place the tile in the game
-							if (gameID.equals(GameA)) {
-								moveANum++;
-								gameA.placeTile(tilePlacedX, tilePlacedY, tileOrientation, animal,
-										userName.equals(currentPlayerID), animalZone);
-							} else if (gameID.equals(GameB)) {
-								moveBNum++;
-								gameB.placeTile(tilePlacedX, tilePlacedY, tileOrientation, animal,
-										userName.equals(currentPlayerID), animalZone);
-							}
-
-						}
-						else if (tokenizedMessage[6].equals("TILE"))
-						{
-							if (tokenizedMessage[7].equals("PASS"))
-							{
-								// Place the tile in the game
-								if (gameID.equals(GameA)) {
-									moveANum++;
-									gameA.pass();
-								} else if (gameID.equals(GameB)) {
-									moveBNum++;
-									gameB.pass();
-								}
-							}
-							else
-							{
-								// When a tiger is added or retrived
-								String addOrReplace = tokenizedMessage[9];
-								boolean addTiger = false;
-								tilePlacedX = 0;
-								tilePlacedY = 0;
-
-								if (addOrReplace.equals("RETRIEVED"))
-								{
-									addTiger = false;
-									tilePlacedX = Integer.parseInt(tokenizedMessage[12]);
-									tilePlacedY = Integer.parseInt(tokenizedMessage[13]);
-								}
-								else if (addOrReplace.equals("ADDED"))
-								{
-									addTiger = true;
-									tilePlacedX = Integer.parseInt(tokenizedMessage[13]);
-									tilePlacedY = Integer.parseInt(tokenizedMessage[14]);
-								}
-
-								// Place the tile in the game
-								if (gameID.equals(GameA)) {
-									moveANum++;
-									gameA.unplaceableTile(userName.equals(currentPlayerID), addTiger,
-											tilePlacedX, tilePlacedY);
-								} else if (gameID.equals(GameB)) {
-									moveBNum++;
-									gameB.unplaceableTile(userName.equals(currentPlayerID), addTiger,
-											tilePlacedX, tilePlacedY);
-								}
-							}
-						}
-						break;
-
-					default:
-						//System.out.println("DID NOT CATCH: " + fromTourneyServer);
-					//break;
-					}
-				}
-			}
-			//System.out.println("While ended");
-		} catch (UnknownHostException e) {
+		InetSocketAddress address = new InetSocketAddress(hostName, portNumber);
+		if (address.isUnresolved()) {
 			System.err.println("Don't know about host " + hostName);
 			System.exit(1);
+		}
+
+		//attempt connection with the Tournament TCP server
+		try (SocketChannel serverChannel = SocketChannel.open(address)) {
+			TigerZoneClient client = new TigerZoneClient(serverPass, userName, userPass, new LineWriter(serverChannel));
+			if (args.length == 6) client.setLatencyDirectory(new File(args[5]));
+			client.setEcho(Boolean.getBoolean("tigerzone.echo"));
+			client.setSearchThreads(Integer.getInteger("tigerzone.threads", 1));
+
+			//the server's lines are read on a thread of their own and handed to the games as they come in
+			LineReader reader = new LineReader(serverChannel, client::handle);
+			reader.start();
+			reader.join();
+			client.shutdown();
+			if (reader.getFailure() != null) throw reader.getFailure();
+			//System.out.println("While ended");
 		} catch (IOException e) {
 			System.err.println("Couldn't get I/O for the connection to " +
 					hostName);
 			System.exit(1);
 		}
 	}
+
+	/**
+	 * handle() takes in a line from the server, see handle(byte[], int, long)
+	 * @param fromTourneyServer the line
+	 * @param received the System.nanoTime() it came in at
+	 * @return false once the tournament is over
+	 */
+	public boolean handle(String fromTourneyServer, long received) {
+		byte[] line = fromTourneyServer.getBytes(StandardCharsets.US_ASCII);
+		return handle(line, line.length, received);
+	}
+
+	/**
+	 * handle() takes in a line from the server. Lines about a game are passed on to its
+	 * worker, so this returns right away and the next line is read while the game thinks.
+	 * @param line the line's bytes
+	 * @param length how many of the bytes are the line
+	 * @param received the System.nanoTime() it came in at
+	 * @return false once the tournament is over
+	 */
+	public boolean handle(byte[] line, int length, long received) {
+
+		//display information from server, only when asked as it makes a String of every line
+		if (echo) ConsoleLog.println("Server: " + new String(line, 0, length, StandardCharsets.US_ASCII));
+
+		MessageParser.Kind kind;
+		try {
+			kind = parser.parse(line, length);
+		} catch (ParseException e) {
+			ConsoleLog.println("Error: " + e.getMessage());
+			return true;
+		}
+		long parsed = System.nanoTime();
+
+		MessageParser.Move move = parser.move;
+		switch (kind) {
+
+		case SPARTA: //if first message, send join request
+			out.send("JOIN " + serverPass);
+			ConsoleLog.println("Client: " + "JOIN " + serverPass);
+			break;
+
+		case HELLO: //if request accepted, send authentication
+			out.send("I AM " + userName + " " + userPass);
+			ConsoleLog.println("Client: " + "I AM " + userName + " " + userPass);
+			break;
+
+		case GOODBYE: //if end of tournament, exit from this
+			// Exit everything
+			return false;
+
+		case ROUND: //if round begun
+			// Create games
+			gameA.begin();
+			gameB.begin();
+			firstGame = false;
+			break;
+
+		case OPPONENT: //take in opponent information
+			gameA.setPlayers(userName, parser.session.player);
+			gameB.setPlayers(userName, parser.session.player);
+			break;
+
+		case START: //take in starting tile information
+			MessageParser.StartTile start = parser.startTile;
+			// Give games starting spots
+			gameA.setStartTile(start.tile, start.x, start.y, start.orientation);
+			gameB.setStartTile(start.tile, start.x, start.y, start.orientation);
+			break;
+
+		case TILES: //take in the randomized tile list
+			ArrayList<String> tiles = new ArrayList<String>(parser.tiles.count);
+			for (int i = 0; i < parser.tiles.count; i++)
+				tiles.add(parser.tiles.tiles[i]);
+
+			// Give games remaining tiles
+			gameA.setTileStack(tiles);
+			gameB.setTileStack(tiles);
+			break;
+
+		case MAKE: //send off move based on current tile
+			String gameID = parser.request.gameID;
+			int moveNumber = parser.request.moveNumber;
+			// Set the right values for the first and second game, the other game's
+			// first move is the opponent's and gets to its worker as it's placed
+			if (!firstGame)
+			{
+				GameA = gameID;
+				firstGame = true;
+				if (gameID.equals("1"))
+					GameB = "2";
+				else
+					GameB = "1";
+			}
+
+			// Pass the move to the game, it's sent from the game's thread
+			if (gameID.equals(GameA))
+				gameA.move(GameA, moveNumber, received, parsed);
+			else if (gameID.equals(GameB))
+				gameB.move(GameB, moveNumber, received, parsed);
+			break;
+
+		case OVER: //game over, or a player forfeited, stop the game
+		case FORFEITED:
+			gameID = (kind == MessageParser.Kind.OVER) ? parser.over.gameID : move.gameID;
+			if (gameID.equals(GameA))
+			{
+				GameA = null;
+				gameA.over();
+			}
+			else if (gameID.equals(GameB))
+			{
+				GameB = null;
+				gameB.over();
+			}
+			break;
+
+		case PLACED: //a move was made - place onto own board(s)
+			GameWorker placedIn = game(move.gameID);
+			if (placedIn != null)
+				placedIn.placed(move.x, move.y, move.orientation, move.animal, userName.equals(move.player), move.zone);
+			break;
+
+		case PASSED:
+			GameWorker passedIn = game(move.gameID);
+			if (passedIn != null) passedIn.pass();
+			break;
+
+		case RETRIEVED: //a tiger is added or retrieved instead of placing the tile
+		case ADDED:
+			GameWorker tigerIn = game(move.gameID);
+			if (tigerIn != null)
+				tigerIn.unplaceable(userName.equals(move.player), kind == MessageParser.Kind.ADDED, move.x, move.y);
+			break;
+
+		default:
+			//nothing to do for the rest
+		}
+		return true;
+	}
+
+	//the worker playing one of the server's games
+	private GameWorker game(String gameID) {
+		if (gameID.equals(GameA)) return gameA;
+		if (gameID.equals(GameB)) return gameB;
+		return null;
+	}
+
+	/**
+	 * shutdown() ends the games and stops their threads, then prints the tournament's timings
+	 */
+	public void shutdown() {
+		gameA.over();
+		gameB.over();
+		gameA.shutdown(MoveWatchdog.MOVE_TIME);
+		gameB.shutdown(MoveWatchdog.MOVE_TIME);
+		if (searchPool != null) searchPool.shutdown();
+		synchronized (latency) {
+			ConsoleLog.println("Latency of the tournament:" + System.lineSeparator() + latency);
+		}
+		ConsoleLog.flush(MoveWatchdog.MOVE_TIME);
+	}
 }
@@ -1,64 +1,581 @@
 package network;
 
-import java.net.*;
-import java.io.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
-/**
- * This will act as a dumb server to communicate with the client 
+import entities.TileCatalog;
+import game.LatencyHistogram;
+import game.MoveWatchdog;
+import game.Referee;
+
+/*
+ * TigerZoneServer runs tournaments the way the tournament server does (see
+ * Log/11-30.txt), so clients can be played against each other offline:
+ *
+ *		THIS IS SPARTA!						JOIN <server password>
+ *		HELLO!								I AM <username> <password>
+ *		WELCOME <pid> PLEASE WAIT FOR THE NEXT CHALLENGE
+ *		NEW CHALLENGE 1 YOU WILL PLAY <rounds> MATCHES
+ *		BEGIN ROUND <rid> OF <rounds>, the opponent, the starting tile and the tiles
+ *		MAKE YOUR MOVE IN GAME <gid> WITHIN 1 SECOND: MOVE <#> PLACE <tile>
+ *		GAME <gid> MOVE <#> PLAYER <pid> PLACED ..., or FORFEITED: <reason>
+ *		GAME <gid> OVER PLAYER <pid> <score> PLAYER <pid> <score>
+ *		END OF ROUND <rid> OF <rounds>, END OF CHALLENGES, THANK YOU FOR PLAYING! GOODBYE
+ *
+ * Once enough players have joined, they play a tournament: every round pairs them up
+ * (round robin), and each pair plays a match of two games at once, each player going
+ * first in one. Both games get the same tile stack, shuffled from the server's seed, so
+ * a run can be repeated. Every move has to come back within the second; it's checked
+ * by a Referee before it's played, and a move that's late, garbled or against the rules
+ * forfeits the game. The other game of the match goes on.
+ *
+ * Each connection has a thread of its own (a virtual thread where the JDK has them),
+ * and so does each match, so any number of tournaments can be played at once. When a
+ * tournament is over, the matches, moves and forfeits so far are printed with how long
+ * replies took (see Stats).
+ *
+ * > java -cp src network.TigerZoneServer <port number> <server password> [players] [rounds] [seed] [seconds before a match]
  */
-public class TigerZoneServer
-{
-	public static void main(String args[]) throws Exception
-  {
+public class TigerZoneServer {
+
+	public static final String START_TILE = "TLTJ-";
+	public static final String TIMEOUT = "TIMEOUT";
+	public static final String ILLEGAL_MESSAGE = "ILLEGAL MESSAGE RECEIVED";
+
+	private final String password;
+	private final int players; //per tournament
+	private final int rounds;
+	private final long seed;
+	private final int countdown; //seconds from the tiles to the first move
+	private long moveTime = MoveWatchdog.MOVE_TIME;
+
+	private final ExecutorService threads = threads();
+	private final Stats stats = new Stats();
+	private final ArrayList<Connection> lobby = new ArrayList<Connection>();
+	private int tournaments;
+	private ServerSocket serverSocket;
+
+	/**
+	 * TigerZoneServer sets up the tournaments, start() takes the players in
+	 * @param password the server's password, for JOIN
+	 * @param players how many players play each tournament
+	 * @param rounds how many matches each player plays
+	 * @param seed what the tile stacks are shuffled from
+	 * @param countdown seconds the players get to plan before a match
+	 */
+	public TigerZoneServer(String password, int players, int rounds, long seed, int countdown) {
+		this.password = password;
+		this.players = Math.max(players, 2);
+		this.rounds = rounds;
+		this.seed = seed;
+		this.countdown = countdown;
+	}
+
+	/**
+	 * Run tournaments for whoever connects
+	 * @param args Port number, server password, players per tournament, rounds, seed,
+	 * seconds before a match
+	 */
+	public static void main(String[] args) throws Exception {
 
 		// Check the usage
-		if (args.length != 1)
-		{
-				System.err.println("Usage: java KnockKnockServer <port number>");
-				System.exit(1);
+		if (args.length < 2 || args.length > 6) {
+			System.err.println("Usage: java TigerZoneServer <port number> <server password> [players] [rounds] [seed] [seconds before a match]");
+			System.exit(1);
 		}
 
 		int portNumber = Integer.parseInt(args[0]);
+		int players = (args.length > 2) ? Integer.parseInt(args[2]) : 2;
+		int rounds = (args.length > 3) ? Integer.parseInt(args[3]) : 1;
+		long seed = (args.length > 4) ? Long.parseLong(args[4]) : System.nanoTime();
+		int countdown = (args.length > 5) ? Integer.parseInt(args[5]) : 10;
+
+		TigerZoneServer server = new TigerZoneServer(args[1], players, rounds, seed, countdown);
+		try {
+			server.start(portNumber);
+		} catch (IOException e) {
+			System.out.println("Exception caught when trying to listen on port " + portNumber);
+			System.out.println(e.getMessage());
+			System.exit(1);
+		}
+		System.out.println("The server is waiting for " + players + " players on port " + portNumber + ", seed " + seed);
+	}
+
+	//ACCESSORS
 
-		System.out.println("The server is currently awaiting a connection from a client...");
-
-		// Attempt connecting
-		try
-		(
-			ServerSocket serverSocket = new ServerSocket(Integer.parseInt(args[0]));
-			Socket clientSocket = serverSocket.accept();
-			PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true);
-			BufferedReader in = new BufferedReader(
-					new InputStreamReader(clientSocket.getInputStream()));
-			BufferedReader consoleIn =
-					new BufferedReader(new InputStreamReader(System.in));
-		)
-		{
-			System.out.println("Client connected");
-			String toSend, recived;
-			while (true)
-			{
-				// Get in the console string, only do if it can
-				if (consoleIn.ready() && (toSend = consoleIn.readLine()) != null)
-				{
-					out.println(toSend);
-					System.out.println("Server: " + toSend);
+	public Stats getStats() {
+		return stats;
+	}
+
+	//MUTATORS
+
+	/**
+	 * setMoveTime() sets how long a player has for a move, the server's is a second
+	 * @param millis the time in milliseconds
+	 */
+	public void setMoveTime(long millis) {
+		moveTime = millis;
+	}
+
+	//METHODS
+
+	/**
+	 * start() listens for players on a thread of its own
+	 * @param port the port, 0 for any free one
+	 * @return the port it's listening on
+	 */
+	public int start(int port) throws IOException {
+		serverSocket = new ServerSocket(port);
+		Thread acceptor = new Thread(() -> {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					socket.setTcpNoDelay(true);
+					threads.execute(() -> connect(socket));
+				} catch (IOException e) {
+					if (!serverSocket.isClosed()) System.out.println("Error: couldn't take a connection, " + e.getMessage());
 				}
-				toSend = null;
-				// Check if command was recived and output it to the console
-				if (in.ready() && ((recived = in.readLine()) != null))
-				{
-					System.out.println("Client: " + recived);
+			}
+		}, "acceptor");
+		acceptor.start();
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * stop() stops taking players, the tournaments being played are played out
+	 */
+	public void stop() {
+		try {
+			if (serverSocket != null) serverSocket.close();
+		} catch (IOException e) {
+			System.out.println("Error: " + e.getMessage());
+		}
+	}
+
+	//a player's connection, from the handshake until the server hangs up
+	private void connect(Socket socket) {
+		Connection connection;
+		try {
+			connection = new Connection(socket);
+		} catch (IOException e) {
+			System.out.println("Error: " + e.getMessage());
+			return;
+		}
+
+		try {
+			MessageParser parser = new MessageParser();
+			connection.send("THIS IS SPARTA!");
+			String line = connection.in.readLine();
+			if (line == null || parse(parser, line) != MessageParser.Kind.JOIN || !parser.session.password.equals(password)) {
+				connection.close();
+				return;
+			}
+			connection.send("HELLO!");
+			line = connection.in.readLine();
+			if (line == null || parse(parser, line) != MessageParser.Kind.IDENTIFY) {
+				connection.close();
+				return;
+			}
+			connection.name = parser.session.player;
+			connection.send("WELCOME " + connection.name + " PLEASE WAIT FOR THE NEXT CHALLENGE");
+			join(connection);
+
+			//from now on the lines are the player's moves, a match takes them off the queue
+			while ((line = connection.in.readLine()) != null) {
+				connection.replies.add(new Reply(line, System.nanoTime()));
+			}
+		} catch (IOException e) {
+			//the player hung up
+		}
+		connection.closed = true;
+		connection.replies.add(Reply.CLOSED);
+	}
+
+	//the kind of line, null if it isn't one
+	private static MessageParser.Kind parse(MessageParser parser, String line) {
+		try {
+			byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+			return parser.parse(bytes, bytes.length);
+		} catch (ParseException e) {
+			return null;
+		}
+	}
+
+	//a player is ready, the tournament starts once there are enough
+	private void join(Connection connection) {
+		ArrayList<Connection> entrants = null;
+		long tournamentSeed;
+		synchronized (lobby) {
+			lobby.add(connection);
+			if (lobby.size() < players) return;
+			entrants = new ArrayList<Connection>(lobby);
+			lobby.clear();
+			tournamentSeed = seed + tournaments++;
+		}
+		final ArrayList<Connection> field = entrants;
+		threads.execute(() -> tournament(field, tournamentSeed));
+	}
+
+	//every round, every pair plays a match at once
+	private void tournament(ArrayList<Connection> field, long tournamentSeed) {
+		Random random = new Random(tournamentSeed);
+		for (Connection connection : field)
+			connection.send("NEW CHALLENGE 1 YOU WILL PLAY " + rounds + (rounds == 1 ? " MATCH" : " MATCHES"));
+
+		//round robin, the first stays put and the rest go around it, a null is a bye
+		ArrayList<Connection> circle = new ArrayList<Connection>(field);
+		if (circle.size() % 2 == 1) circle.add(null);
+
+		for (int round = 1; round <= rounds; round++) {
+			ArrayList<Future<?>> matches = new ArrayList<Future<?>>();
+			for (int i = 0; i < circle.size() / 2; i++) {
+				Connection a = circle.get(i), b = circle.get(circle.size() - 1 - i);
+				if (a == null || b == null) continue;
+				//who goes first in game 1 takes turns
+				final Connection first = (round % 2 == 1) ? a : b, second = (first == a) ? b : a;
+				final int number = round;
+				final long matchSeed = random.nextLong();
+				matches.add(threads.submit(() -> match(first, second, number, matchSeed)));
+			}
+			for (Future<?> match : matches) {
+				try {
+					match.get();
+				} catch (Exception e) {
+					System.out.println("Error: a match failed, " + e);
 				}
-				recived = null;
 			}
+
+			String end = "END OF ROUND " + round + " OF " + rounds + (round < rounds ? " PLEASE WAIT FOR THE NEXT MATCH" : "");
+			for (Connection connection : field) connection.send(end);
+			circle.add(1, circle.remove(circle.size() - 1));
 		}
-		catch (IOException e)
-		{
-			System.out.println("Exception caught when trying to listen on port "
-					+ portNumber + " or listening for a connection");
-			System.out.println(e.getMessage());
+
+		for (Connection connection : field) {
+			connection.send("END OF CHALLENGES");
+			connection.send("THANK YOU FOR PLAYING! GOODBYE");
+			connection.close();
+		}
+		synchronized (stats) {
+			System.out.println("Tournament of " + field.size() + " players over" + System.lineSeparator() + stats);
+		}
+	}
+
+	/**
+	 * match() plays the two games between a pair of players, the first goes first in
+	 * game 1 and the second in game 2
+	 */
+	void match(Connection first, Connection second, int round, long matchSeed) {
+		ArrayList<String> stack = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		stack.remove(START_TILE);
+		Collections.shuffle(stack, new Random(matchSeed));
+
+		StringBuilder tiles = new StringBuilder("THE REMAINING " + stack.size() + " TILES ARE [");
+		for (String tile : stack) tiles.append(' ').append(tile);
+		tiles.append(" ]");
+		for (Connection player : new Connection[] {first, second}) {
+			player.send("BEGIN ROUND " + round + " OF " + rounds);
+			player.send("YOUR OPPONENT IS PLAYER " + (player == first ? second : first).name);
+			player.send("STARTING TILE IS " + START_TILE + " AT 0 0 0");
+			player.send(tiles.toString());
+			player.send("MATCH BEGINS IN " + countdown + " SECONDS");
+		}
+		sleep(countdown * 1000L);
+
+		Connection[][] seats = {{first, second}, {second, first}};
+		Referee[] games = {new Referee(first.name, second.name, START_TILE, stack),
+				new Referee(second.name, first.name, START_TILE, stack)};
+		Connection[] forfeited = new Connection[2];
+		MessageParser parser = new MessageParser();
+		long[] asked = new long[2];
+		long seconds = (moveTime + 999) / 1000;
+		String within = seconds + (seconds == 1 ? " SECOND:" : " SECONDS:");
+		Turn[] results = new Turn[2];
+
+		for (int move = 1; move <= stack.size(); move++) {
+			//both games ask at once, each of a different player
+			for (int g = 0; g < 2; g++) {
+				if (forfeited[g] != null) continue;
+				asked[g] = System.nanoTime();
+				seats[g][games[g].getMover()].send("MAKE YOUR MOVE IN GAME " + (g + 1) + " WITHIN " + within
+						+ " MOVE " + move + " PLACE " + games[g].getTile());
+			}
+			for (int g = 0; g < 2; g++) {
+				if (forfeited[g] != null) {
+					results[g] = null;
+					continue;
+				}
+				Connection mover = seats[g][games[g].getMover()];
+				results[g] = play(parser, games[g], mover, g + 1, move, asked[g]);
+				if (results[g].forfeited) forfeited[g] = mover;
+			}
+			for (Turn result : results) {
+				if (result == null) continue;
+				first.send(result.line);
+				second.send(result.line);
+			}
+			if (forfeited[0] != null && forfeited[1] != null) break;
+		}
+
+		for (int g = 0; g < 2; g++) {
+			String over = "GAME " + (g + 1) + " OVER";
+			if (forfeited[g] != null) {
+				for (Connection player : seats[g]) over += " PLAYER " + player.name + (player == forfeited[g] ? " FORFEITED" : " WIN");
+			}
+			else {
+				games[g].end();
+				for (int p = 0; p < 2; p++) over += " PLAYER " + seats[g][p].name + " " + games[g].getPlayer(p).getScore();
+			}
+			first.send(over);
+			second.send(over);
 		}
+		stats.match();
+	}
+
+	//take in a move and play it, and what the players are told happened
+	private Turn play(MessageParser parser, Referee game, Connection mover, int gameID, int move, long asked) {
+		String prefix = "GAME " + gameID + " MOVE " + move + " PLAYER " + mover.name + " ";
+		long deadline = asked + moveTime * 1000000;
+		MessageParser.Kind kind = null;
+
+		while (kind == null) {
+			Reply reply = mover.next(deadline);
+			if (reply == null || reply == Reply.CLOSED || reply.received > deadline) return forfeit(prefix, TIMEOUT);
+			stats.reply(reply.received - asked);
+
+			kind = parse(parser, reply.line);
+			if (kind == null) return forfeit(prefix, ILLEGAL_MESSAGE);
+			MessageParser.Move sent = parser.move;
+			boolean isMove = kind == MessageParser.Kind.PLACE || kind == MessageParser.Kind.PASS
+					|| kind == MessageParser.Kind.RETRIEVE || kind == MessageParser.Kind.ADD;
+			//a reply to a move that had already timed out
+			if (isMove && sent.moveNumber < move) {
+				kind = null;
+				continue;
+			}
+			if (!isMove || sent.moveNumber != move || !sent.gameID.equals(Integer.toString(gameID)))
+				return forfeit(prefix, ILLEGAL_MESSAGE);
+		}
+
+		MessageParser.Move reply = parser.move;
+		String reason;
+		String played;
+		switch (kind) {
+		case PLACE:
+			reason = game.place(reply.tile, reply.x, reply.y, reply.orientation, reply.animal, reply.zone);
+			played = "PLACED " + reply.tile + " AT " + reply.x + " " + reply.y + " " + reply.orientation + " " + reply.animal
+					+ (reply.zone >= 0 ? " " + reply.zone : "");
+			break;
+		case PASS:
+			reason = game.pass(reply.tile);
+			played = "TILE " + reply.tile + " UNPLACEABLE PASSED";
+			break;
+		case RETRIEVE:
+			reason = game.retrieve(reply.tile, reply.x, reply.y);
+			played = "TILE " + reply.tile + " UNPLACEABLE RETRIEVED TIGER AT " + reply.x + " " + reply.y;
+			break;
+		default:
+			reason = game.add(reply.tile, reply.x, reply.y);
+			played = "TILE " + reply.tile + " UNPLACEABLE ADDED ANOTHER TIGER TO " + reply.x + " " + reply.y;
+		}
+		if (reason != null) return forfeit(prefix, reason);
+		stats.move();
+		return new Turn(prefix + played, false);
+	}
+
+	private Turn forfeit(String prefix, String reason) {
+		stats.forfeit(reason);
+		return new Turn(prefix + "FORFEITED: " + reason, true);
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) return;
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	//a virtual thread per task where the JDK has them (21 on), a thread of its own otherwise
+	private static ExecutorService threads() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, "player");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/*
+	 * Connection is a player, the lines it sent since its handshake wait in replies
+	 */
+	static class Connection {
+		final Socket socket;
+		final BufferedReader in;
+		final OutputStream out;
+		final LinkedBlockingQueue<Reply> replies = new LinkedBlockingQueue<Reply>();
+		String name;
+		volatile boolean closed;
+
+		Connection(Socket socket) throws IOException {
+			this.socket = socket;
+			in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+			out = socket.getOutputStream();
+		}
+
+		//a line to the player, a player that hung up is past caring
+		synchronized void send(String line) {
+			if (closed) return;
+			try {
+				out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+				out.flush();
+			} catch (IOException e) {
+				closed = true;
+			}
+		}
+
+		//the player's next line, null if none came by the deadline
+		Reply next(long deadline) {
+			try {
+				Reply reply = replies.poll(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+				if (reply == Reply.CLOSED) replies.add(Reply.CLOSED); //for the next move too
+				return reply;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+
+		void close() {
+			closed = true;
+			try {
+				socket.close();
+			} catch (IOException e) {
+				//closed already
+			}
+		}
+	}
+
+	/*
+	 * Reply is a line from a player with the System.nanoTime() it came in at
+	 */
+	static class Reply {
+		static final Reply CLOSED = new Reply(null, Long.MAX_VALUE);
 
+		final String line;
+		final long received;
+
+		Reply(String line, long received) {
+			this.line = line;
+			this.received = received;
+		}
+	}
+
+	/*
+	 * Turn is what came of asking for a move: the line both players are told, and whether
+	 * it forfeited the game (a player's name can be anything, the line can't be searched)
+	 */
+	static class Turn {
+		final String line;
+		final boolean forfeited;
+
+		Turn(String line, boolean forfeited) {
+			this.line = line;
+			this.forfeited = forfeited;
+		}
+	}
+
+	/*
+	 * Stats counts what's been played since the server started: matches, games and moves,
+	 * the forfeits by reason, and how long the players took to reply
+	 */
+	public static class Stats {
+		private final long started = System.nanoTime();
+		private final LatencyHistogram replies = new LatencyHistogram();
+		private final Map<String, Integer> forfeits = new TreeMap<String, Integer>();
+		private int matches;
+		private int games;
+		private long moves;
+
+		//ACCESSORS
+
+		public synchronized int getMatches() {
+			return matches;
+		}
+
+		public synchronized int getGames() {
+			return games;
+		}
+
+		public synchronized long getMoves() {
+			return moves;
+		}
+
+		/**
+		 * getForfeits() gets how many games were forfeited for a reason
+		 * @param reason e.g. TIMEOUT
+		 * @return the number of games
+		 */
+		public synchronized int getForfeits(String reason) {
+			Integer count = forfeits.get(reason);
+			return (count == null) ? 0 : count;
+		}
+
+		/**
+		 * getReplies() gets how long the players took to reply, from the request to the line
+		 * coming in
+		 * @return the histogram, in nanoseconds, lock the Stats to read it
+		 */
+		public LatencyHistogram getReplies() {
+			return replies;
+		}
+
+		//MUTATORS
+
+		synchronized void reply(long nanos) {
+			replies.record(nanos);
+		}
+
+		synchronized void move() {
+			moves++;
+		}
+
+		synchronized void forfeit(String reason) {
+			Integer count = forfeits.get(reason);
+			forfeits.put(reason, (count == null) ? 1 : count + 1);
+		}
+
+		synchronized void match() {
+			matches++;
+			games += 2;
+		}
+
+		@Override
+		public synchronized String toString() {
+			double seconds = (System.nanoTime() - started) / 1e9;
+			return String.format("%d matches, %d games, %d moves in %.1f s: %.2f matches/s, %.0f moves/s%n"
+					+ "forfeits: %s%nreplies: p50 %.1f ms, p99 %.1f ms, max %.1f ms", matches, games, moves, seconds,
+					matches / seconds, moves / seconds, forfeits.isEmpty() ? "none" : forfeits.toString(),
+					replies.getPercentile(50) / 1e6, replies.getPercentile(99) / 1e6, replies.getMax() / 1e6);
+		}
 	}
 }
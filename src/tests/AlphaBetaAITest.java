@@ -0,0 +1,161 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import entities.AlphaBetaAI;
+import entities.BoardObject;
+import entities.Player;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TranspositionTable;
+
+public class AlphaBetaAITest {
+
+	@Test
+	//Test that searching leaves the board exactly as it was and finds a legal move
+	public void chooseMoveTest() {
+		BoardObject board = newBoard(1);
+		TigerTile tile = board.getTile(0);
+		String before = fingerprint(board);
+
+		AlphaBetaAI ai = new AlphaBetaAI(board, 10000);
+		ai.setDepthLimit(2);
+		String move = ai.chooseMove(tile);
+
+		assertEquals(2, ai.getDepthReached());
+		assertTrue(ai.getNodes() > 0);
+		assertEquals(before, fingerprint(board));
+		assertEquals(0, board.getJournal().getDepth());
+
+		String[] tokens = move.split(" ");
+		assertEquals("PLACE", tokens[0]);
+		assertTrue(board.canPlace(tile));
+		boolean found = false;
+		for (int i = 0; i < board.getPossibleSpots().size(); i++) {
+			String spot = board.getPossibleSpots().get(i).getLocation().getX() + " "
+					+ board.getPossibleSpots().get(i).getLocation().getY() + " "
+					+ board.getPossibleSpots().get(i).getOrientation();
+			if (spot.equals(tokens[3] + " " + tokens[4] + " " + tokens[5])) found = true;
+		}
+		assertTrue(found);
+	}
+
+	@Test
+	//Test that with the last tile of the game the search claims a region with a tiger
+	public void lastTileTest() {
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("LJJJ-", 0, board.getContext()), 0, 0);
+		ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+		tiles.add(new TigerTile("LJJJ-", 0, board.getContext()));
+		board.setTileDeck(tiles);
+
+		AlphaBetaAI ai = new AlphaBetaAI(board, 10000);
+		String move = ai.chooseMove(tiles.get(0));
+		assertEquals(1, ai.getDepthReached());
+		assertTrue(move, move.contains(" TIGER "));
+	}
+
+	@Test
+	//Test that the search keeps the move it has when the deadline hits
+	public void deadlineTest() {
+		BoardObject board = newBoard(3);
+		AlphaBetaAI ai = new AlphaBetaAI(board, 100);
+
+		long start = System.currentTimeMillis();
+		String move = ai.chooseMove(board.getTile(0));
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertTrue(move.startsWith("PLACE"));
+		assertTrue(ai.getDepthReached() < 76);
+		assertTrue("took " + elapsed + " ms", elapsed < 400);
+	}
+
+	@Test
+	//Test that a table shared between searches is used, and a search of a position it has seen is cheaper
+	public void tableTest() {
+		BoardObject board = newBoard(4);
+		TigerTile tile = board.getTile(0);
+		String before = fingerprint(board);
+		long hash = board.getHash();
+		TranspositionTable table = new TranspositionTable(4);
+
+		AlphaBetaAI ai = new AlphaBetaAI(board, 10000);
+		ai.setDepthLimit(2);
+		ai.setTable(table);
+		String move = ai.chooseMove(tile);
+		long nodes = ai.getNodes();
+		assertTrue(table.getStores() > 0);
+		assertEquals(before, fingerprint(board));
+		assertEquals(hash, board.getHash());
+
+		//another searcher sharing the table
+		AlphaBetaAI other = new AlphaBetaAI(board, 10000);
+		other.setDepthLimit(2);
+		other.setTable(table);
+		assertEquals(move, other.chooseMove(tile));
+		assertTrue(other.getNodes() < nodes);
+		assertTrue(table.getHits() > 0);
+	}
+
+	@Test
+	//Test that with few tiles left the search goes to the end of the game and says so, and leaves the board alone
+	public void solveTest() {
+		BoardObject board = shortBoard(5, 2);
+		String before = fingerprint(board);
+
+		AlphaBetaAI ai = new AlphaBetaAI(board, 60000);
+		String move = ai.chooseMove(board.getTile(0));
+		assertTrue(ai.wasSolved());
+		assertEquals(2, ai.getDepthReached());
+		assertEquals(before, fingerprint(board));
+		assertEquals(0, board.getJournal().getDepth());
+
+		//stopped short of the end it isn't solved
+		ai.setDepthLimit(1);
+		ai.chooseMove(board.getTile(0));
+		assertFalse(ai.wasSolved());
+		assertTrue(move.startsWith("PLACE "));
+	}
+
+	//a started board with only the first few tiles of a seeded deck
+	static BoardObject shortBoard(long seed, int tiles) {
+		BoardObject board = newBoard(seed);
+		ArrayList<TigerTile> deck = new ArrayList<TigerTile>(board.getTileDeck().subList(0, tiles));
+		board.setTileDeck(deck);
+		return board;
+	}
+
+	//a started board with a seeded deck
+	private static BoardObject newBoard(long seed) {
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		deck.remove("TLTJ-");
+		Collections.shuffle(deck, new Random(seed));
+
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0, board.getContext()), 0, 0);
+		ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+		for (String type : deck) tiles.add(new TigerTile(type, 0, board.getContext()));
+		board.setTileDeck(tiles);
+		return board;
+	}
+
+	//what a search mustn't change
+	private static String fingerprint(BoardObject board) {
+		return new TreeSet<Integer>(board.getIncomplete().keySet()) + " " + board.getAll().size() + " "
+				+ board.getComplete().size() + " " + board.getAS() + " "
+				+ board.getPlayer(0).getScore() + " " + board.getPlayer(1).getScore() + " "
+				+ board.getPlayer(0).getNumOfTigers() + " " + board.getPlayer(1).getNumOfTigers() + " "
+				+ board.getActivePlayer().getID() + " " + board.getDens().size();
+	}
+}
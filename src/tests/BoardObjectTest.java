@@ -2,12 +2,20 @@ package tests;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
 import org.junit.Test;
 
 import entities.BoardObject;
+import entities.DenRegion;
 import entities.Location;
 import entities.Player;
+import entities.Region;
 import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TilePair;
 
 public class BoardObjectTest {
 
@@ -23,8 +31,8 @@ public class BoardObjectTest {
 		board.setPlayers(players);
 		board.start(t, 0, 0);
 		
-		assertEquals(13, board.getAS().get(0).getX());
-		assertEquals(12, board.getAS().get(0).getY());
+		assertEquals(0, board.getAS().get(0).getX());
+		assertEquals(1, board.getAS().get(0).getY());
 		assertEquals(2, board.getPlayers().length);
 		assertEquals("TLTJ-", board.getTile(new Location(0, 0)).getType());
 		assertEquals(0, board.getStartX());
@@ -182,7 +190,192 @@ public class BoardObjectTest {
 		
 		assertTrue(board.canPlace(s));
 	}
-	
+
+	@Test
+	//Test that closing a lake's last open edge records it, and that confirm scores only that region
+	public void recentlyCompletedTest() {
+		BoardObject board = new BoardObject(); //create the board
+		Player[] players = new Player[2];
+		Player p1 = new Player("Red", true);
+		Player p2 = new Player("Blue", false);
+		players[0] = p1;
+		players[1] = p2;
+		board.setPlayers(players);
+		board.start(new TigerTile("LJJJ-", 0), 0, 0);
+		assertTrue(board.getRecentlyCompleted().isEmpty());
+
+		//a second lake end facing the first closes the lake
+		board.place(new TigerTile("LJJJ-", 2), new Location(0, 1));
+		assertEquals(1, board.getRecentlyCompleted().size());
+		int lakeID = board.getRecentlyCompleted().get(0);
+		Region lake = board.getRegion(lakeID);
+		assertEquals('L', lake.getType());
+		assertTrue(lake.isCompleted());
+		assertEquals(0, lake.getOpenEdges());
+
+		board.confirm();
+		assertTrue(lake.isScored());
+		assertFalse(board.getIncomplete().containsKey(lakeID));
+		assertTrue(board.getComplete().contains(lake));
+
+		//the next move starts a new list
+		board.place(new TigerTile("JJJJ-", 0), new Location(1, 0));
+		assertTrue(board.getRecentlyCompleted().isEmpty());
+	}
+
+	@Test
+	//Test that a den counts the tiles placed around it, whether they come before or after it
+	public void denNeighborsTest() {
+		BoardObject board = new BoardObject(); //create the board
+		Player[] players = new Player[2];
+		Player p1 = new Player("Red", true);
+		Player p2 = new Player("Blue", false);
+		players[0] = p1;
+		players[1] = p2;
+		board.setPlayers(players);
+		board.start(new TigerTile("JJJJ-", 0), 0, 0);
+		board.confirm();
+
+		//the den goes next to the start tile, then the rest of its neighborhood is filled in
+		board.place(new TigerTile("JJJJX", 0), new Location(1, 0));
+		board.confirm();
+		DenRegion den = board.getDens().get(0);
+		assertEquals(2, den.getNumberOfNeighboringTiles());
+
+		int[][] around = {{0, 1}, {1, 1}, {2, 1}, {2, 0}, {2, -1}, {1, -1}, {0, -1}};
+		for (int i = 0; i < around.length; i++) {
+			board.place(new TigerTile("JJJJ-", 0), new Location(around[i][0], around[i][1]));
+			assertEquals(3 + i, den.getNumberOfNeighboringTiles());
+			board.confirm();
+		}
+		assertTrue(den.isCompleted());
+		assertTrue(den.isScored());
+		assertTrue(board.getComplete().contains(den));
+
+		//a tile out of the den's reach doesn't touch it
+		board.place(new TigerTile("JJJJ-", 0), new Location(3, 0));
+		assertEquals(9, den.getNumberOfNeighboringTiles());
+		assertTrue(board.getRecentlyCompleted().isEmpty());
+	}
+
+	@Test
+	//Test that the hash follows the tiles and tigers placed and the player to move, whatever order they came in
+	public void hashTest() {
+		BoardObject first = hashBoard();
+		BoardObject second = hashBoard();
+		assertEquals(first.getHash(), second.getHash());
+
+		//the same two tiles in the other order, each player still places one
+		first.place(new TigerTile("JJJJ-", 0), new Location(-1, 0));
+		long one = first.getHash();
+		first.confirm();
+		assertTrue(one != first.getHash());
+		first.place(new TigerTile("TJTJ-", 1), new Location(1, 0));
+		first.confirm();
+
+		second.place(new TigerTile("JJJJ-", 0), new Location(1, 0));
+		second.confirm();
+		second.place(new TigerTile("TJTJ-", 1), new Location(-1, 0));
+		second.confirm();
+		assertTrue(first.getHash() != second.getHash());
+
+		BoardObject third = hashBoard();
+		third.place(new TigerTile("JJJJ-", 0), new Location(-1, 0));
+		third.confirm();
+		third.place(new TigerTile("TJTJ-", 1), new Location(1, 0));
+		third.confirm();
+		assertEquals(first.getHash(), third.getHash());
+
+		//a tiger changes it, undoing the move puts it back
+		long before = first.getHash();
+		first.checkpoint();
+		first.place(new TigerTile("JJJJ-", 0), new Location(-2, 0));
+		long placed = first.getHash();
+		assertTrue(first.placeTiger(1));
+		assertTrue(placed != first.getHash());
+		first.confirm();
+		first.undo();
+		assertEquals(before, first.getHash());
+	}
+
+	@Test
+	//Test that a replica has the same position without sharing anything, and catches up with later moves
+	public void replicateTest() {
+		BoardObject board = hashBoard();
+		board.place(new TigerTile("JJJJ-", 0), new Location(-1, 0));
+		board.placeTiger(1);
+		board.confirm();
+
+		BoardObject replica = board.replicate();
+		assertEquals(board.getHash(), replica.getHash());
+		assertEquals(board.getAll().size(), replica.getAll().size());
+		assertEquals(6, replica.getPlayer(0).getNumOfTigers());
+		assertEquals("Blue", replica.getActivePlayer().getID());
+		assertTrue(replica.getPlayer(0) != board.getPlayer(0));
+
+		//a move on the replica doesn't touch the board
+		long hash = board.getHash();
+		replica.checkpoint();
+		replica.place(new TigerTile("TJTJ-", 1), new Location(1, 0));
+		replica.confirm();
+		assertEquals(hash, board.getHash());
+		assertNull(board.getBoard().get(1, 0));
+		replica.undo();
+
+		board.place(new TigerTile("TJTJ-", 1), new Location(1, 0));
+		board.placeCrocodile();
+		board.confirm();
+		replica.catchUp(board);
+		assertEquals(board.getHash(), replica.getHash());
+		assertEquals("TJTJ-", replica.getTile(new Location(1, 0)).getType());
+		assertEquals(1, replica.getPlayer(1).getNumOfCrocs());
+	}
+
+	@Test
+	//Test that endScoreDifference() is what endScores() would give out, all through random games
+	public void endScoreDifferenceTest() {
+		for (int seed = 0; seed < 5; seed++) {
+			ArrayList<String> types = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+			types.remove("TLTJ-");
+			Collections.shuffle(types, new Random(seed));
+			BoardObject board = hashBoard();
+			Random random = new Random(seed);
+
+			for (int i = 0; i < types.size(); i++) {
+				TigerTile tile = new TigerTile(types.get(i), 0, board.getContext());
+				if (board.canPlace(tile)) {
+					TilePair pair = board.getPossibleSpots().get(random.nextInt(board.getPossibleSpots().size()));
+					long key = pair.getKey();
+					tile.setOrientation(pair.getOrientation() / 90);
+					board.place(tile, key);
+					if (random.nextInt(3) == 0) board.placeTiger(1 + random.nextInt(9));
+					else if (random.nextInt(5) == 0) board.placeCrocodile();
+				}
+				board.confirm();
+				if (i % 5 != 4 && i != types.size() - 1) continue;
+
+				int difference = board.endScoreDifference();
+				int before = board.getPlayer(0).getScore() - board.getPlayer(1).getScore();
+				board.checkpoint();
+				board.endScores();
+				assertEquals("seed " + seed + ", move " + i, difference,
+						board.getPlayer(0).getScore() - board.getPlayer(1).getScore() - before);
+				board.undo();
+			}
+		}
+	}
+
+	//a started board for hashTest()
+	private static BoardObject hashBoard() {
+		BoardObject board = new BoardObject(); //create the board
+		Player[] players = new Player[2];
+		players[0] = new Player("Red", true);
+		players[1] = new Player("Blue", false);
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0, board.getContext()), 0, 0);
+		return board;
+	}
+
 	/*@Test
 	public void boardPlaceCrocodileTest() {
 		BoardObject board = new BoardObject(); //create the board
@@ -255,8 +448,8 @@ public class BoardObjectTest {
 	public void startAndGetBoardTest() {
 		BoardObject test = new BoardObject(); //create the board
 		test.start();
-		//Get tile in center of board
-		TigerTile tile = test.getBoard()[5][5];
+		//Get tile at the starting location
+		TigerTile tile = test.getBoard().get(0, 0);
 		//Test if designated starting tile was placed in center of board
 		assertEquals("TLTJ-", tile.getType());
 	}
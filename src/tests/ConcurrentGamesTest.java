@@ -0,0 +1,86 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import entities.Player;
+import entities.TileCatalog;
+import game.Game;
+
+public class ConcurrentGamesTest {
+
+	private static final int GAMES = 200;
+
+	@Test
+	//Test that games played at the same time on different threads end up exactly like games played one after another
+	public void concurrentGamesTest() throws Exception {
+		String[] alone = new String[GAMES];
+		for (int g = 0; g < GAMES; g++)
+			alone[g] = play(g);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<Future<String>>();
+			for (int g = 0; g < GAMES; g++) {
+				final int seed = g;
+				results.add(pool.submit(() -> play(seed)));
+			}
+			for (int g = 0; g < GAMES; g++)
+				assertEquals("game " + g, alone[g], results.get(g).get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	//Test that two boards hand out their own IDs starting from zero
+	public void separateIDsTest() {
+		Game a = new Game("A", 1);
+		Game b = new Game("B", 1);
+		a.setPlayers("Red", "Blue");
+		b.setPlayers("Red", "Blue");
+		a.setStartTile("TLTJ-", 0, 0, 0);
+		b.setStartTile("TLTJ-", 0, 0, 0);
+
+		assertEquals(a.getBoardObject().getContext().getTileNum(), b.getBoardObject().getContext().getTileNum());
+		assertEquals(a.getBoardObject().getContext().getTerrainNum(), b.getBoardObject().getContext().getTerrainNum());
+		assertNotSame(a.getBoardObject().getContext(), b.getBoardObject().getContext());
+	}
+
+	/*
+	 * Plays a whole game with our AI making every move and returns what it did
+	 */
+	private static String play(int seed) {
+		Random random = new Random(seed);
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		Collections.shuffle(deck, random);
+
+		Game game = new Game("G" + seed, seed);
+		game.setPlayers("Red", "Blue");
+		game.setStartTile("TLTJ-", 0, 0, 0);
+		game.setTileStack(deck);
+
+		StringBuilder moves = new StringBuilder();
+		for (int m = 1; m < deck.size(); m++) {
+			moves.append(game.makeMove()).append('\n');
+			//no server confirms the move, step past it
+			game.inc();
+		}
+
+		for (Player player : game.getPlayers())
+			moves.append(player.getID()).append(' ').append(player.getScore()).append('\n');
+		ArrayList<Integer> regions = new ArrayList<Integer>(game.getBoardObject().getIncomplete().keySet());
+		Collections.sort(regions);
+		moves.append(regions);
+		return moves.toString();
+	}
+}
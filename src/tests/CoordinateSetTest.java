@@ -0,0 +1,73 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import entities.BoardObject;
+import entities.CoordinateSet;
+import entities.Location;
+import entities.Player;
+import entities.TigerTile;
+
+public class CoordinateSetTest {
+
+	@Test
+	//Test that adding ignores duplicates and contains finds members
+	public void addAndContainsTest() {
+		CoordinateSet set = new CoordinateSet();
+
+		assertTrue(set.add(1, -1));
+		assertFalse(set.add(1, -1));
+		assertTrue(set.contains(1, -1));
+		assertFalse(set.contains(-1, 1));
+		assertEquals(1, set.size());
+		assertEquals(1, set.getX(0));
+		assertEquals(-1, set.getY(0));
+	}
+
+	@Test
+	//Test that removing keeps every other member reachable, through growth and removal
+	public void removeTest() {
+		CoordinateSet set = new CoordinateSet();
+		for (int x = -5; x <= 5; x++) {
+			for (int y = -5; y <= 5; y++) set.add(x, y);
+		}
+		assertEquals(121, set.size());
+
+		//take out every spot where x is even
+		for (int x = -4; x <= 4; x += 2) {
+			for (int y = -5; y <= 5; y++) assertTrue(set.remove(x, y));
+		}
+		assertFalse(set.remove(0, 0));
+		assertEquals(66, set.size());
+
+		for (int x = -5; x <= 5; x++) {
+			for (int y = -5; y <= 5; y++) assertEquals(x % 2 != 0, set.contains(x, y));
+		}
+
+		//every member can be found at the position it is iterated at
+		for (int i = 0; i < set.size(); i++) assertEquals(i, set.indexOf(set.get(i)));
+	}
+
+	@Test
+	//Test that the board's frontier stays a set of the empty spots touching tiles
+	public void boardFrontierTest() {
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0), 0, 0);
+
+		assertEquals(4, board.getFrontier().size());
+		assertFalse(board.getFrontier().contains(0, 0));
+
+		//TJTJ- continues the trail coming out of the east of the start tile
+		board.place(new TigerTile("TJTJ-", 1), new Location(1, 0));
+		board.confirm();
+
+		assertEquals(6, board.getFrontier().size());
+		assertFalse(board.getFrontier().contains(1, 0));
+		assertTrue(board.getFrontier().contains(2, 0));
+		assertTrue(board.getFrontier().contains(1, 1));
+	}
+}
@@ -0,0 +1,87 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import entities.BoardObject;
+import entities.Location;
+import entities.Player;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TileEdges;
+import entities.TilePair;
+
+public class EdgeSignatureTest {
+
+	@Test
+	//Test that every signature holds the tile's edge types in that orientation
+	public void signatureMatchesEdgesTest() {
+		for (String type : TileCatalog.getInstance().getTypes()) {
+			for (int orientation = 0; orientation < 4; orientation++) {
+				TigerTile tile = new TigerTile(type, orientation);
+				int signature = tile.getSignature(orientation);
+
+				for (int point = 0; point < 8; point++) {
+					int code = (signature >> (4 * point)) & 0xF;
+					assertEquals(TileEdges.code(tile.getEdgeType(point)), code);
+				}
+			}
+		}
+	}
+
+	@Test
+	//Test that canPlace() finds exactly the spots and orientations whose edges match their neighbors
+	public void canPlaceMatchesNeighborsTest() {
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0), 0, 0);
+
+		Random random = new Random(77);
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+
+		for (int move = 0; move < 40; move++) {
+			String type = deck.get(random.nextInt(deck.size()));
+			board.canPlace(new TigerTile(type, 0));
+
+			//count the fits by comparing edges with the neighbors directly
+			int expected = 0;
+			ArrayList<Location> spots = board.getAS();
+			for (Location spot : spots) {
+				for (int orientation = 0; orientation < 4; orientation++) {
+					if (matchesNeighbors(board, new TigerTile(type, orientation), spot)) expected++;
+				}
+			}
+
+			ArrayList<TilePair> pairs = board.getPossibleSpots();
+			assertEquals(expected, pairs.size());
+			for (TilePair pair : pairs) {
+				TigerTile tile = new TigerTile(type, pair.getOrientation() / 90);
+				assertTrue(matchesNeighbors(board, tile, pair.getLocation()));
+			}
+
+			if (pairs.isEmpty()) continue;
+			TilePair pair = pairs.get(random.nextInt(pairs.size()));
+			board.place(new TigerTile(type, pair.getOrientation() / 90), pair.getLocation());
+			board.confirm();
+		}
+	}
+
+	private boolean matchesNeighbors(BoardObject board, TigerTile tile, Location spot) {
+		int x = spot.getX(), y = spot.getY();
+		TigerTile north = board.getBoard().get(x, y + 1);
+		TigerTile east = board.getBoard().get(x + 1, y);
+		TigerTile south = board.getBoard().get(x, y - 1);
+		TigerTile west = board.getBoard().get(x - 1, y);
+
+		if (north != null && north.getEdgeType(TileEdges.SOUTH) != tile.getEdgeType(TileEdges.NORTH)) return false;
+		if (east != null && east.getEdgeType(TileEdges.WEST) != tile.getEdgeType(TileEdges.EAST)) return false;
+		if (south != null && south.getEdgeType(TileEdges.NORTH) != tile.getEdgeType(TileEdges.SOUTH)) return false;
+		if (west != null && west.getEdgeType(TileEdges.EAST) != tile.getEdgeType(TileEdges.WEST)) return false;
+		return true;
+	}
+}
@@ -0,0 +1,115 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import game.LatencyHistogram;
+import game.MoveLatency;
+
+public class LatencyHistogramTest {
+
+	@Test
+	//Test that percentiles are within the bucket's 1/32 above the exact ones, and the max is exact
+	public void percentileTest() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Random random = new Random(3);
+		long[] values = new long[10000];
+		for (int i = 0; i < values.length; i++) {
+			//from nanoseconds to seconds
+			values[i] = (long) Math.pow(10, random.nextDouble() * 9);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+
+		assertEquals(values.length, histogram.getCount());
+		assertEquals(values[values.length - 1], histogram.getMax());
+		for (double percentile : new double[] {0, 1, 50, 90, 99, 99.9, 100}) {
+			long exact = values[Math.max(0, (int) Math.ceil(values.length * percentile / 100) - 1)];
+			long reported = histogram.getPercentile(percentile);
+			assertTrue(percentile + ": " + reported + " for " + exact, reported >= exact);
+			assertTrue(percentile + ": " + reported + " for " + exact, reported <= exact + exact / 32 + 1);
+		}
+	}
+
+	@Test
+	//Test small values being exact, the largest fitting, and an empty histogram
+	public void edgeTest() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(50));
+		assertEquals(0, histogram.getMax(), 0);
+
+		for (long value = 0; value < 64; value++) histogram.record(value);
+		assertEquals(31, histogram.getPercentile(50));
+		assertEquals(63, histogram.getPercentile(100));
+
+		histogram.record(-5); //a clock that went back counts as 0
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, histogram.getMax());
+		assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+		assertEquals(0, histogram.getPercentile(0));
+	}
+
+	@Test
+	//Test that adding histograms gives what recording everything in one would
+	public void addTest() {
+		LatencyHistogram one = new LatencyHistogram(), two = new LatencyHistogram(), both = new LatencyHistogram();
+		for (long value = 1; value < 1000000000L; value *= 3) {
+			one.record(value);
+			two.record(value * 2);
+			both.record(value);
+			both.record(value * 2);
+		}
+		one.add(two);
+		assertEquals(both.getCount(), one.getCount());
+		assertEquals(both.getMax(), one.getMax());
+		assertEquals(both.getMean(), one.getMean(), 0.001);
+		for (int percentile = 0; percentile <= 100; percentile += 5)
+			assertEquals(both.getPercentile(percentile), one.getPercentile(percentile));
+	}
+
+	@Test
+	//Test that a move's steps become the time of each phase, in the histograms and the CSV
+	public void moveLatencyTest() throws IOException {
+		MoveLatency latency = new MoveLatency();
+		latency.received = 1000000;
+		latency.parsed = 1002000;
+		latency.synced = 1010000;
+		latency.searchStart = 1011000;
+		latency.searchEnd = 1711000;
+		latency.formatted = 1712000;
+		latency.flushed = 1750000;
+		latency.tiles = 12;
+		latency.regions = 9;
+		latency.record(5);
+
+		//a move with steps left out, they take no time
+		latency.received = 2000000;
+		latency.flushed = 2400000;
+		latency.record(7);
+
+		assertEquals(2, latency.getMoves());
+		assertEquals(700000, latency.getHistogram("search").getMax());
+		assertEquals(750000, latency.getHistogram("total").getMax());
+		assertEquals(400000, latency.getHistogram("flush").getMax());
+
+		StringWriter csv = new StringWriter();
+		latency.writeCsv(csv);
+		String[] rows = csv.toString().split("\n");
+		assertEquals(3, rows.length);
+		assertEquals("move,tiles,regions,parse_us,sync_us,prepare_us,search_us,format_us,flush_us,total_us", rows[0]);
+		assertEquals("5,12,9,2.0,8.0,1.0,700.0,1.0,38.0,750.0", rows[1]);
+		assertEquals("7,0,0,0.0,0.0,0.0,0.0,0.0,400.0,400.0", rows[2]);
+
+		MoveLatency tournament = new MoveLatency(false);
+		tournament.add(latency);
+		tournament.add(latency);
+		assertEquals(4, tournament.getMoves());
+		assertTrue(tournament.toString(), tournament.toString().contains("search"));
+	}
+}
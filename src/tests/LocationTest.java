@@ -4,7 +4,10 @@ import static org.junit.Assert.*;
 
 import org.junit.Test;
 
+import entities.Coordinate;
 import entities.Location;
+import entities.TileEdges;
+import entities.TilePair;
 
 public class LocationTest {
 
@@ -13,10 +16,10 @@ public class LocationTest {
 		Location l1 = new Location();
 		Location l2 = new Location(2, 3);
 
-		assertEquals(13, l1.getX());
-		assertEquals(13, l1.getY());
-		assertEquals(15, l2.getX());
-		assertEquals(10, l2.getY());
+		assertEquals(0, l1.getX());
+		assertEquals(0, l1.getY());
+		assertEquals(2, l2.getX());
+		assertEquals(3, l2.getY());
 	}
 
 	@Test
@@ -33,4 +36,35 @@ public class LocationTest {
 
 		assertEquals("(2,3)", l1.toString());
 	}
+
+	@Test
+	//Test that packed coordinates survive negative values and step to the right neighbors
+	public void coordinateCodecTest() {
+		long key = Coordinate.pack(-3, 7);
+		assertEquals(-3, Coordinate.getX(key));
+		assertEquals(7, Coordinate.getY(key));
+		assertEquals(key, new Location(-3, 7).getKey());
+		assertEquals(key, Coordinate.fromServer("-3", "7"));
+		assertEquals("-3 7", Coordinate.toServer(key));
+
+		assertEquals(Coordinate.pack(-3, 8), Coordinate.neighbor(key, TileEdges.NORTH));
+		assertEquals(Coordinate.pack(-2, 7), Coordinate.neighbor(key, TileEdges.EAST));
+		assertEquals(Coordinate.pack(-3, 6), Coordinate.neighbor(key, TileEdges.SOUTH));
+		assertEquals(Coordinate.pack(-4, 7), Coordinate.neighbor(key, TileEdges.WEST));
+		assertEquals(Coordinate.pack(-4, 6), Coordinate.neighbor(key, TileEdges.SOUTHWEST));
+		assertEquals(Coordinate.pack(-1, 5), Coordinate.offset(key, 2, -2));
+	}
+
+	@Test
+	//Test that a placement packs its spot and orientation into one long and can be rotated
+	public void placementCodecTest() {
+		long key = Coordinate.pack(5, -9);
+		long move = TilePair.encode(key, 270);
+		assertEquals(key, TilePair.getKey(move));
+		assertEquals(270, TilePair.getOrientation(move));
+
+		assertEquals(0, TilePair.getOrientation(TilePair.rotate(move, 90)));
+		assertEquals(180, TilePair.getOrientation(TilePair.rotate(move, -90)));
+		assertEquals(key, TilePair.getKey(TilePair.rotate(move, 90)));
+	}
 }
@@ -0,0 +1,175 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import network.MessageParser;
+import network.MessageParser.Kind;
+
+public class MessageParserTest {
+
+	@Test
+	//Test that the lines before and between games fill in the session and the tiles
+	public void setupTest() throws ParseException {
+		MessageParser parser = new MessageParser();
+
+		assertEquals(Kind.SPARTA, parse(parser, "THIS IS SPARTA!"));
+		assertEquals(Kind.WELCOME, parse(parser, "WELCOME TEAMB PLEASE WAIT FOR THE NEXT CHALLENGE"));
+		assertEquals("TEAMB", parser.session.player);
+		assertEquals(Kind.CHALLENGE, parse(parser, "NEW CHALLENGE 3 YOU WILL PLAY 1 MATCH"));
+		assertEquals(3, parser.session.challenge);
+		assertEquals(1, parser.session.rounds);
+		assertEquals(Kind.ROUND, parse(parser, "BEGIN ROUND 2 OF 5"));
+		assertEquals(2, parser.session.round);
+		assertEquals(5, parser.session.rounds);
+		assertEquals(Kind.OPPONENT, parse(parser, "YOUR OPPONENT IS PLAYER TEAMC"));
+		assertEquals("TEAMC", parser.session.player);
+
+		assertEquals(Kind.START, parse(parser, "STARTING TILE IS TLTJ- AT 0 0 0"));
+		assertEquals("TLTJ-", parser.startTile.tile);
+		assertEquals(0, parser.startTile.x);
+		assertEquals(0, parser.startTile.orientation);
+
+		assertEquals(Kind.TILES, parse(parser, "THE REMAINING 3 TILES ARE [ JJJJ- TLTTP LJJJ- ]"));
+		assertEquals(3, parser.tiles.count);
+		assertEquals(Arrays.asList("JJJJ-", "TLTTP", "LJJJ-"), Arrays.asList(parser.tiles.tiles).subList(0, 3));
+
+		assertEquals(Kind.MATCH, parse(parser, "MATCH BEGINS IN 15 SECONDS"));
+		assertEquals(15, parser.session.seconds);
+		assertEquals(Kind.END_OF_ROUND, parse(parser, "END OF ROUND 2 OF 5 PLEASE WAIT FOR THE NEXT MATCH"));
+		assertEquals(Kind.END_OF_CHALLENGES, parse(parser, "END OF CHALLENGES"));
+		assertEquals(Kind.WAIT, parse(parser, "PLEASE WAIT FOR THE NEXT CHALLENGE TO BEGIN"));
+		assertEquals(Kind.GOODBYE, parse(parser, "THANK YOU FOR PLAYING! GOODBYE"));
+	}
+
+	@Test
+	//Test that every kind of move comes out with its fields, and nothing left over from the last one
+	public void moveTest() throws ParseException {
+		MessageParser parser = new MessageParser();
+
+		assertEquals(Kind.MAKE, parse(parser, "MAKE YOUR MOVE IN GAME A WITHIN 1 SECOND: MOVE 7 PLACE TLLT-"));
+		assertEquals("A", parser.request.gameID);
+		assertEquals(1, parser.request.seconds);
+		assertEquals(7, parser.request.moveNumber);
+		assertEquals("TLLT-", parser.request.tile);
+
+		assertEquals(Kind.PLACED, parse(parser, "GAME B MOVE 8 PLAYER TEAMC PLACED JLTTB AT -2 1 270 TIGER 8"));
+		assertEquals("B", parser.move.gameID);
+		assertEquals(8, parser.move.moveNumber);
+		assertEquals("TEAMC", parser.move.player);
+		assertEquals("JLTTB", parser.move.tile);
+		assertEquals(-2, parser.move.x);
+		assertEquals(1, parser.move.y);
+		assertEquals(270, parser.move.orientation);
+		assertEquals(MessageParser.TIGER, parser.move.animal);
+		assertEquals(8, parser.move.zone);
+
+		assertEquals(Kind.PLACED, parse(parser, "GAME B MOVE 9 PLAYER TEAMB PLACED LJJJ- AT 3 0 90 CROCODILE"));
+		assertEquals(MessageParser.CROCODILE, parser.move.animal);
+		assertEquals(-1, parser.move.zone);
+		assertEquals(Kind.PLACED, parse(parser, "GAME B MOVE 10 PLAYER TEAMB PLACED LJJJ- AT 3 1 90 NONE"));
+		assertEquals(MessageParser.NONE, parser.move.animal);
+
+		assertEquals(Kind.PASSED, parse(parser, "GAME A MOVE 11 PLAYER TEAMB TILE TLTTP UNPLACEABLE PASSED"));
+		assertEquals("TLTTP", parser.move.tile);
+		assertEquals(0, parser.move.x);
+		assertNull(parser.move.animal);
+
+		assertEquals(Kind.RETRIEVED, parse(parser, "GAME A MOVE 12 PLAYER TEAMB TILE TLTTP UNPLACEABLE RETRIEVED TIGER AT 4 -1"));
+		assertEquals(4, parser.move.x);
+		assertEquals(-1, parser.move.y);
+		assertEquals(Kind.ADDED, parse(parser, "GAME A MOVE 13 PLAYER TEAMB TILE TLTTP UNPLACEABLE ADDED ANOTHER TIGER TO 5 6"));
+		assertEquals(5, parser.move.x);
+		assertEquals(6, parser.move.y);
+
+		assertEquals(Kind.FORFEITED, parse(parser, "GAME A MOVE 14 PLAYER TEAMC FORFEITED: ILLEGAL TILE PLACEMENT"));
+		assertEquals("TEAMC", parser.move.player);
+		assertEquals("ILLEGAL TILE PLACEMENT", parser.move.reason);
+
+		assertEquals(Kind.OVER, parse(parser, "GAME A OVER PLAYER TEAMB 31 PLAYER TEAMC FORFEITED"));
+		assertEquals("A", parser.over.gameID);
+		assertEquals(Arrays.asList("TEAMB", "TEAMC"), Arrays.asList(parser.over.players));
+		assertEquals(Arrays.asList("31", "FORFEITED"), Arrays.asList(parser.over.results));
+	}
+
+	@Test
+	//Test that a malformed line says what was wrong, and at which word
+	public void errorTest() {
+		MessageParser parser = new MessageParser();
+
+		ParseException e = error(parser, "GAME A MOVE 8 PLAYER TEAMC PLACED JLTTB AT -2 x1 270 NONE");
+		assertEquals(46, e.getErrorOffset());
+		assertTrue(e.getMessage(), e.getMessage().startsWith("expected a number but found \"x1\" at column 47"));
+
+		e = error(parser, "GAME A MOVE 8 PLAYER TEAMC PLACED JLTTB AT -2 1 270");
+		assertEquals(51, e.getErrorOffset());
+		assertTrue(e.getMessage(), e.getMessage().startsWith("expected NONE, TIGER or CROCODILE but found the end of the line"));
+
+		e = error(parser, "THE REMAINING 3 TILES ARE [ JJJJ- TLTTP ]");
+		assertTrue(e.getMessage(), e.getMessage().startsWith("expected 3 tiles but found \"]\""));
+
+		//a count bigger than the line could hold isn't allocated for
+		e = error(parser, "THE REMAINING 999999999 TILES ARE [ ]");
+		assertTrue(e.getMessage(), e.getMessage().startsWith("expected a number of tiles"));
+
+		e = error(parser, "MAKE YOUR MOVE IN GAME A WITHIN 1 SECOND: MOVE 7 PLACE TLLT- NOW");
+		assertTrue(e.getMessage(), e.getMessage().startsWith("expected the end of the line but found \"NOW\""));
+
+		e = error(parser, "GAME A MOVE 99999999999 PLAYER TEAMC PLACED JLTTB AT 0 1 0 NONE");
+		assertEquals(12, e.getErrorOffset());
+
+		error(parser, "");
+		error(parser, "HELLO THERE");
+		error(parser, "MAKE YOUR MOVE IN GAME A WITHIN 1 MINUTE: MOVE 7 PLACE TLLT-");
+	}
+
+	@Test
+	//Test that once the parser has seen a line's words, parsing the like of it allocates nothing
+	public void noAllocationTest() throws ParseException {
+		com.sun.management.ThreadMXBean threads =
+				(com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+		MessageParser parser = new MessageParser();
+		byte[][] lines = {
+				bytes("MAKE YOUR MOVE IN GAME A WITHIN 1 SECOND: MOVE 7 PLACE TLLT-"),
+				bytes("GAME B MOVE 8 PLAYER TEAMC PLACED JLTTB AT -2 1 270 TIGER 8"),
+				bytes("GAME A MOVE 11 PLAYER TEAMB TILE TLTTP UNPLACEABLE PASSED"),
+				bytes("THE REMAINING 3 TILES ARE [ JJJJ- TLTTP LJJJ- ]") };
+
+		for (int i = 0; i < 20000; i++) {
+			parser.parse(lines[i % lines.length], lines[i % lines.length].length);
+		}
+		long thread = Thread.currentThread().getId();
+		long allocated = threads.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < 20000; i++) {
+			parser.parse(lines[i % lines.length], lines[i % lines.length].length);
+		}
+		allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+
+		//the measuring itself may take a little
+		assertTrue(allocated + " bytes", allocated < 1024);
+	}
+
+	private static Kind parse(MessageParser parser, String line) throws ParseException {
+		byte[] bytes = bytes(line);
+		return parser.parse(bytes, bytes.length);
+	}
+
+	private static ParseException error(MessageParser parser, String line) {
+		try {
+			parse(parser, line);
+		} catch (ParseException e) {
+			return e;
+		}
+		fail("parsed " + line);
+		return null;
+	}
+
+	private static byte[] bytes(String line) {
+		return line.getBytes(StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,201 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import entities.AlphaBetaAI;
+import entities.BoardObject;
+import entities.MonteCarloAI;
+import entities.Player;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TilePair;
+
+public class MonteCarloAITest {
+
+	@Test
+	//Test that searching leaves the board exactly as it was and finds a legal move
+	public void chooseMoveTest() {
+		BoardObject board = newBoard(1);
+		TigerTile tile = board.getTile(0);
+		String before = fingerprint(board);
+
+		MonteCarloAI ai = new MonteCarloAI(board, 0, 1);
+		ai.setPlayoutLimit(300);
+		String move = ai.chooseMove(tile);
+
+		assertEquals(300, ai.getPlayouts());
+		assertEquals(before, fingerprint(board));
+		assertEquals(0, board.getJournal().getDepth());
+
+		//the move has to be one of the placements the board allows
+		String[] tokens = move.split(" ");
+		assertEquals("PLACE", tokens[0]);
+		assertTrue(board.canPlace(tile));
+		boolean found = false;
+		for (int i = 0; i < board.getPossibleSpots().size(); i++) {
+			String spot = board.getPossibleSpots().get(i).getLocation().getX() + " "
+					+ board.getPossibleSpots().get(i).getLocation().getY() + " "
+					+ board.getPossibleSpots().get(i).getOrientation();
+			if (spot.equals(tokens[3] + " " + tokens[4] + " " + tokens[5])) found = true;
+		}
+		assertTrue(found);
+	}
+
+	@Test
+	//Test that the same seed and playout count always pick the same move
+	public void seededSearchTest() {
+		BoardObject a = newBoard(7);
+		BoardObject b = newBoard(7);
+		MonteCarloAI aiA = new MonteCarloAI(a, 0, 3);
+		MonteCarloAI aiB = new MonteCarloAI(b, 0, 3);
+		aiA.setPlayoutLimit(200);
+		aiB.setPlayoutLimit(200);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(aiA.getMove(a.getTile(i)), aiB.getMove(b.getTile(i)));
+		}
+	}
+
+	@Test
+	//Test that near the end of the game the move is solved, to the same move alpha-beta finds, unless solving is turned off
+	public void endgameTest() {
+		BoardObject board = AlphaBetaAITest.shortBoard(5, 2);
+		BoardObject other = AlphaBetaAITest.shortBoard(5, 2);
+
+		MonteCarloAI ai = new MonteCarloAI(board, 60000, 1);
+		AlphaBetaAI exact = new AlphaBetaAI(other, 60000);
+		assertEquals(exact.chooseMove(other.getTile(0)), ai.chooseMove(board.getTile(0)));
+		assertTrue(ai.wasSolved());
+
+		ai.setEndgameTiles(0);
+		ai.setPlayoutLimit(100);
+		ai.chooseMove(board.getTile(0));
+		assertFalse(ai.wasSolved());
+		assertEquals(100, ai.getPlayouts());
+	}
+
+	@Test
+	//Test that with the last tile of the game the search claims a region with a tiger
+	public void lastTileTest() {
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("LJJJ-", 0, board.getContext()), 0, 0);
+		ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+		tiles.add(new TigerTile("LJJJ-", 0, board.getContext()));
+		board.setTileDeck(tiles);
+
+		MonteCarloAI ai = new MonteCarloAI(board, 0, 5);
+		ai.setPlayoutLimit(500);
+		String move = ai.chooseMove(tiles.get(0));
+		assertTrue(move, move.contains(" TIGER "));
+	}
+
+	@Test
+	//Test that the search stops close to its time budget
+	public void budgetTest() {
+		BoardObject board = newBoard(3);
+		MonteCarloAI ai = new MonteCarloAI(board, 100, 3);
+
+		long start = System.currentTimeMillis();
+		ai.chooseMove(board.getTile(0));
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertTrue(ai.getPlayouts() > 0);
+		assertTrue(ai.getPlayoutsPerSecond() > 0);
+		assertTrue("took " + elapsed + " ms", elapsed < 400);
+	}
+
+	@Test
+	//Test that a move planned before the match is played at once, and only in the position it was planned for
+	public void planTest() throws InterruptedException {
+		BoardObject board = newBoard(8);
+		String before = fingerprint(board);
+		MonteCarloAI ai = new MonteCarloAI(board, 200, 5);
+		ArrayList<TigerTile> firstTiles = new ArrayList<TigerTile>();
+		firstTiles.add(board.getTile(0));
+		firstTiles.add(board.getTile(1));
+		ai.plan(firstTiles, 400);
+		Thread.sleep(600);
+
+		long start = System.currentTimeMillis();
+		String move = ai.chooseMove(board.getTile(0));
+		assertTrue(ai.wasPlanned());
+		assertTrue(System.currentTimeMillis() - start < 50);
+		assertTrue(move.startsWith("PLACE " + board.getTile(0).getType()));
+		assertEquals(before, fingerprint(board));
+
+		//the second tile was planned with the start position, not the one after our move
+		ai.getMove(board.getTile(0));
+		ai.chooseMove(board.getTile(1));
+		assertFalse(ai.wasPlanned());
+	}
+
+	@Test
+	//Test that the search on the opponent's time is picked up once the opponent plays a move it looked at
+	public void ponderTest() throws InterruptedException {
+		BoardObject board = newBoard(2);
+		MonteCarloAI ai = new MonteCarloAI(board, 0, 4);
+		ai.setPlayoutLimit(100);
+		ai.setPondering(true);
+
+		//our move, then the opponent thinks with the next tile
+		ai.getMove(board.getTile(0));
+		ai.ponder(board.getTile(1));
+		Thread.sleep(300);
+		String before = fingerprint(board);
+
+		//the opponent plays its first placement
+		TigerTile opponent = board.getTile(1);
+		assertTrue(board.canPlace(opponent));
+		TilePair pair = board.getPossibleSpots().get(0);
+		long key = pair.getKey();
+		opponent.setOrientation(pair.getOrientation() / 90);
+		assertEquals(before, fingerprint(board)); //pondering doesn't touch the real board
+		board.place(opponent, key);
+		board.confirm();
+
+		ai.chooseMove(board.getTile(2));
+		assertTrue(ai.getInherited() > 0);
+		assertEquals(100, ai.getPlayouts());
+		assertEquals(0, board.getJournal().getDepth());
+
+		//without pondering there's nothing to pick up
+		ai.getMove(board.getTile(2));
+		board.confirm();
+		ai.chooseMove(board.getTile(4));
+		assertEquals(0, ai.getInherited());
+	}
+
+	//a started board with a seeded deck
+	private static BoardObject newBoard(long seed) {
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		deck.remove("TLTJ-");
+		Collections.shuffle(deck, new Random(seed));
+
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0, board.getContext()), 0, 0);
+		ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+		for (String type : deck) tiles.add(new TigerTile(type, 0, board.getContext()));
+		board.setTileDeck(tiles);
+		return board;
+	}
+
+	//what a search mustn't change
+	private static String fingerprint(BoardObject board) {
+		return new TreeSet<Integer>(board.getIncomplete().keySet()) + " " + board.getAll().size() + " "
+				+ board.getComplete().size() + " " + board.getAS() + " "
+				+ board.getPlayer(0).getScore() + " " + board.getPlayer(1).getScore() + " "
+				+ board.getPlayer(0).getNumOfTigers() + " " + board.getPlayer(1).getNumOfTigers() + " "
+				+ board.getActivePlayer().getID() + " " + board.getDens().size();
+	}
+}
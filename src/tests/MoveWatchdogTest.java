@@ -0,0 +1,134 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+import entities.BoardObject;
+import entities.Coordinate;
+import entities.MonteCarloAI;
+import entities.Player;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TilePair;
+import game.Game;
+import game.MoveWatchdog;
+
+public class MoveWatchdogTest {
+
+	@Test
+	//Test that a search done in time is sent and placed
+	public void searchTest() {
+		BoardObject board = newBoard(1);
+		TigerTile tile = board.getTile(0);
+		MonteCarloAI ai = new MonteCarloAI(board, 50, 1);
+		MoveWatchdog watchdog = new MoveWatchdog();
+
+		String move = watchdog.move(ai, board, tile, System.nanoTime());
+		String[] tokens = move.split(" ");
+		assertEquals("PLACE", tokens[0]);
+		assertSame(tile, board.getBoard().get(Integer.parseInt(tokens[3]), Integer.parseInt(tokens[4])));
+		assertEquals(0, board.getJournal().getDepth());
+
+		assertEquals(1, watchdog.getMoves());
+		assertEquals(0, watchdog.getFallbacks());
+		assertEquals(0, watchdog.getMisses());
+		assertTrue(watchdog.getLastMargin() > MoveWatchdog.SAFETY_MARGIN);
+		watchdog.shutdown();
+	}
+
+	@Test
+	//Test that a search that runs past the deadline is replaced by the first spot the tile fits, placed once the search is done
+	public void fallbackTest() {
+		BoardObject board = newBoard(2);
+		TigerTile tile = board.getTile(0);
+		assertTrue(board.canPlace(tile));
+		long first = board.getPossibleSpots().get(0).getMove();
+
+		//a playout limit doesn't stop at the deadline
+		MonteCarloAI ai = new MonteCarloAI(board, 0, 2);
+		ai.setPlayoutLimit(3000);
+		MoveWatchdog watchdog = new MoveWatchdog();
+		watchdog.setMargin(900);
+
+		String move = watchdog.move(ai, board, tile, System.nanoTime());
+		assertEquals("PLACE " + tile.getType() + " AT " + Coordinate.toServer(TilePair.getKey(first)) + " "
+				+ TilePair.getOrientation(first) + " NONE", move);
+		assertEquals(1, watchdog.getFallbacks());
+		assertEquals(0, watchdog.getMisses());
+		assertTrue(watchdog.getLastMargin() > 0);
+
+		watchdog.settle();
+		assertSame(tile, board.getBoard().get(TilePair.getKey(first)));
+		assertEquals(TilePair.getOrientation(first) / 90, tile.getOrientation());
+		assertEquals(0, board.getJournal().getDepth());
+		assertEquals(3000, ai.getPlayouts());
+		watchdog.shutdown();
+	}
+
+	@Test
+	//Test that an interrupted wait still replies with the fallback, and keeps the interrupt
+	public void interruptTest() {
+		BoardObject board = newBoard(4);
+		TigerTile tile = board.getTile(0);
+		assertTrue(board.canPlace(tile));
+		long first = board.getPossibleSpots().get(0).getMove();
+
+		MonteCarloAI ai = new MonteCarloAI(board, 0, 4);
+		ai.setPlayoutLimit(3000);
+		MoveWatchdog watchdog = new MoveWatchdog();
+
+		Thread.currentThread().interrupt();
+		String move = watchdog.move(ai, board, tile, System.nanoTime());
+		assertTrue(Thread.interrupted());
+		assertEquals("PLACE " + tile.getType() + " AT " + Coordinate.toServer(TilePair.getKey(first)) + " "
+				+ TilePair.getOrientation(first) + " NONE", move);
+		assertEquals(1, watchdog.getFallbacks());
+
+		watchdog.settle();
+		assertSame(tile, board.getBoard().get(TilePair.getKey(first)));
+		assertEquals(0, board.getJournal().getDepth());
+		watchdog.shutdown();
+	}
+
+	@Test
+	//Test that a request that waited before being handled still gets its reply within the server's second
+	public void lateRequestTest() {
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		deck.remove("TLTJ-");
+		Collections.shuffle(deck, new Random(3));
+
+		Game game = new Game("A");
+		game.setAI(new MonteCarloAI(game.getBoardObject(), 700, 3));
+		game.setPlayers("Red", "Blue");
+		game.setStartTile("TLTJ-", 0, 0, 0);
+		game.setTileStack(deck);
+
+		long received = System.nanoTime() - 600 * 1000000L;
+		String move = game.makeMove(received);
+		assertTrue(move, move.startsWith("PLACE ") || move.startsWith("TILE "));
+		assertEquals(1, game.getWatchdog().getMoves());
+		assertEquals(0, game.getWatchdog().getMisses());
+		assertTrue(game.getWatchdog().getLastMargin() > 0);
+		game.endGame();
+	}
+
+	private static BoardObject newBoard(long seed) {
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		deck.remove("TLTJ-");
+		Collections.shuffle(deck, new Random(seed));
+
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0, board.getContext()), 0, 0);
+		ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+		for (String type : deck) tiles.add(new TigerTile(type, 0, board.getContext()));
+		board.setTileDeck(tiles);
+		return board;
+	}
+}
@@ -0,0 +1,85 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import entities.AlphaBetaAI;
+import entities.BoardObject;
+import entities.ParallelAlphaBetaAI;
+import entities.Player;
+import entities.TigerTile;
+import entities.TileCatalog;
+
+public class ParallelAlphaBetaAITest {
+
+	@Test
+	//Test that one worker picks the move the sequential search does, and more workers a move just as good
+	public void sameMoveTest() {
+		BoardObject board = newBoard(5);
+		TigerTile tile = board.getTile(0);
+		long hash = board.getHash();
+
+		AlphaBetaAI sequential = new AlphaBetaAI(board, 10000);
+		sequential.setDepthLimit(2);
+		String expected = sequential.chooseMove(tile);
+
+		ForkJoinPool pool = new ForkJoinPool(1);
+		ParallelAlphaBetaAI parallel = new ParallelAlphaBetaAI(board, 10000, pool);
+		parallel.setDepthLimit(2);
+		assertEquals(expected, parallel.chooseMove(tile));
+		assertEquals(2, parallel.getDepthReached());
+		assertEquals(sequential.getNodes(), parallel.getNodes());
+		pool.shutdown();
+
+		pool = new ForkJoinPool(4);
+		parallel = new ParallelAlphaBetaAI(board, 10000, pool);
+		parallel.setDepthLimit(2);
+		String move = parallel.chooseMove(tile);
+		assertTrue(move.startsWith("PLACE"));
+		assertEquals(2, parallel.getDepthReached());
+		assertEquals(hash, board.getHash());
+		assertEquals(0, board.getJournal().getDepth());
+		pool.shutdown();
+	}
+
+	@Test
+	//Test that the workers follow the game as it goes on, and all stop at the deadline
+	public void followGameTest() {
+		BoardObject board = newBoard(6);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		ParallelAlphaBetaAI ai = new ParallelAlphaBetaAI(board, 100, pool);
+
+		for (int move = 0; move < 6; move++) {
+			TigerTile tile = board.getTile(move);
+			long start = System.currentTimeMillis();
+			String result = ai.getMove(tile);
+			long elapsed = System.currentTimeMillis() - start;
+			assertTrue(result, result.startsWith("PLACE") || result.contains("UNPLACEABLE"));
+			assertTrue("took " + elapsed + " ms", elapsed < 400);
+		}
+		assertEquals(0, board.getJournal().getDepth());
+		pool.shutdown();
+	}
+
+	//a started board with a seeded deck
+	private static BoardObject newBoard(long seed) {
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		deck.remove("TLTJ-");
+		Collections.shuffle(deck, new Random(seed));
+
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0, board.getContext()), 0, 0);
+		ArrayList<TigerTile> tiles = new ArrayList<TigerTile>();
+		for (String type : deck) tiles.add(new TigerTile(type, 0, board.getContext()));
+		board.setTileDeck(tiles);
+		return board;
+	}
+}
@@ -0,0 +1,88 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+import entities.BoardObject;
+import entities.Coordinate;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TilePair;
+import game.Referee;
+
+public class RefereeTest {
+
+	@Test
+	//Test that a whole game played by the rules is taken, with the players taking turns
+	public void gameTest() {
+		ArrayList<String> stack = newStack(4);
+		Referee referee = new Referee("Red", "Blue", "TLTJ-", stack);
+
+		for (int move = 0; move < stack.size(); move++) {
+			assertEquals(move % 2, referee.getMover());
+			String tile = referee.getTile();
+			assertEquals(stack.get(move), tile);
+
+			TilePair spot = spot(referee.getBoardObject(), tile);
+			if (spot == null) assertNull(referee.pass(tile));
+			else {
+				long key = spot.getKey();
+				assertNull(referee.place(tile, Coordinate.getX(key), Coordinate.getY(key), spot.getOrientation(), "NONE", 0));
+			}
+		}
+		assertTrue(referee.isOver());
+		assertNull(referee.getTile());
+		referee.end();
+		assertEquals("Red", referee.getPlayer(0).getID());
+	}
+
+	@Test
+	//Test that moves against the rules are turned down, and the game stays where it was
+	public void illegalTest() {
+		ArrayList<String> stack = newStack(5);
+		Referee referee = new Referee("Red", "Blue", "TLTJ-", stack);
+		String tile = referee.getTile();
+		String other = tile.equals("LLLL-") ? "JJJJ-" : "LLLL-";
+
+		//not the move's tile, not next to a tile, a tile that fits called unplaceable
+		assertEquals(Referee.ILLEGAL_TILE, referee.place(other, 0, 1, 0, "NONE", 0));
+		assertEquals(Referee.ILLEGAL_TILE, referee.place(tile, 5, 5, 0, "NONE", 0));
+		assertEquals(Referee.ILLEGAL_TILE, referee.place(tile, 0, 1, 45, "NONE", 0));
+		assertEquals(Referee.ILLEGAL_TILE, referee.pass(tile));
+		assertEquals(Referee.ILLEGAL_TILE, referee.retrieve(tile, 0, 0));
+
+		assertEquals(0, referee.getMover());
+		assertEquals(tile, referee.getTile());
+		assertEquals(1, referee.getBoardObject().getBoard().size());
+	}
+
+	@Test
+	//Test that a tiger can't go in a zone the tile doesn't have
+	public void meepleTest() {
+		Referee referee = new Referee("Red", "Blue", "TLTJ-", new ArrayList<String>(Collections.singletonList("JJJJ-")));
+		TilePair spot = spot(referee.getBoardObject(), "JJJJ-");
+		long key = spot.getKey();
+		assertEquals(Referee.INVALID_MEEPLE,
+				referee.place("JJJJ-", Coordinate.getX(key), Coordinate.getY(key), spot.getOrientation(), "TIGER", 10));
+	}
+
+	//the shuffled deck without the starting tile
+	private static ArrayList<String> newStack(long seed) {
+		ArrayList<String> stack = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		stack.remove("TLTJ-");
+		Collections.shuffle(stack, new Random(seed));
+		return stack;
+	}
+
+	//the first spot a tile fits, null if there's none
+	private static TilePair spot(BoardObject board, String type) {
+		TigerTile tile = new TigerTile(type, 0, board.getContext());
+		if (!board.canPlace(tile)) return null;
+		return board.getPossibleSpots().get(0);
+	}
+}
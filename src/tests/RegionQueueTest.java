@@ -0,0 +1,150 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import entities.AI;
+import entities.BoardObject;
+import entities.Player;
+import entities.Region;
+import entities.RegionQueue;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TilePair;
+
+public class RegionQueueTest {
+
+	@Test
+	//Test that the queue keeps up with the board move after move, tigers and crocodiles included
+	public void followsBoardTest() {
+		for (long seed = 1; seed <= 5; seed++) {
+			BoardObject board = newBoard();
+			Random random = new Random(seed);
+			ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+
+			for (int move = 0; move < 60; move++) {
+				String type = deck.get(random.nextInt(deck.size()));
+				if (!board.canPlace(new TigerTile(type, 0))) continue;
+				ArrayList<TilePair> pairs = board.getPossibleSpots();
+				play(board, type, pairs.get(random.nextInt(pairs.size())), random);
+				assertOrdered(board);
+			}
+		}
+	}
+
+	@Test
+	//Test that moves tried and undone inside a checkpoint, or committed, leave the queue right
+	public void checkpointTest() {
+		BoardObject board = newBoard();
+		Random random = new Random(7);
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+
+		for (int move = 0; move < 40; move++) {
+			String type = deck.get(random.nextInt(deck.size()));
+			if (!board.canPlace(new TigerTile(type, 0))) continue;
+			ArrayList<TilePair> pairs = board.getPossibleSpots();
+
+			board.checkpoint();
+			play(board, type, pairs.get(random.nextInt(pairs.size())), random);
+			assertOrdered(board);
+			if (move % 3 == 0) {
+				board.commit();
+			}
+			else {
+				board.undo();
+				play(board, type, pairs.get(random.nextInt(pairs.size())), random);
+			}
+			assertOrdered(board);
+		}
+	}
+
+	@Test
+	//Test that the lowest and highest few are the ends of the full order
+	public void topTest() {
+		BoardObject board = newBoard();
+		Random random = new Random(11);
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		for (int move = 0; move < 50; move++) {
+			String type = deck.get(random.nextInt(deck.size()));
+			if (!board.canPlace(new TigerTile(type, 0))) continue;
+			ArrayList<TilePair> pairs = board.getPossibleSpots();
+			play(board, type, pairs.get(random.nextInt(pairs.size())), random);
+		}
+
+		RegionQueue queue = board.getRegionQueue();
+		ArrayList<Integer> sorted = potentials(new ArrayList<Region>(board.getIncomplete().values()));
+		Collections.sort(sorted);
+		ArrayList<Region> out = new ArrayList<Region>();
+		for (int k = 0; k <= queue.size() + 1; k++) {
+			int n = Math.min(k, queue.size());
+			assertEquals(sorted.subList(0, n), potentials(queue.lowest(k, out)));
+			ArrayList<Integer> highest = new ArrayList<Integer>(sorted.subList(sorted.size() - n, sorted.size()));
+			Collections.reverse(highest);
+			assertEquals(highest, potentials(queue.highest(k, out)));
+		}
+	}
+
+	@Test
+	//Test that the AI's ordered list has every incomplete region once, highest potential first
+	public void orderedListTest() {
+		BoardObject board = newBoard();
+		Random random = new Random(13);
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		for (int move = 0; move < 30; move++) {
+			String type = deck.get(random.nextInt(deck.size()));
+			if (!board.canPlace(new TigerTile(type, 0))) continue;
+			ArrayList<TilePair> pairs = board.getPossibleSpots();
+			play(board, type, pairs.get(random.nextInt(pairs.size())), random);
+		}
+
+		ArrayList<Region> list = new AI(board).orderedListOfRegions();
+		assertEquals(board.getIncomplete().size(), list.size());
+		assertEquals(new HashSet<Region>(board.getIncomplete().values()), new HashSet<Region>(list));
+		for (int i = 1; i < list.size(); i++) {
+			assertTrue(list.get(i - 1).getPotential() >= list.get(i).getPotential());
+		}
+	}
+
+	//the queue has exactly the incomplete regions, in order of their potential now
+	private static void assertOrdered(BoardObject board) {
+		RegionQueue queue = board.getRegionQueue();
+		ArrayList<Region> out = new ArrayList<Region>();
+		queue.highest(queue.size(), out);
+		assertEquals(board.getIncomplete().size(), out.size());
+		assertEquals(new HashSet<Region>(board.getIncomplete().values()), new HashSet<Region>(out));
+
+		ArrayList<Integer> sorted = potentials(new ArrayList<Region>(board.getIncomplete().values()));
+		Collections.sort(sorted, Collections.reverseOrder());
+		assertEquals(sorted, potentials(out));
+		Collections.reverse(sorted);
+		assertEquals(sorted, potentials(queue.lowest(queue.size(), out)));
+	}
+
+	private static ArrayList<Integer> potentials(ArrayList<Region> regions) {
+		ArrayList<Integer> potentials = new ArrayList<Integer>();
+		for (Region region : regions) potentials.add(region.getPotential());
+		return potentials;
+	}
+
+	private static BoardObject newBoard() {
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0), 0, 0);
+		return board;
+	}
+
+	private static void play(BoardObject board, String type, TilePair pair, Random random) {
+		board.place(new TigerTile(type, pair.getOrientation() / 90), pair.getLocation());
+		int choice = random.nextInt(4);
+		if (choice == 1) board.placeTiger(1 + random.nextInt(9));
+		else if (choice == 2) board.placeCrocodile();
+		board.confirm();
+	}
+}
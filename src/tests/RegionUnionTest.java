@@ -0,0 +1,198 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import entities.BoardObject;
+import entities.LakeRegion;
+import entities.LakeTerrain;
+import entities.Player;
+import entities.Region;
+import entities.Terrain;
+import entities.TigerObject;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TileEdges;
+import entities.TileGrid;
+import entities.TilePair;
+
+public class RegionUnionTest {
+
+	@Test
+	//Test that a union keeps the bigger region as the root and adds up its totals
+	public void unionTest() {
+		LakeRegion small = new LakeRegion(new LakeTerrain(1, new ArrayList<Integer>(Arrays.asList(0, 1, 2))));
+		LakeRegion big = new LakeRegion(new LakeTerrain(2, new ArrayList<Integer>(Arrays.asList(0, 1, 2))));
+		Region.union(big, new LakeRegion(new LakeTerrain(3, new ArrayList<Integer>(Arrays.asList(2, 3, 4)))));
+
+		Player p1 = new Player("Red", true);
+		TigerObject tiger = new TigerObject(p1);
+		small.addTiger(tiger);
+
+		Region root = Region.union(small, big);
+		assertSame(big, root);
+		assertSame(big, small.find());
+		assertFalse(small.isRoot());
+		assertEquals(3, root.getNumOfTerrains());
+		assertEquals(3, root.getTerrains().size());
+		assertEquals(3, root.getOpenEdges());
+		assertEquals(1, root.getNumOfTigers());
+		assertEquals(0, small.getNumOfTigers());
+
+		root.closeEdge();
+		assertFalse(root.isCompleted());
+	}
+
+	@Test
+	//Test that the board's regions are exactly the connected terrains, with the right totals
+	public void regionsMatchFloodFillTest() {
+		for (long seed = 1; seed <= 4; seed++) {
+			BoardObject board = new BoardObject();
+			Player[] players = {new Player("Red", true), new Player("Blue", false)};
+			board.setPlayers(players);
+			board.start(new TigerTile("TLTJ-", 0), 0, 0);
+
+			Random random = new Random(seed);
+			ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+
+			for (int move = 0; move < 50; move++) {
+				String type = deck.get(random.nextInt(deck.size()));
+				if (!board.canPlace(new TigerTile(type, 0))) continue;
+
+				ArrayList<TilePair> pairs = board.getPossibleSpots();
+				TilePair pair = pairs.get(random.nextInt(pairs.size()));
+				board.place(new TigerTile(type, pair.getOrientation() / 90), pair.getLocation());
+				board.confirm();
+			}
+			checkRegions(board);
+		}
+	}
+
+	@Test
+	//Test that the totals are still right after moves are tried and undone
+	public void undoKeepsTotalsTest() {
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0), 0, 0);
+
+		Random random = new Random(9);
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+
+		for (int move = 0; move < 50; move++) {
+			String type = deck.get(random.nextInt(deck.size()));
+			if (!board.canPlace(new TigerTile(type, 0))) continue;
+
+			ArrayList<TilePair> pairs = board.getPossibleSpots();
+			for (int i = 0; i < pairs.size(); i += 3) {
+				board.checkpoint();
+				board.place(new TigerTile(type, pairs.get(i).getOrientation() / 90), pairs.get(i).getLocation());
+				board.confirm();
+				board.undo();
+			}
+			TilePair pair = pairs.get(random.nextInt(pairs.size()));
+			board.place(new TigerTile(type, pair.getOrientation() / 90), pair.getLocation());
+			board.confirm();
+		}
+		checkRegions(board);
+	}
+
+	//compare every region with the terrains connected to each other on the board
+	private void checkRegions(BoardObject board) {
+		TileGrid grid = board.getBoard();
+		Map<Terrain, Terrain> parent = new HashMap<Terrain, Terrain>();
+		Map<Terrain, Integer> open = new HashMap<Terrain, Integer>();
+
+		int[] sides = {TileEdges.NORTH, TileEdges.EAST, TileEdges.SOUTH, TileEdges.WEST};
+		int[] dx = {0, 1, 0, -1};
+		int[] dy = {1, 0, -1, 0};
+
+		for (int x = grid.getMinX(); x <= grid.getMaxX(); x++) {
+			for (int y = grid.getMinY(); y <= grid.getMaxY(); y++) {
+				TigerTile tile = grid.get(x, y);
+				if (tile == null) continue;
+				for (Terrain terrain : tile.getTerrains()) {
+					if (!parent.containsKey(terrain)) parent.put(terrain, terrain);
+				}
+
+				for (int i = 0; i < 4; i++) {
+					int side = sides[i];
+					Terrain mid = tile.getEdges().getTerrain(side);
+					TigerTile neighbor = grid.get(x + dx[i], y + dy[i]);
+
+					if (neighbor == null) {
+						if (mid.getType() != 'J') open.put(mid, (open.containsKey(mid) ? open.get(mid) : 0) + 1);
+						continue;
+					}
+
+					//the point across the edge is 4 points around, the corners swap sides
+					int facing = (side + 4) % 8;
+					join(parent, mid, neighbor.getEdges().getTerrain(facing));
+					if (mid.getType() == 'T') {
+						join(parent, tile.getEdges().getTerrain((side + 7) % 8), neighbor.getEdges().getTerrain((facing + 1) % 8));
+						join(parent, tile.getEdges().getTerrain((side + 1) % 8), neighbor.getEdges().getTerrain((facing + 7) % 8));
+					}
+				}
+			}
+		}
+
+		//group the terrains by their flood filled component and by their region
+		Map<Terrain, Set<Terrain>> components = new HashMap<Terrain, Set<Terrain>>();
+		for (Terrain terrain : parent.keySet()) {
+			Terrain top = find(parent, terrain);
+			if (!components.containsKey(top)) components.put(top, new HashSet<Terrain>());
+			components.get(top).add(terrain);
+		}
+
+		for (Set<Terrain> component : components.values()) {
+			Region root = null;
+			Set<Integer> tiles = new HashSet<Integer>();
+			Set<Character> preyTypes = new HashSet<Character>();
+			int openEdges = 0, prey = 0, crocs = 0;
+
+			for (Terrain terrain : component) {
+				Region region = board.getRegion(terrain.getRegionID());
+				if (root == null) root = region;
+				assertSame(root, region);
+				tiles.add(terrain.getTileID());
+				if (open.containsKey(terrain)) openEdges += open.get(terrain);
+				if (terrain.getType() != 'J' && terrain.hasAnimal()) {
+					char animal = terrain.getAnimalType();
+					if (animal == 'C') crocs++;
+					else { prey++; preyTypes.add(animal); }
+				}
+			}
+
+			assertEquals(component.size(), root.getNumOfTerrains());
+			if (root.getType() != 'J') {
+				assertEquals(tiles.size(), root.getTileListSize());
+				assertEquals(openEdges, root.getOpenEdges());
+				assertEquals(openEdges == 0, root.isCompleted());
+				assertEquals(prey, root.getNumOfPrey());
+				assertEquals(crocs, root.getNumOfCrocAnimals());
+				assertEquals(preyTypes.size(), root.getUniqueAnimals());
+			}
+		}
+	}
+
+	private void join(Map<Terrain, Terrain> parent, Terrain a, Terrain b) {
+		if (a.getType() != b.getType()) return;
+		if (!parent.containsKey(a)) parent.put(a, a);
+		if (!parent.containsKey(b)) parent.put(b, b);
+		parent.put(find(parent, a), find(parent, b));
+	}
+
+	private Terrain find(Map<Terrain, Terrain> parent, Terrain terrain) {
+		while (parent.get(terrain) != terrain) terrain = parent.get(terrain);
+		return terrain;
+	}
+}
@@ -28,8 +28,8 @@ public class TigerObjectTest {
 		Location x = new Location(1, 2);
 		testTiger.setLocation(x);
 		
-		assertEquals(14, testTiger.getLocation().getX());
-		assertEquals(11, testTiger.getLocation().getY());
+		assertEquals(1, testTiger.getLocation().getX());
+		assertEquals(2, testTiger.getLocation().getY());
 	}
 	
 	/*@Test
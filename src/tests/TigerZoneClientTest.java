@@ -2,10 +2,26 @@ package tests;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import entities.Location;
+import entities.TileCatalog;
 import game.Game;
+import game.MoveWatchdog;
+import network.LineReader;
+import network.LineWriter;
+import network.TigerZoneClient;
 
 import org.junit.Test;
 
@@ -405,4 +421,133 @@ public class TigerZoneClientTest {
 		assertEquals("TLTTP", gameB.getBoardObject().getTile(new Location(0,1)).getType());
 		//assertEquals(1, gameB.getBoardObject().getTile(new Location(0,1)).getTigers().size());
 	}
+
+	@Test
+	//Test that lines are read whole however they're split up, with the time the end of each came in
+	public void lineReaderTest() throws Exception {
+		try (ServerSocketChannel server = ServerSocketChannel.open()) {
+			server.bind(new InetSocketAddress("localhost", 0));
+			SocketChannel client = SocketChannel.open(server.getLocalAddress());
+			SocketChannel served = server.accept();
+
+			final LinkedBlockingQueue<String> lines = new LinkedBlockingQueue<String>();
+			final LinkedBlockingQueue<Long> times = new LinkedBlockingQueue<Long>();
+			LineReader reader = new LineReader(client, (line, length, received) -> {
+				String text = new String(line, 0, length, StandardCharsets.US_ASCII);
+				lines.add(text);
+				times.add(received);
+				return !text.equals("THANK YOU FOR PLAYING! GOODBYE");
+			});
+			reader.start();
+
+			served.write(ByteBuffer.wrap("THIS IS SPARTA!\r\nHEL".getBytes(StandardCharsets.US_ASCII)));
+			assertEquals("THIS IS SPARTA!", lines.poll(5, TimeUnit.SECONDS));
+			Thread.sleep(100);
+			long sent = System.nanoTime();
+			served.write(ByteBuffer.wrap("LO!\r\nTHANK YOU FOR PLAYING! GOODBYE\r\nignored\r\n".getBytes(StandardCharsets.US_ASCII)));
+			assertEquals("HELLO!", lines.poll(5, TimeUnit.SECONDS));
+			assertEquals("THANK YOU FOR PLAYING! GOODBYE", lines.poll(5, TimeUnit.SECONDS));
+
+			times.take();
+			assertTrue(times.take() >= sent);
+			reader.join(5000);
+			assertFalse(reader.isAlive());
+			assertTrue(lines.isEmpty());
+			assertNull(reader.getFailure());
+
+			//and the replies go back whole
+			new LineWriter(client).send("JOIN TIGERZONE");
+			ByteBuffer buffer = ByteBuffer.allocate(64);
+			while (buffer.position() < 16) served.read(buffer);
+			assertEquals("JOIN TIGERZONE\r\n", new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+			served.close();
+			client.close();
+		}
+	}
+
+	@Test
+	//Test that both games are asked for a move at once and both reply within the second, neither waits for the other to think
+	public void simultaneousMovesTest() throws Exception {
+		final LinkedBlockingQueue<String> replies = new LinkedBlockingQueue<String>();
+		final LinkedBlockingQueue<Long> sent = new LinkedBlockingQueue<Long>();
+		TigerZoneClient client = new TigerZoneClient("TIGERZONE", "Red", "IAME", line -> {
+			sent.add(System.nanoTime());
+			replies.add(line);
+		});
+
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		deck.remove("TLTJ-");
+		Collections.shuffle(deck, new Random(4));
+		String tiles = "THE REMAINING " + deck.size() + " TILES ARE [";
+		for (String tile : deck) tiles += " " + tile;
+		tiles += " ]";
+
+		String[] setup = {"BEGIN ROUND 1 OF 1", "YOUR OPPONENT IS PLAYER Blue", "STARTING TILE IS TLTJ- AT 0 0 0", tiles,
+				"MATCH BEGINS IN 1 SECONDS"};
+		for (String line : setup) assertTrue(client.handle(line, System.nanoTime()));
+
+		long received = System.nanoTime();
+		client.handle("MAKE YOUR MOVE IN GAME 2 WITHIN 1 SECOND: MOVE 1 PLACE " + deck.get(0), received);
+		client.handle("MAKE YOUR MOVE IN GAME 1 WITHIN 1 SECOND: MOVE 2 PLACE " + deck.get(1), received);
+		//the games think on their own threads, the reader is free for the next line
+		assertTrue((System.nanoTime() - received) / 1000000 < 200);
+
+		ArrayList<String> games = new ArrayList<String>();
+		for (int i = 0; i < 2; i++) {
+			String reply = replies.poll(5, TimeUnit.SECONDS);
+			assertNotNull(reply);
+			assertTrue((sent.take() - received) / 1000000 < MoveWatchdog.MOVE_TIME);
+			games.add(reply.substring(0, 6));
+		}
+		Collections.sort(games);
+		assertEquals("[GAME 1, GAME 2]", games.toString());
+		assertFalse(client.handle("THANK YOU FOR PLAYING! GOODBYE", System.nanoTime()));
+		client.shutdown();
+	}
+
+	@Test
+	//Test that a game's moves are timed from the socket to the socket, written out when it's over and added to the tournament's
+	public void latencyTest() throws Exception {
+		final LinkedBlockingQueue<String> replies = new LinkedBlockingQueue<String>();
+		TigerZoneClient client = new TigerZoneClient("TIGERZONE", "Red", "IAME", line -> replies.add(line));
+		File directory = Files.createTempDirectory("latency").toFile();
+		client.setLatencyDirectory(directory);
+
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		deck.remove("TLTJ-");
+		Collections.shuffle(deck, new Random(6));
+		String tiles = "THE REMAINING " + deck.size() + " TILES ARE [";
+		for (String tile : deck) tiles += " " + tile;
+		tiles += " ]";
+
+		String[] setup = {"BEGIN ROUND 1 OF 1", "YOUR OPPONENT IS PLAYER Blue", "STARTING TILE IS TLTJ- AT 0 0 0", tiles,
+				"MATCH BEGINS IN 1 SECONDS"};
+		for (String line : setup) client.handle(line, System.nanoTime());
+
+		long received = System.nanoTime();
+		client.handle("MAKE YOUR MOVE IN GAME 1 WITHIN 1 SECOND: MOVE 1 PLACE " + deck.get(0), received);
+		assertNotNull(replies.poll(5, TimeUnit.SECONDS));
+		client.handle("GAME 1 OVER PLAYER Red 0 PLAYER Blue FORFEITED", System.nanoTime());
+		client.shutdown();
+
+		File csv = new File(directory, "round1-game1.csv");
+		java.util.List<String> rows = Files.readAllLines(csv.toPath());
+		assertEquals(2, rows.size());
+		assertTrue(rows.get(0).startsWith("move,tiles,regions,"));
+		String[] row = rows.get(1).split(",");
+		assertEquals("1", row[0]);
+		assertEquals("1", row[1]); //the starting tile
+		//the whole is the phases added up, and within the second
+		double sum = 0;
+		for (int i = 3; i < row.length - 1; i++) sum += Double.parseDouble(row[i]);
+		double total = Double.parseDouble(row[row.length - 1]);
+		assertEquals(total, sum, 0.5);
+		assertTrue(total < MoveWatchdog.MOVE_TIME * 1000);
+
+		synchronized (client.getLatency()) {
+			assertEquals(1, client.getLatency().getMoves());
+		}
+		csv.delete();
+		directory.delete();
+	}
 }
@@ -0,0 +1,137 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import network.LineReader;
+import network.LineWriter;
+import network.TigerZoneClient;
+import network.TigerZoneServer;
+
+public class TigerZoneServerTest {
+
+	@Test
+	//Test that two of our clients play a tournament out, every tile of every game without a forfeit
+	public void tournamentTest() throws Exception {
+		TigerZoneServer server = new TigerZoneServer("TIGERZONE", 2, 2, 5, 0);
+		int port = server.start(0);
+
+		Thread red = client(port, "Red"), blue = client(port, "Blue");
+		red.join(60000);
+		blue.join(60000);
+		server.stop();
+
+		TigerZoneServer.Stats stats = server.getStats();
+		assertEquals(2, stats.getMatches());
+		assertEquals(4, stats.getGames());
+		assertEquals(4 * 76, stats.getMoves());
+		assertEquals(0, stats.getForfeits(TigerZoneServer.TIMEOUT));
+		assertEquals(0, stats.getForfeits(TigerZoneServer.ILLEGAL_MESSAGE));
+	}
+
+	@Test
+	//Test that a client splitting its search across threads plays its games out, every move legal
+	public void searchThreadsTest() throws Exception {
+		TigerZoneServer server = new TigerZoneServer("TIGERZONE", 2, 1, 5, 0);
+		//the client still replies within the second, the slack is for a machine busy with other tests
+		server.setMoveTime(3000);
+		int port = server.start(0);
+
+		Thread red = client(port, "Red", 50, 2), blue = client(port, "Blue", 0, 1);
+		red.join(60000);
+		blue.join(60000);
+		server.stop();
+
+		TigerZoneServer.Stats stats = server.getStats();
+		assertEquals(1, stats.getMatches());
+		assertEquals(2 * 76, stats.getMoves());
+	}
+
+	@Test
+	//Test that a player can be named FORFEITED without forfeiting a legal move
+	public void nameTest() throws Exception {
+		TigerZoneServer server = new TigerZoneServer("TIGERZONE", 2, 1, 5, 0);
+		int port = server.start(0);
+
+		Thread red = client(port, "Red"), named = client(port, "FORFEITED");
+		red.join(60000);
+		named.join(60000);
+		server.stop();
+
+		TigerZoneServer.Stats stats = server.getStats();
+		assertEquals(1, stats.getMatches());
+		assertEquals(2 * 76, stats.getMoves());
+	}
+
+	@Test
+	//Test that a garbled move forfeits its game, and one that doesn't come forfeits the other
+	public void forfeitTest() throws Exception {
+		TigerZoneServer server = new TigerZoneServer("TIGERZONE", 2, 1, 5, 0);
+		server.setMoveTime(200);
+		int port = server.start(0);
+		Thread red = client(port, "Red");
+
+		ArrayList<String> lines = new ArrayList<String>();
+		try (Socket socket = new Socket("localhost", port)) {
+			BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+			PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+			boolean garbled = false;
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				lines.add(line);
+				if (line.equals("THIS IS SPARTA!")) out.print("JOIN TIGERZONE\r\n");
+				else if (line.equals("HELLO!")) out.print("I AM Blue Blue\r\n");
+				else if (line.startsWith("MAKE") && !garbled) {
+					out.print("GAME 7 MOVE 1 PLACE NOTHING\r\n");
+					garbled = true;
+				}
+				out.flush();
+				if (line.endsWith("GOODBYE")) break;
+			}
+		}
+		red.join(60000);
+		server.stop();
+
+		TigerZoneServer.Stats stats = server.getStats();
+		assertEquals(1, stats.getForfeits(TigerZoneServer.ILLEGAL_MESSAGE));
+		assertEquals(1, stats.getForfeits(TigerZoneServer.TIMEOUT));
+		int forfeited = 0;
+		for (String line : lines) {
+			if (line.contains("PLAYER Blue FORFEITED:")) forfeited++;
+		}
+		assertEquals(2, forfeited);
+		assertEquals("THANK YOU FOR PLAYING! GOODBYE", lines.get(lines.size() - 1));
+	}
+
+	//one of our clients playing the quick AI, on a thread until the server says goodbye
+	private static Thread client(final int port, final String name) {
+		return client(port, name, 0, 1);
+	}
+
+	//one of our clients searching for budget ms on that many threads, 0 ms plays the quick AI
+	private static Thread client(final int port, final String name, final long budget, final int threads) {
+		Thread thread = new Thread(() -> {
+			try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port))) {
+				TigerZoneClient client = new TigerZoneClient("TIGERZONE", name, name, new LineWriter(channel));
+				client.setSearchBudget(budget);
+				client.setSearchThreads(threads);
+				LineReader reader = new LineReader(channel, client::handle);
+				reader.start();
+				reader.join();
+				client.shutdown();
+			} catch (Exception e) {
+				fail(e.toString());
+			}
+		});
+		thread.start();
+		return thread;
+	}
+}
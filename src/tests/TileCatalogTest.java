@@ -0,0 +1,101 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import entities.BoardObject;
+import entities.Coordinate;
+import entities.Player;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TileEdges;
+
+public class TileCatalogTest {
+
+	@Test
+	//Test that every tile type and multiplicity was read from the tile file
+	public void catalogDeckTest() {
+		TileCatalog catalog = TileCatalog.getInstance();
+
+		assertEquals(28, catalog.getTypes().size());
+		assertEquals(77, catalog.getDeck().size());
+		assertEquals(4, catalog.getTemplate("JJJJX").getCount());
+		assertNull(catalog.getTemplate("ZZZZ-"));
+	}
+
+	@Test
+	//Test that the catalog is only built once
+	public void catalogSingletonTest() {
+		assertSame(TileCatalog.getInstance(), TileCatalog.getInstance());
+	}
+
+	@Test
+	//Test that a stamped tile matches its template
+	public void createTileTest() {
+		TigerTile tile = TileCatalog.getInstance().createTile("JJTJX", 0);
+
+		assertEquals("JJTJX", tile.getType());
+		assertEquals('X', tile.getCenter());
+		assertEquals(2, tile.getTerrains().length);
+		assertEquals('T', tile.getEdgeType(TileEdges.SOUTH));
+		assertEquals('J', tile.getEdgeType(TileEdges.NORTH));
+	}
+
+	@Test
+	//Test that stamping a rotated tile is the same as rotating an unrotated one
+	public void createRotatedTileTest() {
+		TigerTile rotated = new TigerTile("TJJT-", 1);
+		TigerTile manual = new TigerTile("TJJT-", 0);
+		manual.setOrientation(1);
+
+		assertEquals(1, rotated.getOrientation());
+		for (int i = 0; i < 8; i++) {
+			assertEquals(manual.getEdgeType(i), rotated.getEdgeType(i));
+		}
+	}
+
+	@Test
+	//Test that only the turns a tile looks the same in share a placement, and that they hash the same
+	public void canonicalTest() {
+		TileCatalog catalog = TileCatalog.getInstance();
+		int[][] expected = {{0, 0, 0, 0}, {0, 1, 0, 1}, {0, 1, 2, 3}};
+		String[] types = {"JJJJ-", "TJTJ-", "LJJJ-"};
+		for (int i = 0; i < types.length; i++) {
+			for (int orientation = 0; orientation < 4; orientation++) {
+				assertEquals(types[i] + " " + orientation, expected[i][orientation], catalog.getTemplate(types[i]).getCanonical(orientation));
+			}
+		}
+
+		//a turn that looks the same has the same edges
+		for (String type : catalog.getTypes()) {
+			for (int orientation = 0; orientation < 4; orientation++) {
+				TigerTile tile = catalog.createTile(type, orientation);
+				assertEquals(tile.getSignature(orientation), tile.getSignature(tile.getCanonical(orientation)));
+			}
+		}
+
+		assertEquals(hashWith("TJTJ-", 0), hashWith("TJTJ-", 2));
+		assertTrue(hashWith("TJTJ-", 0) != hashWith("TJTJ-", 1));
+	}
+
+	//the hash of a board with a tile placed next to the start tile
+	private static long hashWith(String type, int orientation) {
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("JJJJ-", 0, board.getContext()), 0, 0);
+		board.place(new TigerTile(type, orientation, board.getContext()), Coordinate.pack(0, 1));
+		return board.getHash();
+	}
+
+	@Test
+	//Test that every stamped tile is a separate object with its own terrains
+	public void stampedTilesAreIndependentTest() {
+		TigerTile t1 = new TigerTile("TLTJ-", 0);
+		TigerTile t2 = new TigerTile("TLTJ-", 0);
+
+		assertNotSame(t1.getTerrains()[0], t2.getTerrains()[0]);
+		assertFalse(t1.getTileID() == t2.getTileID());
+	}
+}
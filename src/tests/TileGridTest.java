@@ -0,0 +1,73 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import entities.Coordinate;
+import entities.TigerTile;
+import entities.TileGrid;
+
+public class TileGridTest {
+
+	@Test
+	//Test that coordinates survive being packed, including negatives
+	public void coordinatePackTest() {
+		long key = Coordinate.pack(-7, 12);
+
+		assertEquals(-7, Coordinate.getX(key));
+		assertEquals(12, Coordinate.getY(key));
+		assertFalse(Coordinate.pack(1, 2) == Coordinate.pack(2, 1));
+	}
+
+	@Test
+	//Test that the grid holds tiles far outside of the old 11x11 board
+	public void putAndGetTest() {
+		TileGrid grid = new TileGrid();
+		TigerTile tile = new TigerTile("TLTJ-", 0);
+
+		grid.put(100, -250, tile);
+
+		assertSame(tile, grid.get(100, -250));
+		assertNull(grid.get(-250, 100));
+		assertEquals(1, grid.size());
+		assertEquals(100, grid.getMinX());
+		assertEquals(-250, grid.getMaxY());
+	}
+
+	@Test
+	//Test that the grid grows and still finds every tile
+	public void growTest() {
+		TileGrid grid = new TileGrid();
+		TigerTile[] placed = new TigerTile[77];
+
+		for (int i = 0; i < placed.length; i++) {
+			placed[i] = new TigerTile("JJJJ-", 0);
+			grid.put(i - 38, 38 - i, placed[i]);
+		}
+
+		assertEquals(77, grid.size());
+		for (int i = 0; i < placed.length; i++) {
+			assertSame(placed[i], grid.get(i - 38, 38 - i));
+		}
+	}
+
+	@Test
+	//Test that removing a tile doesn't lose the others
+	public void removeTest() {
+		TileGrid grid = new TileGrid();
+		for (int x = -3; x <= 3; x++) {
+			for (int y = -3; y <= 3; y++) grid.put(x, y, new TigerTile("JJJJ-", 0));
+		}
+
+		assertNotNull(grid.remove(0, 0));
+		assertNull(grid.remove(0, 0));
+		assertNull(grid.get(0, 0));
+		assertEquals(48, grid.size());
+		for (int x = -3; x <= 3; x++) {
+			for (int y = -3; y <= 3; y++) {
+				if (x != 0 || y != 0) assertNotNull(grid.get(x, y));
+			}
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import benchmarks.TranscriptReplay;
+
+public class TranscriptReplayTest {
+
+	@Test
+	//Test that the client answers every request of a real tournament as it did, and keeps every board in step
+	public void tournamentTest() throws Exception {
+		TranscriptReplay.Transcript transcript = TranscriptReplay.read("Log/12-2.txt");
+		TranscriptReplay.Report report = TranscriptReplay.replay(transcript, false);
+		assertEquals(report.toString(), 2238, report.getMoves());
+		assertEquals(report.toString(), 0, report.getDifferentMoves());
+		assertEquals(report.toString(), 139, report.getBoards());
+		assertEquals(report.toString(), 0, report.getDifferentBoards());
+	}
+
+	@Test
+	//Test that a request the log has no reply for is told apart, the client crashed on it
+	public void crashTest() throws Exception {
+		TranscriptReplay.Report report = TranscriptReplay.replay(TranscriptReplay.read("Log/11-30.txt"), true);
+		assertEquals(29, report.getMoves());
+		assertEquals(1, report.getDifferentMoves());
+		assertEquals(0, report.getDifferentBoards());
+		assertTrue(report.toString(), report.toString().contains("not in the log"));
+	}
+}
@@ -0,0 +1,102 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import entities.Coordinate;
+import entities.TilePair;
+import entities.TranspositionTable;
+
+public class TranspositionTableTest {
+
+	@Test
+	//Test that what is stored comes back, including a negative score, a pass and a move off the positive quarter
+	public void storeProbeTest() {
+		TranspositionTable table = new TranspositionTable(1);
+		long move = TilePair.encode(Coordinate.pack(-3, 7), 270);
+
+		table.store(42, -25, 3, TranspositionTable.LOWER, move, 10);
+		long entry = table.probe(42);
+		assertTrue(entry != 0);
+		assertEquals(-25, TranspositionTable.getScore(entry));
+		assertEquals(3, TranspositionTable.getDepth(entry));
+		assertEquals(TranspositionTable.LOWER, TranspositionTable.getBound(entry));
+		assertEquals(move, TranspositionTable.getMove(entry));
+		assertEquals(10, TranspositionTable.getAnimal(entry));
+
+		table.store(43, 0, 0, TranspositionTable.EXACT, Long.MIN_VALUE, 0);
+		entry = table.probe(43);
+		assertEquals(Long.MIN_VALUE, TranspositionTable.getMove(entry));
+		assertEquals(0, TranspositionTable.getDepth(entry));
+
+		assertEquals(0, table.probe(44));
+		assertEquals(3, table.getProbes());
+		assertEquals(2, table.getHits());
+	}
+
+	@Test
+	//Test that a full bucket keeps the deepest searches and a position is only overwritten by a deeper search
+	public void replacementTest() {
+		TranspositionTable table = new TranspositionTable(1);
+		long stride = table.getEntries(); //every hash below goes to the same spot
+
+		for (int i = 0; i < 4; i++) table.store(5 + i * stride, i, 4 + i, TranspositionTable.EXACT, 0, 0);
+		table.store(5 + 4 * stride, 99, 6, TranspositionTable.EXACT, 0, 0);
+		assertEquals(0, table.probe(5)); //depth 4 was the shallowest
+		assertEquals(99, TranspositionTable.getScore(table.probe(5 + 4 * stride)));
+		assertEquals(1, table.getCollisions());
+		assertEquals(1, table.getReplaced());
+
+		//too shallow to throw anything out
+		table.store(5 + 5 * stride, 1, 2, TranspositionTable.EXACT, 0, 0);
+		assertEquals(0, table.probe(5 + 5 * stride));
+
+		table.store(5 + stride, 7, 1, TranspositionTable.EXACT, 0, 0);
+		assertEquals(1, TranspositionTable.getScore(table.probe(5 + stride)));
+		table.store(5 + stride, 7, 9, TranspositionTable.UPPER, 0, 0);
+		assertEquals(7, TranspositionTable.getScore(table.probe(5 + stride)));
+
+		table.clear();
+		assertEquals(0, table.probe(5 + stride));
+		assertEquals(1, table.getProbes());
+	}
+
+	@Test
+	//Test that threads writing the same small table at once never read back an entry that isn't theirs
+	public void concurrentTest() throws InterruptedException {
+		final TranspositionTable table = new TranspositionTable(0);
+		final AtomicInteger wrong = new AtomicInteger();
+		Thread[] threads = new Thread[4];
+
+		for (int t = 0; t < threads.length; t++) {
+			final int seed = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					Random random = new Random(seed);
+					for (int i = 0; i < 200000; i++) {
+						//the score and depth come from the hash, so a torn entry shows
+						long hash = random.nextInt(64) * 0x9e3779b97f4a7c15L;
+						int score = (int) (hash >>> 50);
+						table.store(hash, score, (int) (hash & 7), TranspositionTable.EXACT, 0, 0);
+						long entry = table.probe(hash);
+						if (entry != 0 && (TranspositionTable.getScore(entry) != score
+								|| TranspositionTable.getDepth(entry) != (int) (hash & 7))) {
+							wrong.incrementAndGet();
+						}
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) thread.join();
+
+		assertEquals(0, wrong.get());
+		assertEquals(800000, table.getProbes());
+		assertTrue(table.getHits() > 0);
+		assertTrue(table.getHitRate() <= 1);
+	}
+}
@@ -0,0 +1,139 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import entities.BoardObject;
+import entities.Frontier;
+import entities.Player;
+import entities.Region;
+import entities.Terrain;
+import entities.TigerTile;
+import entities.TileCatalog;
+import entities.TilePair;
+
+public class UndoJournalTest {
+
+	@Test
+	//Test that trying every placement (with tigers and crocodiles) and undoing it leaves the board exactly as it was
+	public void undoRestoresBoardTest() {
+		BoardObject board = newBoard();
+		Random random = new Random(2016);
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+
+		for (int move = 0; move < 40; move++) {
+			String type = deck.get(random.nextInt(deck.size()));
+			if (!board.canPlace(new TigerTile(type, 0))) continue;
+
+			String before = fingerprint(board);
+			ArrayList<TilePair> pairs = board.getPossibleSpots();
+			int candidates = pairs.size();
+
+			for (int i = 0; i < candidates; i++) {
+				board.checkpoint();
+				play(board, type, pairs.get(i), random);
+				board.undo();
+
+				assertEquals(before, fingerprint(board));
+				assertEquals(candidates, pairs.size());
+			}
+
+			//then actually play one of them
+			play(board, type, pairs.get(random.nextInt(candidates)), random);
+		}
+		assertEquals(0, board.getJournal().size());
+	}
+
+	@Test
+	//Test that checkpoints nest, and that committing keeps the moves until the outer checkpoint is undone
+	public void nestedCheckpointTest() {
+		BoardObject board = newBoard();
+		Random random = new Random(5);
+		ArrayList<String> deck = new ArrayList<String>(TileCatalog.getInstance().getDeck());
+		String start = fingerprint(board);
+
+		board.checkpoint();
+		String[] states = new String[6];
+		for (int depth = 0; depth < states.length; depth++) {
+			states[depth] = fingerprint(board);
+			board.checkpoint();
+
+			String type = deck.get(random.nextInt(deck.size()));
+			while (!board.canPlace(new TigerTile(type, 0))) type = deck.get(random.nextInt(deck.size()));
+			ArrayList<TilePair> pairs = board.getPossibleSpots();
+			play(board, type, pairs.get(random.nextInt(pairs.size())), random);
+		}
+
+		//take back the last three moves one at a time
+		for (int depth = states.length - 1; depth >= 3; depth--) {
+			board.undo();
+			assertEquals(states[depth], fingerprint(board));
+		}
+
+		//keep the rest inside the outer checkpoint, then undo all of them at once
+		for (int depth = 0; depth < 3; depth++) board.commit();
+		assertFalse(start.equals(fingerprint(board)));
+		board.undo();
+		assertEquals(start, fingerprint(board));
+		assertEquals(0, board.getJournal().getDepth());
+	}
+
+	private BoardObject newBoard() {
+		BoardObject board = new BoardObject();
+		Player[] players = {new Player("Red", true), new Player("Blue", false)};
+		board.setPlayers(players);
+		board.start(new TigerTile("TLTJ-", 0), 0, 0);
+		return board;
+	}
+
+	//place a tile, maybe put a tiger or a crocodile on it, and confirm
+	private void play(BoardObject board, String type, TilePair pair, Random random) {
+		board.place(new TigerTile(type, pair.getOrientation() / 90), pair.getLocation());
+		int choice = random.nextInt(4);
+		if (choice == 1) board.placeTiger(1 + random.nextInt(9));
+		else if (choice == 2) board.placeCrocodile();
+		board.confirm();
+	}
+
+	//everything a move can change, as a string
+	private String fingerprint(BoardObject board) {
+		StringBuilder result = new StringBuilder();
+
+		for (Player player : board.getPlayers()) {
+			result.append(player.getID()).append(' ').append(player.getScore()).append(' ');
+			result.append(ids(player.getTigers())).append(ids(player.getCrocs())).append('\n');
+		}
+		result.append(board.getActivePlayer().getID()).append(' ').append(board.getBoard().size()).append('\n');
+
+		Frontier spots = board.getFrontier();
+		for (int i = 0; i < spots.size(); i++) {
+			result.append(spots.get(i)).append(':').append(spots.getMask(i)).append(':').append(spots.getValue(i)).append(' ');
+		}
+		result.append('\n');
+
+		//sorted, a hash map can iterate in a different order after a key is put back
+		for (Map.Entry<Integer, Region> entry : new TreeMap<Integer, Region>(board.getAll()).entrySet()) {
+			Region region = entry.getValue();
+			result.append(entry.getKey()).append(board.getIncomplete().containsKey(entry.getKey()) ? "i " : "c ");
+			result.append(region.isCompleted()).append(region.isScored()).append(region.getPotential()).append(' ');
+			result.append(region.getRecentMin()).append(ids(region.getTigers())).append(ids(region.getCrocodiles()));
+			for (Terrain terrain : region.getTerrains()) result.append(terrain.getRegionID()).append(',');
+			result.append('\n');
+		}
+		result.append(board.getComplete().size()).append(' ').append(board.getHash());
+		return result.toString();
+	}
+
+	//tigers and crocodiles by identity, so it's the same objects that come back
+	private String ids(ArrayList<?> meeples) {
+		StringBuilder result = new StringBuilder("[");
+		for (Object meeple : meeples) result.append(System.identityHashCode(meeple)).append(' ');
+		return result.append(']').toString();
+	}
+}